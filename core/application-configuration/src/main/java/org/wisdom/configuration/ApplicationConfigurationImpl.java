@@ -29,6 +29,7 @@ import org.ow2.chameleon.core.services.Watcher;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.wisdom.api.configuration.Configuration;
+import org.wisdom.api.configuration.ConfigurationListener;
 import org.wisdom.api.content.ParameterFactories;
 
 import java.io.File;
@@ -75,6 +76,11 @@ public class ApplicationConfigurationImpl extends ConfigurationImpl implements o
      */
     private Config appConf;
 
+    /**
+     * The listeners notified when the configuration is reloaded.
+     */
+    private final ConfigurationListeners listeners = new ConfigurationListeners();
+
     /**
      * Creates the application configuration object.
      *
@@ -317,6 +323,28 @@ public class ApplicationConfigurationImpl extends ConfigurationImpl implements o
         }
     }
 
+    /**
+     * Registers a listener notified when the configuration is reloaded and the values of the given keys, or of
+     * their sub-keys, have changed.
+     *
+     * @param listener the listener
+     * @param prefixes the watched keys, the listener is notified for the changes of all keys if none are given
+     */
+    @Override
+    public void addListener(ConfigurationListener listener, String... prefixes) {
+        listeners.add(listener, prefixes);
+    }
+
+    /**
+     * Unregisters a listener. Does nothing if the listener is not registered.
+     *
+     * @param listener the listener
+     */
+    @Override
+    public void removeListener(ConfigurationListener listener) {
+        listeners.remove(listener);
+    }
+
     private class ConfigurationDeployer extends AbstractDeployer {
 
 
@@ -338,11 +366,13 @@ public class ApplicationConfigurationImpl extends ConfigurationImpl implements o
          */
         @Override
         public void onFileChange(File file) {
+            ConfigurationSnapshot before = getSnapshot();
             unregisterConfigurationsExposedAsServices();
             controller = false;
             reloadConfiguration();
             controller = true;
             registerFirstLevelConfigurationAsServices();
+            listeners.fire(converters, before, getSnapshot());
         }
     }
 
@@ -19,18 +19,16 @@
  */
 package org.wisdom.configuration;
 
-import com.google.common.collect.ImmutableList;
 import com.typesafe.config.Config;
-import com.typesafe.config.ConfigException;
 import com.typesafe.config.ConfigResolveOptions;
 import org.wisdom.api.configuration.Configuration;
 import org.wisdom.api.content.ParameterFactories;
+import org.wisdom.configuration.ConfigurationSnapshot.Type;
 
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.Properties;
-import java.util.concurrent.Callable;
 import java.util.concurrent.TimeUnit;
 
 /**
@@ -48,7 +46,10 @@ public class ConfigurationImpl implements Configuration {
      */
     protected ParameterFactories converters;
 
-    private Config configuration;
+    /**
+     * The snapshot of the underlying configuration, replaced when the configuration is reloaded.
+     */
+    private volatile ConfigurationSnapshot snapshot;
 
     /**
      * Creates an instance of {@link org.wisdom.configuration.ConfigurationImpl}.
@@ -57,7 +58,18 @@ public class ConfigurationImpl implements Configuration {
      */
     public ConfigurationImpl(ParameterFactories converters, Config configuration) {
         this(converters);
-        this.configuration = configuration;
+        setConfiguration(configuration);
+    }
+
+    /**
+     * Creates an instance of {@link org.wisdom.configuration.ConfigurationImpl} reading an existing snapshot.
+     *
+     * @param converters the parameter converters
+     * @param snapshot   the snapshot
+     */
+    ConfigurationImpl(ParameterFactories converters, ConfigurationSnapshot snapshot) {
+        this(converters);
+        this.snapshot = snapshot;
     }
 
     protected ConfigurationImpl(ParameterFactories converters) {
@@ -66,11 +78,19 @@ public class ConfigurationImpl implements Configuration {
     }
 
     protected void setConfiguration(Config configuration) {
-        this.configuration = configuration;
+        this.snapshot = ConfigurationSnapshot.of(configuration);
+    }
+
+    /**
+     * @return the current snapshot, {@literal null} if the configuration has not been set yet.
+     */
+    ConfigurationSnapshot getSnapshot() {
+        return snapshot;
     }
 
     protected Config getConfiguration() {
-        return configuration;
+        ConfigurationSnapshot current = snapshot;
+        return current != null ? current.config() : null;
     }
 
 
@@ -82,12 +102,7 @@ public class ConfigurationImpl implements Configuration {
      */
     @Override
     public String get(final String key) {
-        return retrieve(new Callable<String>() {
-            @Override
-            public String call() throws Exception {
-                return configuration.getString(key);
-            }
-        }, null);
+        return (String) read(key, Type.STRING);
     }
 
     /**
@@ -96,18 +111,17 @@ public class ConfigurationImpl implements Configuration {
      * @return {@code true} if the configuration has a non-null value, {@code false} otherwise
      */
     public boolean has(String key) {
-        return configuration.hasPath(key);
+        return snapshot.config().hasPath(key);
     }
 
-    private <T> T retrieve(Callable<T> callable, T defaultValue) {
-        try {
-            T v = callable.call();
-            return v != null ? v : defaultValue;
-        } catch (ConfigException.Missing e) {
-            return defaultValue;
-        } catch (Exception e) {
-            throw new RuntimeException(e);
-        }
+    private Object read(String key, Type type) {
+        return snapshot.get(key, type);
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> T read(String key, Type type, T defaultValue) {
+        Object value = snapshot.get(key, type);
+        return value != null ? (T) value : defaultValue;
     }
 
     /**
@@ -121,12 +135,7 @@ public class ConfigurationImpl implements Configuration {
      */
     @Override
     public String getWithDefault(final String key, String defaultValue) {
-        return retrieve(new Callable<String>() {
-            @Override
-            public String call() throws Exception {
-                return configuration.getString(key);
-            }
-        }, defaultValue);
+        return read(key, Type.STRING, defaultValue);
     }
 
     /**
@@ -137,12 +146,7 @@ public class ConfigurationImpl implements Configuration {
      */
     @Override
     public Integer getInteger(final String key) {
-        return retrieve(new Callable<Integer>() {
-            @Override
-            public Integer call() throws Exception {
-                return configuration.getInt(key);
-            }
-        }, null);
+        return (Integer) read(key, Type.INTEGER);
     }
 
     /**
@@ -156,13 +160,7 @@ public class ConfigurationImpl implements Configuration {
      */
     @Override
     public Integer getIntegerWithDefault(final String key, Integer defaultValue) {
-
-        return retrieve(new Callable<Integer>() {
-            @Override
-            public Integer call() throws Exception {
-                return configuration.getInt(key);
-            }
-        }, defaultValue);
+        return read(key, Type.INTEGER, defaultValue);
     }
 
     /**
@@ -173,12 +171,7 @@ public class ConfigurationImpl implements Configuration {
      */
     @Override
     public Double getDouble(final String key) {
-        return retrieve(new Callable<Double>() {
-            @Override
-            public Double call() throws Exception {
-                return configuration.getDouble(key);
-            }
-        }, null);
+        return (Double) read(key, Type.DOUBLE);
     }
 
     /**
@@ -192,12 +185,7 @@ public class ConfigurationImpl implements Configuration {
      */
     @Override
     public Double getDoubleWithDefault(final String key, Double defaultValue) {
-        return retrieve(new Callable<Double>() {
-            @Override
-            public Double call() throws Exception {
-                return configuration.getDouble(key);
-            }
-        }, defaultValue);
+        return read(key, Type.DOUBLE, defaultValue);
     }
 
     /**
@@ -207,12 +195,7 @@ public class ConfigurationImpl implements Configuration {
     @Override
     public Boolean getBoolean(final String key) {
 
-        return retrieve(new Callable<Boolean>() {
-            @Override
-            public Boolean call() throws Exception {
-                return configuration.getBoolean(key);
-            }
-        }, null);
+        return (Boolean) read(key, Type.BOOLEAN);
     }
 
     /**
@@ -226,34 +209,78 @@ public class ConfigurationImpl implements Configuration {
      */
     @Override
     public Boolean getBooleanWithDefault(final String key, Boolean defaultValue) {
-
-        return retrieve(new Callable<Boolean>() {
-            @Override
-            public Boolean call() throws Exception {
-                return configuration.getBoolean(key);
-            }
-        }, defaultValue);
+        return read(key, Type.BOOLEAN, defaultValue);
     }
 
     @Override
     public Long getLong(final String key) {
-        return retrieve(new Callable<Long>() {
-            @Override
-            public Long call() throws Exception {
-                return configuration.getLong(key);
-            }
-        }, null);
+        return (Long) read(key, Type.LONG);
 
     }
 
     @Override
     public Long getLongWithDefault(final String key, Long defaultValue) {
-        return retrieve(new Callable<Long>() {
-            @Override
-            public Long call() throws Exception {
-                return configuration.getLong(key);
-            }
-        }, defaultValue);
+        return read(key, Type.LONG, defaultValue);
+    }
+
+    /**
+     * Get an int property or a default value when property cannot be found in any configuration file. The value
+     * is read from the configuration snapshot, and is not boxed.
+     *
+     * @param key          the key used in the configuration file.
+     * @param defaultValue Default value returned, when value cannot be found in
+     *                     configuration.
+     * @return the value of the key or the default value.
+     */
+    @Override
+    public int getInt(String key, int defaultValue) {
+        Integer value = (Integer) read(key, Type.INTEGER);
+        return value != null ? value : defaultValue;
+    }
+
+    /**
+     * Get a long property or a default value when property cannot be found in any configuration file. The value
+     * is read from the configuration snapshot, and is not boxed.
+     *
+     * @param key          the key used in the configuration file.
+     * @param defaultValue Default value returned, when value cannot be found in
+     *                     configuration.
+     * @return the value of the key or the default value.
+     */
+    @Override
+    public long getLong(String key, long defaultValue) {
+        Long value = (Long) read(key, Type.LONG);
+        return value != null ? value : defaultValue;
+    }
+
+    /**
+     * Get a double property or a default value when property cannot be found in any configuration file. The value
+     * is read from the configuration snapshot, and is not boxed.
+     *
+     * @param key          the key used in the configuration file.
+     * @param defaultValue Default value returned, when value cannot be found in
+     *                     configuration.
+     * @return the value of the key or the default value.
+     */
+    @Override
+    public double getDouble(String key, double defaultValue) {
+        Double value = (Double) read(key, Type.DOUBLE);
+        return value != null ? value : defaultValue;
+    }
+
+    /**
+     * Get a boolean property or a default value when property cannot be found in any configuration file. The value
+     * is read from the configuration snapshot, and is not boxed.
+     *
+     * @param key          the key used in the configuration file.
+     * @param defaultValue Default value returned, when value cannot be found in
+     *                     configuration.
+     * @return the value of the key or the default value.
+     */
+    @Override
+    public boolean getBoolean(String key, boolean defaultValue) {
+        Boolean value = (Boolean) read(key, Type.BOOLEAN);
+        return value != null ? value : defaultValue;
     }
 
     @Override
@@ -338,12 +365,8 @@ public class ConfigurationImpl implements Configuration {
      * {@inheritDoc}
      */
     public Long getDuration(final String key, final TimeUnit unit) {
-        return retrieve(new Callable<Long>() {
-            @Override
-            public Long call() throws Exception {
-                return configuration.getDuration(key, unit);
-            }
-        }, null);
+        Long nanos = (Long) read(key, Type.DURATION);
+        return nanos != null ? unit.convert(nanos, TimeUnit.NANOSECONDS) : null;
     }
 
     /**
@@ -351,36 +374,22 @@ public class ConfigurationImpl implements Configuration {
      */
     @Override
     public Long getDuration(final String key, final TimeUnit unit, long defaultValue) {
-        return retrieve(new Callable<Long>() {
-            @Override
-            public Long call() throws Exception {
-                return configuration.getDuration(key, unit);
-            }
-        }, defaultValue);
+        Long nanos = (Long) read(key, Type.DURATION);
+        return nanos != null ? unit.convert(nanos, TimeUnit.NANOSECONDS) : defaultValue;
     }
 
     /**
      * {@inheritDoc}
      */
     public Long getBytes(final String key) {
-        return retrieve(new Callable<Long>() {
-            @Override
-            public Long call() throws Exception {
-                return configuration.getBytes(key);
-            }
-        }, null);
+        return (Long) read(key, Type.BYTES);
     }
 
     /**
      * {@inheritDoc}
      */
     public Long getBytes(final String key, long defaultValue) {
-        return retrieve(new Callable<Long>() {
-            @Override
-            public Long call() throws Exception {
-                return configuration.getBytes(key);
-            }
-        }, defaultValue);
+        return read(key, Type.BYTES, defaultValue);
     }
 
     /**
@@ -404,22 +413,7 @@ public class ConfigurationImpl implements Configuration {
      */
     @Override
     public List<String> getList(final String key) {
-        return retrieve(new Callable<List<String>>() {
-            @Override
-            public List<String> call() throws Exception {
-                try {
-                    return configuration.getStringList(key);
-                } catch (ConfigException.WrongType e) {
-                    // Not a list.
-                    String s = get(key);
-                    if (s != null) {
-                        return ImmutableList.of(s);
-                    } else {
-                        throw new IllegalArgumentException("Cannot create a list for the key '" + key + "'", e);
-                    }
-                }
-            }
-        }, Collections.<String>emptyList());
+        return read(key, Type.LIST, Collections.<String>emptyList());
     }
 
     /**
@@ -439,7 +433,7 @@ public class ConfigurationImpl implements Configuration {
      */
     @Override
     public Map<String, Object> asMap() {
-        return configuration
+        return snapshot.config()
                 .resolve(ConfigResolveOptions.defaults().setUseSystemEnvironment(true).setAllowUnresolved(true))
                 .root()
                 .unwrapped();
@@ -454,13 +448,11 @@ public class ConfigurationImpl implements Configuration {
      */
     @Override
     public Configuration getConfiguration(String prefix) {
-        try {
-            Config value = configuration.getConfig(prefix);
-            return new ConfigurationImpl(converters, value);
-        } catch (ConfigException.Missing e) {
-            // Ignore the exception.
+        Config configuration = snapshot.config();
+        if (!configuration.hasPath(prefix)) {
             return null;
         }
+        return new ConfigurationImpl(converters, configuration.getConfig(prefix));
     }
 
     @Override
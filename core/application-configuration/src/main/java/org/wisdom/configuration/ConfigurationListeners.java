@@ -0,0 +1,123 @@
+/*
+ * #%L
+ * Wisdom-Framework
+ * %%
+ * Copyright (C) 2013 - 2014 Wisdom Framework
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.wisdom.configuration;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.wisdom.api.configuration.ConfigurationChange;
+import org.wisdom.api.configuration.ConfigurationListener;
+import org.wisdom.api.content.ParameterFactories;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Manages the {@link ConfigurationListener} registered on the application configuration, and notifies them when
+ * the configuration is reloaded.
+ */
+final class ConfigurationListeners {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ConfigurationListeners.class);
+
+    private final List<Subscription> subscriptions = new CopyOnWriteArrayList<>();
+
+    /**
+     * Registers a listener.
+     *
+     * @param listener the listener
+     * @param prefixes the watched keys, all keys are watched if empty
+     */
+    void add(ConfigurationListener listener, String... prefixes) {
+        if (listener == null) {
+            throw new IllegalArgumentException("The listener must not be null");
+        }
+        subscriptions.add(new Subscription(listener, prefixes == null ? new String[0] : prefixes.clone()));
+    }
+
+    /**
+     * Unregisters a listener, all its subscriptions are removed.
+     *
+     * @param listener the listener
+     */
+    void remove(ConfigurationListener listener) {
+        subscriptions.removeIf(subscription -> subscription.listener == listener);
+    }
+
+    /**
+     * Notifies the listeners watching the keys that differ between the two snapshots. Exceptions thrown by the
+     * listeners are logged, and do not prevent the notification of the other listeners.
+     *
+     * @param converters the parameter converters used by the configuration objects given to the listeners
+     * @param before     the snapshot before the reload
+     * @param after      the snapshot after the reload
+     */
+    void fire(ParameterFactories converters, ConfigurationSnapshot before, ConfigurationSnapshot after) {
+        if (subscriptions.isEmpty()) {
+            return;
+        }
+        Set<String> changed = ConfigurationSnapshot.diff(before, after);
+        if (changed.isEmpty()) {
+            return;
+        }
+        ConfigurationImpl oldConfiguration = new ConfigurationImpl(converters, before);
+        ConfigurationImpl newConfiguration = new ConfigurationImpl(converters, after);
+        for (Subscription subscription : subscriptions) {
+            Set<String> keys = subscription.filter(changed);
+            if (keys.isEmpty()) {
+                continue;
+            }
+            try {
+                subscription.listener.configurationChanged(
+                        new ConfigurationChange(oldConfiguration, newConfiguration, keys));
+            } catch (RuntimeException e) {
+                LOGGER.error("A configuration listener has thrown an exception while being notified of the " +
+                        "changes of {}", keys, e);
+            }
+        }
+    }
+
+    private static final class Subscription {
+        private final ConfigurationListener listener;
+        private final String[] prefixes;
+
+        private Subscription(ConfigurationListener listener, String[] prefixes) {
+            this.listener = listener;
+            this.prefixes = prefixes;
+        }
+
+        private Set<String> filter(Set<String> keys) {
+            if (prefixes.length == 0) {
+                return keys;
+            }
+            Set<String> matching = new HashSet<>();
+            for (String key : keys) {
+                for (String prefix : prefixes) {
+                    if (key.equals(prefix) || key.startsWith(prefix + ".")) {
+                        matching.add(key);
+                        break;
+                    }
+                }
+            }
+            return matching;
+        }
+    }
+}
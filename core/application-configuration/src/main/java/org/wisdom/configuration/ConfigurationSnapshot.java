@@ -0,0 +1,232 @@
+/*
+ * #%L
+ * Wisdom-Framework
+ * %%
+ * Copyright (C) 2013 - 2014 Wisdom Framework
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.wisdom.configuration;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.typesafe.config.Config;
+import com.typesafe.config.ConfigException;
+import com.typesafe.config.ConfigObject;
+import com.typesafe.config.ConfigUtil;
+import com.typesafe.config.ConfigValue;
+import com.typesafe.config.ConfigValueType;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * An immutable and flattened view of a {@link Config} object.
+ * <p>
+ * All the paths of the configuration are collected when the snapshot is built. The typed values are converted (using
+ * the {@link Config} conversion rules) the first time they are read, and then kept, so reading a value does not
+ * create any object, and looking up a missing key does not throw any exception.
+ * <p>
+ * Snapshots are rebuilt when the configuration is reloaded, never modified.
+ */
+final class ConfigurationSnapshot {
+
+    /**
+     * The types a value can be read as. The ordinal is used as index in the value slots.
+     */
+    enum Type {
+        STRING, INTEGER, LONG, DOUBLE, BOOLEAN, BYTES, DURATION, LIST
+    }
+
+    private static final int SLOTS = Type.values().length;
+
+    /**
+     * Marks values that cannot be read because they are missing (for instance unresolved optional substitutions).
+     */
+    private static final Object MISSING = new Object();
+
+    private final Config config;
+
+    /**
+     * The value slots, per path. A slot contains either the converted value, or the {@link RuntimeException}
+     * thrown by the conversion, or {@code null} if the value has not been read yet.
+     */
+    private final Map<String, Object[]> values;
+
+    private ConfigurationSnapshot(Config config, Map<String, Object[]> values) {
+        this.config = config;
+        this.values = values;
+    }
+
+    /**
+     * Builds the snapshot of the given configuration.
+     *
+     * @param config the configuration, may be unresolved.
+     * @return the snapshot
+     */
+    static ConfigurationSnapshot of(Config config) {
+        Map<String, Object[]> values = new HashMap<>();
+        collect(config.root(), null, values);
+        return new ConfigurationSnapshot(config, ImmutableMap.copyOf(values));
+    }
+
+    private static void collect(ConfigObject object, String prefix, Map<String, Object[]> values) {
+        for (Map.Entry<String, ConfigValue> entry : object.entrySet()) {
+            String path = ConfigUtil.joinPath(entry.getKey());
+            if (prefix != null) {
+                path = prefix + "." + path;
+            }
+            ConfigValue value = entry.getValue();
+            if (isNull(value)) {
+                // Null values are reported as missing.
+                continue;
+            }
+            values.put(path, new Object[SLOTS]);
+            if (value instanceof ConfigObject) {
+                collect((ConfigObject) value, path, values);
+            }
+        }
+    }
+
+    private static boolean isNull(ConfigValue value) {
+        try {
+            return value.valueType() == ConfigValueType.NULL;
+        } catch (ConfigException.NotResolved e) {
+            // Substitution, the error is reported when the value is read.
+            return false;
+        }
+    }
+
+    /**
+     * @return the underlying configuration.
+     */
+    Config config() {
+        return config;
+    }
+
+    /**
+     * Computes the set of paths whose value differs between two snapshots. Only the paths of values (and not of
+     * objects) are returned.
+     *
+     * @param before the first snapshot, may be {@literal null}
+     * @param after  the second snapshot, may be {@literal null}
+     * @return the set of paths added, removed or modified
+     */
+    static Set<String> diff(ConfigurationSnapshot before, ConfigurationSnapshot after) {
+        Map<String, Object> old = before == null ? Collections.<String, Object>emptyMap() : before.leaves();
+        Map<String, Object> current = after == null ? Collections.<String, Object>emptyMap() : after.leaves();
+        Set<String> changed = new HashSet<>();
+        for (Map.Entry<String, Object> entry : current.entrySet()) {
+            if (!Objects.equals(entry.getValue(), old.get(entry.getKey()))) {
+                changed.add(entry.getKey());
+            }
+        }
+        for (String key : old.keySet()) {
+            if (!current.containsKey(key)) {
+                changed.add(key);
+            }
+        }
+        return changed;
+    }
+
+    private Map<String, Object> leaves() {
+        Map<String, Object> leaves = new HashMap<>();
+        for (Map.Entry<String, ConfigValue> entry : config.entrySet()) {
+            leaves.put(entry.getKey(), entry.getValue().unwrapped());
+        }
+        return leaves;
+    }
+
+    /**
+     * Reads a value.
+     *
+     * @param key  the key / path
+     * @param type the type of value
+     * @return the value, {@literal null} if the configuration has no value at the given path
+     * @throws RuntimeException if the value cannot be converted to the requested type
+     */
+    Object get(String key, Type type) {
+        Object[] slots = values.get(key);
+        if (slots == null) {
+            if (key.indexOf('"') == -1) {
+                return null;
+            }
+            // Quoted path, not written as the canonical form used in the snapshot.
+            return config.hasPath(key) ? unwrap(convert(key, type)) : null;
+        }
+        Object value = slots[type.ordinal()];
+        if (value == null) {
+            // Concurrent conversions of the same value are harmless, they compute equal values.
+            value = convert(key, type);
+            slots[type.ordinal()] = value;
+        }
+        return unwrap(value);
+    }
+
+    private static Object unwrap(Object value) {
+        if (value == MISSING) {
+            return null;
+        }
+        if (value instanceof RuntimeException) {
+            throw (RuntimeException) value;
+        }
+        return value;
+    }
+
+    private Object convert(String key, Type type) {
+        try {
+            switch (type) {
+                case STRING:
+                    return config.getString(key);
+                case INTEGER:
+                    return config.getInt(key);
+                case LONG:
+                    return config.getLong(key);
+                case DOUBLE:
+                    return config.getDouble(key);
+                case BOOLEAN:
+                    return config.getBoolean(key);
+                case BYTES:
+                    return config.getBytes(key);
+                case DURATION:
+                    return config.getDuration(key, TimeUnit.NANOSECONDS);
+                default:
+                    return toList(key);
+            }
+        } catch (ConfigException.Missing e) {
+            return MISSING;
+        } catch (RuntimeException e) {
+            return new RuntimeException(e);
+        }
+    }
+
+    private List<String> toList(String key) {
+        try {
+            return ImmutableList.copyOf(config.getStringList(key));
+        } catch (ConfigException.WrongType e) {
+            // Not a list.
+            try {
+                return ImmutableList.of(config.getString(key));
+            } catch (ConfigException e2) {
+                throw new IllegalArgumentException("Cannot create a list for the key '" + key + "'", e);
+            }
+        }
+    }
+}
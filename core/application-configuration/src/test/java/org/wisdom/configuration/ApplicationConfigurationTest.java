@@ -26,22 +26,30 @@ import static org.mockito.Matchers.anyBoolean;
 import static org.mockito.Mockito.*;
 
 import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 import java.util.Collections;
 import java.util.Dictionary;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.TimeUnit;
 
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.Maps;
+import com.typesafe.config.ConfigFactory;
 import org.assertj.core.data.MapEntry;
 import org.junit.After;
 import org.junit.Test;
+import org.mockito.ArgumentCaptor;
 import org.osgi.framework.BundleContext;
 import org.osgi.framework.ServiceRegistration;
 import org.ow2.chameleon.core.services.Deployer;
 import org.ow2.chameleon.core.services.Watcher;
 import org.wisdom.api.configuration.ApplicationConfiguration;
 import org.wisdom.api.configuration.Configuration;
+import org.wisdom.api.configuration.ConfigurationChange;
+import org.wisdom.api.configuration.ConfigurationListener;
 import org.wisdom.api.content.ParameterConverter;
 import org.wisdom.api.content.ParameterFactory;
 import org.wisdom.content.converters.ParamConverterEngine;
@@ -523,4 +531,109 @@ public class ApplicationConfigurationTest {
             assertThat(sub.has("url")).isTrue();
         }
     }
+
+    @Test
+    public void testPrimitiveGetters() {
+        System.setProperty(ApplicationConfigurationImpl.APPLICATION_CONFIGURATION, "target/test-classes/conf/regular.conf");
+        ApplicationConfigurationImpl configuration = new ApplicationConfigurationImpl(null, null);
+        assertThat(configuration.getInt("key.int.1", 0)).isEqualTo(1);
+        assertThat(configuration.getInt("key.int.missing", 5)).isEqualTo(5);
+        assertThat(configuration.getLong("key.long", 0L)).isEqualTo(9999999999999L);
+        assertThat(configuration.getLong("key.long.missing", 5L)).isEqualTo(5L);
+        assertThat(configuration.getDouble("key.doubles.negative", 0.0)).isEqualTo(-1.2);
+        assertThat(configuration.getDouble("key.doubles.missing", 2.0)).isEqualTo(2.0);
+        assertThat(configuration.getBoolean("key.bool.3", true)).isFalse();
+        assertThat(configuration.getBoolean("key.bool.4", false)).isTrue();
+        assertThat(configuration.getBoolean("key.bool.missing", true)).isTrue();
+
+        // The values are read only once.
+        assertThat(configuration.getIntegerWithDefault("key.int.foo", 0))
+                .isSameAs(configuration.getIntegerWithDefault("key.int.foo", 0));
+        assertThat(configuration.getList("key.array")).isSameAs(configuration.getList("key.array"));
+
+        // Values that cannot be converted are still reported as errors.
+        try {
+            configuration.getInt("key.value", 0);
+            fail("Exception expected");
+        } catch (RuntimeException e) {
+            // OK
+        }
+        try {
+            configuration.get("key.doubles");
+            fail("Exception expected");
+        } catch (RuntimeException e) {
+            // OK
+        }
+    }
+
+    @Test
+    public void testSnapshotReplacedOnReload() {
+        ConfigurationImpl configuration = new ConfigurationImpl(null, ConfigFactory.parseString("a = 1\n\"b.c\" = " +
+                "\"quoted\"\nd = null"));
+        assertThat(configuration.getInt("a", 0)).isEqualTo(1);
+        assertThat(configuration.get("\"b.c\"")).isEqualTo("quoted");
+        assertThat(configuration.get("b.c")).isNull();
+        assertThat(configuration.getWithDefault("d", "default")).isEqualTo("default");
+        assertThat(configuration.getBoolean("e", false)).isFalse();
+
+        configuration.setConfiguration(ConfigFactory.parseString("a = 2\ne = true"));
+        assertThat(configuration.getInt("a", 0)).isEqualTo(2);
+        assertThat(configuration.get("\"b.c\"")).isNull();
+        assertThat(configuration.getBoolean("e", false)).isTrue();
+    }
+
+    @Test
+    public void testListenersNotifiedOnReload() throws Exception {
+        File file = new File("target/test-classes/conf/listeners.conf");
+        Files.write(file.toPath(), "http.upload.max = 10\nkey.a = 1\nother = x\n".getBytes(StandardCharsets.UTF_8));
+        System.setProperty(ApplicationConfigurationImpl.APPLICATION_CONFIGURATION, file.getPath());
+        BundleContext context = mock(BundleContext.class);
+        when(context.registerService(eq(Deployer.class), any(Deployer.class), any(Dictionary.class)))
+                .thenReturn(mock(ServiceRegistration.class));
+        when(context.registerService(eq(Configuration.class), any(Configuration.class), any(Dictionary.class)))
+                .thenReturn(mock(ServiceRegistration.class));
+        ApplicationConfigurationImpl configuration = new ApplicationConfigurationImpl(null, context);
+        configuration.watcher = mock(Watcher.class);
+        configuration.manageWatcher(context);
+        ArgumentCaptor<Deployer> deployer = ArgumentCaptor.forClass(Deployer.class);
+        verify(context).registerService(eq(Deployer.class), deployer.capture(), any(Dictionary.class));
+
+        List<ConfigurationChange> http = new CopyOnWriteArrayList<>();
+        List<ConfigurationChange> key = new CopyOnWriteArrayList<>();
+        List<ConfigurationChange> all = new CopyOnWriteArrayList<>();
+        configuration.addListener(change -> {
+            throw new IllegalStateException("Expected failure");
+        });
+        configuration.addListener(http::add, "http");
+        configuration.addListener(key::add, "key");
+        ConfigurationListener global = all::add;
+        configuration.addListener(global);
+
+        Files.write(file.toPath(), "http.upload.max = 20\nhttp.upload.new = true\nkey.a = 1\n"
+                .getBytes(StandardCharsets.UTF_8));
+        deployer.getValue().onFileChange(file);
+
+        assertThat(configuration.getLong("http.upload.max", -1L)).isEqualTo(20L);
+        assertThat(http).hasSize(1);
+        ConfigurationChange change = http.get(0);
+        assertThat(change.getChangedKeys()).containsOnly("http.upload.max", "http.upload.new");
+        assertThat(change.hasChanged("http.upload")).isTrue();
+        assertThat(change.hasChanged("key.a")).isFalse();
+        assertThat(change.getOldConfiguration().getLong("http.upload.max", -1L)).isEqualTo(10L);
+        assertThat(change.getNewConfiguration().getLong("http.upload.max", -1L)).isEqualTo(20L);
+        assertThat(change.getOldConfiguration().getBoolean("http.upload.new", false)).isFalse();
+        assertThat(change.getNewConfiguration().getBoolean("http.upload.new", false)).isTrue();
+        assertThat(key).isEmpty();
+        assertThat(all).hasSize(1);
+        assertThat(all.get(0).getChangedKeys()).containsOnly("http.upload.max", "http.upload.new", "other");
+
+        // Neither listeners of unchanged keys nor removed listeners are notified.
+        configuration.removeListener(global);
+        Files.write(file.toPath(), "http.upload.max = 20\nhttp.upload.new = true\nkey.a = 1\nother = y\n"
+                .getBytes(StandardCharsets.UTF_8));
+        deployer.getValue().onFileChange(file);
+        assertThat(configuration.get("other")).isEqualTo("y");
+        assertThat(http).hasSize(1);
+        assertThat(all).hasSize(1);
+    }
 }
@@ -0,0 +1,120 @@
+/*
+ * #%L
+ * Wisdom-Framework
+ * %%
+ * Copyright (C) 2013 - 2014 Wisdom Framework
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.wisdom.configuration;
+
+import com.typesafe.config.Config;
+import com.typesafe.config.ConfigException;
+import com.typesafe.config.ConfigFactory;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the cost of configuration lookups for present and missing keys. The {@literal snapshot} benchmarks use
+ * the {@link ConfigurationImpl} getters, reading the configuration snapshot. The {@literal exceptionBaseline}
+ * benchmarks read the Typesafe {@link Config} object and catch {@link ConfigException.Missing} for missing keys, as
+ * the previous implementation did.
+ * <p>
+ * This is not a unit test. Compile the tests with the {@literal benchmarks} profile ({@code mvn clean test-compile
+ * -Pbenchmarks}), and launch it with the {@link #main(String[])} method from the test classpath.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ConfigurationLookupBenchmark {
+
+    private Config config;
+
+    private ConfigurationImpl configuration;
+
+    @Setup
+    public void setup() {
+        config = ConfigFactory.parseString("request.body.max.size = 102400\n" +
+                "http.upload.max = 10 MB\n" +
+                "http.useETag = true\n" +
+                "application.cookie.prefix = wisdom\n").withFallback(ConfigFactory.systemProperties());
+        configuration = new ConfigurationImpl(null, config);
+    }
+
+    @Benchmark
+    public int snapshotPresentInt() {
+        return configuration.getInt("request.body.max.size", 0);
+    }
+
+    @Benchmark
+    public int snapshotMissingInt() {
+        return configuration.getInt("request.body.missing", 0);
+    }
+
+    @Benchmark
+    public Boolean snapshotPresentBoolean() {
+        return configuration.getBooleanWithDefault("http.useETag", false);
+    }
+
+    @Benchmark
+    public Boolean snapshotMissingBoolean() {
+        return configuration.getBooleanWithDefault("http.missing", false);
+    }
+
+    @Benchmark
+    public String snapshotMissingString() {
+        return configuration.getWithDefault("application.missing", "wisdom");
+    }
+
+    @Benchmark
+    public Integer exceptionBaselinePresentInt() {
+        try {
+            return config.getInt("request.body.max.size");
+        } catch (ConfigException.Missing e) {
+            return 0;
+        }
+    }
+
+    @Benchmark
+    public Integer exceptionBaselineMissingInt() {
+        try {
+            return config.getInt("request.body.missing");
+        } catch (ConfigException.Missing e) {
+            return 0;
+        }
+    }
+
+    @Benchmark
+    public Boolean exceptionBaselineMissingBoolean() {
+        try {
+            return config.getBoolean("http.missing");
+        } catch (ConfigException.Missing e) {
+            return false;
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(ConfigurationLookupBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
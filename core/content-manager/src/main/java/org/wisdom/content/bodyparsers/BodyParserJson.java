@@ -32,6 +32,7 @@ import org.wisdom.api.http.Context;
 import org.wisdom.api.http.MimeTypes;
 
 import java.io.IOException;
+import java.io.InputStream;
 import java.lang.reflect.Type;
 import java.util.List;
 
@@ -46,6 +47,8 @@ public class BodyParserJson implements BodyParser {
     @Requires
     Json json;
 
+    private final ObjectReaders readers = new ObjectReaders();
+
     private static final String ERROR = "Error parsing incoming Json";
 
     private static final Logger LOGGER = LoggerFactory.getLogger(BodyParserJson.class);
@@ -73,16 +76,13 @@ public class BodyParserJson implements BodyParser {
     public <T> T invoke(Context context, Class<T> classOfT, Type genericType) {
         T t = null;
         try {
-            final String content = context.body();
-            if (content == null || content.length() == 0) {
+            // Parse the received bytes directly, without decoding them to a String first.
+            final InputStream stream = ObjectReaders.body(context);
+            if (stream == null) {
                 return null;
             }
-            if (genericType != null) {
-                t = json.mapper().readValue(content,
-                        json.mapper().constructType(genericType));
-            } else {
-                t = json.mapper().readValue(content, classOfT);
-            }
+            t = ObjectReaders.read(readers.get(json.mapper(), classOfT, genericType), stream,
+                    ObjectReaders.charset(context));
         } catch (IOException e) {
             LOGGER.error(ERROR, e);
         }
@@ -103,7 +103,7 @@ public class BodyParserJson implements BodyParser {
     public <T> T invoke(byte[] bytes, Class<T> classOfT) {
         T t = null;
         try {
-            t = json.mapper().readValue(bytes, classOfT);
+            t = readers.get(json.mapper(), classOfT, null).readValue(bytes);
         } catch (IOException e) {
             LOGGER.error(ERROR, e);
         }
@@ -111,6 +111,21 @@ public class BodyParserJson implements BodyParser {
         return t;
     }
 
+    /**
+     * Builds an instance of {@literal T} from the given stream. The content is parsed while being read.
+     *
+     * @param stream      the stream
+     * @param classOfT    The class we expect
+     * @param genericType the generic type (maybe null)
+     * @param <T>         the type of the object
+     * @return the build object
+     * @throws IOException if the stream cannot be read or the content is not valid
+     */
+    @Override
+    public <T> T invoke(InputStream stream, Class<T> classOfT, Type genericType) throws IOException {
+        return readers.get(json.mapper(), classOfT, genericType).readValue(stream);
+    }
+
     /**
      * @return the singleton list containing "application/json".
      */
@@ -36,7 +36,9 @@ import org.wisdom.api.http.MimeTypes;
 
 import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.lang.reflect.Type;
+import java.nio.charset.Charset;
 import java.util.List;
 
 @Component
@@ -47,6 +49,8 @@ public class BodyParserXML implements BodyParser {
     @Requires
     Xml xml;
 
+    private final ObjectReaders readers = new ObjectReaders();
+
     private static final String ERROR = "Error parsing incoming XML";
 
     private static final Logger LOGGER = LoggerFactory.getLogger(BodyParserXML.class);
@@ -70,18 +74,16 @@ public class BodyParserXML implements BodyParser {
     public <T> T invoke(Context context, Class<T> classOfT, Type genericType) {
         T t = null;
         try {
-            final String content = context.body();
-            if (content == null || content.length() == 0) {
+            // Parse the received bytes directly, without decoding them to a String first.
+            final InputStream stream = ObjectReaders.body(context);
+            if (stream == null) {
                 return null;
             }
+            Charset charset = ObjectReaders.charset(context);
             if (classOfT.equals(Document.class)) {
-                return (T) parseXMLDocument(content.getBytes(Charsets.UTF_8));
-            }
-            if (genericType != null) {
-                t = xml.xmlMapper().readValue(content, xml.xmlMapper().constructType(genericType));
-            } else {
-                t = xml.xmlMapper().readValue(content, classOfT);
+                return (T) xml.fromInputStream(stream, charset != null ? charset : Charsets.UTF_8);
             }
+            t = ObjectReaders.read(readers.get(xml.xmlMapper(), classOfT, genericType), stream, charset);
         } catch (IOException e) {
             LOGGER.error(ERROR, e);
         }
@@ -95,7 +97,7 @@ public class BodyParserXML implements BodyParser {
             if (classOfT.equals(Document.class)) {
                 return (T) parseXMLDocument(bytes);
             }
-            t = xml.xmlMapper().readValue(bytes, classOfT);
+            t = readers.get(xml.xmlMapper(), classOfT, null).readValue(bytes);
         } catch (IOException e) {
             LOGGER.error(ERROR, e);
         }
@@ -103,6 +105,14 @@ public class BodyParserXML implements BodyParser {
         return t;
     }
 
+    @Override
+    public <T> T invoke(InputStream stream, Class<T> classOfT, Type genericType) throws IOException {
+        if (classOfT.equals(Document.class)) {
+            return (T) xml.fromInputStream(stream, Charsets.UTF_8);
+        }
+        return readers.get(xml.xmlMapper(), classOfT, genericType).readValue(stream);
+    }
+
     private Document parseXMLDocument(byte[] bytes) {
         ByteArrayInputStream stream = null;
         try {
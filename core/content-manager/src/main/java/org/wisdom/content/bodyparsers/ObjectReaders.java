@@ -0,0 +1,140 @@
+/*
+ * #%L
+ * Wisdom-Framework
+ * %%
+ * Copyright (C) 2013 - 2014 Wisdom Framework
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.wisdom.content.bodyparsers;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import org.wisdom.api.http.Context;
+import org.wisdom.api.http.Request;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.PushbackInputStream;
+import java.lang.reflect.Type;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * The {@link ObjectReader}s used by a body parser, per type. Readers are created from the current mapper of the
+ * parser, and the cache is dropped when this mapper changes (for instance when a Jackson module arrives or leaves).
+ * So, the Jackson type of a payload is computed only once per type, and not for every request.
+ * <p>
+ * Bodies are parsed from the received bytes. When the request declares another charset than UTF-8, the bytes are
+ * decoded using this charset.
+ */
+final class ObjectReaders {
+
+    private volatile Cache cache;
+
+    /**
+     * Gets the reader building instances of the given type.
+     *
+     * @param mapper      the current mapper
+     * @param classOfT    the class
+     * @param genericType the generic type, may be {@literal null}
+     * @return the reader
+     */
+    ObjectReader get(ObjectMapper mapper, Class<?> classOfT, Type genericType) {
+        Cache current = cache;
+        if (current == null || current.mapper != mapper) {
+            current = new Cache(mapper);
+            cache = current;
+        }
+        return current.get(genericType != null ? genericType : classOfT);
+    }
+
+    /**
+     * Opens the stream reading the body of the request in the given context.
+     *
+     * @param context the context
+     * @return the stream, {@literal null} if the request has no body or an empty body.
+     * @throws IOException if the stream cannot be opened
+     */
+    static InputStream body(Context context) throws IOException {
+        InputStream stream = context.stream();
+        if (stream == null) {
+            return null;
+        }
+        PushbackInputStream pushback = new PushbackInputStream(stream, 1);
+        int first = pushback.read();
+        if (first == -1) {
+            return null;
+        }
+        pushback.unread(first);
+        return pushback;
+    }
+
+    /**
+     * Gets the charset declared in the {@literal Content-Type} header of the request.
+     *
+     * @param context the context
+     * @return the charset, {@literal null} if not set, unknown or UTF-8, in which case the parsers read the bytes
+     * directly.
+     */
+    static Charset charset(Context context) {
+        Request request = context.request();
+        Charset charset;
+        try {
+            charset = request == null ? null : request.contentCharset();
+        } catch (IllegalArgumentException e) { //NOSONAR unknown or malformed charset, use the default one
+            return null;
+        }
+        if (charset == null || StandardCharsets.UTF_8.equals(charset)) {
+            return null;
+        }
+        return charset;
+    }
+
+    /**
+     * Reads a value from the given stream.
+     *
+     * @param reader  the reader
+     * @param stream  the stream
+     * @param charset the charset of the stream, {@literal null} to let the parser read the bytes directly
+     * @param <T>     the type of the value
+     * @return the value
+     * @throws IOException if the stream cannot be read or parsed
+     */
+    static <T> T read(ObjectReader reader, InputStream stream, Charset charset) throws IOException {
+        if (charset == null) {
+            return reader.readValue(stream);
+        }
+        return reader.readValue(new InputStreamReader(stream, charset));
+    }
+
+    /**
+     * The readers created from a mapper.
+     */
+    private static final class Cache {
+        private final ObjectMapper mapper;
+        private final ConcurrentMap<Type, ObjectReader> readers = new ConcurrentHashMap<>();
+
+        private Cache(ObjectMapper mapper) {
+            this.mapper = mapper;
+        }
+
+        private ObjectReader get(Type type) {
+            return readers.computeIfAbsent(type, t -> mapper.readerFor(mapper.constructType(t)));
+        }
+    }
+}
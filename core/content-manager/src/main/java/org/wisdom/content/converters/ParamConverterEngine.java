@@ -21,10 +21,11 @@ package org.wisdom.content.converters;
 
 import com.google.common.collect.ImmutableSet;
 import com.google.common.primitives.Primitives;
+import org.apache.felix.ipojo.annotations.Bind;
 import org.apache.felix.ipojo.annotations.Component;
 import org.apache.felix.ipojo.annotations.Instantiate;
 import org.apache.felix.ipojo.annotations.Provides;
-import org.apache.felix.ipojo.annotations.Requires;
+import org.apache.felix.ipojo.annotations.Unbind;
 import org.wisdom.api.content.ParameterConverter;
 import org.wisdom.api.content.ParameterFactories;
 import org.wisdom.api.content.ParameterFactory;
@@ -33,20 +34,37 @@ import org.wisdom.api.http.Context;
 import java.lang.reflect.Array;
 import java.lang.reflect.Type;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 /**
  * Implementation of the {@link org.wisdom.api.content.ParameterFactories} service to convert objects.
+ * <p>
+ * Finding the converter able to create instances of a type requires a reflective search. So, the conversion
+ * pipeline (converter, array or collection creation, default value) built for a type is cached, and the cache is
+ * dropped when a {@link ParameterConverter} or a {@link ParameterFactory} arrives or leaves.
  */
 @Component
 @Provides
 @Instantiate(name = "ParameterConverterEngine")
 public class ParamConverterEngine implements ParameterFactories {
 
-    @Requires(specification = ParameterConverter.class, optional = true)
-    List<ParameterConverter> converters;
+    List<ParameterConverter> converters = new CopyOnWriteArrayList<>();
 
-    @Requires(specification = ParameterFactory.class, optional = true)
-    List<ParameterFactory> factories;
+    List<ParameterFactory> factories = new CopyOnWriteArrayList<>();
+
+    /**
+     * The conversion pipelines per target type. The map is replaced (and not cleared) when the set of converters
+     * changes, so a pipeline computed concurrently from the previous set of converters is never stored in the new
+     * map.
+     */
+    private volatile ConcurrentMap<Key, Conversion> conversions = new ConcurrentHashMap<>();
+
+    /**
+     * The parameter factories per type, replaced when the set of factories changes.
+     */
+    private volatile ConcurrentMap<Class, ParameterFactory> factoriesByType = new ConcurrentHashMap<>();
 
     /**
      * Creates the singleton instance of {@link org.wisdom.content.converters.ParamConverterEngine} used at runtime.
@@ -66,33 +84,73 @@ public class ParamConverterEngine implements ParameterFactories {
         factories = fact;
     }
 
+    /**
+     * Binds a parameter converter.
+     *
+     * @param converter the converter
+     */
+    @Bind(aggregate = true, optional = true)
+    public void bindConverter(ParameterConverter converter) {
+        converters.add(converter);
+        conversions = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * Unbinds a parameter converter.
+     *
+     * @param converter the converter
+     */
+    @Unbind
+    public void unbindConverter(ParameterConverter converter) {
+        converters.remove(converter);
+        conversions = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * Binds a parameter factory.
+     *
+     * @param factory the factory
+     */
+    @Bind(aggregate = true, optional = true)
+    public void bindFactory(ParameterFactory factory) {
+        factories.add(factory);
+        factoriesByType = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * Unbinds a parameter factory.
+     *
+     * @param factory the factory
+     */
+    @Unbind
+    public void unbindFactory(ParameterFactory factory) {
+        factories.remove(factory);
+        factoriesByType = new ConcurrentHashMap<>();
+    }
+
     @Override
     public <T> T convertValue(String input, Class<T> rawType, Type type, String defaultValue) throws IllegalArgumentException {
-        if (rawType.isArray()) {
-            List<String> args = getMultipleValues(input, defaultValue);
-            return createArray(args, rawType.getComponentType());
-        } else if (Collection.class.isAssignableFrom(rawType)) {
-            List<String> args = getMultipleValues(input, defaultValue);
-            return createCollection(args, rawType, type);
-        } else {
-            return convertSingleValue(input, rawType, defaultValue);
-        }
+        //noinspection unchecked
+        return (T) getConversion(rawType, type).convert(input, defaultValue);
     }
 
-    private List<String> getMultipleValues(String input, String defaultValue) {
+    private static List<String> getMultipleValues(String input, String defaultValue) {
         if (input == null && defaultValue == null) {
             return null;
         }
-        if (input == null) {
-            input = defaultValue;
-        }
-        String[] segments = input.split(",");
+        String value = input == null ? defaultValue : input;
         List<String> values = new ArrayList<>();
-        for (String s : segments) {
-            String v = s.trim();
+        int start = 0;
+        while (start <= value.length()) {
+            int end = value.indexOf(',', start);
+            if (end == -1) {
+                end = value.length();
+            }
+            String v = value.substring(start, end).trim();
             if (!v.isEmpty()) {
                 values.add(v);
             }
+            start = end + 1;
         }
         return values;
     }
@@ -110,19 +168,8 @@ public class ParamConverterEngine implements ParameterFactories {
      */
     @Override
     public <T> T convertValues(Collection<String> input, Class<T> rawType, Type type, String defaultValue) throws IllegalArgumentException {
-        if (rawType.isArray()) {
-            if (input == null) {
-                input = getMultipleValues(defaultValue, null);
-            }
-            return createArray(input, rawType.getComponentType());
-        } else if (Collection.class.isAssignableFrom(rawType)) {
-            if (input == null) {
-                input = getMultipleValues(defaultValue, null);
-            }
-            return createCollection(input, rawType, type);
-        } else {
-            return convertSingleValue(input, rawType, defaultValue);
-        }
+        //noinspection unchecked
+        return (T) getConversion(rawType, type).convert(input, defaultValue);
     }
 
     /**
@@ -138,15 +185,24 @@ public class ParamConverterEngine implements ParameterFactories {
     @Override
     public <T> T newInstance(Context context, Class<T> type) throws IllegalArgumentException {
         // Retrieve the factory
-        for (ParameterFactory factory : factories) {
-            if (factory.getType().equals(type)) {
-                // Factory found - instantiate
-                //noinspection unchecked
-                return (T) factory.newInstance(context);
+        ConcurrentMap<Class, ParameterFactory> cache = factoriesByType;
+        ParameterFactory factory = cache.get(type);
+        if (factory == null) {
+            for (ParameterFactory candidate : factories) {
+                if (candidate.getType().equals(type)) {
+                    factory = candidate;
+                    cache.put(type, factory);
+                    break;
+                }
             }
         }
-        throw new IllegalArgumentException("Unable to find a ParameterFactory able to create instance of "
-                + type.getName());
+        if (factory == null) {
+            throw new IllegalArgumentException("Unable to find a ParameterFactory able to create instance of "
+                    + type.getName());
+        }
+        // Factory found - instantiate
+        //noinspection unchecked
+        return (T) factory.newInstance(context);
     }
 
     /**
@@ -166,99 +222,61 @@ public class ParamConverterEngine implements ParameterFactories {
         return builder.build();
     }
 
-    private <T> T createCollection(Collection<String> input, Class<T> rawType, Type type) {
-        // Get the generic type of the list
-        // If none default to String
-        final List<ClassTypePair> ctps = ReflectionHelper.getTypeArgumentAndClass(type);
-        ClassTypePair ctp = (ctps.size() == 1) ? ctps.get(0) : null;
-
-        if (ctp == null || ctp.rawClass() == String.class) {
-            return createCollectionWithConverter(input, rawType, StringConverter.INSTANCE);
-        } else {
-            ParameterConverter converter = getConverter(ctp.rawClass());
-            // On Java 8 we cannot use 'cast' here, I don't really understand why.
-            //noinspection unchecked
-            return (T) createCollectionWithConverter(input, rawType, converter);
+    /**
+     * Gets the conversion pipeline for the given type, building it if not cached yet.
+     *
+     * @param rawType the target class
+     * @param type    the type representation of the raw type, may contains metadata about generics
+     * @return the conversion
+     * @throws java.util.NoSuchElementException if no converter can be found
+     * @throws IllegalArgumentException         if the collection type is not supported
+     */
+    private Conversion getConversion(Class<?> rawType, Type type) {
+        // The generic type is only used for collections.
+        boolean collection = Collection.class.isAssignableFrom(rawType);
+        Key key = new Key(rawType, collection ? type : null);
+        ConcurrentMap<Key, Conversion> cache = conversions;
+        Conversion conversion = cache.get(key);
+        if (conversion == null) {
+            // Conversions that cannot be built are not cached, the exception is thrown on every call.
+            conversion = createConversion(rawType, type, collection);
+            cache.put(key, conversion);
         }
+        return conversion;
     }
 
-    private <T, A> T createCollectionWithConverter(Collection<String> input, Class<T> type,
-                                                   ParameterConverter<A> converter) {
-        Collection<A> collection;
-        if (type == Collection.class || List.class.isAssignableFrom(type)) {
-            if (input == null) {
-                return type.cast(Collections.emptyList());
-            }
-            collection = new ArrayList<>();
-        } else if (Set.class.isAssignableFrom(type)) {
-            if (input == null) {
-                return type.cast(Collections.emptySet());
-            }
-            collection = new LinkedHashSet<>();
+    private Conversion createConversion(Class<?> rawType, Type type, boolean collection) {
+        if (rawType.isArray()) {
+            return new ArrayConversion(rawType.getComponentType());
+        } else if (collection) {
+            return createCollectionConversion(rawType, type);
         } else {
-            throw new IllegalArgumentException("Not supported collection type " + type.getName());
-        }
-
-        for (String v : input) {
-            collection.add(converter.fromString(v));
-        }
-
-        return type.cast(collection);
-    }
-
-    private <T> T createArray(Collection<String> input, Class<?> componentType) {
-        if (input == null) {
-            //noinspection unchecked
-            return (T) Array.newInstance(componentType, 0);
-        }
-
-        Class<?> theType = componentType;
-        if (componentType.isPrimitive()) {
-            theType = Primitives.wrap(componentType);
-        }
-
-        ParameterConverter converter = getConverter(theType);
-
-        List<Object> list = new ArrayList<>();
-        for (String v : input) {
-            list.add(converter.fromString(v));
+            return new SingleValueConversion(rawType);
         }
-        // We cannot use the toArray method as the the type does not match (toArray would produce an object[]).
-        Object array = Array.newInstance(componentType, list.size());
-        int i = 0;
-        for (Object o : list) {
-            Array.set(array, i, o);
-            i++;
-        }
-
-        //noinspection unchecked
-        return (T) array;
     }
 
-    private <T> T convertSingleValue(String input, Class<T> type, String defaultValue) {
-        if (type.isPrimitive()) {
-            type = Primitives.wrap(type);
-            if (input == null && defaultValue == null) {
-                defaultValue = ReflectionHelper.getPrimitiveDefault(type);
-            }
-        }
+    private Conversion createCollectionConversion(Class<?> rawType, Type type) {
+        // Get the generic type of the list
+        // If none default to String
+        final List<ClassTypePair> ctps = ReflectionHelper.getTypeArgumentAndClass(type);
+        ClassTypePair ctp = (ctps.size() == 1) ? ctps.get(0) : null;
 
-        ParameterConverter<T> converter = getConverter(type);
-        if (input != null) {
-            return converter.fromString(input);
+        ParameterConverter converter;
+        if (ctp == null || ctp.rawClass() == String.class) {
+            converter = StringConverter.INSTANCE;
         } else {
-            return converter.fromString(defaultValue);
+            converter = getConverter(ctp.rawClass());
         }
-    }
-
 
-    private <T> T convertSingleValue(Collection<String> input, Class<T> type, String defaultValue) {
-        if (input == null || input.isEmpty()) {
-            return convertSingleValue((String) null, type, defaultValue);
+        boolean set;
+        if (rawType == Collection.class || List.class.isAssignableFrom(rawType)) {
+            set = false;
+        } else if (Set.class.isAssignableFrom(rawType)) {
+            set = true;
         } else {
-            String v = input.iterator().next();
-            return convertSingleValue(v, type, defaultValue);
+            throw new IllegalArgumentException("Not supported collection type " + rawType.getName());
         }
+        return new CollectionConversion(rawType, converter, set);
     }
 
     /**
@@ -321,4 +339,174 @@ public class ParamConverterEngine implements ParameterFactories {
         throw new NoSuchElementException("Cannot find a converter able to create instance of " + type.getName());
     }
 
+    /**
+     * The key of the conversion cache.
+     */
+    private static final class Key {
+        private final Class<?> rawType;
+        private final Type type;
+
+        private Key(Class<?> rawType, Type type) {
+            this.rawType = rawType;
+            this.type = type;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key other = (Key) o;
+            return rawType.equals(other.rawType) && Objects.equals(type, other.type);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * rawType.hashCode() + Objects.hashCode(type);
+        }
+    }
+
+    /**
+     * A conversion from String values to instances of a given type, built once per type.
+     */
+    private interface Conversion {
+
+        /**
+         * Converts a single String. Multi-valued types split the input using commas.
+         *
+         * @param input        the input, may be {@literal null}
+         * @param defaultValue the default value, may be {@literal null}
+         * @return the created object
+         */
+        Object convert(String input, String defaultValue);
+
+        /**
+         * Converts a set of values. Single-valued types use the first value.
+         *
+         * @param input        the input, may be {@literal null} or empty
+         * @param defaultValue the default value, may be {@literal null}
+         * @return the created object
+         */
+        Object convert(Collection<String> input, String defaultValue);
+    }
+
+    /**
+     * Converts single values.
+     */
+    private final class SingleValueConversion implements Conversion {
+        private final ParameterConverter<?> converter;
+        /**
+         * The value used when neither the input nor the default value are set, only set for primitive types.
+         */
+        private final String primitiveDefault;
+
+        private SingleValueConversion(Class<?> type) {
+            if (type.isPrimitive()) {
+                Class<?> wrapped = Primitives.wrap(type);
+                this.converter = getConverter(wrapped);
+                this.primitiveDefault = ReflectionHelper.getPrimitiveDefault(wrapped);
+            } else {
+                this.converter = getConverter(type);
+                this.primitiveDefault = null;
+            }
+        }
+
+        @Override
+        public Object convert(String input, String defaultValue) {
+            if (input != null) {
+                return converter.fromString(input);
+            }
+            return converter.fromString(defaultValue != null ? defaultValue : primitiveDefault);
+        }
+
+        @Override
+        public Object convert(Collection<String> input, String defaultValue) {
+            if (input == null || input.isEmpty()) {
+                return convert((String) null, defaultValue);
+            }
+            return convert(input.iterator().next(), defaultValue);
+        }
+    }
+
+    /**
+     * Converts values to arrays. The converter is only searched when there is something to convert, so a missing
+     * input creates an empty array even if the component type cannot be converted.
+     */
+    private final class ArrayConversion implements Conversion {
+        private final Class<?> componentType;
+        private volatile ParameterConverter<?> converter;
+
+        private ArrayConversion(Class<?> componentType) {
+            this.componentType = componentType;
+        }
+
+        @Override
+        public Object convert(String input, String defaultValue) {
+            return createArray(getMultipleValues(input, defaultValue));
+        }
+
+        @Override
+        public Object convert(Collection<String> input, String defaultValue) {
+            return createArray(input == null ? getMultipleValues(defaultValue, null) : input);
+        }
+
+        private Object createArray(Collection<String> input) {
+            if (input == null) {
+                return Array.newInstance(componentType, 0);
+            }
+            ParameterConverter<?> converter = this.converter;
+            if (converter == null) {
+                converter = getConverter(Primitives.wrap(componentType));
+                this.converter = converter;
+            }
+            // We cannot use the toArray method as the the type does not match (toArray would produce an object[]).
+            Object array = Array.newInstance(componentType, input.size());
+            int i = 0;
+            for (String v : input) {
+                Array.set(array, i, converter.fromString(v));
+                i++;
+            }
+            return array;
+        }
+    }
+
+    /**
+     * Converts values to lists or sets.
+     */
+    private static final class CollectionConversion implements Conversion {
+        private final Class<?> type;
+        private final ParameterConverter<?> converter;
+        private final boolean set;
+
+        private CollectionConversion(Class<?> type, ParameterConverter<?> converter, boolean set) {
+            this.type = type;
+            this.converter = converter;
+            this.set = set;
+        }
+
+        @Override
+        public Object convert(String input, String defaultValue) {
+            return createCollection(getMultipleValues(input, defaultValue));
+        }
+
+        @Override
+        public Object convert(Collection<String> input, String defaultValue) {
+            return createCollection(input == null ? getMultipleValues(defaultValue, null) : input);
+        }
+
+        private Object createCollection(Collection<String> input) {
+            if (input == null) {
+                return type.cast(set ? Collections.emptySet() : Collections.emptyList());
+            }
+            Collection<Object> collection = set ? new LinkedHashSet<>() : new ArrayList<>(input.size());
+            for (String v : input) {
+                collection.add(converter.fromString(v));
+            }
+            return type.cast(collection);
+        }
+    }
+
 }
@@ -61,6 +61,10 @@ import java.util.Set;
  * <p/>
  * This class manages Jackson module dynamically, and recreates a JSON Mapper and XML mapper every time a module arrives
  * or leaves.
+ * <p/>
+ * Jackson mappers are thread-safe once configured. So, the current pair of mappers is never modified once published:
+ * module registration builds and configures a new pair, and publishes it using a volatile field. Serialization and
+ * deserialization operations just read this field, and do not acquire any lock.
  */
 @Component(immediate = true)
 @Provides
@@ -68,19 +72,14 @@ import java.util.Set;
 public class JacksonSingleton implements JacksonModuleRepository, Json, Xml {
 
     /**
-     * An object used as lock.
+     * An object used as lock, only acquired when the set of modules or the mappers are changed.
      */
     private final Object lock = new Object();
 
     /**
-     * The current object mapper.
-     */
-    private ObjectMapper mapper;
-
-    /**
-     * The current object mapper.
+     * The current mappers, never {@literal null}. The pair is replaced as a whole, and never modified once published.
      */
-    private XmlMapper xml;
+    private volatile Mappers mappers = Mappers.NONE;
 
     /**
      * The document builder factory used to create new document.
@@ -122,9 +121,7 @@ public class JacksonSingleton implements JacksonModuleRepository, Json, Xml {
      * @return the mapper.
      */
     public ObjectMapper mapper() {
-        synchronized (lock) {
-            return mapper;
-        }
+        return mappers.json;
     }
 
     /**
@@ -135,12 +132,10 @@ public class JacksonSingleton implements JacksonModuleRepository, Json, Xml {
      * @throws java.lang.RuntimeException if the JSON Node cannot be created
      */
     public JsonNode toJson(final Object data) {
-        synchronized (lock) {
-            try {
-                return mapper.valueToTree(data);
-            } catch (Exception e) {
-                throw new RuntimeException(e);
-            }
+        try {
+            return mapper().valueToTree(data);
+        } catch (Exception e) {
+            throw new RuntimeException(e);
         }
     }
 
@@ -152,12 +147,10 @@ public class JacksonSingleton implements JacksonModuleRepository, Json, Xml {
      * @return the String built as follows: "callback(json(data))"
      */
     public String toJsonP(final String callback, final Object data) {
-        synchronized (lock) {
-            try {
-                return callback + "(" + stringify((JsonNode) mapper.valueToTree(data)) + ");";
-            } catch (Exception e) {
-                throw new RuntimeException(e);
-            }
+        try {
+            return callback + "(" + stringify((JsonNode) mapper().valueToTree(data)) + ");";
+        } catch (Exception e) {
+            throw new RuntimeException(e);
         }
     }
 
@@ -170,12 +163,10 @@ public class JacksonSingleton implements JacksonModuleRepository, Json, Xml {
      * @throws java.lang.RuntimeException if the object cannot be created
      */
     public <A> A fromJson(JsonNode json, Class<A> clazz) {
-        synchronized (lock) {
-            try {
-                return mapper.treeToValue(json, clazz);
-            } catch (Exception e) {
-                throw new RuntimeException(e);
-            }
+        try {
+            return mapper().treeToValue(json, clazz);
+        } catch (Exception e) {
+            throw new RuntimeException(e);
         }
     }
 
@@ -188,13 +179,13 @@ public class JacksonSingleton implements JacksonModuleRepository, Json, Xml {
      * @throws java.lang.RuntimeException if the object cannot be created
      */
     public <A> A fromJson(String json, Class<A> clazz) {
-        synchronized (lock) {
-            try {
-                JsonNode node = mapper.readTree(json);
-                return mapper.treeToValue(node, clazz);
-            } catch (Exception e) {
-                throw new RuntimeException(e);
-            }
+        // Use the same mapper for both operations, even if the mappers are replaced concurrently.
+        ObjectMapper current = mapper();
+        try {
+            JsonNode node = current.readTree(json);
+            return current.treeToValue(node, clazz);
+        } catch (Exception e) {
+            throw new RuntimeException(e);
         }
     }
 
@@ -222,12 +213,10 @@ public class JacksonSingleton implements JacksonModuleRepository, Json, Xml {
      * @throws java.lang.RuntimeException if the given string is not a valid JSON String
      */
     public JsonNode parse(String src) {
-        synchronized (lock) {
-            try {
-                return mapper.readValue(src, JsonNode.class);
-            } catch (Exception t) {
-                throw new RuntimeException(t);
-            }
+        try {
+            return mapper().readValue(src, JsonNode.class);
+        } catch (Exception t) {
+            throw new RuntimeException(t);
         }
     }
 
@@ -240,12 +229,10 @@ public class JacksonSingleton implements JacksonModuleRepository, Json, Xml {
      * @throws java.lang.RuntimeException if the given stream is not a valid JSON String
      */
     public JsonNode parse(InputStream stream) {
-        synchronized (lock) {
-            try {
-                return mapper.readValue(stream, JsonNode.class);
-            } catch (Exception t) {
-                throw new RuntimeException(t);
-            }
+        try {
+            return mapper().readValue(stream, JsonNode.class);
+        } catch (Exception t) {
+            throw new RuntimeException(t);
         }
     }
 
@@ -286,11 +273,13 @@ public class JacksonSingleton implements JacksonModuleRepository, Json, Xml {
      */
     private void setMappers(ObjectMapper mapper, XmlMapper xml) {
         synchronized (lock) {
-            this.mapper = mapper;
-            this.xml = xml;
             // mapper and xml are set to null on invalidation.
             if (mapper != null && xml != null) {
+                // Configure the mappers before publishing them.
                 applyMapperConfiguration(mapper, xml);
+                this.mappers = new Mappers(mapper, xml);
+            } else {
+                this.mappers = Mappers.NONE;
             }
         }
     }
@@ -393,18 +382,23 @@ public class JacksonSingleton implements JacksonModuleRepository, Json, Xml {
         }
     }
 
+    /**
+     * Builds a new pair of mappers using the current set of modules, and publishes it. Must be called while holding
+     * the lock.
+     */
     private void rebuildMappers() {
-        mapper = new ObjectMapper();
+        ObjectMapper mapper = new ObjectMapper();
         for (Module module : modules) {
             mapper.registerModule(module);
         }
 
-        xml = new XmlMapper();
+        XmlMapper xml = new XmlMapper();
         for (Module module : modules) {
             xml.registerModule(module);
         }
 
         applyMapperConfiguration(mapper, xml);
+        this.mappers = new Mappers(mapper, xml);
     }
 
     /**
@@ -434,9 +428,7 @@ public class JacksonSingleton implements JacksonModuleRepository, Json, Xml {
      */
     @Override
     public XmlMapper xmlMapper() {
-        synchronized (lock) {
-            return xml;
-        }
+        return mappers.xml;
     }
 
     /**
@@ -578,4 +570,23 @@ public class JacksonSingleton implements JacksonModuleRepository, Json, Xml {
         unregister(module);
     }
 
+    /**
+     * An immutable pair of mappers.
+     */
+    private static final class Mappers {
+
+        /**
+         * The pair used when the component is not valid.
+         */
+        private static final Mappers NONE = new Mappers(null, null);
+
+        private final ObjectMapper json;
+        private final XmlMapper xml;
+
+        private Mappers(ObjectMapper json, XmlMapper xml) {
+            this.json = json;
+            this.xml = xml;
+        }
+    }
+
 }
@@ -19,7 +19,12 @@
  */
 package org.wisdom.content.serializers;
 
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
 import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
 import org.apache.felix.ipojo.annotations.Component;
 import org.apache.felix.ipojo.annotations.Instantiate;
 import org.apache.felix.ipojo.annotations.Provides;
@@ -27,12 +32,29 @@ import org.apache.felix.ipojo.annotations.Requires;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.wisdom.api.content.ContentSerializer;
+import org.wisdom.api.content.ContentWriter;
 import org.wisdom.api.content.Json;
 import org.wisdom.api.http.MimeTypes;
 import org.wisdom.api.http.Renderable;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.stream.Stream;
+
 /**
  * Renders JSON content.
+ * <p>
+ * When the renderable object accepts a {@link ContentWriter}, the content is written directly on the stream sent to
+ * the client, using an {@link ObjectWriter} cached per content class. Neither the JSON tree nor the intermediate
+ * String are built. Lazy sequences, i.e. {@link Stream} and {@link Iterable} content that is neither a
+ * {@link Collection} nor a JSON node (as for {@link org.wisdom.api.bodies.RenderableObject#mustBeChunked()}), are
+ * written as a JSON array, element by element. Collections are written as a whole, so the serializers, mix-ins and
+ * formats registered for the collection type apply.
+ * Otherwise, the content is converted to a JSON tree and then to a String.
  */
 @Component
 @Instantiate
@@ -44,6 +66,12 @@ public class JSONSerializer implements ContentSerializer {
     @Requires
     private Json json;
 
+    /**
+     * The writers created for the current mapper. The cache is dropped when the mapper changes (for instance when a
+     * Jackson module arrives or leaves).
+     */
+    private volatile Writers writers;
+
     @Override
     public String getContentType() {
         return MimeTypes.JSON;
@@ -51,7 +79,11 @@ public class JSONSerializer implements ContentSerializer {
 
     @Override
     public void serialize(Renderable<?> renderable) {
-        JsonNode node = json.toJson(renderable.content());
+        Object content = renderable.content();
+        if (content != null && renderable.setSerializedWriter(createContentWriter(content))) {
+            return;
+        }
+        JsonNode node = json.toJson(content);
         if (node == null) {
             LOGGER.error("Cannot serialize result - cannot create a JSON Node from the response content");
             renderable.setSerializedForm("");
@@ -59,4 +91,105 @@ public class JSONSerializer implements ContentSerializer {
             renderable.setSerializedForm(node.toString());
         }
     }
+
+    private ContentWriter createContentWriter(Object content) {
+        if (content instanceof Stream) {
+            Stream<?> stream = (Stream<?>) content;
+            return new SequenceWriter(stream.iterator(), stream);
+        }
+        if (content instanceof Iterable && !(content instanceof Collection) && !(content instanceof JsonNode)) {
+            return new SequenceWriter(((Iterable<?>) content).iterator(), null);
+        }
+        final ObjectWriter writer = writer(content.getClass());
+        return output -> {
+            writer.writeValue(output, content);
+            return false;
+        };
+    }
+
+    /**
+     * Gets the writer used to serialize instances of the given class.
+     *
+     * @param clazz the class
+     * @return the writer, configured to not close the stream it writes to
+     */
+    ObjectWriter writer(Class<?> clazz) {
+        return writers().get(clazz);
+    }
+
+    private Writers writers() {
+        ObjectMapper mapper = json.mapper();
+        Writers current = writers;
+        if (current == null || current.mapper != mapper) {
+            current = new Writers(mapper);
+            writers = current;
+        }
+        return current;
+    }
+
+    /**
+     * The writers created from a mapper, per class.
+     */
+    private static final class Writers {
+        private final ObjectMapper mapper;
+        private final ConcurrentMap<Class<?>, ObjectWriter> cache = new ConcurrentHashMap<>();
+
+        private Writers(ObjectMapper mapper) {
+            this.mapper = mapper;
+        }
+
+        private ObjectWriter get(Class<?> clazz) {
+            return cache.computeIfAbsent(clazz,
+                    c -> mapper.writerFor(c).without(JsonGenerator.Feature.AUTO_CLOSE_TARGET));
+        }
+    }
+
+    /**
+     * Writes a sequence as a JSON array, one element per part. So, when the sequence is sent as chunks, the next
+     * element is only retrieved and serialized once the previous one has been sent.
+     */
+    private final class SequenceWriter implements ContentWriter {
+        private final Iterator<?> iterator;
+        private final Stream<?> stream;
+        private final Writers cache = writers();
+        private JsonGenerator generator;
+
+        private SequenceWriter(Iterator<?> iterator, Stream<?> stream) {
+            this.iterator = iterator;
+            this.stream = stream;
+        }
+
+        @Override
+        public boolean writeNext(OutputStream output) throws IOException {
+            if (generator == null) {
+                generator = cache.mapper.getFactory().createGenerator(output, JsonEncoding.UTF8);
+                generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+                if (cache.mapper.isEnabled(SerializationFeature.INDENT_OUTPUT)) {
+                    generator.useDefaultPrettyPrinter();
+                }
+                generator.writeStartArray();
+            }
+            if (iterator.hasNext()) {
+                Object element = iterator.next();
+                if (element == null) {
+                    generator.writeNull();
+                } else {
+                    cache.get(element.getClass()).writeValue(generator, element);
+                }
+                generator.flush();
+                return true;
+            }
+            generator.writeEndArray();
+            // Flushes the generator, the output stream is not closed.
+            generator.close();
+            return false;
+        }
+
+        @Override
+        public void close() {
+            if (stream != null) {
+                stream.close();
+            }
+        }
+    }
 }
@@ -19,13 +19,18 @@
  */
 package org.wisdom.content.bodyparsers;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
 import com.google.common.base.Charsets;
 import org.junit.Before;
 import org.junit.Test;
+import org.wisdom.api.http.HeaderNames;
 import org.wisdom.api.http.MimeTypes;
 import org.wisdom.content.jackson.JacksonSingleton;
 import org.wisdom.test.parents.FakeContext;
 
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
 import java.lang.reflect.Type;
 import java.util.List;
 
@@ -91,6 +96,45 @@ public class BodyParserJsonTest {
         assertThat(data.getAge()).isEqualTo(2);
     }
 
+    @Test
+    public void testParsingFromStream() throws NoSuchFieldException, IOException {
+        Type type = this.getClass().getDeclaredField("tmp").getGenericType();
+        String body = "[{" +
+                "\"name\":\"wisdom\"," +
+                "\"friends\":[\"clement\",\"jonathan\"]," +
+                "\"age\":2}]";
+        List<Data> list = parser.invoke(new ByteArrayInputStream(body.getBytes(Charsets.UTF_8)), List.class, type);
+        assertThat(list).hasSize(1);
+        assertThat(list.get(0).getName()).isEqualTo("wisdom");
+
+        Data data = parser.invoke(new ByteArrayInputStream(body.substring(1, body.length() - 1)
+                .getBytes(Charsets.UTF_8)), Data.class, null);
+        assertThat(data.getFriends()).containsExactly("clement", "jonathan");
+        assertThat(data.getAge()).isEqualTo(2);
+    }
+
+    @Test
+    public void testParsingWithTheRequestCharset() {
+        final String body = "{\"name\":\"\u00e9t\u00e9\"}";
+        FakeContext context = new FakeContext() {
+            @Override
+            public byte[] raw() {
+                return body.getBytes(Charsets.ISO_8859_1);
+            }
+        }.setHeader(HeaderNames.CONTENT_TYPE, "application/json; charset=ISO-8859-1");
+        Data data = parser.invoke(context, Data.class);
+        assertThat(data.getName()).isEqualTo("\u00e9t\u00e9");
+
+        context = new FakeContext() {
+            @Override
+            public byte[] raw() {
+                return body.getBytes(Charsets.UTF_8);
+            }
+        }.setHeader(HeaderNames.CONTENT_TYPE, "application/json; charset=unknown");
+        data = parser.invoke(context, Data.class);
+        assertThat(data.getName()).isEqualTo("\u00e9t\u00e9");
+    }
+
     @Test
     public void testNullAndEmpty() throws NoSuchFieldException {
         Type type = this.getClass().getDeclaredField("tmp").getGenericType();
@@ -111,6 +155,19 @@ public class BodyParserJsonTest {
         assertThat(data).isNull();
     }
 
+    @Test
+    public void testReadersAreCachedPerType() throws NoSuchFieldException {
+        Type type = this.getClass().getDeclaredField("tmp").getGenericType();
+        ObjectMapper mapper = parser.json.mapper();
+        ObjectReaders readers = new ObjectReaders();
+        ObjectReader reader = readers.get(mapper, Data.class, null);
+        assertThat(readers.get(mapper, Data.class, null)).isSameAs(reader);
+        assertThat(readers.get(mapper, List.class, type)).isNotSameAs(reader)
+                .isSameAs(readers.get(mapper, List.class, type));
+        // A new mapper invalidates the cache.
+        assertThat(readers.get(new ObjectMapper(), Data.class, null)).isNotSameAs(reader);
+    }
+
     @Test
     public void testMimeTypes() {
         assertThat(parser.getContentTypes())
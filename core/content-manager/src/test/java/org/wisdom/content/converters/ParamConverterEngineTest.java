@@ -329,6 +329,21 @@ public class ParamConverterEngineTest {
         engine.convertValue("hello", Object.class, null, null);
     }
 
+    @Test
+    public void testMissingConverterForArraysWithoutInput() {
+        ParamConverterEngine engine = new ParamConverterEngine();
+        engine.converters = ImmutableList.<ParameterConverter>of(new MemberConverter());
+
+        assertThat((Object[]) engine.convertValue(null, Object[].class, null, null)).isEmpty();
+        assertThat((Object[]) engine.convertValues(null, Object[].class, null, null)).isEmpty();
+        try {
+            engine.convertValue("hello", Object[].class, null, null);
+            fail("Exception expected");
+        } catch (NoSuchElementException e) {
+            // OK.
+        }
+    }
+
     @Test
     public void testEmptyCollectionsAndArrays() throws NoSuchMethodException {
         ParamConverterEngine engine = new ParamConverterEngine();
@@ -389,6 +404,52 @@ public class ParamConverterEngineTest {
 
     }
 
+    @Test
+    public void testConversionsAreRebuiltWhenConvertersChange() throws NoSuchMethodException {
+        ParamConverterEngine engine = new ParamConverterEngine();
+        Type type = this.getClass().getMethod("listOfInt", List.class).getGenericParameterTypes()[0];
+        assertThat(engine.convertValue("1", Integer.class, null, null)).isEqualTo(1);
+        assertThat(engine.convertValue("1", Integer[].class, null, null)).containsExactly(1);
+        assertThat((List<Integer>) engine.convertValue("1", List.class, type, null)).containsExactly(1);
+
+        ParameterConverter<Integer> converter = new ParameterConverter<Integer>() {
+            @Override
+            public Integer fromString(String input) {
+                return Integer.valueOf(input) + 1000;
+            }
+
+            @Override
+            public Class<Integer> getType() {
+                return Integer.class;
+            }
+        };
+        engine.bindConverter(converter);
+        assertThat(engine.convertValue("1", Integer.class, null, null)).isEqualTo(1001);
+        assertThat(engine.convertValue("1", Integer[].class, null, null)).containsExactly(1001);
+        assertThat((List<Integer>) engine.convertValue("1", List.class, type, null)).containsExactly(1001);
+
+        engine.unbindConverter(converter);
+        assertThat(engine.convertValue("1", Integer.class, null, null)).isEqualTo(1);
+        assertThat((List<Integer>) engine.convertValue("1", List.class, type, null)).containsExactly(1);
+    }
+
+    @Test
+    public void testFactoriesAreRebuiltWhenFactoriesChange() {
+        ParamConverterEngine engine = new ParamConverterEngine();
+        StuffFactory factory = new StuffFactory();
+        engine.bindFactory(factory);
+        FakeContext context = new FakeContext().setHeader("X-Stuff", "bar");
+        assertThat(engine.newInstance(context, Stuff.class).name).isEqualTo("bar");
+
+        engine.unbindFactory(factory);
+        try {
+            engine.newInstance(context, Stuff.class);
+            fail("Exception expected");
+        } catch (IllegalArgumentException e) {
+            // OK.
+        }
+    }
+
     public void listOfMethods(List<HttpMethod> methods) {
         // ...
     }
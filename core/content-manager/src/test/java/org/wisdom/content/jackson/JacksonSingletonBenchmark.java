@@ -0,0 +1,102 @@
+/*
+ * #%L
+ * Wisdom-Framework
+ * %%
+ * Copyright (C) 2013 - 2014 Wisdom Framework
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.wisdom.content.jackson;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.wisdom.content.json.Data;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures how the throughput of the {@link JacksonSingleton} scales with the number of threads. The
+ * {@literal synchronizedBaseline} benchmark runs the same operations while holding a shared monitor, as the previous
+ * implementation did.
+ * <p>
+ * This is not a unit test. Compile the tests with the {@literal benchmarks} profile ({@code mvn clean test-compile
+ * -Pbenchmarks}), and launch it with the {@link #main(String[])} method from the test classpath. The benchmarks are
+ * executed with 1, 2, 4... threads, up to the number of available processors.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JacksonSingletonBenchmark {
+
+    private final Object lock = new Object();
+
+    private JacksonSingleton json;
+    private Data data;
+    private String serialized;
+
+    @Setup
+    public void setup() {
+        json = new JacksonSingleton();
+        json.validate();
+        data = new Data();
+        data.age = 32;
+        data.name = "clement";
+        data.messages = Arrays.asList("msg 1", "msg 2", "msg 3");
+        serialized = json.stringify(json.toJson(data));
+    }
+
+    @TearDown
+    public void tearDown() {
+        json.invalidate();
+    }
+
+    @Benchmark
+    public Data roundTrip() {
+        JsonNode node = json.toJson(data);
+        return json.fromJson(node, Data.class);
+    }
+
+    @Benchmark
+    public Data parse() {
+        return json.fromJson(serialized, Data.class);
+    }
+
+    @Benchmark
+    public Data synchronizedBaseline() {
+        synchronized (lock) {
+            JsonNode node = json.toJson(data);
+            return json.fromJson(node, Data.class);
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        int max = Runtime.getRuntime().availableProcessors();
+        for (int threads = 1; ; threads = Math.min(threads * 2, max)) {
+            new Runner(new OptionsBuilder()
+                    .include(JacksonSingletonBenchmark.class.getSimpleName())
+                    .threads(threads)
+                    .build()).run();
+            if (threads == max) {
+                return;
+            }
+        }
+    }
+}
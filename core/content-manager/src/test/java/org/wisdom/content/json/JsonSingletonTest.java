@@ -19,7 +19,11 @@
  */
 package org.wisdom.content.json;
 
+import com.fasterxml.jackson.core.JsonGenerator;
 import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializerProvider;
 import com.fasterxml.jackson.databind.module.SimpleModule;
 import com.google.common.collect.ImmutableMap;
 import org.apache.commons.io.IOUtils;
@@ -30,9 +34,15 @@ import org.wisdom.api.configuration.ApplicationConfiguration;
 import org.wisdom.content.jackson.JacksonSingleton;
 import org.wisdom.test.parents.FakeConfiguration;
 
+import java.io.IOException;
 import java.io.InputStream;
 import java.util.Arrays;
 import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.Mockito.mock;
@@ -166,6 +176,58 @@ public class JsonSingletonTest {
         json.unbindModule(module);
     }
 
+    @Test
+    public void testMappersAreReplacedWhenModulesChange() {
+        ObjectMapper initial = json.mapper();
+        final SimpleModule module = new SimpleModule("test");
+        module.addSerializer(Data.class, new JsonSerializer<Data>() {
+            @Override
+            public void serialize(Data value, JsonGenerator gen, SerializerProvider serializers) throws IOException {
+                gen.writeString(value.name);
+            }
+        });
+        Data data = new Data();
+        data.name = "clement";
+
+        json.register(module);
+        assertThat(json.mapper()).isNotSameAs(initial);
+        assertThat(json.toJson(data).asText()).isEqualTo("clement");
+
+        json.unregister(module);
+        assertThat(json.toJson(data).isObject()).isTrue();
+    }
+
+    @Test
+    public void testConcurrentAccessWhileModulesChange() throws Exception {
+        final Data data = new Data();
+        data.age = 32;
+        data.name = "clement";
+        final AtomicBoolean running = new AtomicBoolean(true);
+        final AtomicReference<Throwable> failure = new AtomicReference<>();
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        for (int i = 0; i < 4; i++) {
+            executor.submit(() -> {
+                try {
+                    while (running.get()) {
+                        JsonNode node = json.toJson(data);
+                        assertThat(json.fromJson(node, Data.class).age).isEqualTo(32);
+                    }
+                } catch (Throwable e) {
+                    failure.set(e);
+                }
+            });
+        }
+        for (int i = 0; i < 50; i++) {
+            SimpleModule module = new SimpleModule("test-" + i);
+            json.register(module);
+            json.unregister(module);
+        }
+        running.set(false);
+        executor.shutdown();
+        assertThat(executor.awaitTermination(10, TimeUnit.SECONDS)).isTrue();
+        assertThat(failure.get()).isNull();
+    }
+
     @Test
     public void testWithCustomConfiguration() throws Exception {
         Map<String, Object> configuration = ImmutableMap.<String, Object>of(
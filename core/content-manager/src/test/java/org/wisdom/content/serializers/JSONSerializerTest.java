@@ -0,0 +1,184 @@
+/*
+ * #%L
+ * Wisdom-Framework
+ * %%
+ * Copyright (C) 2013 - 2014 Wisdom Framework
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.wisdom.content.serializers;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import org.apache.commons.io.IOUtils;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.wisdom.api.bodies.RenderableObject;
+import org.wisdom.api.content.ContentWriter;
+import org.wisdom.content.jackson.JacksonSingleton;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Checks the JSON Serializer.
+ */
+public class JSONSerializerTest {
+
+    JSONSerializer serializer = new JSONSerializer();
+    JacksonSingleton singleton = new JacksonSingleton();
+
+    @Before
+    public void setUp() throws Exception {
+        Field field = JSONSerializer.class.getDeclaredField("json");
+        field.setAccessible(true);
+        field.set(serializer, singleton);
+        singleton.validate();
+    }
+
+    @After
+    public void tearDown() {
+        singleton.invalidate();
+    }
+
+    @Test
+    public void testSerialization() throws Exception {
+        Data data = new Data();
+        data.name = "wisdom";
+        data.age = 2;
+        RenderableObject object = new RenderableObject(data);
+        serializer.serialize(object);
+        assertThat(IOUtils.toString(object.render(null, null)))
+                .isEqualTo(singleton.toJson(data).toString());
+    }
+
+    @Test
+    public void testWithNull() throws Exception {
+        RenderableObject object = new RenderableObject(null);
+        serializer.serialize(object);
+        assertThat(IOUtils.toString(object.render(null, null))).isEmpty();
+    }
+
+    @Test
+    public void testSerializationWithoutWriterSupport() throws Exception {
+        RenderableObject object = new RenderableObject(Arrays.asList("a", "b")) {
+            @Override
+            public boolean setSerializedWriter(ContentWriter writer) {
+                return false;
+            }
+        };
+        serializer.serialize(object);
+        assertThat(IOUtils.toString(object.render(null, null))).isEqualTo("[\"a\",\"b\"]");
+    }
+
+    @Test
+    public void testCollections() throws Exception {
+        Data data = new Data();
+        data.name = "wisdom";
+        data.age = 2;
+        RenderableObject object = new RenderableObject(Arrays.asList(data, null, "hello", 1));
+        serializer.serialize(object);
+        assertThat(IOUtils.toString(object.render(null, null)))
+                .isEqualTo("[{\"name\":\"wisdom\",\"age\":2},null,\"hello\",1]");
+
+        object = new RenderableObject(Arrays.asList());
+        serializer.serialize(object);
+        assertThat(IOUtils.toString(object.render(null, null))).isEqualTo("[]");
+    }
+
+    @Test
+    public void testCollectionsUseTheSerializerOfTheirType() throws Exception {
+        Tags tags = new Tags();
+        tags.add("a");
+        tags.add("b");
+        RenderableObject object = new RenderableObject(tags);
+        assertThat(object.mustBeChunked()).isFalse();
+        serializer.serialize(object);
+        assertThat(IOUtils.toString(object.render(null, null))).isEqualTo("\"a,b\"");
+    }
+
+    @Test
+    public void testStreamsAreSerializedElementByElement() throws Exception {
+        final AtomicInteger pulled = new AtomicInteger();
+        final AtomicBoolean closed = new AtomicBoolean();
+        Stream<Integer> stream = IntStream.range(0, 1000).boxed()
+                .peek(i -> pulled.incrementAndGet())
+                .onClose(() -> closed.set(true));
+        RenderableObject object = new RenderableObject(stream);
+        assertThat(object.mustBeChunked()).isTrue();
+        serializer.serialize(object);
+
+        InputStream input = object.render(null, null);
+        byte[] buffer = new byte[2];
+        assertThat(input.read(buffer)).isEqualTo(2);
+        assertThat(new String(buffer, "UTF-8")).isEqualTo("[0");
+        // Only the first element has been retrieved.
+        assertThat(pulled.get()).isEqualTo(1);
+
+        String remaining = IOUtils.toString(input);
+        assertThat(remaining).startsWith(",1,2,").endsWith(",999]");
+        assertThat(pulled.get()).isEqualTo(1000);
+        input.close();
+        assertThat(closed.get()).isTrue();
+    }
+
+    @Test
+    public void testWritersAreCachedPerClass() {
+        ObjectWriter writer = serializer.writer(Data.class);
+        assertThat(serializer.writer(Data.class)).isSameAs(writer);
+        assertThat(serializer.writer(String.class)).isNotSameAs(writer);
+
+        // The cache is dropped when the mapper is rebuilt.
+        singleton.register(new SimpleModule("test"));
+        assertThat(serializer.writer(Data.class)).isNotSameAs(writer);
+    }
+
+    @JsonSerialize(using = TagsSerializer.class)
+    private static class Tags extends ArrayList<String> {
+    }
+
+    private static class TagsSerializer extends JsonSerializer<Tags> {
+        @Override
+        public void serialize(Tags tags, JsonGenerator generator, SerializerProvider provider) throws IOException {
+            generator.writeString(String.join(",", tags));
+        }
+    }
+
+    private class Data {
+        String name;
+        int age;
+
+        public String getName() {
+            return name;
+        }
+
+        public int getAge() {
+            return age;
+        }
+    }
+}
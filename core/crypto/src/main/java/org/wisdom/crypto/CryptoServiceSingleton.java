@@ -21,6 +21,8 @@ package org.wisdom.crypto;
 
 import com.google.common.base.Charsets;
 import com.google.common.base.Preconditions;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import org.apache.commons.codec.DecoderException;
 import org.apache.commons.codec.binary.Base64;
 import org.apache.commons.codec.binary.Hex;
@@ -40,6 +42,8 @@ import java.nio.charset.Charset;
 import java.security.*;
 import java.security.spec.InvalidKeySpecException;
 import java.security.spec.KeySpec;
+import java.util.EnumMap;
+import java.util.Map;
 
 /**
  * An implementation of the crypto service.
@@ -51,6 +55,10 @@ import java.security.spec.KeySpec;
  * the 256+ keys require runtime adaption because of legal limitations (see unlimited crypto package JCE)</li>
  * <li><code>crypto.aes.iterations</code>: the number of iterations used to generate the key (20 by default)</li>
  * </ul>
+ * <p>
+ * The {@link Mac}, {@link MessageDigest} and {@link Cipher} objects are pooled, and the AES keys derived from a
+ * private key and a salt are cached (up to {@link #MAX_DERIVED_KEYS} keys), as the key derivation is, on purpose,
+ * expensive.
  */
 @Component
 @Provides
@@ -69,6 +77,40 @@ public class CryptoServiceSingleton implements Crypto {
     private final String secret;
     private final SecureRandom random = new SecureRandom();
 
+    /**
+     * The maximum number of derived AES keys kept in memory.
+     */
+    public static final int MAX_DERIVED_KEYS = 256;
+
+    /**
+     * The HMAC-SHA1 instances initialized with the application secret.
+     */
+    private final InstancePool<Mac> secretMacs;
+
+    /**
+     * The HMAC-SHA1 instances used with other keys, initialized on every use.
+     */
+    private final InstancePool<Mac> macs;
+
+    private final Map<Hash, InstancePool<MessageDigest>> digests = new EnumMap<>(Hash.class);
+
+    /**
+     * The ciphers used by the AES with CBC methods (using the configured transformation).
+     */
+    private final InstancePool<Cipher> cbcCiphers;
+
+    /**
+     * The ciphers used by the AES with ECB methods.
+     */
+    private final InstancePool<Cipher> ecbCiphers;
+
+    /**
+     * The AES keys derived from a private key and a salt.
+     */
+    private final Cache<DerivedKey, SecretKey> derivedKeys = CacheBuilder.newBuilder()
+            .maximumSize(MAX_DERIVED_KEYS)
+            .build();
+
     @SuppressWarnings("UnusedDeclaration")
     public CryptoServiceSingleton(@Requires ApplicationConfiguration configuration) {
         this(
@@ -86,6 +128,36 @@ public class CryptoServiceSingleton implements Crypto {
         this.keySize = keySize;
         this.iterationCount = iterationCount;
         this.transformation = transformation;
+
+        this.secretMacs = new InstancePool<>(() -> {
+            Mac mac = Mac.getInstance(HMAC_SHA_1);
+            mac.init(new SecretKeySpec(this.secret.getBytes(UTF_8), HMAC_SHA_1));
+            return mac;
+        });
+        this.macs = new InstancePool<>(() -> Mac.getInstance(HMAC_SHA_1));
+        for (Hash hash : Hash.values()) {
+            digests.put(hash, new InstancePool<>(() -> MessageDigest.getInstance(hash.toString())));
+        }
+        this.cbcCiphers = new InstancePool<>(() -> Cipher.getInstance(this.transformation));
+        this.ecbCiphers = new InstancePool<>(() -> Cipher.getInstance(AES_ECB_ALGORITHM));
+    }
+
+    /**
+     * Gets the AES key generated from the salt and the private key, from the cache if it has already been generated.
+     *
+     * @param salt       the salt (hexadecimal)
+     * @param privateKey the private key
+     * @return the generated key.
+     */
+    private SecretKey getAESKey(String privateKey, String salt) {
+        DerivedKey id = new DerivedKey(privateKey, salt);
+        SecretKey key = derivedKeys.getIfPresent(id);
+        if (key == null) {
+            // Concurrent derivations of the same key are harmless, they compute the same key.
+            key = generateAESKey(privateKey, salt);
+            derivedKeys.put(id, key);
+        }
+        return key;
     }
 
 
@@ -135,7 +207,7 @@ public class CryptoServiceSingleton implements Crypto {
      */
     @Override
     public String encryptAESWithCBC(String value, String privateKey, String salt, String iv) {
-        SecretKey genKey = generateAESKey(privateKey, salt);
+        SecretKey genKey = getAESKey(privateKey, salt);
         byte[] encrypted = doFinal(Cipher.ENCRYPT_MODE, genKey, iv, value.getBytes(UTF_8));
         return encodeBase64(encrypted);
     }
@@ -168,7 +240,7 @@ public class CryptoServiceSingleton implements Crypto {
      */
     @Override
     public String decryptAESWithCBC(String value, String privateKey, String salt, String iv) {
-        SecretKey key = generateAESKey(privateKey, salt);
+        SecretKey key = getAESKey(privateKey, salt);
         byte[] decrypted = doFinal(Cipher.DECRYPT_MODE, key, iv, decodeBase64(value));
         return new String(decrypted, UTF_8);
     }
@@ -187,11 +259,12 @@ public class CryptoServiceSingleton implements Crypto {
     private byte[] doFinal(int encryptMode, SecretKey generatedKey, String vector, byte[] message) {
         try {
             byte[] raw = decodeHex(vector);
-            Cipher cipher = Cipher.getInstance(transformation);
+            Cipher cipher = cbcCiphers.acquire();
             cipher.init(encryptMode, generatedKey, new IvParameterSpec(raw));
-            return cipher.doFinal(message);
-        } catch (NoSuchAlgorithmException | NoSuchPaddingException | InvalidKeyException |
-                InvalidAlgorithmParameterException | IllegalBlockSizeException | BadPaddingException e) {
+            byte[] result = cipher.doFinal(message);
+            cbcCiphers.release(cipher);
+            return result;
+        } catch (GeneralSecurityException e) {
             throw new IllegalStateException(e);
         }
     }
@@ -201,7 +274,16 @@ public class CryptoServiceSingleton implements Crypto {
      */
     @Override
     public String sign(String message) {
-        return sign(message, secret.getBytes(Charsets.UTF_8));
+        Preconditions.checkNotNull(message);
+        try {
+            Mac mac = secretMacs.acquire();
+            // doFinal resets the mac, so it can be reused with the same key.
+            byte[] rawHmac = mac.doFinal(message.getBytes(Charsets.UTF_8));
+            secretMacs.release(mac);
+            return hexToString(rawHmac);
+        } catch (Exception e) {
+            throw new IllegalArgumentException(e);
+        }
     }
 
     /**
@@ -220,11 +302,12 @@ public class CryptoServiceSingleton implements Crypto {
             SecretKeySpec signingKey = new SecretKeySpec(key, HMAC_SHA_1);
 
             // Get an hmac_sha1 Mac instance and initialize with the signing key
-            Mac mac = Mac.getInstance(HMAC_SHA_1);
+            Mac mac = macs.acquire();
             mac.init(signingKey);
 
             // Compute the hmac on input data bytes
             byte[] rawHmac = mac.doFinal(message.getBytes(Charsets.UTF_8));
+            macs.release(mac);
 
             // Convert raw bytes to Hex
             return hexToString(rawHmac);
@@ -256,9 +339,7 @@ public class CryptoServiceSingleton implements Crypto {
         Preconditions.checkNotNull(input);
         Preconditions.checkNotNull(hashType);
         try {
-            MessageDigest m = MessageDigest.getInstance(hashType.toString());
-            byte[] out = m.digest(input.getBytes(Charsets.UTF_8));
-            return encodeBase64(out);
+            return encodeBase64(digest(hashType, input));
         } catch (NoSuchAlgorithmException e) {
             throw new IllegalArgumentException(e);
         }
@@ -288,11 +369,12 @@ public class CryptoServiceSingleton implements Crypto {
         try {
             byte[] raw = privateKey.getBytes(UTF_8);
             SecretKeySpec skeySpec = new SecretKeySpec(raw, AES_ECB_ALGORITHM);
-            Cipher cipher = Cipher.getInstance(AES_ECB_ALGORITHM);
+            Cipher cipher = ecbCiphers.acquire();
             cipher.init(Cipher.ENCRYPT_MODE, skeySpec);
-            return hexToString(cipher.doFinal(value.getBytes(Charsets.UTF_8)));
-        } catch (NoSuchAlgorithmException | NoSuchPaddingException |
-                InvalidKeyException | BadPaddingException | IllegalBlockSizeException e) {
+            byte[] result = cipher.doFinal(value.getBytes(Charsets.UTF_8));
+            ecbCiphers.release(cipher);
+            return hexToString(result);
+        } catch (GeneralSecurityException e) {
             throw new IllegalStateException(e);
         }
     }
@@ -322,11 +404,12 @@ public class CryptoServiceSingleton implements Crypto {
         try {
             byte[] raw = privateKey.getBytes(UTF_8);
             SecretKeySpec skeySpec = new SecretKeySpec(raw, AES_ECB_ALGORITHM);
-            Cipher cipher = Cipher.getInstance(AES_ECB_ALGORITHM);
+            Cipher cipher = ecbCiphers.acquire();
             cipher.init(Cipher.DECRYPT_MODE, skeySpec);
-            return new String(cipher.doFinal(decodeHex(value)), Charsets.UTF_8);
-        } catch (NoSuchAlgorithmException | NoSuchPaddingException |
-                InvalidKeyException | BadPaddingException | IllegalBlockSizeException e) {
+            byte[] result = cipher.doFinal(decodeHex(value));
+            ecbCiphers.release(cipher);
+            return new String(result, Charsets.UTF_8);
+        } catch (GeneralSecurityException e) {
             throw new IllegalStateException(e);
         }
     }
@@ -497,10 +580,7 @@ public class CryptoServiceSingleton implements Crypto {
     @Override
     public byte[] md5(String toHash) {
         try {
-            MessageDigest messageDigest = MessageDigest.getInstance(Hash.MD5.toString());
-            messageDigest.reset();
-            messageDigest.update(toHash.getBytes(UTF_8));
-            return messageDigest.digest();
+            return digest(Hash.MD5, toHash);
         } catch (NoSuchAlgorithmException e) {
             // Should not happen as every JVM must support D5, SHA-1 and SHA-256.
             throw new RuntimeException(e);
@@ -516,16 +596,38 @@ public class CryptoServiceSingleton implements Crypto {
     @Override
     public byte[] sha1(String toHash) {
         try {
-            MessageDigest messageDigest = MessageDigest.getInstance(Hash.SHA1.toString());
-            messageDigest.reset();
-            messageDigest.update(toHash.getBytes(UTF_8));
-            return messageDigest.digest();
+            return digest(Hash.SHA1, toHash);
         } catch (NoSuchAlgorithmException e) {
             // Should not happen as every JVM must support D5, SHA-1 and SHA-256.
             throw new RuntimeException(e);
         }
     }
 
+    /**
+     * Computes the digest of the given String (encoded in UTF-8) using a pooled {@link MessageDigest}.
+     *
+     * @param hash  the hash algorithm
+     * @param input the string to hash
+     * @return the digest
+     * @throws NoSuchAlgorithmException if the algorithm is not supported
+     */
+    private byte[] digest(Hash hash, String input) throws NoSuchAlgorithmException {
+        InstancePool<MessageDigest> pool = digests.get(hash);
+        MessageDigest digest;
+        try {
+            digest = pool.acquire();
+        } catch (NoSuchAlgorithmException e) {
+            throw e;
+        } catch (GeneralSecurityException e) {
+            // Cannot happen, getInstance only throws NoSuchAlgorithmException.
+            throw new IllegalStateException(e);
+        }
+        // digest resets the message digest, so it can be reused.
+        byte[] out = digest.digest(input.getBytes(UTF_8));
+        pool.release(digest);
+        return out;
+    }
+
     /**
      * Converts an array of bytes into an array of characters representing the hexadecimal values of each byte in order.
      * <p>
@@ -570,4 +672,33 @@ public class CryptoServiceSingleton implements Crypto {
         }
     }
 
-}
\ No newline at end of file
+    /**
+     * Identifies an AES key derived from a private key and a salt.
+     */
+    private static final class DerivedKey {
+        private final String privateKey;
+        private final String salt;
+
+        private DerivedKey(String privateKey, String salt) {
+            this.privateKey = privateKey;
+            this.salt = salt;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof DerivedKey)) {
+                return false;
+            }
+            DerivedKey other = (DerivedKey) o;
+            return privateKey.equals(other.privateKey) && salt.equals(other.salt);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * privateKey.hashCode() + salt.hashCode();
+        }
+    }
+}
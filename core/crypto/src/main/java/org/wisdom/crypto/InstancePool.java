@@ -0,0 +1,96 @@
+/*
+ * #%L
+ * Wisdom-Framework
+ * %%
+ * Copyright (C) 2013 - 2014 Wisdom Framework
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.wisdom.crypto;
+
+import java.security.GeneralSecurityException;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A pool of (not thread-safe) JCA objects such as {@link javax.crypto.Mac}, {@link java.security.MessageDigest} or
+ * {@link javax.crypto.Cipher}. Looking up these objects with {@literal getInstance} goes through the security
+ * providers and is much more expensive than the operations they perform on small messages.
+ * <p>
+ * A pool is used instead of thread locals, so the instances are not retained by the threads of other bundles once
+ * the crypto service is gone. The number of idle instances is bounded, instances released when the pool is full are
+ * left to the garbage collector.
+ *
+ * @param <T> the type of pooled objects
+ */
+final class InstancePool<T> {
+
+    /**
+     * The maximum number of idle instances kept by a pool.
+     */
+    static final int MAX_IDLE = 64;
+
+    /**
+     * Creates the pooled instances.
+     *
+     * @param <T> the type of created objects
+     */
+    interface Factory<T> {
+        /**
+         * @return a new instance, ready to be used
+         * @throws GeneralSecurityException if the instance cannot be created
+         */
+        T create() throws GeneralSecurityException;
+    }
+
+    private final Queue<T> idle = new ConcurrentLinkedQueue<>();
+
+    private final AtomicInteger size = new AtomicInteger();
+
+    private final Factory<T> factory;
+
+    InstancePool(Factory<T> factory) {
+        this.factory = factory;
+    }
+
+    /**
+     * Gets an instance from the pool, or creates one if the pool is empty. The instance must be given back using
+     * {@link #release(Object)} once used. Instances whose usage has failed should not be released.
+     *
+     * @return the instance
+     * @throws GeneralSecurityException if the instance cannot be created
+     */
+    T acquire() throws GeneralSecurityException {
+        T instance = idle.poll();
+        if (instance == null) {
+            return factory.create();
+        }
+        size.decrementAndGet();
+        return instance;
+    }
+
+    /**
+     * Gives back an instance to the pool.
+     *
+     * @param instance the instance
+     */
+    void release(T instance) {
+        if (size.incrementAndGet() <= MAX_IDLE) {
+            idle.offer(instance);
+        } else {
+            size.decrementAndGet();
+        }
+    }
+}
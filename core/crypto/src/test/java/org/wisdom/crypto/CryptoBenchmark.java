@@ -0,0 +1,111 @@
+/*
+ * #%L
+ * Wisdom-Framework
+ * %%
+ * Copyright (C) 2013 - 2014 Wisdom Framework
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.wisdom.crypto;
+
+import com.google.common.base.Charsets;
+import org.apache.commons.codec.binary.Hex;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.wisdom.api.crypto.Crypto;
+import org.wisdom.api.crypto.Hash;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the throughput of the signature, token verification, hash and AES with CBC operations of the
+ * {@link CryptoServiceSingleton}. The {@literal signBaseline} benchmark creates and initializes a new {@link Mac} for
+ * each signature, as the previous implementation did.
+ * <p>
+ * This is not a unit test. Compile the tests with the {@literal benchmarks} profile ({@code mvn clean test-compile
+ * -Pbenchmarks}), and launch it with the {@link #main(String[])} method from the test classpath. The benchmarks are
+ * executed with 1, 2, 4 and 8 threads.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CryptoBenchmark {
+
+    private static final String SECRET = "JYFVq6:^jrh:KIy:yM5Xb<sH58WW80OLL4_gCL4Ne[PnAJ9QC/Z?LG2dbwoSkiBL";
+
+    private static final String SALT = "0000000000000000";
+
+    private static final String MESSAGE = "___ID=1234&user=wisdom&___TS=1445437294000";
+
+    private Crypto crypto;
+
+    private String token;
+
+    private String encrypted;
+
+    @Setup
+    public void setup() {
+        crypto = new CryptoServiceSingleton(SECRET, Hash.MD5, 128, Crypto.AES_CBC_ALGORITHM, 20);
+        token = crypto.generateSignedToken();
+        encrypted = crypto.encryptAESWithCBC(MESSAGE, SALT);
+    }
+
+    @Benchmark
+    public String sign() {
+        return crypto.sign(MESSAGE);
+    }
+
+    @Benchmark
+    public String signBaseline() throws Exception {
+        Mac mac = Mac.getInstance(CryptoServiceSingleton.HMAC_SHA_1);
+        mac.init(new SecretKeySpec(SECRET.getBytes(Charsets.UTF_8), CryptoServiceSingleton.HMAC_SHA_1));
+        return Hex.encodeHexString(mac.doFinal(MESSAGE.getBytes(Charsets.UTF_8)));
+    }
+
+    @Benchmark
+    public String verify() {
+        return crypto.extractSignedToken(token);
+    }
+
+    @Benchmark
+    public String hexSHA1() {
+        return crypto.hexSHA1(MESSAGE);
+    }
+
+    @Benchmark
+    public String encrypt() {
+        return crypto.encryptAESWithCBC(MESSAGE, SALT);
+    }
+
+    @Benchmark
+    public String decrypt() {
+        return crypto.decryptAESWithCBC(encrypted, SALT);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        for (int threads = 1; threads <= 8; threads *= 2) {
+            new Runner(new OptionsBuilder()
+                    .include(CryptoBenchmark.class.getSimpleName())
+                    .threads(threads)
+                    .build()).run();
+        }
+    }
+}
@@ -25,7 +25,15 @@ import org.wisdom.api.configuration.ApplicationConfiguration;
 import org.wisdom.api.crypto.Crypto;
 import org.wisdom.api.crypto.Hash;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.fail;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 
@@ -189,4 +197,58 @@ public class CryptoServiceSingletonTest {
 
         assertThat(crypto.compareSignedTokens(token2, token)).isFalse();
     }
+
+    @Test
+    public void testPooledInstancesAreReusable() {
+        String signed = crypto.sign("hello");
+        // Signing with another key must not change the key used for the application secret.
+        assertThat(crypto.sign("hello", "another key".getBytes())).isNotEqualTo(signed);
+        assertThat(crypto.sign("hello")).isEqualTo(signed);
+
+        // A failed decryption must not break the next operations.
+        try {
+            crypto.decryptAESWithCBC("bm90IGVuY3J5cHRlZA==", "0000000000000000");
+            fail("Exception expected");
+        } catch (IllegalStateException e) {
+            // OK
+        }
+        String encrypted = crypto.encryptAESWithCBC("hello", "0000000000000000");
+        assertThat(crypto.decryptAESWithCBC(encrypted, "0000000000000000")).isEqualTo("hello");
+
+        // Keys derived from different salts are different.
+        assertThat(crypto.encryptAESWithCBC("hello", "1111111111111111")).isNotEqualTo(encrypted);
+        assertThat(crypto.hexMD5("hello")).isEqualTo(crypto.hexMD5("hello"));
+    }
+
+    @Test
+    public void testConcurrentUsage() throws Exception {
+        final String signed = crypto.sign("hello");
+        final String sha1 = crypto.hexSHA1("hello");
+        final String encrypted = crypto.encryptAESWithCBC("hello", "0000000000000000");
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<Boolean>> results = new ArrayList<>();
+            for (int i = 0; i < 64; i++) {
+                results.add(executor.submit(new Callable<Boolean>() {
+                    @Override
+                    public Boolean call() throws Exception {
+                        for (int j = 0; j < 100; j++) {
+                            if (!signed.equals(crypto.sign("hello"))
+                                    || !sha1.equals(crypto.hexSHA1("hello"))
+                                    || !encrypted.equals(crypto.encryptAESWithCBC("hello", "0000000000000000"))
+                                    || !"hello".equals(crypto.decryptAESWithCBC(encrypted, "0000000000000000"))) {
+                                return false;
+                            }
+                        }
+                        return true;
+                    }
+                }));
+            }
+            for (Future<Boolean> result : results) {
+                assertThat(result.get()).isTrue();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
 }
@@ -0,0 +1,166 @@
+/*
+ * #%L
+ * Wisdom-Framework
+ * %%
+ * Copyright (C) 2013 - 2014 Wisdom Framework
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.wisdom.router;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+
+/**
+ * Invokes an action method. Invokers are created once per route, when the route is registered.
+ * <p>
+ * The default implementation relies on a {@link MethodHandle} adapted to take the controller and an array of
+ * parameters, avoiding the access checks done by {@link Method#invoke(Object, Object...)} on every call. If the
+ * method handle cannot be created, the invoker falls back to reflection.
+ * <p>
+ * Both implementations report the exceptions thrown by the action method using an
+ * {@link InvocationTargetException}, as the exception mappers and error handlers expect. Arguments that cannot be
+ * bound to the action method are reported as reflection does, without wrapping.
+ */
+abstract class ActionInvoker {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ActionInvoker.class);
+
+    /**
+     * Invokes the action method.
+     *
+     * @param controller the controller object
+     * @param parameters the parameters
+     * @return the result of the action method
+     * @throws InvocationTargetException if the action method throws an exception
+     * @throws IllegalAccessException    if the action method cannot be called
+     */
+    abstract Object invoke(Object controller, Object[] parameters) throws InvocationTargetException,
+            IllegalAccessException;
+
+    /**
+     * Creates the invoker for the given action method.
+     *
+     * @param method the method, must be accessible
+     * @return the invoker, based on a method handle if possible, on reflection otherwise.
+     */
+    static ActionInvoker create(Method method) {
+        try {
+            return new MethodHandleInvoker(method);
+        } catch (IllegalAccessException | RuntimeException e) { //NOSONAR
+            LOGGER.debug("Cannot create a method handle for {}, using reflection", method, e);
+            return new ReflectiveInvoker(method);
+        }
+    }
+
+    /**
+     * Invoker using reflection.
+     */
+    static final class ReflectiveInvoker extends ActionInvoker {
+        private final Method method;
+
+        ReflectiveInvoker(Method method) {
+            this.method = method;
+        }
+
+        @Override
+        Object invoke(Object controller, Object[] parameters) throws InvocationTargetException,
+                IllegalAccessException {
+            return method.invoke(controller, parameters);
+        }
+    }
+
+    /**
+     * Invoker using a method handle.
+     * <p>
+     * The controller and the arguments are checked before invoking the handle, so the exceptions thrown by the
+     * handle are the ones thrown by the action method. When they do not match the method exactly, the invocation is
+     * delegated to reflection, which converts the arguments (widening) or reports the binding failure.
+     */
+    static final class MethodHandleInvoker extends ActionInvoker {
+        private final MethodHandle handle;
+        private final Method method;
+        private final boolean isStatic;
+        /**
+         * The types of the parameters, primitive types being replaced by their wrapper type.
+         */
+        private final Class<?>[] types;
+        private final boolean[] primitives;
+
+        MethodHandleInvoker(Method method) throws IllegalAccessException {
+            this.method = method;
+            this.isStatic = Modifier.isStatic(method.getModifiers());
+            Class<?>[] parameters = method.getParameterTypes();
+            this.types = new Class<?>[parameters.length];
+            this.primitives = new boolean[parameters.length];
+            for (int i = 0; i < parameters.length; i++) {
+                primitives[i] = parameters[i].isPrimitive();
+                types[i] = MethodType.methodType(parameters[i]).wrap().returnType();
+            }
+
+            MethodHandle mh = MethodHandles.lookup().unreflect(method);
+            if (isStatic) {
+                // Ignore the controller object, as reflection does.
+                mh = MethodHandles.dropArguments(mh, 0, Object.class);
+            }
+            // (Controller, A1, A2...)R => (Object, Object...)Object
+            mh = mh.asType(mh.type().generic());
+            this.handle = mh.asSpreader(Object[].class, method.getParameterCount());
+        }
+
+        @Override
+        Object invoke(Object controller, Object[] parameters) throws InvocationTargetException,
+                IllegalAccessException {
+            if (!matches(controller, parameters)) {
+                return method.invoke(controller, parameters);
+            }
+            try {
+                return (Object) handle.invokeExact(controller, parameters);
+            } catch (Throwable e) { //NOSONAR the method handle can throw anything.
+                throw new InvocationTargetException(e);
+            }
+        }
+
+        /**
+         * Checks whether the handle can be invoked with the given controller and arguments without conversion.
+         *
+         * @param controller the controller object
+         * @param parameters the parameters
+         * @return {@code true} if the controller and the arguments match the method exactly
+         */
+        private boolean matches(Object controller, Object[] parameters) {
+            if (!isStatic && !method.getDeclaringClass().isInstance(controller)) {
+                return false;
+            }
+            int count = parameters == null ? 0 : parameters.length;
+            if (count != types.length) {
+                return false;
+            }
+            for (int i = 0; i < count; i++) {
+                Object parameter = parameters[i];
+                if (parameter == null ? primitives[i] : !types[i].isInstance(parameter)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+}
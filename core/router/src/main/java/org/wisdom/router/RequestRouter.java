@@ -43,7 +43,8 @@ import javax.validation.Validator;
 import java.io.UnsupportedEncodingException;
 import java.net.URLEncoder;
 import java.util.*;
-import java.util.stream.Collectors;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * The request router responsible for handling request and invoke the action methods.
@@ -85,8 +86,13 @@ public class RequestRouter extends AbstractRouter {
      */
     private Set<Filter> filters = new FilterSet();
 
-    @Requires(optional = true, specification = Interceptor.class)
-    private List<Interceptor<?>> interceptors;
+    private final List<Interceptor<?>> interceptors = new CopyOnWriteArrayList<>();
+
+    /**
+     * Incremented every time a filter or an interceptor arrives or leaves. Routes compare this value with the one
+     * used to compute their interception chain to detect when it must be recomputed.
+     */
+    private final AtomicInteger chainGeneration = new AtomicInteger();
 
     @Requires(optional = true, proxy = false)
     private Validator validator;
@@ -96,6 +102,12 @@ public class RequestRouter extends AbstractRouter {
 
     private Set<RouteDelegate> routes = new LinkedHashSet<>();
 
+    /**
+     * The route index used to find the route handling a request. It's an immutable snapshot of the route set,
+     * rebuilt every time the set changes, so the request processing does not require any lock.
+     */
+    private volatile RouteIndex index = RouteIndex.EMPTY;
+
     /**
      * Binds a new controller.
      *
@@ -126,6 +138,7 @@ public class RequestRouter extends AbstractRouter {
             // remove all new routes as one has failed
             routes.removeAll(newRoutes); //NOSONAR
         }
+        index = new RouteIndex(routes);
     }
 
     /**
@@ -142,6 +155,7 @@ public class RequestRouter extends AbstractRouter {
                 routes.remove(r);
             }
         }
+        index = new RouteIndex(routes);
     }
 
     private void ensureNoConflicts(List<Route> newRoutes) {
@@ -217,12 +231,13 @@ public class RequestRouter extends AbstractRouter {
      * Stopping the router. All routes are cleared.
      */
     @Invalidate
-    public void stop() {
+    public synchronized void stop() {
         routes.clear();
+        index = RouteIndex.EMPTY;
     }
 
-    private synchronized Set<Route> copy() {
-        return new LinkedHashSet<Route>(routes);
+    private Set<Route> copy() {
+        return new LinkedHashSet<>(index.routes());
     }
 
     /**
@@ -236,21 +251,7 @@ public class RequestRouter extends AbstractRouter {
     @Override
     public Route getRouteFor(HttpMethod method, String uri, Request request) {
         // Compute the list of matching routes - only the path is check in this first stage
-        List<Route> list = new ArrayList<>(1);
-        //TODO This can be faster by using an immutable list.
-        list.addAll(copy().stream()
-                .filter(route -> route.matches(method, uri))
-                .sorted((r1, r2) -> {
-                    // Exact match first.
-                    if (r1.getUrl().equalsIgnoreCase(uri)) {
-                        return -1;
-                    } else if (r2.getUrl().equalsIgnoreCase(uri)) {
-                        return 1;
-                    }
-                    // Not comparable
-                    return 0;
-                })
-                .collect(Collectors.toList()));
+        List<Route> list = index.find(method, uri);
 
         if (list.isEmpty()) {
             // Creates an unbound route - 404
@@ -303,7 +304,7 @@ public class RequestRouter extends AbstractRouter {
      */
     @Override
     public String getReverseRouteFor(String className, String method, Map<String, Object> params) {
-        for (Route route : copy()) {
+        for (Route route : index.routes()) {
             if (route.getControllerClass().getName().equals(className)
                     && route.getControllerMethod().getName().equals(method)) {
                 return computeUrlForRoute(route, params);
@@ -433,6 +434,14 @@ public class RequestRouter extends AbstractRouter {
         return interceptors;
     }
 
+    /**
+     * @return the current generation of the filter and interceptor sets. Interception chains computed with another
+     * generation are outdated.
+     */
+    protected int getChainGeneration() {
+        return chainGeneration.get();
+    }
+
     protected ParameterFactories getParameterConverterEngine() {
         return engine;
     }
@@ -445,6 +454,7 @@ public class RequestRouter extends AbstractRouter {
     @Bind(aggregate = true, optional = true)
     public void bindFilter(Filter filter) {
         filters.add(filter);
+        chainGeneration.incrementAndGet();
     }
 
     /**
@@ -455,6 +465,29 @@ public class RequestRouter extends AbstractRouter {
     @Unbind
     public synchronized void unbindFilter(Filter filter) {
         filters.remove(filter);
+        chainGeneration.incrementAndGet();
+    }
+
+    /**
+     * Binds an interceptor.
+     *
+     * @param interceptor the interceptor
+     */
+    @Bind(aggregate = true, optional = true, specification = Interceptor.class)
+    public void bindInterceptor(Interceptor<?> interceptor) {
+        interceptors.add(interceptor);
+        chainGeneration.incrementAndGet();
+    }
+
+    /**
+     * Unbinds an interceptor.
+     *
+     * @param interceptor the interceptor
+     */
+    @Unbind
+    public void unbindInterceptor(Interceptor<?> interceptor) {
+        interceptors.remove(interceptor);
+        chainGeneration.incrementAndGet();
     }
 
     /**
@@ -30,6 +30,7 @@ import org.wisdom.api.interception.RequestContext;
 import org.wisdom.api.router.Route;
 import org.wisdom.api.router.parameters.ActionParameter;
 import org.wisdom.router.parameter.Bindings;
+import org.wisdom.router.parameter.RouteParameterHandler;
 
 import javax.validation.Constraint;
 import javax.validation.ConstraintViolation;
@@ -39,6 +40,7 @@ import java.lang.annotation.Annotation;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.util.*;
+import java.util.concurrent.CompletionStage;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 
@@ -51,6 +53,14 @@ public class RouteDelegate extends Route {
     private final RequestRouter router;
     private final boolean mustValidate;
     private final Map<String, Object> interceptors;
+    private final Filter endOfChain = new EndOfChainInvoker();
+    private final ActionInvoker invoker;
+    private final RouteParameterHandler[] handlers;
+
+    /**
+     * The interception chain, computed lazily and recomputed when the router's filters or interceptors change.
+     */
+    private volatile Chain chain;
 
     /**
      * Creates a new instance of {@link org.wisdom.router.RouteDelegate}.
@@ -64,9 +74,17 @@ public class RouteDelegate extends Route {
         if (!route.isUnbound()) {
             this.mustValidate = detectValidationRequirement(route.getControllerMethod());
             this.interceptors = extractInterceptors();
+            this.invoker = ActionInvoker.create(route.getControllerMethod());
+            List<ActionParameter> arguments = route.getArguments();
+            this.handlers = new RouteParameterHandler[arguments.size()];
+            for (int i = 0; i < handlers.length; i++) {
+                handlers[i] = Bindings.handler(arguments.get(i));
+            }
         } else {
             this.mustValidate = false;
             this.interceptors = Collections.emptyMap();
+            this.invoker = null;
+            this.handlers = new RouteParameterHandler[0];
         }
     }
 
@@ -213,43 +231,67 @@ public class RouteDelegate extends Route {
         return route.getArguments();
     }
 
+    @Override
+    public boolean isStreamingBody() {
+        return route.isStreamingBody();
+    }
+
     @Override
     public Result invoke() throws Exception {
         Context context = Context.CONTEXT.get();
         Preconditions.checkNotNull(context);
 
-        // Build chain if needed.
+        Chain current = getChain();
+        if (current.missingInterceptor != null) {
+            return Results.badRequest("Missing interceptor handling " + current.missingInterceptor);
+        }
+
+        // Ready to call the action.
+        RequestContext ctx = new RequestContext(this, current.filters, current.configuration);
+        return ctx.proceed();
+    }
+
+    /**
+     * Gets the interception chain, and recomputes it if the filters or interceptors have changed since its last
+     * computation.
+     *
+     * @return the chain
+     */
+    private Chain getChain() {
+        final int generation = router.getChainGeneration();
+        Chain current = chain;
+        if (current == null || current.generation != generation) {
+            current = buildChain(generation);
+            chain = current;
+        }
+        return current;
+    }
+
+    private Chain buildChain(int generation) {
         // We get an immutable copy of the set.
         Set<Filter> filters = router.getFilters();
         // Interceptors will be handled after filters.
-        List<Filter> chain = filters.stream()
-                .filter(filter -> !(filter instanceof Interceptor)  && filter.uri().matcher(route.getUrl()).matches())
+        List<Filter> list = filters.stream()
+                .filter(filter -> !(filter instanceof Interceptor) && filter.uri().matcher(route.getUrl()).matches())
                 .collect(Collectors.toList());
 
         Map<Interceptor<?>, Object> itcpConfiguration = new LinkedHashMap<>();
-        if (!interceptors.isEmpty()) {
-            for (Map.Entry<String, Object> entry : interceptors.entrySet()) {
-                final Interceptor<?> interceptor = getInterceptorForAnnotation(entry.getKey());
-                if (interceptor == null) {
-                    return Results.badRequest("Missing interceptor handling " + entry.getKey());
-                }
-                itcpConfiguration.put(interceptor, entry.getValue());
-                chain.add(interceptor);
+        for (Map.Entry<String, Object> entry : interceptors.entrySet()) {
+            final Interceptor<?> interceptor = getInterceptorForAnnotation(entry.getKey());
+            if (interceptor == null) {
+                return new Chain(generation, null, null, entry.getKey());
             }
+            itcpConfiguration.put(interceptor, entry.getValue());
+            list.add(interceptor);
         }
+        list.add(endOfChain);
 
-        // Ready to call the action.
-        Filter endOfChain = new EndOfChainInvoker();
-        RequestContext ctx = new RequestContext(this, chain, itcpConfiguration, null, endOfChain);
-        return ctx.proceed();
+        return new Chain(generation, list.toArray(new Filter[list.size()]),
+                Collections.unmodifiableMap(itcpConfiguration), null);
     }
 
     private Interceptor<?> getInterceptorForAnnotation(String className) {
-        List<Interceptor<?>> localInterceptors = router.getInterceptors();
-        if (localInterceptors == null) {
-            return null;
-        }
-        for (Interceptor<?> interceptor : localInterceptors) {
+        for (Interceptor<?> interceptor : router.getInterceptors()) {
             if (interceptor.annotation().getName().equals(className)) {
                 return interceptor;
             }
@@ -283,6 +325,48 @@ public class RouteDelegate extends Route {
         return route.isUnbound();
     }
 
+    /**
+     * An immutable interception chain.
+     */
+    private static final class Chain {
+        /**
+         * The generation of the router's filters and interceptors used to compute the chain.
+         */
+        private final int generation;
+        /**
+         * The filters and interceptors, ending with the action invoker.
+         */
+        private final Filter[] filters;
+        private final Map<Interceptor<?>, Object> configuration;
+        /**
+         * The name of the interception annotation without interceptor, {@code null} if all interceptors are there.
+         */
+        private final String missingInterceptor;
+
+        private Chain(int generation, Filter[] filters, Map<Interceptor<?>, Object> configuration,
+                      String missingInterceptor) {
+            this.generation = generation;
+            this.filters = filters;
+            this.configuration = configuration;
+            this.missingInterceptor = missingInterceptor;
+        }
+    }
+
+    /**
+     * Converts the object returned by an action method to a result. Completion stages are wrapped in a
+     * {@link DeferredResult}, so the response is written once the stage completes.
+     *
+     * @param returned the object returned by the action method
+     * @return the result
+     */
+    @SuppressWarnings("unchecked")
+    private static Result toResult(Object returned) {
+        if (returned instanceof CompletionStage) {
+            return new DeferredResult((CompletionStage<Result>) returned);
+        }
+        return (Result) returned;
+    }
+
     private class EndOfChainInvoker implements Filter {
         /**
          * We are the end of the chain, so we call the action method.
@@ -304,8 +388,7 @@ public class RouteDelegate extends Route {
                 final List<ActionParameter> arguments = getArguments();
                 Object[] parameters = new Object[arguments.size()];
                 for (int i = 0; i < arguments.size(); i++) {
-                    ActionParameter argument = arguments.get(i);
-                    parameters[i] = Bindings.create(argument, context.context(),
+                    parameters[i] = handlers[i].create(arguments.get(i), context.context(),
                             router.getParameterConverterEngine());
                 }
 
@@ -327,8 +410,7 @@ public class RouteDelegate extends Route {
                 context.setParameters(parameters);
 
                 // Invoke the action method.
-                final Result result = (Result) getControllerMethod().invoke(
-                        getControllerObject(), parameters);
+                final Result result = toResult(invoker.invoke(getControllerObject(), parameters));
 
                 // Manage the VARY header if the route has a 'consume' set:
                 if (! result.getHeaders().containsKey(HeaderNames.VARY)) {
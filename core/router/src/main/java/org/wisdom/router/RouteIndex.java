@@ -0,0 +1,242 @@
+/*
+ * #%L
+ * Wisdom-Framework
+ * %%
+ * Copyright (C) 2013 - 2014 Wisdom Framework
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.wisdom.router;
+
+import com.google.common.collect.ImmutableList;
+import org.wisdom.api.http.HttpMethod;
+import org.wisdom.api.router.Route;
+
+import java.util.*;
+
+/**
+ * An immutable index of routes used to find the routes matching a request without iterating over all the routes.
+ * <p>
+ * Routes are organized in a segment trie per HTTP method. Routes composed only of literal segments are stored in
+ * the node reached by their last segment and are matched by string equality. Other routes (using path parameters,
+ * regular expressions or wildcards) are stored in the node reached by their longest literal prefix, and are checked
+ * using their regular expression. So, for a given request, only the routes sharing the same literal prefix are
+ * evaluated.
+ * <p>
+ * Instances are never modified once built. The router builds a new index every time its set of routes changes and
+ * publishes it using a volatile field, so lookups do not require any lock.
+ */
+public final class RouteIndex {
+
+    /**
+     * The characters that are not considered as 'literal' in a route uri, as they have a meaning in the regular
+     * expression computed by {@link org.wisdom.api.router.RouteUtils#convertRawUriToRegex(String)}.
+     */
+    private static final String NON_LITERAL_CHARS = "{}<>*+?.()[]\\^$|";
+
+    /**
+     * The empty index.
+     */
+    public static final RouteIndex EMPTY = new RouteIndex(Collections.<Route>emptyList());
+
+    private final List<Route> routes;
+
+    private final Map<HttpMethod, Node> roots = new EnumMap<>(HttpMethod.class);
+
+    /**
+     * Creates a new index.
+     *
+     * @param routes the routes, the iteration order is kept when several routes match the same request.
+     */
+    public RouteIndex(Collection<? extends Route> routes) {
+        this.routes = ImmutableList.copyOf(routes);
+        int ordinal = 0;
+        for (Route route : this.routes) {
+            Node root = roots.get(route.getHttpMethod());
+            if (root == null) {
+                root = new Node();
+                roots.put(route.getHttpMethod(), root);
+            }
+            root.insert(new Entry(route, ordinal++));
+        }
+    }
+
+    /**
+     * @return the indexed routes, in their insertion order.
+     */
+    public List<Route> routes() {
+        return routes;
+    }
+
+    /**
+     * Finds the routes matching the given method and uri. Only the path is checked. The returned list is ordered as
+     * follows: the routes for which the url is the requested uri first, then the others, both in insertion order.
+     *
+     * @param method the HTTP method
+     * @param uri    the request path
+     * @return the list of matching routes, empty if none.
+     */
+    public List<Route> find(HttpMethod method, String uri) {
+        Node node = roots.get(method);
+        if (node == null || uri == null) {
+            return Collections.emptyList();
+        }
+
+        List<Entry> candidates = null;
+        int start = 0;
+        while (node != null) {
+            candidates = addMatchingPatterns(candidates, node, method, uri);
+            int end = uri.indexOf('/', start);
+            if (end == -1) {
+                // Last segment.
+                Node last = node.children.get(uri.substring(start));
+                if (last != null) {
+                    candidates = addAll(candidates, last.exact);
+                    candidates = addMatchingPatterns(candidates, last, method, uri);
+                }
+                break;
+            }
+            node = node.children.get(uri.substring(start, end));
+            start = end + 1;
+        }
+
+        if (candidates == null) {
+            return Collections.emptyList();
+        }
+        if (candidates.size() == 1) {
+            return Collections.singletonList(candidates.get(0).route);
+        }
+
+        Collections.sort(candidates);
+        List<Route> result = new ArrayList<>(candidates.size());
+        // Exact match first.
+        for (Entry entry : candidates) {
+            if (entry.route.getUrl().equalsIgnoreCase(uri)) {
+                result.add(entry.route);
+            }
+        }
+        for (Entry entry : candidates) {
+            if (!entry.route.getUrl().equalsIgnoreCase(uri)) {
+                result.add(entry.route);
+            }
+        }
+        return result;
+    }
+
+    private static List<Entry> addMatchingPatterns(List<Entry> candidates, Node node, HttpMethod method,
+                                                   String uri) {
+        List<Entry> list = candidates;
+        for (Entry entry : node.patterns) {
+            if (entry.route.matches(method, uri)) {
+                if (list == null) {
+                    list = new ArrayList<>(2);
+                }
+                list.add(entry);
+            }
+        }
+        return list;
+    }
+
+    private static List<Entry> addAll(List<Entry> candidates, List<Entry> entries) {
+        if (entries.isEmpty()) {
+            return candidates;
+        }
+        List<Entry> list = candidates;
+        if (list == null) {
+            list = new ArrayList<>(entries.size());
+        }
+        list.addAll(entries);
+        return list;
+    }
+
+    /**
+     * Splits the given uri in segments. Unlike {@link String#split(String)}, trailing empty segments are kept, so
+     * {@literal /foo/} gives {@literal ["", "foo", ""]}.
+     *
+     * @param uri the uri
+     * @return the list of segments
+     */
+    static List<String> segments(String uri) {
+        List<String> segments = new ArrayList<>();
+        int start = 0;
+        int end;
+        while ((end = uri.indexOf('/', start)) != -1) {
+            segments.add(uri.substring(start, end));
+            start = end + 1;
+        }
+        segments.add(uri.substring(start));
+        return segments;
+    }
+
+    private static boolean isLiteral(String segment) {
+        for (int i = 0; i < segment.length(); i++) {
+            if (NON_LITERAL_CHARS.indexOf(segment.charAt(i)) != -1) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * A node of the trie.
+     */
+    private static final class Node {
+        private final Map<String, Node> children = new HashMap<>();
+        /**
+         * The routes composed of literal segments only, and ending on this node.
+         */
+        private final List<Entry> exact = new ArrayList<>(1);
+        /**
+         * The routes having the path leading to this node as literal prefix.
+         */
+        private final List<Entry> patterns = new ArrayList<>(1);
+
+        private void insert(Entry entry) {
+            List<String> segments = segments(entry.route.getUrl());
+            Node current = this;
+            for (int i = 0; i < segments.size(); i++) {
+                String segment = segments.get(i);
+                if (!isLiteral(segment)) {
+                    current.patterns.add(entry);
+                    return;
+                }
+                Node child = current.children.get(segment);
+                if (child == null) {
+                    child = new Node();
+                    current.children.put(segment, child);
+                }
+                current = child;
+            }
+            current.exact.add(entry);
+        }
+    }
+
+    /**
+     * A route and its position in the index.
+     */
+    private static final class Entry implements Comparable<Entry> {
+        private final Route route;
+        private final int ordinal;
+
+        private Entry(Route route, int ordinal) {
+            this.route = route;
+            this.ordinal = ordinal;
+        }
+
+        @Override
+        public int compareTo(Entry other) {
+            return Integer.compare(ordinal, other.ordinal);
+        }
+    }
+}
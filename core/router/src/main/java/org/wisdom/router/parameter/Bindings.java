@@ -71,16 +71,35 @@ public class Bindings {
      */
     public static Object create(ActionParameter argument, Context context,
                                 ParameterFactories engine) {
+        return handler(argument).create(argument, context, engine);
+    }
+
+    /**
+     * Gets the handler creating the value to be injected for the given argument. Unlike
+     * {@link #create(ActionParameter, Context, ParameterFactories)}, this method lets the router resolve the handlers
+     * once, when the route is registered.
+     *
+     * @param argument the argument
+     * @return the handler, a handler returning {@code null} if the argument's source is not supported.
+     */
+    public static RouteParameterHandler handler(ActionParameter argument) {
         RouteParameterHandler handler = BINDINGS.get(argument.getSource());
         if (handler != null) {
-            return handler.create(argument, context, engine);
+            return handler;
         } else {
-            LoggerFactory.getLogger(Bindings.class).warn("Unsupported route parameter in method : {}",
-                    argument.getSource().name());
-            return null;
+            return UNSUPPORTED;
         }
     }
 
+    /**
+     * Handler used for unsupported sources.
+     */
+    private static final RouteParameterHandler UNSUPPORTED = (argument, context, engine) -> {
+        LoggerFactory.getLogger(Bindings.class).warn("Unsupported route parameter in method : {}",
+                argument.getSource().name());
+        return null;
+    };
+
     /**
      * Checks whether or not the given type is a multiple.
      *
@@ -23,14 +23,25 @@ import org.wisdom.api.content.ParameterFactories;
 import org.wisdom.api.http.Context;
 import org.wisdom.api.router.parameters.ActionParameter;
 
+import java.io.IOException;
+import java.io.InputStream;
+
 /**
- * The handler managing @Body.
+ * The handler managing @Body. Parameters of type {@link InputStream} receive the stream to read the request body
+ * (see {@link org.wisdom.api.router.Route#isStreamingBody()}), others are built using the body parsers.
  */
 public class BodyHandler implements RouteParameterHandler {
 
     @Override
     public Object create(ActionParameter argument, Context context,
                          ParameterFactories engine) {
+        if (InputStream.class.equals(argument.getRawType())) {
+            try {
+                return context.stream();
+            } catch (IOException e) {
+                throw new IllegalArgumentException("Cannot open the stream to read the request body", e);
+            }
+        }
         return context.body(argument.getRawType(), argument.getGenericType());
     }
 }
@@ -0,0 +1,145 @@
+/*
+ * #%L
+ * Wisdom-Framework
+ * %%
+ * Copyright (C) 2013 - 2014 Wisdom Framework
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.wisdom.router;
+
+import org.junit.Test;
+import org.wisdom.api.DefaultController;
+import org.wisdom.api.http.Result;
+import org.wisdom.api.http.Results;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.fail;
+
+/**
+ * Checks the {@link ActionInvoker} implementations.
+ */
+public class ActionInvokerTest {
+
+    public static class MyController extends DefaultController {
+
+        public Result hello(String name, int times) {
+            StringBuilder builder = new StringBuilder();
+            for (int i = 0; i < times; i++) {
+                builder.append(name);
+            }
+            return ok(builder.toString());
+        }
+
+        public Result noParameter() {
+            return ok("ok");
+        }
+
+        public Result failing() {
+            throw new IllegalStateException("bad");
+        }
+
+        public static Result staticAction(String name) {
+            return Results.ok(name);
+        }
+
+        private Result hidden() {
+            return ok("hidden");
+        }
+    }
+
+    private Method method(String name, Class<?>... types) throws NoSuchMethodException {
+        Method method = MyController.class.getDeclaredMethod(name, types);
+        method.setAccessible(true);
+        return method;
+    }
+
+    @Test
+    public void testMethodHandleInvoker() throws Exception {
+        MyController controller = new MyController();
+        ActionInvoker invoker = ActionInvoker.create(method("hello", String.class, Integer.TYPE));
+        assertThat(invoker).isInstanceOf(ActionInvoker.MethodHandleInvoker.class);
+        Result result = (Result) invoker.invoke(controller, new Object[]{"a", 3});
+        assertThat(result.getRenderable().content()).isEqualTo("aaa");
+
+        invoker = ActionInvoker.create(method("noParameter"));
+        result = (Result) invoker.invoke(controller, new Object[0]);
+        assertThat(result.getRenderable().content()).isEqualTo("ok");
+
+        invoker = ActionInvoker.create(method("hidden"));
+        result = (Result) invoker.invoke(controller, new Object[0]);
+        assertThat(result.getRenderable().content()).isEqualTo("hidden");
+    }
+
+    @Test
+    public void testStaticMethod() throws Exception {
+        ActionInvoker invoker = ActionInvoker.create(method("staticAction", String.class));
+        Result result = (Result) invoker.invoke(new MyController(), new Object[]{"wisdom"});
+        assertThat(result.getRenderable().content()).isEqualTo("wisdom");
+    }
+
+    @Test
+    public void testExceptionsAreWrapped() throws Exception {
+        for (ActionInvoker invoker : new ActionInvoker[]{
+                ActionInvoker.create(method("failing")),
+                new ActionInvoker.ReflectiveInvoker(method("failing"))}) {
+            try {
+                invoker.invoke(new MyController(), new Object[0]);
+                fail("Exception expected");
+            } catch (InvocationTargetException e) {
+                assertThat(e.getCause()).isInstanceOf(IllegalStateException.class).hasMessage("bad");
+            }
+        }
+    }
+
+    @Test
+    public void testBindingFailuresAreNotWrapped() throws Exception {
+        MyController controller = new MyController();
+        for (ActionInvoker invoker : new ActionInvoker[]{
+                ActionInvoker.create(method("hello", String.class, Integer.TYPE)),
+                new ActionInvoker.ReflectiveInvoker(method("hello", String.class, Integer.TYPE))}) {
+            for (Object[] parameters : new Object[][]{{"a", null}, {"a", "3"}, {"a"}}) {
+                try {
+                    invoker.invoke(controller, parameters);
+                    fail("Exception expected");
+                } catch (IllegalArgumentException e) {
+                    // Expected, as reflection does.
+                }
+            }
+            try {
+                invoker.invoke(null, new Object[]{"a", 3});
+                fail("Exception expected");
+            } catch (NullPointerException e) {
+                // Expected, as reflection does.
+            }
+        }
+    }
+
+    @Test
+    public void testArgumentsAreWidened() throws Exception {
+        ActionInvoker invoker = ActionInvoker.create(method("hello", String.class, Integer.TYPE));
+        Result result = (Result) invoker.invoke(new MyController(), new Object[]{"c", (short) 2});
+        assertThat(result.getRenderable().content()).isEqualTo("cc");
+    }
+
+    @Test
+    public void testReflectiveInvoker() throws Exception {
+        ActionInvoker invoker = new ActionInvoker.ReflectiveInvoker(method("hello", String.class, Integer.TYPE));
+        Result result = (Result) invoker.invoke(new MyController(), new Object[]{"b", 2});
+        assertThat(result.getRenderable().content()).isEqualTo("bb");
+    }
+}
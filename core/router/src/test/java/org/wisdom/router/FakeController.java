@@ -20,13 +20,16 @@
 package org.wisdom.router;
 
 import org.wisdom.api.DefaultController;
+import org.wisdom.api.annotations.Body;
 import org.wisdom.api.bodies.NoHttpBody;
 import org.wisdom.api.http.Result;
 import org.wisdom.api.http.Results;
 import org.wisdom.api.router.Route;
 
+import java.io.InputStream;
 import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * A fake controller.
@@ -51,6 +54,14 @@ public class FakeController extends DefaultController {
         return status(Result.CREATED);
     }
 
+    public CompletableFuture<Result> later() {
+        return CompletableFuture.completedFuture(ok("later"));
+    }
+
+    public Result upload(@Body InputStream body) {
+        return ok();
+    }
+
 
 
     @Override
@@ -0,0 +1,127 @@
+/*
+ * #%L
+ * Wisdom-Framework
+ * %%
+ * Copyright (C) 2013 - 2014 Wisdom Framework
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.wisdom.router;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.wisdom.api.http.HttpMethod;
+import org.wisdom.api.router.Route;
+import org.wisdom.api.router.RouteBuilder;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Compares the route lookup using the {@link RouteIndex} with the linear scan used previously by the
+ * {@link RequestRouter}.
+ * <p>
+ * This is not a unit test. Compile the tests with the {@literal benchmarks} profile ({@code mvn clean test-compile
+ * -Pbenchmarks}), and launch it with the {@link #main(String[])} method from the test classpath.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RouteIndexBenchmark {
+
+    @Param({"10", "100", "1000"})
+    int size;
+
+    private Set<Route> routes;
+    private RouteIndex index;
+    private String[] uris;
+    private int counter;
+
+    @Setup
+    public void setup() {
+        FakeController controller = new FakeController();
+        routes = new LinkedHashSet<>();
+        List<String> requests = new ArrayList<>();
+        for (int i = 0; i < size; i++) {
+            // A mix of literal and parameterized routes, as found in regular applications.
+            switch (i % 4) {
+                case 0:
+                    routes.add(new RouteBuilder().route(HttpMethod.GET).on("/api/resource" + i)
+                            .to(controller, "foo"));
+                    requests.add("/api/resource" + i);
+                    break;
+                case 1:
+                    routes.add(new RouteBuilder().route(HttpMethod.GET).on("/api/resource" + i + "/{id}")
+                            .to(controller, "foo"));
+                    requests.add("/api/resource" + i + "/42");
+                    break;
+                case 2:
+                    routes.add(new RouteBuilder().route(HttpMethod.POST).on("/api/resource" + i + "/{id}/items")
+                            .to(controller, "foo"));
+                    break;
+                default:
+                    routes.add(new RouteBuilder().route(HttpMethod.GET).on("/assets" + i + "/{path+}")
+                            .to(controller, "foo"));
+                    requests.add("/assets" + i + "/js/app.js");
+            }
+        }
+        index = new RouteIndex(routes);
+        uris = requests.toArray(new String[requests.size()]);
+    }
+
+    private String next() {
+        counter = (counter + 1) % uris.length;
+        return uris[counter];
+    }
+
+    @Benchmark
+    public List<Route> index() {
+        return index.find(HttpMethod.GET, next());
+    }
+
+    @Benchmark
+    public List<Route> linearScan() {
+        final String uri = next();
+        Set<Route> copy;
+        synchronized (this) {
+            copy = new LinkedHashSet<>(routes);
+        }
+        return copy.stream()
+                .filter(route -> route.matches(HttpMethod.GET, uri))
+                .sorted((r1, r2) -> {
+                    if (r1.getUrl().equalsIgnoreCase(uri)) {
+                        return -1;
+                    } else if (r2.getUrl().equalsIgnoreCase(uri)) {
+                        return 1;
+                    }
+                    return 0;
+                })
+                .collect(Collectors.toList());
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(RouteIndexBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,116 @@
+/*
+ * #%L
+ * Wisdom-Framework
+ * %%
+ * Copyright (C) 2013 - 2014 Wisdom Framework
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.wisdom.router;
+
+import com.google.common.collect.ImmutableList;
+import org.junit.Test;
+import org.wisdom.api.http.HttpMethod;
+import org.wisdom.api.router.Route;
+import org.wisdom.api.router.RouteBuilder;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Checks the behavior of the {@link RouteIndex}.
+ */
+public class RouteIndexTest {
+
+    FakeController controller = new FakeController();
+
+    private Route route(HttpMethod method, String uri) {
+        return new RouteBuilder().route(method).on(uri).to(controller, "foo");
+    }
+
+    @Test
+    public void testSegments() {
+        assertThat(RouteIndex.segments("/foo/bar")).containsExactly("", "foo", "bar");
+        assertThat(RouteIndex.segments("/foo/")).containsExactly("", "foo", "");
+        assertThat(RouteIndex.segments("/")).containsExactly("", "");
+        assertThat(RouteIndex.segments("")).containsExactly("");
+    }
+
+    @Test
+    public void testEmptyIndex() {
+        assertThat(RouteIndex.EMPTY.find(HttpMethod.GET, "/")).isEmpty();
+        assertThat(RouteIndex.EMPTY.routes()).isEmpty();
+    }
+
+    @Test
+    public void testLiteralRoutes() {
+        Route foo = route(HttpMethod.GET, "/foo");
+        Route fooBar = route(HttpMethod.GET, "/foo/bar");
+        Route root = route(HttpMethod.GET, "/");
+        Route postFoo = route(HttpMethod.POST, "/foo");
+        RouteIndex index = new RouteIndex(ImmutableList.of(foo, fooBar, root, postFoo));
+
+        assertThat(index.find(HttpMethod.GET, "/foo")).containsExactly(foo);
+        assertThat(index.find(HttpMethod.GET, "/foo/bar")).containsExactly(fooBar);
+        assertThat(index.find(HttpMethod.GET, "/")).containsExactly(root);
+        assertThat(index.find(HttpMethod.POST, "/foo")).containsExactly(postFoo);
+        assertThat(index.find(HttpMethod.GET, "/foo/")).isEmpty();
+        assertThat(index.find(HttpMethod.GET, "/FOO")).isEmpty();
+        assertThat(index.find(HttpMethod.GET, "/foo/bar/baz")).isEmpty();
+        assertThat(index.find(HttpMethod.PUT, "/foo")).isEmpty();
+    }
+
+    @Test
+    public void testDynamicRoutes() {
+        Route id = route(HttpMethod.GET, "/foo/{id}");
+        Route path = route(HttpMethod.GET, "/assets/{path+}");
+        Route regex = route(HttpMethod.GET, "/foo/{id<[0-9]+>}/bar");
+        Route star = route(HttpMethod.GET, "/star*");
+        RouteIndex index = new RouteIndex(ImmutableList.of(id, path, regex, star));
+
+        assertThat(index.find(HttpMethod.GET, "/foo/1")).containsExactly(id);
+        assertThat(index.find(HttpMethod.GET, "/foo/1/bar")).containsExactly(regex);
+        assertThat(index.find(HttpMethod.GET, "/foo/a/bar")).isEmpty();
+        assertThat(index.find(HttpMethod.GET, "/assets/js/app.js")).containsExactly(path);
+        assertThat(index.find(HttpMethod.GET, "/assets/")).isEmpty();
+        assertThat(index.find(HttpMethod.GET, "/star")).containsExactly(star);
+        assertThat(index.find(HttpMethod.GET, "/started/with/star")).containsExactly(star);
+    }
+
+    @Test
+    public void testRoutesWithRegexCharactersAreNotConsideredAsLiteral() {
+        // The dot is a regex wildcard, the previous implementation was matching /foo-json.
+        Route json = route(HttpMethod.GET, "/foo.json");
+        RouteIndex index = new RouteIndex(ImmutableList.of(json));
+        assertThat(index.find(HttpMethod.GET, "/foo.json")).containsExactly(json);
+        assertThat(index.find(HttpMethod.GET, "/foo-json")).containsExactly(json);
+    }
+
+    @Test
+    public void testOrdering() {
+        Route dynamic = route(HttpMethod.GET, "/{name}");
+        Route other = route(HttpMethod.GET, "/{name<[a-z]+>}");
+        Route literal = route(HttpMethod.GET, "/foo");
+        RouteIndex index = new RouteIndex(ImmutableList.of(dynamic, other, literal));
+
+        // Exact match first, then insertion order.
+        List<Route> routes = index.find(HttpMethod.GET, "/foo");
+        assertThat(routes).containsExactly(literal, dynamic, other);
+
+        assertThat(index.find(HttpMethod.GET, "/bar")).containsExactly(dynamic, other);
+        assertThat(index.find(HttpMethod.GET, "/42")).containsExactly(dynamic);
+    }
+
+}
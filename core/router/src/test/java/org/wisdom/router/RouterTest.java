@@ -88,6 +88,20 @@ public class RouterTest {
         assertThat(router.getRouteFor(HttpMethod.GET, "/foo", request).getControllerObject()).isEqualTo(controller);
     }
 
+    @Test
+    public void streamingBodyIsExposedByTheResolvedRoute() throws Exception {
+        FakeController controller = new FakeController();
+        controller.setRoutes(ImmutableList.of(
+                new RouteBuilder().route(HttpMethod.POST).on("/upload").to(controller, "upload"),
+                new RouteBuilder().route(HttpMethod.POST).on("/foo").to(controller, "foo")
+        ));
+        router.bindController(controller);
+
+        assertThat(router.getRouteFor(HttpMethod.POST, "/upload", request).isStreamingBody()).isTrue();
+        assertThat(router.getRouteFor(HttpMethod.POST, "/foo", request).isStreamingBody()).isFalse();
+        assertThat(router.getRouteFor(HttpMethod.POST, "/bar", request).isStreamingBody()).isFalse();
+    }
+
     @Test
     public void missingRoute() throws Exception {
         FakeController controller = new FakeController();
@@ -483,6 +497,24 @@ public class RouterTest {
         assertThat(result.getHeaders().get(HeaderNames.VARY)).isEqualTo(HeaderNames.CONTENT_TYPE);
     }
 
+    @Test
+    public void testActionsReturningACompletionStage() throws Exception {
+        FakeController controller = new FakeController();
+        controller.setRoutes(ImmutableList.of(
+                new RouteBuilder().route(HttpMethod.GET).on("/later").to(controller, "later").produces("text/plain")
+        ));
+        router.bindController(controller);
+
+        Route actual = router.getRouteFor(HttpMethod.GET, "/later", request);
+        Result result = actual.invoke();
+        assertThat(result).isInstanceOf(DeferredResult.class);
+        // The headers computed by the router are set on the deferred result, and merged by the engine.
+        assertThat(result.getHeaders().get(HeaderNames.VARY)).isEqualTo(HeaderNames.ACCEPT);
+        Result completed = ((DeferredResult) result).stage().toCompletableFuture().get();
+        assertThat(completed.getRenderable().content()).isEqualTo("later");
+        assertThat(((DeferredResult) result).callable().call()).isSameAs(completed);
+    }
+
     @Test
     public void testThatProducedMimeTypeIsHandled() throws Exception {
         FakeController controller = new FakeController();
@@ -577,6 +609,41 @@ public class RouterTest {
         assertThat(router.getFilters().size()).isEqualTo(num);
     }
 
+    @Test
+    public void testInterceptionChainIsRecomputedWhenFiltersChange() throws Exception {
+        FakeController controller = new FakeController();
+        controller.setRoutes(ImmutableList.of(
+                new RouteBuilder().route(HttpMethod.GET).on("/foo").to(controller, "foo")
+        ));
+        router.bindController(controller);
+        Route route = router.getRouteFor(HttpMethod.GET, "/foo", request);
+        assertThat(route.invoke().getStatusCode()).isEqualTo(Status.CREATED);
+
+        Filter filter = new Filter() {
+            @Override
+            public Result call(Route route, RequestContext context) throws Exception {
+                return Results.ok("filtered");
+            }
+
+            @Override
+            public Pattern uri() {
+                return Pattern.compile("/foo");
+            }
+
+            @Override
+            public int priority() {
+                return 0;
+            }
+        };
+
+        router.bindFilter(filter);
+        assertThat(route.invoke().getStatusCode()).isEqualTo(Status.OK);
+        assertThat(route.invoke().getStatusCode()).isEqualTo(Status.OK);
+
+        router.unbindFilter(filter);
+        assertThat(route.invoke().getStatusCode()).isEqualTo(Status.CREATED);
+    }
+
     private Filter createFakeFilter(int priority) {
         return new Filter() {
             @Override
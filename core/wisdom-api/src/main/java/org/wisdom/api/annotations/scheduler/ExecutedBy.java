@@ -0,0 +1,43 @@
+/*
+ * #%L
+ * Wisdom-Framework
+ * %%
+ * Copyright (C) 2013 - 2014 Wisdom Framework
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.wisdom.api.annotations.scheduler;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Selects the {@link org.wisdom.api.concurrent.ManagedExecutorService} used to compute the asynchronous results
+ * (see {@link org.wisdom.api.http.AsyncResult}) returned by an action method, and to invoke the action method itself
+ * when the engine dispatches the requests to worker threads. When placed on the controller class,
+ * it applies to all the action methods of the controller not having their own annotation.
+ * <p>
+ * If there is no executor with the given name, the system executor is used.
+ */
+@Target({ElementType.TYPE, ElementType.METHOD})
+@Retention(RetentionPolicy.RUNTIME)
+public @interface ExecutedBy {
+
+    /**
+     * The name of the executor, as returned by {@link org.wisdom.api.concurrent.ManagedExecutorService#name()}.
+     */
+    String value();
+}
@@ -0,0 +1,106 @@
+/*
+ * #%L
+ * Wisdom-Framework
+ * %%
+ * Copyright (C) 2013 - 2014 Wisdom Framework
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.wisdom.api.bodies;
+
+import org.wisdom.api.content.ContentWriter;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * An input stream reading the content produced by a {@link ContentWriter}. The next part of the content is written
+ * only when the previous one has been read, so the complete content is never held in memory.
+ */
+final class ContentWriterInputStream extends InputStream {
+
+    private final ContentWriter writer;
+    private final Part part = new Part();
+    private int position;
+    private boolean done;
+
+    /**
+     * Creates the stream.
+     *
+     * @param writer the writer producing the content
+     */
+    ContentWriterInputStream(ContentWriter writer) {
+        this.writer = writer;
+    }
+
+    @Override
+    public int read() throws IOException {
+        if (!fill()) {
+            return -1;
+        }
+        return part.bytes()[position++] & 0xFF;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        if (len == 0) {
+            return 0;
+        }
+        if (!fill()) {
+            return -1;
+        }
+        int count = Math.min(len, part.size() - position);
+        System.arraycopy(part.bytes(), position, b, off, count);
+        position += count;
+        return count;
+    }
+
+    @Override
+    public int available() {
+        return part.size() - position;
+    }
+
+    @Override
+    public void close() throws IOException {
+        done = true;
+        writer.close();
+    }
+
+    /**
+     * Asks the writer for the next part of the content when the current one has been read.
+     *
+     * @return {@literal true} if there are bytes to read, {@literal false} if the end of the content is reached.
+     */
+    private boolean fill() throws IOException {
+        while (position == part.size()) {
+            if (done) {
+                return false;
+            }
+            part.reset();
+            position = 0;
+            done = !writer.writeNext(part);
+        }
+        return true;
+    }
+
+    /**
+     * The buffer receiving the current part, giving access to its internal array to avoid copies.
+     */
+    private static final class Part extends ByteArrayOutputStream {
+        private byte[] bytes() {
+            return buf;
+        }
+    }
+}
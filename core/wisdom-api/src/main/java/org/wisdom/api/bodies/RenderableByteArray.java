@@ -25,7 +25,9 @@ import org.wisdom.api.http.RenderableException;
 import org.wisdom.api.http.Result;
 
 import java.io.ByteArrayInputStream;
+import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
 
 /**
  * A renderable object for byte array.
@@ -73,12 +75,24 @@ public class RenderableByteArray implements Renderable<byte[]> {
         return new ByteArrayInputStream(bytes);
     }
 
+    /**
+     * Writes the wrapped array on the given stream.
+     *
+     * @param context the HTTP context
+     * @param result  the result having built this renderable object
+     * @param output  the stream on which the content is written
+     * @throws IOException if the content cannot be written
+     */
+    @Override
+    public void render(Context context, Result result, OutputStream output) throws IOException {
+        output.write(bytes);
+    }
+
     /**
      * @return as the length of the byte array
      */
     @Override
     public long length() {
-        System.out.println("length : " + bytes.length);
         return bytes.length;
     }
 
@@ -19,6 +19,7 @@
  */
 package org.wisdom.api.bodies;
 
+import com.fasterxml.jackson.core.JsonGenerator;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
@@ -27,7 +28,9 @@ import org.slf4j.LoggerFactory;
 import org.wisdom.api.http.*;
 
 import java.io.ByteArrayInputStream;
+import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
 
 /**
  * A renderable object taking an ObjectNode as parameter.
@@ -36,6 +39,11 @@ public class RenderableJson implements Renderable<JsonNode> {
 
     private static ObjectWriter OBJECT_WRITER = new ObjectMapper().writer().withDefaultPrettyPrinter();
 
+    /**
+     * The writer used when the node is written on a stream provided by the server: the stream must not be closed.
+     */
+    private static final ObjectWriter STREAM_WRITER = OBJECT_WRITER.without(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+
     private final JsonNode node;
     private byte[] rendered;
 
@@ -56,6 +64,30 @@ public class RenderableJson implements Renderable<JsonNode> {
         return new ByteArrayInputStream(rendered);
     }
 
+    /**
+     * Writes the JSON form of the node on the given stream. If the node was not rendered yet, it is written directly,
+     * without building the intermediate byte array.
+     *
+     * @param context the HTTP context
+     * @param result  the result having built this renderable object
+     * @param output  the stream on which the content is written
+     * @throws RenderableException if the node cannot be rendered
+     * @throws IOException         if the content cannot be written
+     */
+    @Override
+    public void render(Context context, Result result, OutputStream output) throws RenderableException,
+            IOException {
+        if (rendered != null) {
+            output.write(rendered);
+            return;
+        }
+        try {
+            STREAM_WRITER.writeValue(output, node);
+        } catch (JsonProcessingException e) {
+            throw new RenderableException("cannot write the JSON form of " + node, e);
+        }
+    }
+
     /**
      * Renders the JSON object as a byte array. Be aware that this method does not use the {@link org.wisdom.api
      * .content.Json} service.
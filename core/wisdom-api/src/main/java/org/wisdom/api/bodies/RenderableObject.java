@@ -19,22 +19,33 @@
  */
 package org.wisdom.api.bodies;
 
+import com.fasterxml.jackson.databind.JsonNode;
 import com.google.common.base.Charsets;
+import org.wisdom.api.content.ContentWriter;
 import org.wisdom.api.http.Context;
 import org.wisdom.api.http.Renderable;
 import org.wisdom.api.http.RenderableException;
 import org.wisdom.api.http.Result;
 
 import java.io.ByteArrayInputStream;
+import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Collection;
+import java.util.stream.Stream;
 
 /**
  * Render any object, but it requires serialization.
+ * <p>
+ * The serialized form is either a String, or a {@link ContentWriter} writing the content directly on the stream sent
+ * to the client. Lazy sequences ({@link Stream}, and {@link Iterable} objects that are not collections) are sent as
+ * chunks, so they are serialized element by element.
  */
 public class RenderableObject implements Renderable<Object> {
 
     private final Object object;
     private String serialized;
+    private ContentWriter writer;
 
     public RenderableObject(Object o) {
         this.object = o;
@@ -42,20 +53,65 @@ public class RenderableObject implements Renderable<Object> {
 
     @Override
     public InputStream render(Context context, Result result) throws RenderableException {
+        if (writer != null) {
+            return new ContentWriterInputStream(writer);
+        }
         if (serialized == null) {
             throw new RenderableException("Serialization required before rendering");
         }
         return new ByteArrayInputStream(serialized.getBytes(Charsets.UTF_8));
     }
 
+    /**
+     * Writes the serialized form on the given stream. If the serializer has provided a writer, the content is written
+     * directly, without building the intermediate String and byte array.
+     *
+     * @param context the HTTP context
+     * @param result  the result having built this renderable object
+     * @param output  the stream on which the content is written
+     * @throws RenderableException if the object has not been serialized
+     * @throws IOException         if the content cannot be written
+     */
+    @Override
+    public void render(Context context, Result result, OutputStream output) throws RenderableException,
+            IOException {
+        if (writer != null) {
+            try {
+                writer.writeTo(output);
+            } finally {
+                writer.close();
+            }
+            return;
+        }
+        if (serialized == null) {
+            throw new RenderableException("Serialization required before rendering");
+        }
+        output.write(serialized.getBytes(Charsets.UTF_8));
+    }
+
     @Override
     public void setSerializedForm(String serialized) {
         this.serialized = serialized;
+        this.writer = null;
+    }
+
+    @Override
+    public boolean setSerializedWriter(ContentWriter writer) {
+        this.writer = writer;
+        this.serialized = null;
+        return true;
     }
 
+    /**
+     * Lazy sequences are sent as chunks, other objects are not.
+     *
+     * @return {@literal true} if the object is a {@link Stream}, or an {@link Iterable} that is neither a {@link
+     * Collection} nor a JSON node.
+     */
     @Override
     public boolean mustBeChunked() {
-        return false;
+        return object instanceof Stream
+                || (object instanceof Iterable && !(object instanceof Collection) && !(object instanceof JsonNode));
     }
 
     @Override
@@ -23,7 +23,9 @@ import com.google.common.base.Charsets;
 import org.wisdom.api.http.*;
 
 import java.io.ByteArrayInputStream;
+import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
 import java.io.StringWriter;
 
 /**
@@ -126,21 +128,41 @@ public class RenderableString implements Renderable<String> {
      */
     @Override
     public InputStream render(Context context, Result result) throws RenderableException {
-        byte[] bytes;
+        return new ByteArrayInputStream(encode(result));
+    }
 
+    /**
+     * Writes the encoded String on the given stream.
+     *
+     * @param context the HTTP context
+     * @param result  the result having built this renderable object
+     * @param output  the stream on which the content is written
+     * @throws IOException if the content cannot be written
+     */
+    @Override
+    public void render(Context context, Result result, OutputStream output) throws IOException {
+        output.write(encode(result));
+    }
+
+    /**
+     * Encodes the String using the charset of the result. If the result does not have a charset, UTF-8 is used and
+     * set on the result.
+     *
+     * @param result the result having built this renderable object, may be {@literal null}
+     * @return the encoded String
+     */
+    public byte[] encode(Result result) {
         // We have a result, charset have to be provided
         if (result != null) {
             if (result.getCharset() == null) {
                 // No charset provided, use default encoding (UTF-8).
                 result.with(Charsets.UTF_8);
             }
-            bytes = rendered.getBytes(result.getCharset());
+            return rendered.getBytes(result.getCharset());
         } else {
             //No Result, use the default encoding
-            bytes = rendered.getBytes(Charsets.UTF_8);
+            return rendered.getBytes(Charsets.UTF_8);
         }
-
-        return new ByteArrayInputStream(bytes);
     }
 
     /**
@@ -27,11 +27,14 @@ import org.wisdom.api.http.*;
 
 import javax.xml.transform.OutputKeys;
 import javax.xml.transform.Transformer;
+import javax.xml.transform.TransformerConfigurationException;
 import javax.xml.transform.TransformerFactory;
 import javax.xml.transform.dom.DOMSource;
 import javax.xml.transform.stream.StreamResult;
 import java.io.ByteArrayInputStream;
+import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
 import java.io.StringWriter;
 
 /**
@@ -58,23 +61,50 @@ public class RenderableXML implements Renderable<Document> {
         return new ByteArrayInputStream(rendered);
     }
 
+    /**
+     * Writes the XML document on the given stream. If the document was not rendered yet, it is transformed directly
+     * on the stream, without building the intermediate String and byte array.
+     *
+     * @param context the HTTP context
+     * @param result  the result having built this renderable object
+     * @param output  the stream on which the content is written
+     * @throws RenderableException if the document cannot be rendered
+     * @throws IOException         if the content cannot be written
+     */
+    @Override
+    public void render(Context context, Result result, OutputStream output) throws RenderableException,
+            IOException {
+        if (rendered != null) {
+            output.write(rendered);
+            return;
+        }
+        try {
+            newTransformer().transform(new DOMSource(document), new StreamResult(output));
+        } catch (Exception ex) {
+            throw new RenderableException("Error converting XML document to String", ex);
+        }
+    }
+
     private void render() throws RenderableException {
         try {
             StringWriter sw = new StringWriter();
-            TransformerFactory tf = TransformerFactory.newInstance();
-            Transformer transformer = tf.newTransformer();
-            transformer.setOutputProperty(OutputKeys.OMIT_XML_DECLARATION, "no");
-            transformer.setOutputProperty(OutputKeys.METHOD, "xml");
-            transformer.setOutputProperty(OutputKeys.INDENT, "yes");
-            transformer.setOutputProperty(OutputKeys.ENCODING, "UTF-8");
-
-            transformer.transform(new DOMSource(document), new StreamResult(sw));
+            newTransformer().transform(new DOMSource(document), new StreamResult(sw));
             rendered = sw.toString().getBytes(Charsets.UTF_8);
         } catch (Exception ex) {
             throw new RenderableException("Error converting XML document to String", ex);
         }
     }
 
+    private static Transformer newTransformer() throws TransformerConfigurationException {
+        TransformerFactory tf = TransformerFactory.newInstance();
+        Transformer transformer = tf.newTransformer();
+        transformer.setOutputProperty(OutputKeys.OMIT_XML_DECLARATION, "no");
+        transformer.setOutputProperty(OutputKeys.METHOD, "xml");
+        transformer.setOutputProperty(OutputKeys.INDENT, "yes");
+        transformer.setOutputProperty(OutputKeys.ENCODING, "UTF-8");
+        return transformer;
+    }
+
     @Override
     public long length() {
         if (rendered == null) {
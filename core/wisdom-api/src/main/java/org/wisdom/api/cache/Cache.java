@@ -21,11 +21,37 @@ package org.wisdom.api.cache;
 
 import org.joda.time.Duration;
 
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ExecutionException;
+
 /**
  * Interface of the case service.
+ * <p>
+ * Several caches can be available. Each cache is exposed as a service with the {@literal name} property. The
+ * default cache is named {@link #DEFAULT}, other caches can be retrieved using a filter such as {@code
+ * (name=fragments)}.
+ * <p>
+ * Besides the single-key operations, the cache supports bulk operations, loaders computing the missing values and
+ * asynchronous variants. They have default implementations based on the single-key operations, implementations are
+ * encouraged to provide more efficient versions.
  */
 public interface Cache {
 
+    /**
+     * The name of the default cache.
+     */
+    String DEFAULT = "wisdom";
+
+    /**
+     * The name of the service property containing the name of the cache.
+     */
+    String NAME_PROPERTY = "name";
+
     /**
      * Sets a value into the cache.
      *
@@ -62,4 +88,173 @@ public interface Cache {
      * @return {@literal true} if the value was effectively removed form the cache, {@literal false} otherwise.
      */
     public boolean remove(String key);
+
+    /**
+     * Retrieves several values from the cache.
+     *
+     * @param keys the keys
+     * @param <T>  the expected type of the values
+     * @return the cached values, indexed by key. Keys without value are not contained in the map.
+     */
+    default <T> Map<String, T> getAll(Collection<String> keys) {
+        Map<String, T> values = new LinkedHashMap<>();
+        for (String key : keys) {
+            T value = get(key);
+            if (value != null) {
+                values.put(key, value);
+            }
+        }
+        return values;
+    }
+
+    /**
+     * Sets several values into the cache.
+     *
+     * @param entries    the values, indexed by key
+     * @param expiration Expiration time, {@literal null} for eternity.
+     */
+    default void setAll(Map<String, ?> entries, Duration expiration) {
+        for (Map.Entry<String, ?> entry : entries.entrySet()) {
+            set(entry.getKey(), entry.getValue(), expiration);
+        }
+    }
+
+    /**
+     * Removes several values from the cache.
+     *
+     * @param keys the keys
+     */
+    default void removeAll(Collection<String> keys) {
+        for (String key : keys) {
+            remove(key);
+        }
+    }
+
+    /**
+     * Retrieves a value from the cache, computing it using the given loader if not cached. Implementations must
+     * ensure that concurrent calls for the same key invoke the loader only once: the other callers wait for the
+     * computed value. The default implementation does not provide this guarantee.
+     *
+     * @param key        Item key.
+     * @param expiration Expiration time of the computed value, {@literal null} for eternity.
+     * @param loader     the loader computing the value. If it returns {@literal null}, nothing is cached.
+     * @param <T>        the expected type of result.
+     * @return the cached or computed value
+     * @throws ExecutionException if the loader has thrown an exception
+     */
+    default <T> T get(String key, Duration expiration, Callable<? extends T> loader) throws ExecutionException {
+        T value = get(key);
+        if (value != null) {
+            return value;
+        }
+        try {
+            value = loader.call();
+        } catch (Exception e) {
+            throw new ExecutionException(e);
+        }
+        if (value != null) {
+            set(key, value, expiration);
+        }
+        return value;
+    }
+
+    /**
+     * Retrieves a value from the cache, computing it using the given loader if not cached. The computed value is
+     * cached for eternity.
+     *
+     * @param key    Item key.
+     * @param loader the loader computing the value. If it returns {@literal null}, nothing is cached.
+     * @param <T>    the expected type of result.
+     * @return the cached or computed value
+     * @throws ExecutionException if the loader has thrown an exception
+     * @see #get(String, Duration, Callable)
+     */
+    default <T> T get(String key, Callable<? extends T> loader) throws ExecutionException {
+        return get(key, null, loader);
+    }
+
+    /**
+     * Retrieves a value from the cache asynchronously. The default implementation retrieves the value synchronously.
+     *
+     * @param key Item key.
+     * @param <T> the expected type of result.
+     * @return a stage completed with the cached value, or {@literal null} if not cached
+     */
+    default <T> CompletionStage<T> getAsync(String key) {
+        return CompletableFuture.completedFuture(get(key));
+    }
+
+    /**
+     * Retrieves several values from the cache asynchronously. The default implementation retrieves the values
+     * synchronously.
+     *
+     * @param keys the keys
+     * @param <T>  the expected type of the values
+     * @return a stage completed with the cached values, indexed by key
+     */
+    default <T> CompletionStage<Map<String, T>> getAllAsync(Collection<String> keys) {
+        return CompletableFuture.completedFuture(getAll(keys));
+    }
+
+    /**
+     * Retrieves a value from the cache asynchronously, computing it using the given loader if not cached. As for
+     * {@link #get(String, Duration, Callable)}, the loader is invoked only once for concurrent calls. The default
+     * implementation computes the value synchronously.
+     *
+     * @param key        Item key.
+     * @param expiration Expiration time of the computed value, {@literal null} for eternity.
+     * @param loader     the loader computing the value
+     * @param <T>        the expected type of result.
+     * @return a stage completed with the cached or computed value, or completed exceptionally with the exception
+     * thrown by the loader
+     */
+    default <T> CompletionStage<T> getAsync(String key, Duration expiration, Callable<? extends T> loader) {
+        CompletableFuture<T> future = new CompletableFuture<>();
+        try {
+            future.complete(get(key, expiration, loader));
+        } catch (ExecutionException e) {
+            future.completeExceptionally(e.getCause());
+        }
+        return future;
+    }
+
+    /**
+     * Sets a value into the cache asynchronously. The default implementation sets the value synchronously.
+     *
+     * @param key        Item key.
+     * @param value      Item value.
+     * @param expiration Expiration time, {@literal null} for eternity.
+     * @return a stage completed once the value is cached
+     */
+    default CompletionStage<Void> setAsync(String key, Object value, Duration expiration) {
+        set(key, value, expiration);
+        return CompletableFuture.completedFuture(null);
+    }
+
+    /**
+     * Removes a value from the cache asynchronously. The default implementation removes the value synchronously.
+     *
+     * @param key Item key
+     * @return a stage completed with {@literal true} if the value was effectively removed form the cache
+     */
+    default CompletionStage<Boolean> removeAsync(String key) {
+        return CompletableFuture.completedFuture(remove(key));
+    }
+
+    /**
+     * @return the name of the cache, {@link #DEFAULT} by default.
+     */
+    default String name() {
+        return DEFAULT;
+    }
+
+    /**
+     * Gets the statistics of the cache.
+     *
+     * @return a snapshot of the current statistics, {@link CacheStatistics#EMPTY} if the implementation does not
+     * collect statistics
+     */
+    default CacheStatistics statistics() {
+        return CacheStatistics.EMPTY;
+    }
 }
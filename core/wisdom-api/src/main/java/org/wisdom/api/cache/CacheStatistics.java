@@ -0,0 +1,129 @@
+/*
+ * #%L
+ * Wisdom-Framework
+ * %%
+ * Copyright (C) 2013 - 2014 Wisdom Framework
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.wisdom.api.cache;
+
+/**
+ * A snapshot of the statistics of a {@link Cache}.
+ * <p>
+ * Caches may store their entries in several tiers: the heap, an off-heap memory area and the disk. Entries move
+ * from one tier to the next one when the tier is full, and are evicted when the last tier is full.
+ */
+public final class CacheStatistics {
+
+    /**
+     * The statistics of a cache not collecting statistics: all the counters are 0.
+     */
+    public static final CacheStatistics EMPTY = new CacheStatistics(0, 0, 0, 0, 0, 0, 0);
+
+    private final long hits;
+    private final long misses;
+    private final long evictions;
+    private final long heapEntries;
+    private final long offHeapEntries;
+    private final long offHeapBytes;
+    private final long diskEntries;
+
+    /**
+     * Creates a new snapshot.
+     *
+     * @param hits           the number of lookups having found the value
+     * @param misses         the number of lookups not having found the value
+     * @param evictions      the number of entries evicted because the cache was full
+     * @param heapEntries    the number of entries stored on the heap
+     * @param offHeapEntries the number of entries stored off-heap
+     * @param offHeapBytes   the number of bytes used by the entries stored off-heap
+     * @param diskEntries    the number of entries stored on the disk
+     */
+    public CacheStatistics(long hits, long misses, long evictions, long heapEntries, long offHeapEntries,
+                           long offHeapBytes, long diskEntries) {
+        this.hits = hits;
+        this.misses = misses;
+        this.evictions = evictions;
+        this.heapEntries = heapEntries;
+        this.offHeapEntries = offHeapEntries;
+        this.offHeapBytes = offHeapBytes;
+        this.diskEntries = diskEntries;
+    }
+
+    /**
+     * @return the number of lookups having found the value.
+     */
+    public long getHitCount() {
+        return hits;
+    }
+
+    /**
+     * @return the number of lookups not having found the value.
+     */
+    public long getMissCount() {
+        return misses;
+    }
+
+    /**
+     * @return the ratio of lookups having found the value, 0 if there were no lookups.
+     */
+    public double getHitRatio() {
+        long lookups = hits + misses;
+        return lookups == 0 ? 0 : (double) hits / lookups;
+    }
+
+    /**
+     * @return the number of entries evicted because the cache was full. Entries moved to another tier are not
+     * counted.
+     */
+    public long getEvictionCount() {
+        return evictions;
+    }
+
+    /**
+     * @return the number of entries stored on the heap.
+     */
+    public long getHeapEntries() {
+        return heapEntries;
+    }
+
+    /**
+     * @return the number of entries stored off-heap.
+     */
+    public long getOffHeapEntries() {
+        return offHeapEntries;
+    }
+
+    /**
+     * @return the number of bytes used by the entries stored off-heap.
+     */
+    public long getOffHeapBytes() {
+        return offHeapBytes;
+    }
+
+    /**
+     * @return the number of entries stored on the disk.
+     */
+    public long getDiskEntries() {
+        return diskEntries;
+    }
+
+    @Override
+    public String toString() {
+        return "CacheStatistics{hits=" + hits + ", misses=" + misses + ", evictions=" + evictions
+                + ", heapEntries=" + heapEntries + ", offHeapEntries=" + offHeapEntries
+                + ", offHeapBytes=" + offHeapBytes + ", diskEntries=" + diskEntries + "}";
+    }
+}
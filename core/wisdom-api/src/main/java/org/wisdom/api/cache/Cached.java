@@ -30,6 +30,10 @@ import java.lang.annotation.Target;
  * Mark an action to be cached on server side using the Cache Service.
  * So the result of the action is stored in the cache service for the specified time. All requests on this action
  * reuse this stored result (until it is invalidated).
+ * <p>
+ * The stored result is the encoded response (status, headers and body), so cached responses are not serialized
+ * again. Responses are cached per value of the {@literal Accept} header, and per value of the headers listed in the
+ * {@literal Vary} header of the response.
  */
 @Interception
 @Target({ElementType.TYPE, ElementType.METHOD})
@@ -47,4 +51,17 @@ public @interface Cached {
      */
     int duration() default 0;
 
+    /**
+     * Whether or not a gzip-compressed copy of the response is stored along the response. Clients accepting the
+     * gzip encoding receive this copy, avoiding to compress the response on every request. Defaults to {@code false}.
+     */
+    boolean compress() default false;
+
+    /**
+     * The time (in second) during which an expired response can still be served while it is recomputed. While the
+     * response is recomputed by one request, the other requests receive the expired response instead of waiting.
+     * Defaults to 0, meaning that expired responses are never served.
+     */
+    int staleWhileRevalidate() default 0;
+
 }
\ No newline at end of file
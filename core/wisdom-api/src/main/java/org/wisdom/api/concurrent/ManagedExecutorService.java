@@ -22,10 +22,16 @@ package org.wisdom.api.concurrent;
 import com.google.common.util.concurrent.ListeningExecutorService;
 
 import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
 import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.Callable;
 import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
 
 /**
  * Executor Service exposed as a service to execute tasks. This interface
@@ -47,12 +53,44 @@ public interface ManagedExecutorService extends ListeningExecutorService {
      */
     String SYSTEM = "wisdom-system-executor";
 
+    /**
+     * The name of the bounded executor used by the engine to run the action methods off the event loop.
+     * Unlike the system executor, it rejects tasks when its queue is full.
+     */
+    String WORKER = "wisdom-worker-executor";
+
     /**
      * The type of thread to use
      */
     enum ThreadType {
         POOLED,
-        DAEMON
+        DAEMON,
+        /**
+         * Each task runs on its own virtual thread, suited for tasks blocking on I/O. The number of concurrent tasks
+         * is not bounded by the pool size. Virtual threads require a Java 21+ runtime: on older runtimes, the
+         * executor falls back to a {@link #POOLED} thread pool.
+         */
+        VIRTUAL
+    }
+
+    /**
+     * The policy applied when a task is submitted to a saturated executor, i.e. when all the threads are busy and
+     * the work queue is full. Whatever the policy, tasks submitted to an executor that is shut down are rejected
+     * with a {@link TaskRejectedException}.
+     */
+    enum RejectionPolicy {
+        /**
+         * The submission fails with a {@link TaskRejectedException}.
+         */
+        ABORT,
+        /**
+         * The task is executed by the thread having submitted it, slowing down the producer.
+         */
+        CALLER_RUNS,
+        /**
+         * The oldest task of the queue is cancelled and removed, and the submission is retried.
+         */
+        DISCARD_OLDEST
     }
 
     /**
@@ -187,14 +225,78 @@ public interface ManagedExecutorService extends ListeningExecutorService {
     public ExecutionStatistics getExecutionTimeStatistics();
 
     /**
-     * Represents execution statistics of a thread pool.
+     * Represents execution statistics of a thread pool. Values are recorded without locking, so the statistics can
+     * be updated by all the threads of the pool. Reading the statistics while tasks complete returns approximate
+     * values; use {@link #copy()} to get a snapshot.
+     * <p>
+     * Besides the execution time, the statistics track the time spent by the tasks in the work queue, and the
+     * number of rejected tasks. Execution and queue times are also distributed in histograms whose buckets are
+     * delimited by {@link #getHistogramBounds()}.
      */
     public static class ExecutionStatistics {
 
-        private long count;
-        private long sum;
-        private long min = Long.MAX_VALUE;
-        private long max = Long.MIN_VALUE;
+        /**
+         * The upper bounds (exclusive, in milliseconds) of the histogram buckets. The histograms have an additional
+         * bucket counting the greater values.
+         */
+        private static final long[] HISTOGRAM_BOUNDS = {1, 5, 10, 50, 100, 500, 1000, 5000, 10000, 60000};
+
+        private static final List<Long> HISTOGRAM_BOUNDS_LIST = Collections.unmodifiableList(
+                LongStream.of(HISTOGRAM_BOUNDS).boxed().collect(Collectors.toList()));
+
+        private final LongAdder count = new LongAdder();
+        private final LongAdder sum = new LongAdder();
+        private final LongAccumulator min = new LongAccumulator(Math::min, Long.MAX_VALUE);
+        private final LongAccumulator max = new LongAccumulator(Math::max, Long.MIN_VALUE);
+        private final LongAdder[] executionHistogram = createHistogram();
+
+        private final LongAdder queueCount = new LongAdder();
+        private final LongAdder queueSum = new LongAdder();
+        private final LongAccumulator queueMax = new LongAccumulator(Math::max, 0);
+        private final LongAdder[] queueHistogram = createHistogram();
+
+        private final LongAdder rejected = new LongAdder();
+
+        /**
+         * Gets the upper bounds (exclusive, in milliseconds) of the histogram buckets. The histograms have an
+         * additional bucket counting the values greater or equal to the last bound.
+         *
+         * @return the bounds, the list cannot be modified
+         */
+        public static List<Long> getHistogramBounds() {
+            return HISTOGRAM_BOUNDS_LIST;
+        }
+
+        private static LongAdder[] createHistogram() {
+            LongAdder[] histogram = new LongAdder[HISTOGRAM_BOUNDS.length + 1];
+            for (int i = 0; i < histogram.length; i++) {
+                histogram[i] = new LongAdder();
+            }
+            return histogram;
+        }
+
+        private static int bucket(long value) {
+            for (int i = 0; i < HISTOGRAM_BOUNDS.length; i++) {
+                if (value < HISTOGRAM_BOUNDS[i]) {
+                    return i;
+                }
+            }
+            return HISTOGRAM_BOUNDS.length;
+        }
+
+        private static long[] toArray(LongAdder[] histogram) {
+            long[] values = new long[histogram.length];
+            for (int i = 0; i < histogram.length; i++) {
+                values[i] = histogram[i].sum();
+            }
+            return values;
+        }
+
+        private static void add(LongAdder[] histogram, long[] values) {
+            for (int i = 0; i < histogram.length; i++) {
+                histogram[i].add(values[i]);
+            }
+        }
 
         /**
          * Records a new {@code int} value into the statistics.
@@ -210,11 +312,32 @@ public interface ManagedExecutorService extends ListeningExecutorService {
          *
          * @param value the input value
          */
-        public synchronized void accept(long value) {
-            ++count;
-            sum += value;
-            min = Math.min(min, value);
-            max = Math.max(max, value);
+        public void accept(long value) {
+            count.increment();
+            sum.add(value);
+            min.accumulate(value);
+            max.accumulate(value);
+            executionHistogram[bucket(value)].increment();
+        }
+
+        /**
+         * Records the time spent by a task in the work queue, between its submission and the beginning of its
+         * execution.
+         *
+         * @param value the time in milliseconds
+         */
+        public void acceptQueueTime(long value) {
+            queueCount.increment();
+            queueSum.add(value);
+            queueMax.accumulate(value);
+            queueHistogram[bucket(value)].increment();
+        }
+
+        /**
+         * Records the rejection of a task.
+         */
+        public void reject() {
+            rejected.increment();
         }
 
         /**
@@ -224,11 +347,17 @@ public interface ManagedExecutorService extends ListeningExecutorService {
          * @param other another {@code ExecutionStatistics}
          * @throws NullPointerException if {@code other} is null
          */
-        public synchronized void combine(final ExecutionStatistics other) {
-            count += other.getCount();
-            sum += other.getTotalExecutionTime();
-            min = Math.min(min, other.getMinimumExecutionTime());
-            max = Math.max(max, other.getMaximumExecutionTime());
+        public void combine(final ExecutionStatistics other) {
+            count.add(other.getCount());
+            sum.add(other.getTotalExecutionTime());
+            min.accumulate(other.getMinimumExecutionTime());
+            max.accumulate(other.getMaximumExecutionTime());
+            add(executionHistogram, other.getExecutionTimeHistogram());
+            queueCount.add(other.queueCount.sum());
+            queueSum.add(other.getTotalQueueTime());
+            queueMax.accumulate(other.getMaximumQueueTime());
+            add(queueHistogram, other.getQueueTimeHistogram());
+            rejected.add(other.getRejectedTaskCount());
         }
 
         /**
@@ -236,7 +365,7 @@ public interface ManagedExecutorService extends ListeningExecutorService {
          *
          * @return the copied object
          */
-        public synchronized ExecutionStatistics copy() {
+        public ExecutionStatistics copy() {
             ExecutionStatistics statistics = new ExecutionStatistics();
             statistics.combine(this);
             return statistics;
@@ -247,8 +376,8 @@ public interface ManagedExecutorService extends ListeningExecutorService {
          *
          * @return the count of values
          */
-        public final synchronized long getCount() {
-            return count;
+        public final long getCount() {
+            return count.sum();
         }
 
         /**
@@ -256,7 +385,7 @@ public interface ManagedExecutorService extends ListeningExecutorService {
          *
          * @return the number of tasks
          */
-        public final synchronized long getNumberOfTasks() {
+        public final long getNumberOfTasks() {
             return getCount();
         }
 
@@ -266,8 +395,8 @@ public interface ManagedExecutorService extends ListeningExecutorService {
          *
          * @return the sum of values, or zero if none
          */
-        public final synchronized long getTotalExecutionTime() {
-            return sum;
+        public final long getTotalExecutionTime() {
+            return sum.sum();
         }
 
         /**
@@ -276,8 +405,8 @@ public interface ManagedExecutorService extends ListeningExecutorService {
          *
          * @return the minimum value, or {@code Long.MAX_VALUE} if none
          */
-        public final synchronized long getMinimumExecutionTime() {
-            return min;
+        public final long getMinimumExecutionTime() {
+            return min.get();
         }
 
         /**
@@ -286,8 +415,8 @@ public interface ManagedExecutorService extends ListeningExecutorService {
          *
          * @return the maximum value, or {@code Long.MIN_VALUE} if none
          */
-        public final synchronized long getMaximumExecutionTime() {
-            return max;
+        public final long getMaximumExecutionTime() {
+            return max.get();
         }
 
         /**
@@ -296,8 +425,68 @@ public interface ManagedExecutorService extends ListeningExecutorService {
          *
          * @return The arithmetic mean of values, or zero if none
          */
-        public final synchronized double getAverageExecutionTime() {
-            return getCount() > 0 ? (double) getTotalExecutionTime() / getNumberOfTasks() : 0.0d;
+        public final double getAverageExecutionTime() {
+            long c = getCount();
+            return c > 0 ? (double) getTotalExecutionTime() / c : 0.0d;
+        }
+
+        /**
+         * Returns the distribution of the execution times. The value at the index {@code i} is the number of tasks
+         * whose execution time is lower than the bound at the index {@code i} of {@link #getHistogramBounds()} (and
+         * greater or equal to the previous bound). The last value counts the tasks whose execution time is greater or
+         * equal to the last bound.
+         *
+         * @return the number of tasks per bucket
+         */
+        public final long[] getExecutionTimeHistogram() {
+            return toArray(executionHistogram);
+        }
+
+        /**
+         * Returns the total time spent by the tasks in the work queue, or zero if no values have been recorded.
+         *
+         * @return the total queue time in milliseconds
+         */
+        public final long getTotalQueueTime() {
+            return queueSum.sum();
+        }
+
+        /**
+         * Returns the maximum time spent by a task in the work queue, or zero if no values have been recorded.
+         *
+         * @return the maximum queue time in milliseconds
+         */
+        public final long getMaximumQueueTime() {
+            return queueMax.get();
+        }
+
+        /**
+         * Returns the average time spent by the tasks in the work queue, or zero if no values have been recorded.
+         *
+         * @return the average queue time in milliseconds
+         */
+        public final double getAverageQueueTime() {
+            long c = queueCount.sum();
+            return c > 0 ? (double) getTotalQueueTime() / c : 0.0d;
+        }
+
+        /**
+         * Returns the distribution of the time spent by the tasks in the work queue, using the same buckets as
+         * {@link #getExecutionTimeHistogram()}.
+         *
+         * @return the number of tasks per bucket
+         */
+        public final long[] getQueueTimeHistogram() {
+            return toArray(queueHistogram);
+        }
+
+        /**
+         * Returns the number of tasks rejected by the executor, whatever the rejection policy.
+         *
+         * @return the number of rejected tasks
+         */
+        public final long getRejectedTaskCount() {
+            return rejected.sum();
         }
 
         @Override
@@ -308,15 +497,18 @@ public interface ManagedExecutorService extends ListeningExecutorService {
          * debugging. The exact presentation format is unspecified and may vary
          * between implementations and versions.
          */
-        public synchronized String toString() {
+        public String toString() {
             return String.format(
-                    "%s{count=%d, sum=%d, min=%d, average=%f, max=%d}",
+                    "%s{count=%d, sum=%d, min=%d, average=%f, max=%d, queue-average=%f, queue-max=%d, rejected=%d}",
                     this.getClass().getSimpleName(),
                     getCount(),
                     getTotalExecutionTime(),
                     getMinimumExecutionTime(),
                     getAverageExecutionTime(),
-                    getMaximumExecutionTime());
+                    getMaximumExecutionTime(),
+                    getAverageQueueTime(),
+                    getMaximumQueueTime(),
+                    getRejectedTaskCount());
         }
 
     }
@@ -0,0 +1,59 @@
+/*
+ * #%L
+ * Wisdom-Framework
+ * %%
+ * Copyright (C) 2013 - 2015 Wisdom Framework
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.wisdom.api.concurrent;
+
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Exception thrown when a {@link ManagedExecutorService} cannot accept a task, because it is saturated (all the
+ * threads are busy and the work queue is full) or shut down.
+ */
+public class TaskRejectedException extends RejectedExecutionException {
+
+    private final String executor;
+    private final boolean shutdown;
+
+    /**
+     * Creates the exception.
+     *
+     * @param executor the name of the executor having rejected the task
+     * @param shutdown whether or not the task was rejected because the executor is shut down
+     */
+    public TaskRejectedException(String executor, boolean shutdown) {
+        super("Task rejected by the executor '" + executor + "'" + (shutdown ? " (shut down)" : " (saturated)"));
+        this.executor = executor;
+        this.shutdown = shutdown;
+    }
+
+    /**
+     * @return the name of the executor having rejected the task.
+     */
+    public String getExecutorName() {
+        return executor;
+    }
+
+    /**
+     * @return {@code true} if the task was rejected because the executor is shut down, {@code false} if the executor
+     * is saturated.
+     */
+    public boolean isShutdown() {
+        return shutdown;
+    }
+}
@@ -19,6 +19,8 @@
  */
 package org.wisdom.api.configuration;
 
+import org.slf4j.LoggerFactory;
+
 import java.io.File;
 
 /**
@@ -152,4 +154,33 @@ public interface ApplicationConfiguration extends Configuration {
      * @return the file object
      */
     File getFileWithDefault(String key, File file);
+
+    /**
+     * Registers a listener notified when the configuration is reloaded and the values of the given keys, or of
+     * their sub-keys, have changed. The configuration is reloaded when the configuration file is modified, if it is
+     * watched (in dev mode, or when {@code application.watch-configuration} is enabled).
+     *
+     * <p>
+     * The default implementation is meant for implementations that never reload the configuration: the listener is
+     * not registered, as it would never be notified.
+     *
+     * @param listener the listener
+     * @param prefixes the watched keys, the listener is notified for the changes of all keys if none are given
+     */
+    default void addListener(ConfigurationListener listener, String... prefixes) {
+        LoggerFactory.getLogger(ApplicationConfiguration.class).debug("The configuration {} is not reloaded, the " +
+                "listener {} will not be notified", this, listener);
+    }
+
+    /**
+     * Unregisters a listener. Does nothing if the listener is not registered.
+     * <p>
+     * The default implementation does nothing, as {@link #addListener(ConfigurationListener, String...)} does not
+     * register the listeners.
+     *
+     * @param listener the listener
+     */
+    default void removeListener(ConfigurationListener listener) {
+        // Nothing registered.
+    }
 }
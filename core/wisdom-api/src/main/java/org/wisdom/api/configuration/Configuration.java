@@ -193,6 +193,59 @@ public interface Configuration {
      */
     Long getLongWithDefault(String key, Long defaultValue);
 
+    /**
+     * Get an int property or a default value when the property cannot be found in any configuration file. Unlike
+     * {@link #getIntegerWithDefault(String, Integer)}, this method does not box the value, and so can be used on hot
+     * paths.
+     *
+     * @param key          the key used in the configuration file.
+     * @param defaultValue Default value returned, when value cannot be found in
+     *                     configuration.
+     * @return the value of the key or the default value.
+     */
+    default int getInt(String key, int defaultValue) {
+        return getIntegerWithDefault(key, defaultValue);
+    }
+
+    /**
+     * Get a long property or a default value when the property cannot be found in any configuration file. Unlike
+     * {@link #getLongWithDefault(String, Long)}, this method does not box the value.
+     *
+     * @param key          the key used in the configuration file.
+     * @param defaultValue Default value returned, when value cannot be found in
+     *                     configuration.
+     * @return the value of the key or the default value.
+     */
+    default long getLong(String key, long defaultValue) {
+        return getLongWithDefault(key, defaultValue);
+    }
+
+    /**
+     * Get a double property or a default value when the property cannot be found in any configuration file. Unlike
+     * {@link #getDoubleWithDefault(String, Double)}, this method does not box the value.
+     *
+     * @param key          the key used in the configuration file.
+     * @param defaultValue Default value returned, when value cannot be found in
+     *                     configuration.
+     * @return the value of the key or the default value.
+     */
+    default double getDouble(String key, double defaultValue) {
+        return getDoubleWithDefault(key, defaultValue);
+    }
+
+    /**
+     * Get a boolean property or a default value when the property cannot be found in any configuration file. Unlike
+     * {@link #getBooleanWithDefault(String, Boolean)}, this method does not box the value.
+     *
+     * @param key          the key used in the configuration file.
+     * @param defaultValue Default value returned, when value cannot be found in
+     *                     configuration.
+     * @return the value of the key or the default value.
+     */
+    default boolean getBoolean(String key, boolean defaultValue) {
+        return getBooleanWithDefault(key, defaultValue);
+    }
+
     /**
      * The "die" method forces this key to be set. Otherwise a runtime exception
      * will be thrown.
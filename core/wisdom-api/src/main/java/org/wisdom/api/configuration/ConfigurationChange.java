@@ -0,0 +1,98 @@
+/*
+ * #%L
+ * Wisdom-Framework
+ * %%
+ * Copyright (C) 2013 - 2014 Wisdom Framework
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.wisdom.api.configuration;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Describes a change of the application configuration, as seen by a {@link ConfigurationListener}. It gives access
+ * to the configuration before and after the reload, so typed values can be compared using the regular getters:
+ * <pre>
+ *     if (change.hasChanged("http.upload.max")) {
+ *         uploadMax = change.getNewConfiguration().getLong("http.upload.max", -1L);
+ *     }
+ * </pre>
+ */
+public final class ConfigurationChange {
+
+    private final Configuration oldConfiguration;
+
+    private final Configuration newConfiguration;
+
+    private final Set<String> changedKeys;
+
+    /**
+     * Creates a new change.
+     *
+     * @param oldConfiguration the configuration before the reload
+     * @param newConfiguration the configuration after the reload
+     * @param changedKeys      the keys (full paths) that have been added, removed or modified, and watched by the
+     *                         notified listener
+     */
+    public ConfigurationChange(Configuration oldConfiguration, Configuration newConfiguration,
+                               Set<String> changedKeys) {
+        this.oldConfiguration = oldConfiguration;
+        this.newConfiguration = newConfiguration;
+        this.changedKeys = Collections.unmodifiableSet(new HashSet<>(changedKeys));
+    }
+
+    /**
+     * @return the configuration before the reload.
+     */
+    public Configuration getOldConfiguration() {
+        return oldConfiguration;
+    }
+
+    /**
+     * @return the configuration after the reload.
+     */
+    public Configuration getNewConfiguration() {
+        return newConfiguration;
+    }
+
+    /**
+     * @return the set of keys (full paths) that have been added, removed or modified. Only the keys watched by the
+     * notified listener are contained in the set.
+     */
+    public Set<String> getChangedKeys() {
+        return changedKeys;
+    }
+
+    /**
+     * Checks whether the value of the given key, or of one of its sub-keys, has been changed.
+     *
+     * @param key the key (full path)
+     * @return {@code true} if the value has been added, removed or modified, {@code false} otherwise
+     */
+    public boolean hasChanged(String key) {
+        if (changedKeys.contains(key)) {
+            return true;
+        }
+        String prefix = key + ".";
+        for (String changed : changedKeys) {
+            if (changed.startsWith(prefix)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,39 @@
+/*
+ * #%L
+ * Wisdom-Framework
+ * %%
+ * Copyright (C) 2013 - 2014 Wisdom Framework
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.wisdom.api.configuration;
+
+/**
+ * Listener notified when the application configuration is reloaded and the values of the keys it watches have
+ * changed. Listeners are registered using {@link ApplicationConfiguration#addListener(ConfigurationListener,
+ * String...)}.
+ * <p>
+ * It lets components keep configuration values in fields instead of reading the configuration on every request,
+ * and update them only when the configuration file is modified.
+ */
+public interface ConfigurationListener {
+
+    /**
+     * Notifies the listener that some of the watched values have changed. This method is called from the thread
+     * having reloaded the configuration, it must not block.
+     *
+     * @param change the change, containing the configuration before and after the reload.
+     */
+    void configurationChanged(ConfigurationChange change);
+}
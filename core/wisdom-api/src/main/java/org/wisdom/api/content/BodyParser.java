@@ -20,8 +20,11 @@
 package org.wisdom.api.content;
 
 
+import com.google.common.io.ByteStreams;
 import org.wisdom.api.http.Context;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.lang.reflect.Type;
 import java.util.List;
 
@@ -64,6 +67,25 @@ public interface BodyParser {
      */
     <T> T invoke(byte[] bytes, Class<T> classOfT);
 
+    /**
+     * Invokes the parser on the given stream, and get back a Java object populated with the content read from the
+     * stream. This method is used when the request body is streamed to the action method (and so not kept in
+     * memory). Parsers able to consume their input incrementally should override this method. The default
+     * implementation reads the whole stream and delegates to {@link #invoke(byte[], Class)}.
+     * <p>
+     * MUST BE THREAD SAFE TO CALL!
+     *
+     * @param stream      the stream, not closed by this method
+     * @param classOfT    The class we expect
+     * @param genericType the generic type (maybe null)
+     * @return The object instance populated with all values read from the stream
+     * @throws IOException if the stream cannot be read
+     * @since 0.10
+     */
+    default <T> T invoke(InputStream stream, Class<T> classOfT, Type genericType) throws IOException {
+        return invoke(ByteStreams.toByteArray(stream), classOfT);
+    }
+
     /**
      * The content types this BodyParserEngine can handle
      * <p>
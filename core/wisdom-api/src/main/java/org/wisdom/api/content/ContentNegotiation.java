@@ -0,0 +1,86 @@
+/*
+ * #%L
+ * Wisdom-Framework
+ * %%
+ * Copyright (C) 2013 - 2014 Wisdom Framework
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.wisdom.api.content;
+
+import org.slf4j.LoggerFactory;
+import org.wisdom.api.bodies.NoHttpBody;
+import org.wisdom.api.http.Context;
+import org.wisdom.api.http.HeaderNames;
+import org.wisdom.api.http.Renderable;
+import org.wisdom.api.http.Result;
+
+/**
+ * Selects the {@link ContentSerializer} used to serialize the content of a result, from the content type of the
+ * result or from the {@literal Accept} header of the request. This is the negotiation applied by the engine when
+ * writing a response, so components rendering results by themselves produce the same payload.
+ */
+public final class ContentNegotiation {
+
+    private ContentNegotiation() {
+        // Hide implicit constructor
+    }
+
+    /**
+     * Applies the serialization on the given renderable if required. If the result does not set a content type, the
+     * content type of the selected serializer is set on the result. If no serializer can be found, the content is
+     * serialized using its {@link Object#toString()} method, as {@literal text/plain}.
+     *
+     * @param engine     the content engine
+     * @param context    the HTTP context
+     * @param renderable the renderable of the result
+     * @param result     the result
+     * @return the renderable to render
+     */
+    public static Renderable<?> serialize(ContentEngine engine, Context context, Renderable<?> renderable,
+                                          Result result) {
+        if (!renderable.requireSerializer()) {
+            return renderable;
+        }
+        ContentSerializer serializer = null;
+        if (result.getContentType() != null) {
+            serializer = engine.getContentSerializerForContentType(result.getContentType());
+        }
+        if (serializer == null) {
+            // Try with the Accept type
+            serializer = engine.getBestSerializer(context.request().mediaTypes());
+            if (serializer != null) {
+                // Set CONTENT_TYPE
+                result.with(HeaderNames.CONTENT_TYPE, serializer.getContentType());
+            }
+        }
+
+        if (serializer != null) {
+            serializer.serialize(renderable);
+        } else {
+            LoggerFactory.getLogger(ContentNegotiation.class)
+                    .error("Cannot find a serializer to handle the request (explicit content type: {}, " +
+                                    "accept media types: {}), returning content as String",
+                            result.getContentType(),
+                            context.request().mediaTypes());
+            result.with(HeaderNames.CONTENT_TYPE, "text/plain");
+            if (renderable.content() != null) {
+                renderable.setSerializedForm(renderable.content().toString());
+            } else {
+                return NoHttpBody.INSTANCE;
+            }
+        }
+        return renderable;
+    }
+}
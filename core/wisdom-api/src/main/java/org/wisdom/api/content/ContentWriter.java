@@ -0,0 +1,72 @@
+/*
+ * #%L
+ * Wisdom-Framework
+ * %%
+ * Copyright (C) 2013 - 2014 Wisdom Framework
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.wisdom.api.content;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Writes the serialized form of a content on a stream. Content serializers use it to write the content of a
+ * {@link org.wisdom.api.http.Renderable} directly on the stream sent to the client, without building the complete
+ * serialized form in memory.
+ * <p>
+ * The content can be written in several steps: {@link #writeNext(OutputStream)} is called until it returns
+ * {@literal false}, always with the same stream. It lets the server send large content (such as sequences of
+ * objects) as chunks, pulling the next part only when the previous one has been sent. Writers are used only once,
+ * and are closed once the content is written, or if the response is aborted.
+ *
+ * @since 0.10
+ */
+public interface ContentWriter extends Closeable {
+
+    /**
+     * Writes the next part of the content.
+     *
+     * @param output the stream, must not be closed by this method
+     * @return {@literal true} if there are remaining parts to write, {@literal false} if the content has been
+     * written completely
+     * @throws IOException if the content cannot be written
+     */
+    boolean writeNext(OutputStream output) throws IOException;
+
+    /**
+     * Writes all the remaining parts of the content.
+     *
+     * @param output the stream, must not be closed by this method
+     * @throws IOException if the content cannot be written
+     */
+    default void writeTo(OutputStream output) throws IOException {
+        boolean remaining = true;
+        while (remaining) {
+            remaining = writeNext(output);
+        }
+    }
+
+    /**
+     * Releases the resources held by the writer. Does nothing by default.
+     *
+     * @throws IOException if the resources cannot be released
+     */
+    @Override
+    default void close() throws IOException {
+        // Nothing by default.
+    }
+}
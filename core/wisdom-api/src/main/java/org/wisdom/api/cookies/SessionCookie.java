@@ -56,6 +56,13 @@ public interface SessionCookie {
      */
     public static final String SESSION_HTTP_ONLY = "application.session.http_only";
 
+    /**
+     * Configuration Key : The name of the {@link SessionStore} keeping the session data on the server side. When
+     * set, the session cookie only contains a signed session id. The data is kept in the cookie by default, or when
+     * set to {@link SessionStore#COOKIE}.
+     */
+    public static final String SESSION_STORE = "application.session.store";
+
 
     /**
      * Initializes the cookie. This method is called by the engine and reads the existing data.
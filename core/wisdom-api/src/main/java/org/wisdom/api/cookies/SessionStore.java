@@ -0,0 +1,73 @@
+/*
+ * #%L
+ * Wisdom-Framework
+ * %%
+ * Copyright (C) 2013 - 2014 Wisdom Framework
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.wisdom.api.cookies;
+
+import java.util.Map;
+
+/**
+ * Stores the session data on the server side.
+ * <p>
+ * By default, the session data is encoded in the session cookie. When the {@link SessionCookie#SESSION_STORE}
+ * configuration key designates a session store, the data is kept in this store, and the session cookie only
+ * contains a signed session id. Session stores are exposed as services, and are selected using their
+ * {@link #name()}.
+ * <p>
+ * Implementations must be thread-safe. They can evict the sessions at any time, for instance when the store is full:
+ * an evicted session is considered as empty.
+ */
+public interface SessionStore {
+
+    /**
+     * The value of the {@link SessionCookie#SESSION_STORE} configuration key keeping the session data in the cookie.
+     */
+    String COOKIE = "cookie";
+
+    /**
+     * @return the name of the store, used as value of the {@link SessionCookie#SESSION_STORE} configuration key to
+     * select this store.
+     */
+    String name();
+
+    /**
+     * Retrieves the data of a session.
+     *
+     * @param id the session id
+     * @return the data of the session, {@literal null} if the session is unknown or has expired. The returned map
+     * is not shared, and can be modified by the caller.
+     */
+    Map<String, String> load(String id);
+
+    /**
+     * Stores the data of a session, replacing the data previously stored for this session.
+     *
+     * @param id   the session id
+     * @param data the data of the session, the store must keep a copy of it
+     * @param ttl  the time to live of the session in seconds, the session is removed from the store if it is not
+     *             saved again during this period (0 second means eternity)
+     */
+    void save(String id, Map<String, String> data, int ttl);
+
+    /**
+     * Removes a session from the store. Does nothing if the session is unknown.
+     *
+     * @param id the session id
+     */
+    void remove(String id);
+}
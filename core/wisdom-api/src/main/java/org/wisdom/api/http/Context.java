@@ -26,7 +26,9 @@ import org.wisdom.api.cookies.SessionCookie;
 import org.wisdom.api.router.Route;
 
 import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.lang.reflect.Type;
 import java.util.Collection;
 import java.util.List;
@@ -332,6 +334,25 @@ public interface Context {
      */
     BufferedReader reader() throws IOException;
 
+    /**
+     * Gets the stream to read the request body.
+     * <p>
+     * When the action method reads the body as a stream (see {@link Route#isStreamingBody()}), the body is not kept
+     * in memory: the returned stream gives access to the bytes as they arrive, and {@link #raw()} and
+     * {@link #body()} do not return the body. Otherwise, the stream reads the bytes returned by {@link #raw()}.
+     *
+     * @return the stream, {@code null} if the request has no body.
+     * @throws IOException if the stream cannot be opened
+     * @since 0.10
+     */
+    default InputStream stream() throws IOException {
+        byte[] raw = raw();
+        if (raw == null) {
+            return null;
+        }
+        return new ByteArrayInputStream(raw);
+    }
+
     /**
      * Get the route for this context.
      *
@@ -0,0 +1,64 @@
+/*
+ * #%L
+ * Wisdom-Framework
+ * %%
+ * Copyright (C) 2013 - 2014 Wisdom Framework
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.wisdom.api.http;
+
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * An asynchronous result computed by a {@link CompletionStage}. It is created when an action method returns a
+ * {@link CompletionStage}{@literal <Result>} (such as a {@link java.util.concurrent.CompletableFuture}). Unlike
+ * {@link AsyncResult} built from a {@link java.util.concurrent.Callable}, no thread is used to wait for the result:
+ * the engine writes the response when the stage completes, from the thread handling the connection.
+ * <p>
+ * As the stage is not necessarily completed in the request thread, the stage must not rely on the HTTP context.
+ * <p>
+ * For compatibility, the {@link #callable()} of this result waits for the completion of the stage.
+ */
+public class DeferredResult extends AsyncResult {
+
+    private final CompletionStage<Result> stage;
+
+    /**
+     * Creates a new deferred result.
+     *
+     * @param stage the stage computing the result, must not be {@literal null}
+     */
+    public DeferredResult(CompletionStage<Result> stage) {
+        super(() -> {
+            try {
+                return stage.toCompletableFuture().get();
+            } catch (ExecutionException e) {
+                if (e.getCause() instanceof Exception) {
+                    throw (Exception) e.getCause();
+                }
+                throw e;
+            }
+        });
+        this.stage = stage;
+    }
+
+    /**
+     * @return the stage computing the result.
+     */
+    public CompletionStage<Result> stage() {
+        return stage;
+    }
+}
@@ -19,7 +19,12 @@
  */
 package org.wisdom.api.http;
 
+import org.apache.commons.io.IOUtils;
+import org.wisdom.api.content.ContentWriter;
+
+import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
 
 /**
  * Renderable is a placeholder for the content to be sent to the client. It allows customizing the rendering process.
@@ -38,6 +43,27 @@ public interface Renderable<T> {
      */
     InputStream render(Context context, Result result) throws RenderableException;
 
+    /**
+     * Writes the content to the given output stream. Unlike {@link #render(Context, Result)}, this method lets the
+     * underlying server provide the stream writing into its own buffers, avoiding intermediate copies. It is only
+     * used for content that is not sent as chunks.
+     * <p>
+     * The default implementation copies the stream returned by {@link #render(Context, Result)}. Implementations
+     * holding their content in memory should override it to write their content directly.
+     *
+     * @param context the HTTP context
+     * @param result  the result having built this renderable object
+     * @param output  the stream on which the content is written, must not be closed by this method
+     * @throws RenderableException if the content cannot be rendered
+     * @throws IOException         if the content cannot be written
+     */
+    default void render(Context context, Result result, OutputStream output) throws RenderableException,
+            IOException {
+        try (InputStream stream = render(context, result)) {
+            IOUtils.copy(stream, output);
+        }
+    }
+
     /**
      * Gets the length of the rendered content. If the length is non known or cannot be determined at that time
      * {@literal -1} is returned.
@@ -79,6 +105,23 @@ public interface Renderable<T> {
      */
     void setSerializedForm(String serialized);
 
+    /**
+     * When {@link #requireSerializer()} returns {@literal true}, the {@link org.wisdom.api.content
+     * .ContentSerializer} can use this method to provide a writer producing the final form of the renderable object,
+     * instead of building it as a String. The writer is then used to write the content directly on the stream sent
+     * to the client.
+     * <p>
+     * Renderable objects not supporting writers return {@literal false}, the serializer must then call
+     * {@link #setSerializedForm(String)}. This is the default behavior.
+     *
+     * @param writer the writer producing the serialized form
+     * @return {@literal true} if the writer is used to render this object, {@literal false} otherwise
+     * @since 0.10
+     */
+    default boolean setSerializedWriter(ContentWriter writer) {
+        return false;
+    }
+
     /**
      * Checks whether the current renderable must be sent as chunk to the client. It's often the case for large
      * files, or content with unknown length.
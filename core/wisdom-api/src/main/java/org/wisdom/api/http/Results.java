@@ -28,6 +28,7 @@ import java.io.File;
 import java.io.InputStream;
 import java.net.URL;
 import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionStage;
 
 
 /**
@@ -491,4 +492,16 @@ public abstract class Results {
         return new AsyncResult(task);
     }
 
+    /**
+     * Creates a new async result computed by the given stage. No thread is used to wait for the result,
+     * the response is written when the stage completes.
+     *
+     * @param stage the stage computing the result.
+     * @return the async result.
+     * @since 0.10
+     */
+    public static DeferredResult async(CompletionStage<Result> stage) {
+        return new DeferredResult(stage);
+    }
+
 }
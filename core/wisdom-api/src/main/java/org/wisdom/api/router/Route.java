@@ -25,14 +25,19 @@ import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Maps;
 import com.google.common.net.MediaType;
 import org.wisdom.api.Controller;
+import org.wisdom.api.annotations.scheduler.ExecutedBy;
+import org.wisdom.api.annotations.scheduler.NonBlocking;
 import org.wisdom.api.http.*;
 import org.wisdom.api.router.parameters.ActionParameter;
+import org.wisdom.api.router.parameters.Source;
 
+import java.io.InputStream;
 import java.lang.reflect.Method;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.CompletionStage;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -90,11 +95,27 @@ public class Route {
      */
     protected final List<ActionParameter> arguments;
 
+    /**
+     * Whether the action method reads the request body as a stream, computed when the route is built.
+     */
+    protected final boolean streamingBody;
+
     /**
      * The status to return if the route is unbound.
      */
     protected int unboundStatus;
 
+    /**
+     * The name of the executor selected using {@link ExecutedBy}, computed lazily. The empty string indicates that
+     * the route does not select an executor.
+     */
+    private volatile String executorName;
+
+    /**
+     * Whether the action method is marked with {@link NonBlocking}, computed lazily.
+     */
+    private volatile Boolean nonBlocking;
+
     /**
      * Constructor used in case of delegation.
      */
@@ -106,6 +127,7 @@ public class Route {
         parameterNames = null;
         regex = null;
         arguments = null;
+        streamingBody = false;
     }
 
     /**
@@ -137,6 +159,7 @@ public class Route {
             regex = null;
             arguments = Collections.emptyList();
         }
+        streamingBody = hasStreamedBody(arguments);
 
         if (controller == null) {
             unboundStatus = Status.NOT_FOUND;
@@ -327,11 +350,16 @@ public class Route {
      * @return the result returned by the action method
      * @throws java.lang.Exception if anything goes wrong
      */
+    @SuppressWarnings("unchecked")
     public Result invoke() throws Exception {
         if (isUnbound()) {
             return new Result().status(unboundStatus).noContentIfNone();
         } else {
-            return (Result) controllerMethod.invoke(controller);
+            Object result = controllerMethod.invoke(controller);
+            if (result instanceof CompletionStage) {
+                return new DeferredResult((CompletionStage<Result>) result);
+            }
+            return (Result) result;
         }
     }
 
@@ -344,6 +372,74 @@ public class Route {
         return arguments;
     }
 
+    /**
+     * Gets the name of the executor selected by the action method or its controller using the {@link ExecutedBy}
+     * annotation.
+     *
+     * @return the name of the executor, {@code null} if the route does not select an executor.
+     * @since 0.10
+     */
+    public String getExecutorName() {
+        String name = executorName;
+        if (name == null) {
+            name = "";
+            Method method = getControllerMethod();
+            if (method != null) {
+                ExecutedBy annotation = method.getAnnotation(ExecutedBy.class);
+                if (annotation == null) {
+                    annotation = getControllerClass().getAnnotation(ExecutedBy.class);
+                }
+                if (annotation != null) {
+                    name = annotation.value();
+                }
+            }
+            executorName = name;
+        }
+        return name.isEmpty() ? null : name;
+    }
+
+    /**
+     * Checks whether the action method (or its controller) is annotated with {@link NonBlocking}, and so can be
+     * invoked from the event loop.
+     *
+     * @return {@code true} if the action method does not block, {@code false} otherwise (including for unbound
+     * routes).
+     * @since 0.10
+     */
+    public boolean isNonBlocking() {
+        Boolean value = nonBlocking;
+        if (value == null) {
+            Method method = getControllerMethod();
+            value = method != null && (method.isAnnotationPresent(NonBlocking.class)
+                    || getControllerClass().isAnnotationPresent(NonBlocking.class));
+            nonBlocking = value;
+        }
+        return value;
+    }
+
+    /**
+     * Checks whether the action method reads the request body as a stream, i.e. has a parameter annotated with
+     * {@link org.wisdom.api.annotations.Body} and of type {@link InputStream}. In this case, the engine does not
+     * buffer the request body in memory (and so does not limit its size), and invokes the action method as soon as
+     * the request headers have been received. The action method is then called from a thread that can block while
+     * reading the body.
+     *
+     * @return {@code true} if the request body is streamed to the action method, {@code false} otherwise.
+     * @since 0.10
+     */
+    public boolean isStreamingBody() {
+        return streamingBody;
+    }
+
+    private static boolean hasStreamedBody(List<ActionParameter> list) {
+        for (ActionParameter argument : list) {
+            if (argument.getSource() == Source.BODY && InputStream.class.equals(argument.getRawType())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
     /**
      * A simple implementation of the toString method for routes.
      *
@@ -25,6 +25,7 @@ import org.wisdom.api.http.HttpMethod;
 import org.wisdom.api.http.Result;
 
 import java.lang.reflect.Method;
+import java.util.concurrent.CompletionStage;
 
 /**
  * Builder object to create routes.
@@ -107,7 +108,7 @@ public class RouteBuilder {
         Preconditions.checkNotNull(method);
         this.controller = controller;
         this.controllerMethod = method;
-        if (!method.getReturnType().isAssignableFrom(Result.class)) {
+        if (!isActionReturnType(method.getReturnType())) {
             throw new IllegalArgumentException(ERROR_CTRL + method + ERROR_IN + controller
                     .getClass() + "`, or the method does not return a " + Result.class.getName() + " object");
         }
@@ -128,6 +129,17 @@ public class RouteBuilder {
         return new Route(httpMethod, uri, controller, controllerMethod);
     }
 
+    /**
+     * Checks whether the given type can be returned by an action method: either a {@link Result} or a
+     * {@link CompletionStage} (computing a {@link Result}).
+     *
+     * @param type the return type of the method
+     * @return {@code true} if the type is supported, {@code false} otherwise
+     */
+    private static boolean isActionReturnType(Class<?> type) {
+        return type.isAssignableFrom(Result.class) || CompletionStage.class.isAssignableFrom(type);
+    }
+
     /**
      * Checks that the action method really exists.
      *
@@ -162,7 +174,7 @@ public class RouteBuilder {
 
         // make sure that the return type of that controller method
         // is of type Result.
-        if (methodFromQueryingClass.getReturnType().isAssignableFrom(Result.class)) {
+        if (isActionReturnType(methodFromQueryingClass.getReturnType())) {
             return methodFromQueryingClass;
         } else {
             throw new NoSuchMethodException("The method " + controllerMethod + " is declared in " + controller
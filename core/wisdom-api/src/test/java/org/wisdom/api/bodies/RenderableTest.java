@@ -27,19 +27,29 @@ import org.apache.commons.io.IOUtils;
 import org.junit.Test;
 import org.w3c.dom.Document;
 import org.w3c.dom.Element;
+import org.wisdom.api.content.ContentWriter;
 import org.wisdom.api.http.MimeTypes;
+import org.wisdom.api.http.Renderable;
 import org.xml.sax.InputSource;
 
 import javax.xml.parsers.DocumentBuilder;
 import javax.xml.parsers.DocumentBuilderFactory;
 import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.io.StringReader;
 import java.io.StringWriter;
 import java.util.Arrays;
+import java.util.Iterator;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.fail;
 
 /**
  * Check the Empty Http Body
@@ -252,4 +262,101 @@ public class RenderableTest {
         assertThat(new String(bytes, Charsets.UTF_8)).isEqualTo("a,b,c");
     }
 
+    @Test
+    public void testRenderOnStream() throws Exception {
+        String LF = System.getProperty("line.separator");
+
+        RenderableString string = new RenderableString("hello");
+        assertThat(renderOnStream(string)).isEqualTo("hello");
+
+        RenderableByteArray array = new RenderableByteArray("hello".getBytes(Charsets.UTF_8), false);
+        assertThat(renderOnStream(array)).isEqualTo("hello");
+
+        ObjectNode node = new ObjectMapper().createObjectNode();
+        node.put("message", "hello");
+        String json = "{" + LF + "  \"message\" : \"hello\"" + LF + "}";
+        // Not rendered yet, and already rendered.
+        assertThat(renderOnStream(new RenderableJson(node))).isEqualTo(json);
+        RenderableJson renderedJson = new RenderableJson(node);
+        renderedJson.length();
+        assertThat(renderOnStream(renderedJson)).isEqualTo(json);
+
+        final String xml = "<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"no\"?>" + LF +
+                "<message>hello</message>" + LF;
+        Document document = DocumentBuilderFactory.newInstance().newDocumentBuilder()
+                .parse(new InputSource(new StringReader("<message>hello</message>")));
+        assertThat(renderOnStream(new RenderableXML(document))).isEqualTo(xml);
+
+        // Serialized as String
+        RenderableObject object = new RenderableObject(Arrays.asList("a", "b", "c"));
+        object.setSerializedForm("a,b,c");
+        assertThat(renderOnStream(object)).isEqualTo("a,b,c");
+    }
+
+    @Test
+    public void testRenderableObjectWithWriter() throws Exception {
+        final List<String> list = Arrays.asList("a", "b", "c");
+        final AtomicBoolean closed = new AtomicBoolean();
+        RenderableObject object = new RenderableObject(list);
+        assertThat(object.setSerializedWriter(new PartWriter(list, closed))).isTrue();
+        assertThat(renderOnStream(object)).isEqualTo("abc");
+        assertThat(closed.get()).isTrue();
+
+        // Read as stream, one part at a time.
+        closed.set(false);
+        object = new RenderableObject(list);
+        object.setSerializedWriter(new PartWriter(list, closed));
+        InputStream stream = object.render(null, null);
+        assertThat(stream.read()).isEqualTo('a');
+        assertThat(stream.available()).isEqualTo(0);
+        assertThat(IOUtils.toString(stream)).isEqualTo("bc");
+        stream.close();
+        assertThat(closed.get()).isTrue();
+    }
+
+    @Test
+    public void testLazySequencesAreChunked() {
+        assertThat(new RenderableObject(Stream.of("a", "b")).mustBeChunked()).isTrue();
+        Iterable<String> iterable = () -> Arrays.asList("a", "b").iterator();
+        assertThat(new RenderableObject(iterable).mustBeChunked()).isTrue();
+        assertThat(new RenderableObject(Arrays.asList("a", "b")).mustBeChunked()).isFalse();
+        assertThat(new RenderableObject("a").mustBeChunked()).isFalse();
+        assertThat(new RenderableObject(new ObjectMapper().createArrayNode()).mustBeChunked()).isFalse();
+    }
+
+    /**
+     * A writer writing one element of a list per part.
+     */
+    private static class PartWriter implements ContentWriter {
+        private final Iterator<String> iterator;
+        private final AtomicBoolean closed;
+
+        PartWriter(List<String> list, AtomicBoolean closed) {
+            this.iterator = list.iterator();
+            this.closed = closed;
+        }
+
+        @Override
+        public boolean writeNext(OutputStream output) throws IOException {
+            output.write(iterator.next().getBytes(Charsets.UTF_8));
+            return iterator.hasNext();
+        }
+
+        @Override
+        public void close() {
+            closed.set(true);
+        }
+    }
+
+    private String renderOnStream(Renderable<?> renderable) throws Exception {
+        ByteArrayOutputStream output = new ByteArrayOutputStream() {
+            @Override
+            public void close() {
+                fail("The stream must not be closed");
+            }
+        };
+        renderable.render(null, null, output);
+        return new String(output.toByteArray(), Charsets.UTF_8);
+    }
+
 }
@@ -0,0 +1,62 @@
+/*
+ * #%L
+ * Wisdom-Framework
+ * %%
+ * Copyright (C) 2013 - 2014 Wisdom Framework
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.wisdom.api.cache;
+
+import org.joda.time.Duration;
+import org.junit.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Checks the default methods of the cache.
+ */
+public class CacheTest {
+
+    @Test
+    public void testStatisticsOfCachesNotCollectingThem() {
+        Cache cache = new Cache() {
+            @Override
+            public <T> void set(String key, T value, int expiration) {
+                // Nothing stored.
+            }
+
+            @Override
+            public <T> void set(String key, T value, Duration expiration) {
+                // Nothing stored.
+            }
+
+            @Override
+            public <T> T get(String key) {
+                return null;
+            }
+
+            @Override
+            public boolean remove(String key) {
+                return false;
+            }
+        };
+        CacheStatistics statistics = cache.statistics();
+        assertThat(statistics).isSameAs(CacheStatistics.EMPTY);
+        assertThat(statistics.getHitCount()).isEqualTo(0);
+        assertThat(statistics.getMissCount()).isEqualTo(0);
+        assertThat(statistics.getHitRatio()).isEqualTo(0);
+        assertThat(statistics.getHeapEntries()).isEqualTo(0);
+    }
+}
@@ -69,4 +69,37 @@ public class ExecutionStatisticsTest {
     }
 
 
+    @Test(expected = UnsupportedOperationException.class)
+    public void testHistogramBoundsCannotBeModified() {
+        assertThat(ManagedExecutorService.ExecutionStatistics.getHistogramBounds()).startsWith(1L, 5L).endsWith(60000L);
+        ManagedExecutorService.ExecutionStatistics.getHistogramBounds().set(0, 0L);
+    }
+
+    @Test
+    public void testQueueTimeHistogramsAndRejections() {
+        ManagedExecutorService.ExecutionStatistics statistics = new ManagedExecutorService.ExecutionStatistics();
+        statistics.accept(0);
+        statistics.accept(7);
+        statistics.accept(120000);
+        statistics.acceptQueueTime(2);
+        statistics.acceptQueueTime(600);
+        statistics.reject();
+
+        assertThat(statistics.getExecutionTimeHistogram())
+                .hasSize(ManagedExecutorService.ExecutionStatistics.getHistogramBounds().size() + 1)
+                .containsExactly(1, 0, 1, 0, 0, 0, 0, 0, 0, 0, 1);
+        assertThat(statistics.getQueueTimeHistogram()).containsExactly(0, 1, 0, 0, 0, 0, 1, 0, 0, 0, 0);
+        assertThat(statistics.getAverageQueueTime()).isEqualTo(301);
+        assertThat(statistics.getMaximumQueueTime()).isEqualTo(600);
+        assertThat(statistics.getTotalQueueTime()).isEqualTo(602);
+        assertThat(statistics.getRejectedTaskCount()).isEqualTo(1);
+
+        ManagedExecutorService.ExecutionStatistics copy = statistics.copy();
+        assertThat(copy.getQueueTimeHistogram()).isEqualTo(statistics.getQueueTimeHistogram());
+        assertThat(copy.getExecutionTimeHistogram()).isEqualTo(statistics.getExecutionTimeHistogram());
+        assertThat(copy.getAverageQueueTime()).isEqualTo(301);
+        assertThat(copy.getRejectedTaskCount()).isEqualTo(1);
+    }
+
+
 }
\ No newline at end of file
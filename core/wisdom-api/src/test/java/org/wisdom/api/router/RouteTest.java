@@ -22,9 +22,17 @@ package org.wisdom.api.router;
 import org.junit.Test;
 import org.wisdom.api.Controller;
 import org.wisdom.api.DefaultController;
+import org.wisdom.api.annotations.Body;
+import org.wisdom.api.annotations.scheduler.ExecutedBy;
+import org.wisdom.api.annotations.scheduler.NonBlocking;
 import org.wisdom.api.http.HttpMethod;
 import org.wisdom.api.http.Request;
+import org.wisdom.api.http.DeferredResult;
 import org.wisdom.api.http.Result;
+import org.wisdom.api.http.Results;
+
+import java.io.InputStream;
+import java.util.concurrent.CompletableFuture;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.Mockito.mock;
@@ -105,7 +113,92 @@ public class RouteTest {
         assertThat(route1.isCompliantWithRequestContentType(request1)).isEqualTo(2);
     }
 
+    @Test
+    public void testStreamingBodyDetection() throws Exception {
+        Controller controller = new DefaultController() {
+            public Result streamed(@Body InputStream body) {
+                return null;
+            }
+
+            public Result parsed(@Body String body) {
+                return null;
+            }
+
+            public Result none() {
+                return null;
+            }
+        };
+
+        assertThat(new RouteBuilder().route(HttpMethod.POST).on("/").to(controller, "streamed")
+                .isStreamingBody()).isTrue();
+        assertThat(new RouteBuilder().route(HttpMethod.POST).on("/").to(controller, "parsed")
+                .isStreamingBody()).isFalse();
+        assertThat(new RouteBuilder().route(HttpMethod.POST).on("/").to(controller, "none")
+                .isStreamingBody()).isFalse();
+        assertThat(new Route(HttpMethod.POST, "/", 404).isStreamingBody()).isFalse();
+    }
+
+    @Test
+    public void testExecutorSelection() throws Exception {
+        Controller controller = new ControllerUsingAnExecutor();
+        assertThat(new RouteBuilder().route(HttpMethod.GET).on("/").to(controller, "fromClass")
+                .getExecutorName()).isEqualTo("controller-executor");
+        assertThat(new RouteBuilder().route(HttpMethod.GET).on("/").to(controller, "fromMethod")
+                .getExecutorName()).isEqualTo("action-executor");
+        assertThat(new Route(HttpMethod.GET, "/", 404).getExecutorName()).isNull();
+
+        Controller regular = new DefaultController() {
+            public Result index() {
+                return null;
+            }
+        };
+        assertThat(new RouteBuilder().route(HttpMethod.GET).on("/").to(regular, "index")
+                .getExecutorName()).isNull();
+    }
 
+    @Test
+    public void testActionReturningACompletionStage() throws Exception {
+        Controller controller = new DefaultController() {
+            public CompletableFuture<Result> later() {
+                return CompletableFuture.completedFuture(ok("done"));
+            }
+        };
+        Route route = new RouteBuilder().route(HttpMethod.GET).on("/").to(controller, "later");
+        Result result = route.invoke();
+        assertThat(result).isInstanceOf(DeferredResult.class);
+        assertThat(((DeferredResult) result).callable().call().getRenderable().content()).isEqualTo("done");
+        assertThat(Results.async(CompletableFuture.completedFuture(Results.ok())).stage()).isNotNull();
+    }
 
+    @Test
+    public void testNonBlockingDetection() throws Exception {
+        Controller controller = new ControllerUsingAnExecutor();
+        assertThat(new RouteBuilder().route(HttpMethod.GET).on("/").to(controller, "fromClass")
+                .isNonBlocking()).isFalse();
+        assertThat(new RouteBuilder().route(HttpMethod.GET).on("/").to(controller, "fromMethod")
+                .isNonBlocking()).isTrue();
+        assertThat(new RouteBuilder().route(HttpMethod.GET).on("/").to(new NonBlockingController(), "index")
+                .isNonBlocking()).isTrue();
+        assertThat(new Route(HttpMethod.GET, "/", 404).isNonBlocking()).isFalse();
+    }
 
-}
\ No newline at end of file
+    @NonBlocking
+    private static class NonBlockingController extends DefaultController {
+        public Result index() {
+            return null;
+        }
+    }
+
+    @ExecutedBy("controller-executor")
+    private static class ControllerUsingAnExecutor extends DefaultController {
+        public Result fromClass() {
+            return null;
+        }
+
+        @NonBlocking
+        @ExecutedBy("action-executor")
+        public Result fromMethod() {
+            return null;
+        }
+    }
+}
@@ -33,6 +33,10 @@ import java.util.stream.Collectors;
 /**
  * Common methods used in the different
  * {@link org.wisdom.api.concurrent.ManagedExecutorService} implementations.
+ * <p>
+ * Submission does not hold any lock: the running tasks are tracked in a concurrent set, the statistics are
+ * collected using {@link java.util.concurrent.atomic.LongAdder}, and the tasks are directly executed by the
+ * underlying pool.
  */
 public abstract class AbstractManagedExecutorService implements ManagedExecutorService {
 
@@ -42,10 +46,10 @@ public abstract class AbstractManagedExecutorService implements ManagedExecutorS
     protected ListeningExecutorService executor;
     protected ThreadPoolExecutor internalPool;
 
-    protected final Set<Task<?>> tasks = new LinkedHashSet<>();
+    protected final Set<Task<?>> tasks = ConcurrentHashMap.newKeySet();
     protected final Logger logger;
 
-    protected ExecutionStatistics statistics = new ExecutionStatistics();
+    protected final ExecutionStatistics statistics = new ExecutionStatistics();
 
     protected List<ExecutionContextService> ecs;
 
@@ -81,26 +85,26 @@ public abstract class AbstractManagedExecutorService implements ManagedExecutorS
     }
 
     @Override
-    public synchronized Collection<ManagedFutureTask> getHungTasks() {
+    public Collection<ManagedFutureTask> getHungTasks() {
         return tasks.stream().filter(task -> task.isTaskHang()).collect(Collectors.toList());
     }
 
     @Override
-    public synchronized void shutdown() {
+    public void shutdown() {
         executor.shutdown();
     }
 
 
     @Override
-    public synchronized List<Runnable> shutdownNow() {
+    public List<Runnable> shutdownNow() {
         for (Task task : tasks) {
             task.cancel(true);
         }
         return executor.shutdownNow();
     }
 
-    protected synchronized ExecutionContext createExecutionContext() {
-        if (ecs == null) {
+    protected ExecutionContext createExecutionContext() {
+        if (ecs == null || ecs.isEmpty()) {
             return null;
         }
         List<ExecutionContextService> copy = new ArrayList<>(ecs);
@@ -112,7 +116,7 @@ public abstract class AbstractManagedExecutorService implements ManagedExecutorS
     }
 
     @Override
-    public synchronized boolean isShutdown() {
+    public boolean isShutdown() {
         return executor.isShutdown();
     }
 
@@ -124,28 +128,40 @@ public abstract class AbstractManagedExecutorService implements ManagedExecutorS
      * @return {@code true} if all tasks have completed following shut down
      */
     @Override
-    public synchronized boolean isTerminated() {
+    public boolean isTerminated() {
         return executor.isTerminated();
     }
 
     @Override
-    public synchronized boolean awaitTermination(long timeout, TimeUnit unit)
+    public boolean awaitTermination(long timeout, TimeUnit unit)
             throws InterruptedException {
         return executor.awaitTermination(timeout, unit);
     }
 
     @Override
-    public synchronized <T> List<Future<T>> invokeAll(Collection<? extends Callable<T>> tasks) throws InterruptedException {
-        List<Future<T>> futures = executor.invokeAll(tasks);
-        List<Future<T>> manageable = new ArrayList<>(futures.size());
-        int i = 0;
-        for (Callable<T> callable : tasks) {
-            Task task = getNewTaskFor(callable);
-            task.submitted(futures.get(i));
-            manageable.add(task);
-            i++;
+    public <T> List<Future<T>> invokeAll(Collection<? extends Callable<T>> tasks) throws InterruptedException {
+        List<Future<T>> futures = new ArrayList<>(tasks.size());
+        boolean done = false;
+        try {
+            for (Callable<T> callable : tasks) {
+                futures.add(submit(callable));
+            }
+            for (Future<T> future : futures) {
+                if (!future.isDone()) {
+                    try {
+                        future.get();
+                    } catch (CancellationException | ExecutionException ignore) { //NOSONAR
+                        // The outcome is available from the future.
+                    }
+                }
+            }
+            done = true;
+            return futures;
+        } finally {
+            if (!done) {
+                cancelAll(futures);
+            }
         }
-        return manageable;
     }
 
     protected abstract <T> Task getNewTaskFor(Callable<T> callable);
@@ -154,37 +170,58 @@ public abstract class AbstractManagedExecutorService implements ManagedExecutorS
 
 
     @Override
-    public synchronized <T> List<Future<T>> invokeAll(Collection<? extends Callable<T>> tasks, long timeout, TimeUnit unit) throws InterruptedException {
-        List<Future<T>> futures = executor.invokeAll(tasks, timeout, unit);
-        List<Future<T>> manageable = new ArrayList<>(futures.size());
-        int i = 0;
-        for (Callable<T> callable : tasks) {
-            Task task = getNewTaskFor(callable);
-            task.submitted(futures.get(i));
-            manageable.add(task);
-            i++;
+    public <T> List<Future<T>> invokeAll(Collection<? extends Callable<T>> tasks, long timeout, TimeUnit unit) throws InterruptedException {
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        List<Future<T>> futures = new ArrayList<>(tasks.size());
+        boolean done = false;
+        try {
+            for (Callable<T> callable : tasks) {
+                futures.add(submit(callable));
+            }
+            for (Future<T> future : futures) {
+                if (!future.isDone()) {
+                    try {
+                        future.get(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+                    } catch (CancellationException | ExecutionException ignore) { //NOSONAR
+                        // The outcome is available from the future.
+                    } catch (TimeoutException e) { //NOSONAR
+                        // The remaining tasks are cancelled.
+                        return futures;
+                    }
+                }
+            }
+            done = true;
+            return futures;
+        } finally {
+            if (!done) {
+                cancelAll(futures);
+            }
+        }
+    }
+
+    private static <T> void cancelAll(List<Future<T>> futures) {
+        for (Future<T> future : futures) {
+            future.cancel(true);
         }
-        return manageable;
     }
 
 
     @Override
-    public synchronized <T> T invokeAny(Collection<? extends Callable<T>> tasks)
+    public <T> T invokeAny(Collection<? extends Callable<T>> tasks)
             throws InterruptedException, ExecutionException {
         return executor.invokeAny(tasks);
     }
 
     @Override
-    public synchronized <T> T invokeAny(Collection<? extends Callable<T>> tasks,
+    public <T> T invokeAny(Collection<? extends Callable<T>> tasks,
                            long timeout, TimeUnit unit)
             throws InterruptedException, ExecutionException, TimeoutException {
         return executor.invokeAny(tasks, timeout, unit);
     }
 
     @Override
-    public synchronized void execute(Runnable command) {
-        Task<Void> task = getNewTaskFor(command, null);
-        task.execute();
+    public void execute(Runnable command) {
+        register(getNewTaskFor(command, null));
     }
 
 
@@ -195,7 +232,7 @@ public abstract class AbstractManagedExecutorService implements ManagedExecutorS
      * @return the number of threads
      */
     @Override
-    public synchronized int getLargestPoolSize() {
+    public int getLargestPoolSize() {
         return internalPool.getLargestPoolSize();
     }
 
@@ -205,7 +242,7 @@ public abstract class AbstractManagedExecutorService implements ManagedExecutorS
      * @return the maximum allowed number of threads
      */
     @Override
-    public synchronized int getMaximumPoolSize() {
+    public int getMaximumPoolSize() {
         return internalPool.getMaximumPoolSize();
     }
 
@@ -215,7 +252,7 @@ public abstract class AbstractManagedExecutorService implements ManagedExecutorS
      * @return the number of threads
      */
     @Override
-    public synchronized int getPoolSize() {
+    public int getPoolSize() {
         return internalPool.getPoolSize();
     }
 
@@ -225,7 +262,7 @@ public abstract class AbstractManagedExecutorService implements ManagedExecutorS
      * @return the core number of threads
      */
     @Override
-    public synchronized int getCorePoolSize() {
+    public int getCorePoolSize() {
         return internalPool.getCorePoolSize();
     }
 
@@ -239,7 +276,7 @@ public abstract class AbstractManagedExecutorService implements ManagedExecutorS
      * @return the number of tasks
      */
     @Override
-    public synchronized long getCompletedTaskCount() {
+    public long getCompletedTaskCount() {
         return internalPool.getCompletedTaskCount();
     }
 
@@ -250,7 +287,7 @@ public abstract class AbstractManagedExecutorService implements ManagedExecutorS
      * @return the number of threads
      */
     @Override
-    public synchronized int getActiveCount() {
+    public int getActiveCount() {
         return internalPool.getActiveCount();
     }
 
@@ -263,7 +300,7 @@ public abstract class AbstractManagedExecutorService implements ManagedExecutorS
      * @return the task queue
      */
     @Override
-    public synchronized BlockingQueue<Runnable> getQueue() {
+    public BlockingQueue<Runnable> getQueue() {
         return internalPool.getQueue();
     }
 
@@ -278,7 +315,7 @@ public abstract class AbstractManagedExecutorService implements ManagedExecutorS
      * the presence of interference by other threads.
      */
     @Override
-    public synchronized void purge() {
+    public void purge() {
         internalPool.purge();
     }
 
@@ -299,7 +336,7 @@ public abstract class AbstractManagedExecutorService implements ManagedExecutorS
      * @return {@code true} if the task was removed
      */
     @Override
-    public synchronized boolean remove(Runnable task) {
+    public boolean remove(Runnable task) {
         return internalPool.remove(task);
     }
 
@@ -312,7 +349,7 @@ public abstract class AbstractManagedExecutorService implements ManagedExecutorS
      * @return the number of tasks
      */
     @Override
-    public synchronized long getTaskCount() {
+    public long getTaskCount() {
         return internalPool.getTaskCount();
     }
 
@@ -325,27 +362,24 @@ public abstract class AbstractManagedExecutorService implements ManagedExecutorS
      * @return the time limit
      */
     @Override
-    public synchronized long getKeepAliveTime(TimeUnit unit) {
+    public long getKeepAliveTime(TimeUnit unit) {
         return internalPool.getKeepAliveTime(unit);
     }
 
     @Override
-    public synchronized <T> ManagedFutureTask<T> submit(Callable<T> task) {
+    public <T> ManagedFutureTask<T> submit(Callable<T> task) {
         if (task == null) {
             throw new NullPointerException();
         }
-        return getNewTaskFor(task).execute();
+        return register(getNewTaskFor(task));
     }
 
     @Override
-    public synchronized <T> ManagedFutureTask<T> submit(Runnable task, T result) {
+    public <T> ManagedFutureTask<T> submit(Runnable task, T result) {
         if (task == null) {
             throw new NullPointerException();
         }
-        final Task t = getNewTaskFor(task, result).execute();
-        t.addListener(() -> tasks.remove(t));
-        tasks.add(t);
-        return t;
+        return register(getNewTaskFor(task, result));
     }
 
     @Override
@@ -355,11 +389,43 @@ public abstract class AbstractManagedExecutorService implements ManagedExecutorS
     }
 
     /**
-     * Computes the execution time of the completed task (given), and add it to the statistics.
+     * Computes the execution time and the queue time of the completed task (given), and add them to the statistics.
      *
      * @param task the completed task
      */
-    protected synchronized void addToStatistics(Task task) {
+    protected void addToStatistics(Task task) {
         statistics.accept(task.getTaskCompletionTime() - task.getTaskStartTime());
+        long queued = task.getTaskQueueTime();
+        if (queued >= 0) {
+            statistics.acceptQueueTime(queued);
+        }
+    }
+
+    /**
+     * Tracks the given task until its completion, and hands it to the executor.
+     *
+     * @param task the task
+     * @param <T>  the type of result
+     * @return the task
+     * @throws RejectedExecutionException if the executor cannot accept the task
+     */
+    protected <T> Task<T> register(Task<T> task) {
+        // The task is registered first, as it may complete before execute returns.
+        tasks.add(task);
+        try {
+            return task.execute();
+        } catch (RejectedExecutionException e) {
+            tasks.remove(task);
+            throw e;
+        }
+    }
+
+    /**
+     * Stops tracking the given task. Called by the task when it completes, fails or is cancelled.
+     *
+     * @param task the task
+     */
+    protected void completed(Task<?> task) {
+        tasks.remove(task);
     }
 }
@@ -73,6 +73,7 @@ public class Creator {
 
         createExecutor(ManagedExecutorService.SYSTEM,
                 conf != null ? conf.getConfiguration("executors." + ManagedExecutorService.SYSTEM) : null);
+        createWorkerExecutor(conf != null ? conf.getConfiguration("executors." + ManagedExecutorService.WORKER) : null);
         createScheduler(ManagedScheduledExecutorService.SYSTEM,
                 conf != null ? conf.getConfiguration("schedulers." + ManagedScheduledExecutorService.SYSTEM) : null);
 
@@ -88,8 +89,9 @@ public class Creator {
         }
         Set<String> keys = executors.asMap().keySet();
         for (String key : keys) {
-            // Skip System (already created).
-            if (!key.equalsIgnoreCase(ManagedExecutorService.SYSTEM)) {
+            // Skip System and Worker (already created).
+            if (!key.equalsIgnoreCase(ManagedExecutorService.SYSTEM)
+                    && !key.equalsIgnoreCase(ManagedExecutorService.WORKER)) {
                 Configuration conf = executors.getConfiguration(key);
                 createExecutor(key, conf);
             }
@@ -135,6 +137,37 @@ public class Creator {
         instances.put(reg, executor);
     }
 
+    /**
+     * Creates the executor used by the engine to run the action methods off the event loop. Unless configured
+     * otherwise, its size depends on the number of processors, and its queue is bounded so requests are rejected
+     * when the server is overloaded.
+     *
+     * @param conf the configuration, {@code null} to use the default settings
+     */
+    private void createWorkerExecutor(Configuration conf) {
+        if (conf != null) {
+            createExecutor(ManagedExecutorService.WORKER, conf);
+            return;
+        }
+        LOGGER.info("Creating executor {}", ManagedExecutorService.WORKER);
+        int size = Math.max(8, Runtime.getRuntime().availableProcessors() * 2);
+        ManagedExecutorServiceImpl executor = new ManagedExecutorServiceImpl(
+                ManagedExecutorService.WORKER,
+                ManagedExecutorService.ThreadType.POOLED,
+                60000,
+                size,
+                size,
+                60000,
+                size * 64,
+                Thread.NORM_PRIORITY,
+                ecs);
+        ServiceRegistration reg = context.registerService(
+                EXPOSED_CLASSES_FOR_EXECUTORS,
+                executor,
+                getPublishedProperties(executor));
+        instances.put(reg, executor);
+    }
+
     private void createScheduler(String name, Configuration conf) {
         LOGGER.info("Creating scheduler {}", name);
         ManagedScheduledExecutorServiceImpl executor;
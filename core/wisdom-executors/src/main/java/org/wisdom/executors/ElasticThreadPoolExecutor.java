@@ -0,0 +1,224 @@
+/*
+ * #%L
+ * Wisdom-Framework
+ * %%
+ * Copyright (C) 2013 - 2015 Wisdom Framework
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.wisdom.executors;
+
+import org.wisdom.api.concurrent.ManagedExecutorService.ExecutionStatistics;
+import org.wisdom.api.concurrent.ManagedExecutorService.RejectionPolicy;
+import org.wisdom.api.concurrent.TaskRejectedException;
+
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The thread pool used by {@link ManagedExecutorServiceImpl}. Unlike the regular {@link ThreadPoolExecutor}, it
+ * creates threads up to its maximum size before queueing the tasks, and applies a {@link RejectionPolicy} when it is
+ * saturated.
+ * <p>
+ * The {@link ThreadPoolExecutor} only creates threads beyond the core size when the work queue refuses a task. The
+ * {@link WorkQueue} refuses the tasks while the pool can grow and no thread is idle. A task refused while the pool
+ * has just reached its maximum size is then forced into the queue, within its capacity.
+ */
+class ElasticThreadPoolExecutor extends ThreadPoolExecutor {
+
+    private final String name;
+    private final RejectionPolicy policy;
+    private final ExecutionStatistics statistics;
+
+    /**
+     * The number of tasks submitted and not completed yet (queued or running).
+     */
+    private final AtomicInteger submitted = new AtomicInteger();
+
+    /**
+     * Creates the pool.
+     *
+     * @param name       the name of the executor, used in the rejection messages
+     * @param coreSize   the number of threads kept in the pool
+     * @param maxSize    the maximum number of threads
+     * @param keepAlive  the idle time before disposing an unused thread, in milliseconds
+     * @param queue      the work queue, the pool only grows before queueing the tasks with the queues created by
+     *                   {@link #createWorkQueue(int)}
+     * @param factory    the thread factory
+     * @param policy     the rejection policy
+     * @param statistics the statistics recording the rejections
+     */
+    ElasticThreadPoolExecutor(String name, int coreSize, int maxSize, long keepAlive, BlockingQueue<Runnable> queue,
+                              ThreadFactory factory, RejectionPolicy policy, ExecutionStatistics statistics) {
+        super(coreSize, maxSize, keepAlive, TimeUnit.MILLISECONDS, queue,
+                new CountingThreadFactory(factory));
+        this.name = name;
+        this.policy = policy;
+        this.statistics = statistics;
+        if (getQueue() instanceof WorkQueue) {
+            ((WorkQueue) getQueue()).pool = this;
+        }
+        setRejectedExecutionHandler((task, executor) -> rejected(task));
+    }
+
+    /**
+     * Creates the work queue.
+     *
+     * @param capacity the capacity, {@literal 0} to hand the tasks off to the threads without queueing them,
+     *                 {@link Integer#MAX_VALUE} for an unbounded queue
+     * @return the queue
+     */
+    static BlockingQueue<Runnable> createWorkQueue(int capacity) {
+        if (capacity < 0) {
+            throw new IllegalArgumentException("The capacity of the work queue must be positive or zero");
+        }
+        if (capacity == 0) {
+            // The pool grows up to its maximum size.
+            return new SynchronousQueue<>();
+        }
+        return new WorkQueue(capacity);
+    }
+
+    @Override
+    public void execute(Runnable command) {
+        submitted.incrementAndGet();
+        super.execute(command);
+    }
+
+    @Override
+    protected void afterExecute(Runnable r, Throwable t) {
+        submitted.decrementAndGet();
+    }
+
+    @Override
+    public boolean remove(Runnable task) {
+        boolean removed = super.remove(task);
+        if (removed) {
+            submitted.decrementAndGet();
+        }
+        return removed;
+    }
+
+    /**
+     * @return the number of threads of the pool, without acquiring the lock of the pool.
+     */
+    private int threads() {
+        return ((CountingThreadFactory) getThreadFactory()).count.get();
+    }
+
+    private void rejected(Runnable task) {
+        if (isShutdown()) {
+            submitted.decrementAndGet();
+            statistics.reject();
+            throw new TaskRejectedException(name, true);
+        }
+        // The pool may have reached its maximum size after the queue refused the task.
+        if (getQueue() instanceof WorkQueue && ((WorkQueue) getQueue()).force(task)) {
+            return;
+        }
+        statistics.reject();
+        switch (policy) {
+            case CALLER_RUNS:
+                try {
+                    task.run();
+                } finally {
+                    submitted.decrementAndGet();
+                }
+                return;
+            case DISCARD_OLDEST:
+                Runnable oldest = getQueue().poll();
+                if (oldest != null) {
+                    submitted.decrementAndGet();
+                    if (oldest instanceof Future) {
+                        // Let the callers waiting for the discarded task know it will never be executed.
+                        ((Future) oldest).cancel(false);
+                    }
+                    submitted.decrementAndGet();
+                    execute(task);
+                    return;
+                }
+                // Nothing to discard, abort.
+                submitted.decrementAndGet();
+                throw new TaskRejectedException(name, false);
+            default:
+                submitted.decrementAndGet();
+                throw new TaskRejectedException(name, false);
+        }
+    }
+
+    /**
+     * The work queue, refusing the tasks while the pool can create threads to execute them.
+     */
+    static class WorkQueue extends LinkedBlockingQueue<Runnable> {
+
+        private volatile ElasticThreadPoolExecutor pool;
+
+        WorkQueue(int capacity) {
+            super(capacity);
+        }
+
+        @Override
+        public boolean offer(Runnable task) {
+            ElasticThreadPoolExecutor executor = pool;
+            if (executor == null) {
+                return super.offer(task);
+            }
+            int threads = executor.threads();
+            if (threads >= executor.getMaximumPoolSize() || executor.submitted.get() <= threads) {
+                // The pool cannot grow anymore, or a thread is idle.
+                return super.offer(task);
+            }
+            // Let the pool create a thread.
+            return false;
+        }
+
+        /**
+         * Queues the task, even if the pool can still grow.
+         *
+         * @param task the task
+         * @return {@code true} if the task was queued, {@code false} if the queue is full
+         */
+        boolean force(Runnable task) {
+            return super.offer(task);
+        }
+    }
+
+    /**
+     * A thread factory counting the threads alive.
+     */
+    private static class CountingThreadFactory implements ThreadFactory {
+
+        private final ThreadFactory delegate;
+        private final AtomicInteger count = new AtomicInteger();
+
+        CountingThreadFactory(ThreadFactory delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = delegate.newThread(() -> {
+                try {
+                    runnable.run();
+                } finally {
+                    count.decrementAndGet();
+                }
+            });
+            if (thread != null) {
+                count.incrementAndGet();
+            }
+            return thread;
+        }
+    }
+}
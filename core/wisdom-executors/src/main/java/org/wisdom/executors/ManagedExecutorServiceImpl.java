@@ -31,6 +31,9 @@ import java.util.concurrent.*;
 
 /**
  * Implementation of the {@link org.wisdom.api.concurrent.ManagedExecutorService}.
+ * <p>
+ * The pool grows up to its maximum size before queueing the tasks. When all the threads are busy and the work queue
+ * is full, the configured {@link RejectionPolicy} is applied.
  */
 public class ManagedExecutorServiceImpl extends AbstractManagedExecutorService
         implements ManagedExecutorService {
@@ -46,6 +49,7 @@ public class ManagedExecutorServiceImpl extends AbstractManagedExecutorService
                 configuration.getIntegerWithDefault("workQueueCapacity",
                         Integer.MAX_VALUE),
                 configuration.getIntegerWithDefault("priority", Thread.NORM_PRIORITY),
+                configuration.get("rejectionPolicy", RejectionPolicy.class, RejectionPolicy.ABORT),
                 ecs);
     }
 
@@ -59,49 +63,94 @@ public class ManagedExecutorServiceImpl extends AbstractManagedExecutorService
             int workQueueCapacity,
             int priority,
             List<ExecutionContextService> ecs) {
+        this(name, tu, hungTime, coreSize, maxSize, keepAlive, workQueueCapacity, priority, RejectionPolicy.ABORT,
+                ecs);
+    }
+
+    public ManagedExecutorServiceImpl(
+            String name,
+            ThreadType tu,
+            long hungTime,
+            int coreSize,
+            int maxSize,
+            long keepAlive,
+            int workQueueCapacity,
+            int priority,
+            RejectionPolicy policy,
+            List<ExecutionContextService> ecs) {
 
         super(name, hungTime, ecs);
-        ThreadFactoryBuilder builder = new ThreadFactoryBuilder()
-                .setDaemon(tu == ThreadType.DAEMON)
-                .setNameFormat(name + "-%s")
-                .setPriority(priority)
-                .setUncaughtExceptionHandler(
-                        new Thread.UncaughtExceptionHandler() {
-                            @Override
-                            public void uncaughtException(Thread t, Throwable e) {
-                                logger.error("Uncaught exception in thread '{}'",
-                                        t.getName(), e);
-                            }
-                        });
-
-        BlockingQueue<Runnable> queue = createWorkQueue(workQueueCapacity);
-        final ThreadPoolExecutor executor = new ThreadPoolExecutor(coreSize, maxSize, keepAlive,
-                TimeUnit.MILLISECONDS, queue, builder.build(), new RejectedExecutionHandler() {
+        Thread.UncaughtExceptionHandler handler = new Thread.UncaughtExceptionHandler() {
             @Override
-            public void rejectedExecution(Runnable r, ThreadPoolExecutor executor) {
-                System.out.println("REJECTED EXECUTION : " + r);
+            public void uncaughtException(Thread t, Throwable e) {
+                logger.error("Uncaught exception in thread '{}'",
+                        t.getName(), e);
+            }
+        };
+
+        ThreadFactory factory = null;
+        if (tu == ThreadType.VIRTUAL) {
+            factory = createVirtualThreadFactory(name, handler);
+            if (factory == null) {
+                logger.warn("Virtual threads are not supported by the Java runtime ({}), the executor '{}' uses " +
+                        "a pool of platform threads", System.getProperty("java.version"), name);
             }
-        });
+        }
+
+        final ThreadPoolExecutor executor;
+        if (factory != null) {
+            // A new virtual thread per task: the queue hands the tasks off, and the pool is not bounded. Idle
+            // threads are kept for the keep alive time.
+            executor = new ElasticThreadPoolExecutor(name, 0, Integer.MAX_VALUE, keepAlive,
+                    ElasticThreadPoolExecutor.createWorkQueue(0), factory, policy, statistics);
+        } else {
+            ThreadFactoryBuilder builder = new ThreadFactoryBuilder()
+                    .setDaemon(tu == ThreadType.DAEMON)
+                    .setNameFormat(name + "-%s")
+                    .setPriority(priority)
+                    .setUncaughtExceptionHandler(handler);
+            executor = new ElasticThreadPoolExecutor(name, coreSize, maxSize, keepAlive,
+                    createWorkQueue(workQueueCapacity), builder.build(), policy, statistics);
+        }
         executor.allowCoreThreadTimeOut(true);
         setInternalPool(executor);
     }
 
+    /**
+     * Creates the work queue of the pool. The returned queue lets the pool grow up to its maximum size before
+     * queueing the tasks. Subclasses overriding this method get the behavior of the regular
+     * {@link ThreadPoolExecutor}: the pool only grows beyond its core size when their queue refuses a task.
+     *
+     * @param workQueueCapacity the capacity, {@literal 0} to hand the tasks off to the threads without queueing
+     *                          them, {@link Integer#MAX_VALUE} for an unbounded queue
+     * @return the queue
+     */
     protected BlockingQueue<Runnable> createWorkQueue(int workQueueCapacity) {
-        if (workQueueCapacity < 0) {
-            throw new IllegalArgumentException();
-        }
-        BlockingQueue<Runnable> queue;
-        if (workQueueCapacity == Integer.MAX_VALUE) {
-            queue = new LinkedBlockingQueue<>();
-        } else if (workQueueCapacity == 0) {
-            queue = new SynchronousQueue<>();
-        } else {
-            queue = new ArrayBlockingQueue<>(workQueueCapacity);
+        return ElasticThreadPoolExecutor.createWorkQueue(workQueueCapacity);
+    }
+
+    /**
+     * Creates a factory of virtual threads, using the {@code Thread.ofVirtual()} builder. The builder is looked up
+     * reflectively, as it is only available on Java 21+ runtimes.
+     *
+     * @param name    the name of the executor, used as prefix of the thread names
+     * @param handler the handler of the uncaught exceptions
+     * @return the factory, {@code null} if virtual threads are not supported
+     */
+    static ThreadFactory createVirtualThreadFactory(String name, Thread.UncaughtExceptionHandler handler) {
+        try {
+            Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+            Class<?> type = Class.forName("java.lang.Thread$Builder");
+            builder = type.getMethod("name", String.class, long.class).invoke(builder, name + "-", 0L);
+            builder = type.getMethod("uncaughtExceptionHandler", Thread.UncaughtExceptionHandler.class)
+                    .invoke(builder, handler);
+            return (ThreadFactory) type.getMethod("factory").invoke(builder);
+        } catch (ReflectiveOperationException e) { //NOSONAR not supported by the runtime.
+            return null;
         }
-        return queue;
     }
 
-    protected synchronized <V> Task<V> getNewTaskFor(Runnable task, V result) {
+    protected <V> Task<V> getNewTaskFor(Runnable task, V result) {
         return new Task<>(executor, task, result, createExecutionContext(),
                 hungTime, this);
     }
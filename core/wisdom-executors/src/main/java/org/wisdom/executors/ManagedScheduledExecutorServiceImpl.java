@@ -77,7 +77,7 @@ public class ManagedScheduledExecutorServiceImpl
                 hungTime, this);
     }
 
-    protected synchronized <V> Task<V> getNewTaskFor(Callable<V> callable) {
+    protected <V> Task<V> getNewTaskFor(Callable<V> callable) {
         return new Task(executor, callable, createExecutionContext(), hungTime, this);
     }
 
@@ -94,10 +94,9 @@ public class ManagedScheduledExecutorServiceImpl
      * @throws NullPointerException                            if callable is null
      */
     @Override
-    public synchronized <V> ManagedScheduledFutureTask<V> schedule(Callable<V> callable, long delay, TimeUnit unit) {
+    public <V> ManagedScheduledFutureTask<V> schedule(Callable<V> callable, long delay, TimeUnit unit) {
         ScheduledTask<V> task = getNewScheduledTaskFor(callable, false);
-        ScheduledFuture<V> future =
-                ((ScheduledExecutorService) executor).schedule(task.callable, delay, unit);
+        ScheduledFuture<?> future = ((ScheduledExecutorService) executor).schedule(task, delay, unit);
         task.submittedScheduledTask(future);
         return task;
     }
@@ -127,17 +126,16 @@ public class ManagedScheduledExecutorServiceImpl
      * @throws NullPointerException                            if command is null
      */
     @Override
-    public synchronized ManagedScheduledFutureTask<?> schedule(Runnable command, long delay, TimeUnit unit) {
+    public ManagedScheduledFutureTask<?> schedule(Runnable command, long delay, TimeUnit unit) {
         ScheduledTask<?> task = getNewScheduledTaskFor(command, false);
-        ScheduledFuture<?> future =
-                ((ScheduledExecutorService) executor).schedule(task.callable, delay, unit);
+        ScheduledFuture<?> future = ((ScheduledExecutorService) executor).schedule(task, delay, unit);
         task.submittedScheduledTask(future);
         return task;
     }
 
 
     @Override
-    public synchronized ManagedScheduledFutureTask<?> scheduleAtFixedRate(Runnable command, long initialDelay, long period, TimeUnit unit) {
+    public ManagedScheduledFutureTask<?> scheduleAtFixedRate(Runnable command, long initialDelay, long period, TimeUnit unit) {
         ScheduledTask<?> task = getNewScheduledTaskFor(command, true);
         ScheduledFuture<?> future =
                 ((ScheduledExecutorService) executor).scheduleAtFixedRate(task.asRunnable(),
@@ -148,7 +146,7 @@ public class ManagedScheduledExecutorServiceImpl
 
 
     @Override
-    public synchronized ManagedScheduledFutureTask<?> scheduleWithFixedDelay(Runnable command, long initialDelay, long delay, TimeUnit unit) {
+    public ManagedScheduledFutureTask<?> scheduleWithFixedDelay(Runnable command, long initialDelay, long delay, TimeUnit unit) {
         ScheduledTask<?> task = getNewScheduledTaskFor(command, true);
         ScheduledFuture<?> future =
                 ((ScheduledExecutorService) executor).scheduleWithFixedDelay(task.asRunnable(),
@@ -19,7 +19,6 @@
  */
 package org.wisdom.executors;
 
-import com.google.common.util.concurrent.JdkFutureAdapters;
 import com.google.common.util.concurrent.ListeningExecutorService;
 import org.wisdom.api.concurrent.ManagedScheduledFutureTask;
 
@@ -35,7 +34,7 @@ import java.util.concurrent.TimeUnit;
 public class ScheduledTask<V> extends Task<V> implements ManagedScheduledFutureTask<V>, ScheduledFuture<V> {
 
     private final boolean periodic;
-    private ScheduledFuture scheduledFuture;
+    private volatile ScheduledFuture<?> scheduledFuture;
 
     public ScheduledTask(ListeningExecutorService executor, Callable<V> callable, long hungTime, boolean periodic,
                          AbstractManagedExecutorService parent) {
@@ -50,13 +49,34 @@ public class ScheduledTask<V> extends Task<V> implements ManagedScheduledFutureT
 
     }
 
-    protected ScheduledTask<V> submittedScheduledTask(ScheduledFuture delegate) {
+    /**
+     * Sets the future returned by the scheduler. One-shot tasks are completed when they run. Periodic tasks are
+     * only completed when cancelled, or when an execution fails.
+     *
+     * @param delegate the future returned by the scheduler
+     * @return the current task
+     */
+    protected ScheduledTask<V> submittedScheduledTask(ScheduledFuture<?> delegate) {
         this.submissionDate = System.currentTimeMillis();
         this.scheduledFuture = delegate;
-        this.future = JdkFutureAdapters.listenInPoolThread(delegate);
         return this;
     }
 
+    /**
+     * Cancels the task, and removes it from the scheduler.
+     *
+     * @param mayInterruptIfRunning whether or not the thread executing the task should be interrupted
+     * @return {@code true} if the task was cancelled
+     */
+    @Override
+    public boolean cancel(boolean mayInterruptIfRunning) {
+        ScheduledFuture<?> delegate = scheduledFuture;
+        if (delegate != null) {
+            delegate.cancel(mayInterruptIfRunning);
+        }
+        return super.cancel(mayInterruptIfRunning);
+    }
+
 
     /**
      * Returns {@code true} if this task is periodic. A periodic task may
@@ -84,13 +104,25 @@ public class ScheduledTask<V> extends Task<V> implements ManagedScheduledFutureT
     }
 
 
+    /**
+     * Scheduled tasks are delayed rather than queued, so the queue time is not computed.
+     *
+     * @return {@literal -1}
+     */
+    @Override
+    public long getTaskQueueTime() {
+        return -1;
+    }
+
     @Override
     public int compareTo(Delayed o) {
         return scheduledFuture.compareTo(o);
     }
 
     /**
-     * Wraps the enhanced callable as a runnable.
+     * Wraps the enhanced callable as a runnable, used for periodic tasks. If an execution fails, the task is
+     * completed with the exception, and the scheduler stops executing it.
+     *
      * @return the wrapped runnable.
      */
     public Runnable asRunnable() {
@@ -100,6 +132,7 @@ public class ScheduledTask<V> extends Task<V> implements ManagedScheduledFutureT
                 try {
                     callable.call();
                 } catch (Exception e) {
+                    setException(e);
                     throw new RuntimeException(e);
                 }
             }
@@ -28,21 +28,28 @@ import java.util.concurrent.*;
 /**
  * Implementation of {@link org.wisdom.api.concurrent.ManagedFutureTask} to be
  * used with {@link org.wisdom.executors.ManagedExecutorServiceImpl}.
+ * <p>
+ * The task is directly handed to the underlying thread pool: it is both the runnable executed by the pool and the
+ * listenable future returned to the caller, so no intermediary future (or adapter) is created on submission.
  *
  * @param <V> the type of the result computed by the task. {@link Void} for task not computing a result.
  */
-public class Task<V> extends FutureTask<V> implements ListenableFuture<V>, ManagedFutureTask<V> {
+public class Task<V> extends AbstractFuture<V> implements RunnableFuture<V>, ManagedFutureTask<V> {
 
     private final ListeningExecutorService executor;
     private final ExecutionContext executionContext;
     protected final Callable<V> callable;
-    protected ListenableFuture<V> future;
-    private Throwable taskRunThrowable;
+    private volatile Throwable taskRunThrowable;
     private final AbstractManagedExecutorService parent;
 
-    protected long submissionDate;
-    private long startDate;
-    private long completionDate;
+    /**
+     * The thread running the task, used to interrupt it on cancellation.
+     */
+    private volatile Thread runner;
+
+    protected volatile long submissionDate;
+    private volatile long startDate;
+    private volatile long completionDate;
     private long hungTime;
 
     protected Task(
@@ -52,12 +59,7 @@ public class Task<V> extends FutureTask<V> implements ListenableFuture<V>, Manag
             ExecutionContext executionContext,
             long hungTime,
             AbstractManagedExecutorService parent) {
-        super(runnable, result);
-        this.callable = new EnhancedCallable(Executors.callable(runnable, result));
-        this.executor = executor;
-        this.executionContext = executionContext;
-        this.hungTime = hungTime;
-        this.parent = parent;
+        this(executor, Executors.callable(runnable, result), executionContext, hungTime, parent);
     }
 
     /**
@@ -75,7 +77,6 @@ public class Task<V> extends FutureTask<V> implements ListenableFuture<V>, Manag
             ExecutionContext executionContext,
             long hungTime,
             AbstractManagedExecutorService parent) {
-        super(callable);
         this.callable = new EnhancedCallable(callable);
         this.executor = executor;
         this.executionContext = executionContext;
@@ -83,16 +84,38 @@ public class Task<V> extends FutureTask<V> implements ListenableFuture<V>, Manag
         this.parent = parent;
     }
 
+    /**
+     * Hands the task to the executor.
+     *
+     * @return the current task
+     * @throws RejectedExecutionException if the executor cannot accept the task
+     */
     protected Task<V> execute() {
-        ListenableFuture<V> future = executor.submit(callable);
-        submitted(future);
+        this.submissionDate = System.currentTimeMillis();
+        executor.execute(this);
         return this;
     }
 
-    protected Task<V> submitted(Future<V> future) {
-        this.submissionDate = System.currentTimeMillis();
-        this.future = JdkFutureAdapters.listenInPoolThread(future);
-        return this;
+    /**
+     * Runs the task, unless it has been cancelled, and completes it with the computed value or the thrown exception.
+     */
+    @Override
+    public void run() {
+        if (isDone()) {
+            return;
+        }
+        runner = Thread.currentThread();
+        try {
+            set(callable.call());
+        } catch (Throwable e) { //NOSONAR
+            setException(e);
+        } finally {
+            runner = null;
+            // Clear the interrupted flag if the task was cancelled while running, so the pool thread can be reused.
+            if (isCancelled()) {
+                Thread.interrupted();
+            }
+        }
     }
 
     /**
@@ -106,33 +129,27 @@ public class Task<V> extends FutureTask<V> implements ListenableFuture<V>, Manag
     }
 
     @Override
-    public void addListener(Runnable listener, Executor exec) {
-        this.future.addListener(listener, exec);
-    }
-
-    @Override
-    public boolean cancel(boolean mayInterruptIfRunning) {
-        return this.future != null && this.future.cancel(mayInterruptIfRunning);
-    }
-
-    @Override
-    public V get() throws InterruptedException, ExecutionException {
-        return this.future.get();
-    }
-
-    @Override
-    public V get(long timeout, TimeUnit unit) throws InterruptedException, TimeoutException, ExecutionException {
-        return this.future.get(timeout, unit);
+    protected void interruptTask() {
+        Thread thread = runner;
+        if (thread != null) {
+            thread.interrupt();
+        }
     }
 
     @Override
-    public boolean isCancelled() {
-        return this.future.isCancelled();
+    protected boolean set(V value) {
+        // Unregister the task first, so it is not tracked anymore when the callers are notified.
+        parent.completed(this);
+        return super.set(value);
     }
 
     @Override
-    public boolean isDone() {
-        return this.future.isDone();
+    public boolean cancel(boolean mayInterruptIfRunning) {
+        boolean cancelled = super.cancel(mayInterruptIfRunning);
+        if (cancelled) {
+            parent.completed(this);
+        }
+        return cancelled;
     }
 
     /**
@@ -144,13 +161,15 @@ public class Task<V> extends FutureTask<V> implements ListenableFuture<V>, Manag
     }
 
     @Override
-    protected void setException(Throwable throwable) {
+    protected boolean setException(Throwable throwable) {
         taskRunThrowable = throwable;
+        parent.completed(this);
+        return super.setException(throwable);
     }
 
     @Override
     public Task onSuccess(final SuccessCallback<V> callback, Executor executor) {
-        Futures.addCallback(future, new FutureCallback<V>() {
+        Futures.addCallback(this, new FutureCallback<V>() {
             @Override
             public void onSuccess(V v) {
                 callback.onSuccess(Task.this, v);
@@ -171,7 +190,7 @@ public class Task<V> extends FutureTask<V> implements ListenableFuture<V>, Manag
 
     @Override
     public Task onFailure(final FailureCallback callback, Executor executor) {
-        Futures.addCallback(future, new FutureCallback<V>() {
+        Futures.addCallback(this, new FutureCallback<V>() {
             @Override
             public void onSuccess(V v) {
                 // Do nothing
@@ -223,6 +242,17 @@ public class Task<V> extends FutureTask<V> implements ListenableFuture<V>, Manag
     }
 
 
+    /**
+     * @return the time spent by the task in the work queue, between its submission and the beginning of its
+     * execution, in milliseconds. {@literal -1} if the task has not started yet.
+     */
+    public long getTaskQueueTime() {
+        if (startDate == 0) {
+            return -1;
+        }
+        return startDate - submissionDate;
+    }
+
     @Override
     public long getHungTaskThreshold() {
         return hungTime;
@@ -249,10 +279,6 @@ public class Task<V> extends FutureTask<V> implements ListenableFuture<V>, Manag
                 }
                 startDate = System.currentTimeMillis();
                 return delegate.call();
-            } catch (Throwable e) { //NOSONAR
-                // We set the exception in the task.
-                setException(e);
-                throw e;
             } finally {
                 completionDate = System.currentTimeMillis();
                 if (executionContext != null) {
@@ -0,0 +1,91 @@
+/*
+ * #%L
+ * Wisdom-Framework
+ * %%
+ * Copyright (C) 2013 - 2015 Wisdom Framework
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.wisdom.executors;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.wisdom.api.concurrent.ManagedExecutorService;
+
+import java.util.ArrayList;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the submission throughput of the {@link ManagedExecutorServiceImpl} with 1 to 64 producer threads. Each
+ * operation submits a trivial task and waits for its completion. The {@literal synchronizedBaseline} benchmark
+ * submits the same task while holding a shared monitor, as the previous implementation did.
+ * <p>
+ * This is not a unit test. Compile the tests with the {@literal benchmarks} profile ({@code mvn clean test-compile
+ * -Pbenchmarks}), and launch it with the {@link #main(String[])} method from the test classpath. The benchmarks are
+ * executed with 1, 2, 4... up to 64 threads.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ExecutorSubmitBenchmark {
+
+    private static final Callable<Integer> TASK = () -> 42;
+
+    private final Object lock = new Object();
+
+    private ManagedExecutorServiceImpl executor;
+
+    @Setup
+    public void setup() {
+        int processors = Runtime.getRuntime().availableProcessors();
+        executor = new ManagedExecutorServiceImpl("benchmark", ManagedExecutorService.ThreadType.DAEMON, 60000,
+                processors, processors, 60000, Integer.MAX_VALUE, Thread.NORM_PRIORITY, new ArrayList<>());
+    }
+
+    @TearDown
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Benchmark
+    public Integer submit() throws ExecutionException, InterruptedException {
+        return executor.submit(TASK).get();
+    }
+
+    @Benchmark
+    public Integer synchronizedBaseline() throws ExecutionException, InterruptedException {
+        Future<Integer> task;
+        synchronized (lock) {
+            task = executor.submit(TASK);
+        }
+        return task.get();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        for (int threads = 1; threads <= 64; threads *= 2) {
+            new Runner(new OptionsBuilder()
+                    .include(ExecutorSubmitBenchmark.class.getSimpleName())
+                    .threads(threads)
+                    .build()).run();
+        }
+    }
+}
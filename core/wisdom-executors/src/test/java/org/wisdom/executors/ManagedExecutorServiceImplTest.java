@@ -28,6 +28,7 @@ import org.wisdom.api.concurrent.ExecutionContext;
 import org.wisdom.api.concurrent.ExecutionContextService;
 import org.wisdom.api.concurrent.ManagedExecutorService;
 import org.wisdom.api.concurrent.ManagedFutureTask;
+import org.wisdom.api.concurrent.TaskRejectedException;
 import org.wisdom.test.parents.FakeConfiguration;
 
 import java.util.ArrayList;
@@ -36,6 +37,7 @@ import java.util.concurrent.*;
 import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.fail;
 
 public class ManagedExecutorServiceImplTest {
 
@@ -341,6 +343,25 @@ public class ManagedExecutorServiceImplTest {
         assertThat(service.getQueue()).isInstanceOf(SynchronousQueue.class);
     }
 
+    @Test
+    public void testCustomWorkQueue() throws Exception {
+        final BlockingQueue<Runnable> queue = new ArrayBlockingQueue<>(10);
+        ManagedExecutorServiceImpl service = new ManagedExecutorServiceImpl("custom",
+                ManagedExecutorService.ThreadType.POOLED, 60000, 1, 1, 1000,
+                Integer.MAX_VALUE, Thread.NORM_PRIORITY, null) {
+            @Override
+            protected BlockingQueue<Runnable> createWorkQueue(int workQueueCapacity) {
+                return queue;
+            }
+        };
+        try {
+            assertThat(service.getQueue()).isSameAs(queue);
+            assertThat(service.submit(() -> "done").get(5, TimeUnit.SECONDS)).isEqualTo("done");
+        } finally {
+            service.shutdownNow();
+        }
+    }
+
     @Test
     public void testCreationWithDefaultConfiguration() {
         FakeConfiguration configuration = new FakeConfiguration(ImmutableMap.<String, Object>of("name", "default"));
@@ -353,6 +374,266 @@ public class ManagedExecutorServiceImplTest {
         assertThat(service.getQueue()).isInstanceOf(LinkedBlockingQueue.class);
     }
 
+    @Test
+    public void testTasksAreRejectedWhenTheQueueIsFull() throws InterruptedException {
+        ManagedExecutorServiceImpl service = new ManagedExecutorServiceImpl("bounded",
+                ManagedExecutorService.ThreadType.POOLED, 60000, 1, 1, 1000,
+                1, Thread.NORM_PRIORITY, new ArrayList<>());
+        CountDownLatch latch = new CountDownLatch(1);
+        Runnable blocking = () -> {
+            try {
+                latch.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        };
+        try {
+            // The first task runs, the second one is queued.
+            service.execute(blocking);
+            service.execute(blocking);
+            try {
+                service.execute(blocking);
+                fail("The task should have been rejected");
+            } catch (RejectedExecutionException e) {
+                assertThat(e.getMessage()).contains("bounded");
+            }
+        } finally {
+            latch.countDown();
+            service.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testConcurrentSubmissions() throws InterruptedException, ExecutionException {
+        ManagedExecutorServiceImpl service = new ManagedExecutorServiceImpl("unbound",
+                ManagedExecutorService.ThreadType.POOLED, 60000, 4, 4, 1000,
+                Integer.MAX_VALUE, Thread.NORM_PRIORITY, new ArrayList<>());
+        ExecutorService producers = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<Future<String>>> submissions = new ArrayList<>();
+            for (int i = 0; i < 400; i++) {
+                submissions.add(producers.submit(() -> service.submit(new MyCallable())));
+            }
+            for (Future<Future<String>> submission : submissions) {
+                assertThat(submission.get().get()).isEqualTo("hello");
+            }
+            assertThat(counter.get()).isEqualTo(400);
+            assertThat(service.getExecutionTimeStatistics().getNumberOfTasks()).isEqualTo(400);
+            // Completed tasks are not tracked anymore.
+            assertThat(service.tasks).isEmpty();
+        } finally {
+            producers.shutdown();
+            service.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testCancellationInterruptsTheTask() throws InterruptedException {
+        final CountDownLatch started = new CountDownLatch(1);
+        final CountDownLatch interrupted = new CountDownLatch(1);
+        ManagedFutureTask<?> future = executor.submit(() -> {
+            started.countDown();
+            try {
+                Thread.sleep(10000);
+            } catch (InterruptedException e) {
+                interrupted.countDown();
+            }
+        });
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(executor.tasks).contains((Task) future);
+
+        assertThat(future.cancel(true)).isTrue();
+        assertThat(interrupted.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(future.isCancelled()).isTrue();
+        assertThat(executor.tasks).isEmpty();
+    }
+
+    @Test
+    public void testInvokeAllCancelsTheTasksOnTimeout() throws InterruptedException {
+        List<Callable<String>> callables = new ArrayList<>();
+        callables.add(new MyCallable());
+        callables.add(() -> {
+            Thread.sleep(10000);
+            return "late";
+        });
+        List<Future<String>> futures = executor.invokeAll(callables, 100, TimeUnit.MILLISECONDS);
+        assertThat(futures).hasSize(2);
+        assertThat(futures.get(0).isCancelled()).isFalse();
+        assertThat(futures.get(1).isCancelled()).isTrue();
+    }
+
+    @Test
+    public void testThePoolGrowsBeforeQueueing() throws InterruptedException {
+        ManagedExecutorServiceImpl service = new ManagedExecutorServiceImpl("elastic",
+                ManagedExecutorService.ThreadType.POOLED, 60000, 1, 4, 1000,
+                Integer.MAX_VALUE, Thread.NORM_PRIORITY, new ArrayList<>());
+        CountDownLatch latch = new CountDownLatch(1);
+        Runnable blocking = () -> {
+            try {
+                latch.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        };
+        try {
+            for (int i = 0; i < 6; i++) {
+                service.execute(blocking);
+            }
+            // 4 threads are created, the 2 other tasks are queued.
+            assertThat(service.getPoolSize()).isEqualTo(4);
+            assertThat(service.getQueue()).hasSize(2);
+        } finally {
+            latch.countDown();
+            service.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testRejectionPolicies() throws Exception {
+        CountDownLatch latch = new CountDownLatch(1);
+        Callable<String> blocking = () -> {
+            latch.await();
+            return "blocking";
+        };
+
+        ManagedExecutorServiceImpl abort = new ManagedExecutorServiceImpl("abort",
+                ManagedExecutorService.ThreadType.POOLED, 60000, 1, 1, 1000,
+                1, Thread.NORM_PRIORITY, ManagedExecutorService.RejectionPolicy.ABORT, new ArrayList<>());
+        ManagedExecutorServiceImpl callerRuns = new ManagedExecutorServiceImpl("caller-runs",
+                ManagedExecutorService.ThreadType.POOLED, 60000, 1, 1, 1000,
+                1, Thread.NORM_PRIORITY, ManagedExecutorService.RejectionPolicy.CALLER_RUNS, new ArrayList<>());
+        ManagedExecutorServiceImpl discardOldest = new ManagedExecutorServiceImpl("discard-oldest",
+                ManagedExecutorService.ThreadType.POOLED, 60000, 1, 1, 1000,
+                1, Thread.NORM_PRIORITY, ManagedExecutorService.RejectionPolicy.DISCARD_OLDEST, new ArrayList<>());
+        try {
+            abort.submit(blocking);
+            abort.submit(blocking);
+            try {
+                abort.submit(blocking);
+                fail("The task should have been rejected");
+            } catch (TaskRejectedException e) {
+                assertThat(e.getExecutorName()).isEqualTo("abort");
+                assertThat(e.isShutdown()).isFalse();
+            }
+            assertThat(abort.getExecutionTimeStatistics().getRejectedTaskCount()).isEqualTo(1);
+
+            callerRuns.submit(blocking);
+            callerRuns.submit(blocking);
+            Thread caller = Thread.currentThread();
+            Future<Thread> future = callerRuns.submit(Thread::currentThread);
+            assertThat(future.isDone()).isTrue();
+            assertThat(future.get()).isSameAs(caller);
+
+            discardOldest.submit(blocking);
+            Future<String> oldest = discardOldest.submit(blocking);
+            Future<String> newest = discardOldest.submit(() -> "newest");
+            assertThat(oldest.isCancelled()).isTrue();
+            assertThat(discardOldest.getQueue()).hasSize(1);
+            latch.countDown();
+            assertThat(newest.get(5, TimeUnit.SECONDS)).isEqualTo("newest");
+        } finally {
+            latch.countDown();
+            abort.shutdownNow();
+            callerRuns.shutdownNow();
+            discardOldest.shutdownNow();
+        }
+
+        try {
+            abort.submit(blocking);
+            fail("The task should have been rejected");
+        } catch (TaskRejectedException e) {
+            assertThat(e.isShutdown()).isTrue();
+        }
+    }
+
+    @Test
+    public void testQueueTimeIsRecorded() throws Exception {
+        ManagedExecutorServiceImpl service = new ManagedExecutorServiceImpl("single",
+                ManagedExecutorService.ThreadType.POOLED, 60000, 1, 1, 1000,
+                Integer.MAX_VALUE, Thread.NORM_PRIORITY, new ArrayList<>());
+        try {
+            service.submit(() -> {
+                Thread.sleep(50);
+                return null;
+            });
+            ManagedFutureTask<String> queued = service.submit(new MyCallable());
+            queued.get();
+            assertThat(((Task) queued).getTaskQueueTime()).isGreaterThanOrEqualTo(40);
+            // Statistics are recorded before the completion of the task.
+            ManagedExecutorService.ExecutionStatistics statistics = service.getExecutionTimeStatistics();
+            assertThat(statistics.getMaximumQueueTime()).isGreaterThanOrEqualTo(40);
+            assertThat(statistics.getQueueTimeHistogram()[4]).isEqualTo(1);
+        } finally {
+            service.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testVirtualThreads() throws Exception {
+        final ThreadLocal<String> context = new ThreadLocal<>();
+        ManagedExecutorServiceImpl service = new ManagedExecutorServiceImpl("virtual",
+                ManagedExecutorService.ThreadType.VIRTUAL, 10, 1, 1, 1000,
+                Integer.MAX_VALUE, Thread.NORM_PRIORITY, new ArrayList<>());
+        service.setExecutionContextService(new ExecutionContextService() {
+            @Override
+            public String name() {
+                return "context";
+            }
+
+            @Override
+            public ExecutionContext prepare() {
+                final String value = context.get();
+                return new ExecutionContext() {
+                    @Override
+                    public void apply() {
+                        context.set(value);
+                    }
+
+                    @Override
+                    public void unapply() {
+                        context.remove();
+                    }
+                };
+            }
+        });
+        boolean supported = ManagedExecutorServiceImpl.createVirtualThreadFactory("test", null) != null;
+        CountDownLatch latch = new CountDownLatch(1);
+        try {
+            context.set("value");
+            // Even if the pool size is 1, blocking tasks do not prevent others from running on virtual threads.
+            ManagedFutureTask<?> blocked = service.submit(() -> {
+                try {
+                    latch.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+            Future<String> future = service.submit(() -> context.get() + ":" + isVirtual(Thread.currentThread()));
+            if (supported) {
+                assertThat(future.get(5, TimeUnit.SECONDS)).isEqualTo("value:true");
+                Thread.sleep(50);
+                assertThat(blocked.isTaskHang()).isTrue();
+                assertThat(service.getHungTasks()).containsExactly(blocked);
+            }
+            latch.countDown();
+            assertThat(future.get(5, TimeUnit.SECONDS)).startsWith("value:");
+            blocked.get(5, TimeUnit.SECONDS);
+            assertThat(service.getExecutionTimeStatistics().getNumberOfTasks()).isEqualTo(2);
+        } finally {
+            latch.countDown();
+            context.remove();
+            service.shutdownNow();
+        }
+    }
+
+    private static boolean isVirtual(Thread thread) {
+        try {
+            return (Boolean) Thread.class.getMethod("isVirtual").invoke(thread);
+        } catch (ReflectiveOperationException e) {
+            return false;
+        }
+    }
+
     private class MyCallable implements Callable<String> {
 
         @Override
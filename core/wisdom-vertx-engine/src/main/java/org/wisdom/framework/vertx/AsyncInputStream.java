@@ -109,6 +109,12 @@ public class AsyncInputStream implements ReadStream<Buffer> {
     private int offset;
     private Context context;
 
+    /**
+     * Whether or not a chunk is being read. Only accessed from the Vert.X context, it avoids reading the stream
+     * concurrently when the stream is paused and resumed while a chunk is being read.
+     */
+    private boolean reading;
+
     /**
      * Creates an instance of {@link org.wisdom.framework.vertx.AsyncInputStream}. This constructor uses the default
      * chunk size.
@@ -176,16 +182,15 @@ public class AsyncInputStream implements ReadStream<Buffer> {
     /**
      * Set a data handler. As data is read, the handler will be called with the data.
      *
-     * @param handler the handler.
+     * @param handler the handler, {@code null} to stop receiving data (as done when a pump is stopped).
      * @return a reference to this, so the API can be used fluently
      */
     @Override
     public ReadStream<Buffer> handler(Handler<Buffer> handler) {
-        if (handler == null) {
-            throw new IllegalArgumentException("handler");
-        }
         this.dataHandler = handler;
-        doRead();
+        if (handler != null) {
+            doRead();
+        }
         return this;
     }
 
@@ -198,19 +203,20 @@ public class AsyncInputStream implements ReadStream<Buffer> {
         if (context == null) {
             context = vertx.getOrCreateContext();
         }
-        if (state == STATUS_ACTIVE) {
-            final Handler<Buffer> dataHandler = this.dataHandler;
+        if (state == STATUS_ACTIVE && !reading && dataHandler != null) {
+            reading = true;
             final Handler<Void> closeHandler = this.closeHandler;
             executor.submit(
                     (Runnable) () -> {
                         try {
-                            final byte[] bytes = readChunk();
+                            final Buffer chunk = readChunk();
 
-                            if (bytes == null || bytes.length == 0) {
+                            if (chunk == null || chunk.length() == 0) {
                                 // null or 0 means we reach the end of the stream, invoke the close handler.
                                 state = STATUS_CLOSED;
                                 IOUtils.closeQuietly(in);
                                 context.runOnContext(event -> {
+                                    reading = false;
                                     if (closeHandler != null) {
                                         closeHandler.handle(null);
                                     }
@@ -218,13 +224,25 @@ public class AsyncInputStream implements ReadStream<Buffer> {
                             } else {
                                 // We still have data, dispatch it.
                                 context.runOnContext(event -> {
-                                    dataHandler.handle(Buffer.buffer(bytes));
+                                    reading = false;
+                                    if (state == STATUS_CLOSED || dataHandler == null) {
+                                        // Closed or stopped while reading, drop the chunk.
+                                        return;
+                                    }
+                                    dataHandler.handle(chunk);
                                     // The next chunk will be read in another call, and maybe another thread.
-                                    // As the data was already given to the data handler, this is fine.
+                                    // As the data was already given to the data handler, this is fine. If the
+                                    // data handler has paused the stream (because the destination is full), the
+                                    // next chunk is read when the stream is resumed.
                                     doRead();
                                 });
                             }
                         } catch (final Exception e) {
+                            if (state == STATUS_CLOSED) {
+                                // The stream was closed while reading, the failure is expected.
+                                context.runOnContext(event -> reading = false);
+                                return;
+                            }
                             // Error detected, invokes the failure handler.
                             state = STATUS_CLOSED;
                             IOUtils.closeQuietly(in);
@@ -233,6 +251,7 @@ public class AsyncInputStream implements ReadStream<Buffer> {
                              * @param event irrelevant
                              */
                             context.runOnContext(event -> {
+                                reading = false;
                                 if (failureHandler != null) {
                                     failureHandler.handle(e);
                                 }
@@ -272,6 +291,16 @@ public class AsyncInputStream implements ReadStream<Buffer> {
         return this;
     }
 
+    /**
+     * Closes the stream. The reading is stopped, and neither the data handler nor the end handler are called
+     * afterwards. This method is used when the consumer of the stream goes away, for instance when the client closes
+     * the connection.
+     */
+    public void close() {
+        state = STATUS_CLOSED;
+        IOUtils.closeQuietly(in);
+    }
+
     /**
      * Sets the failure handler.
      *
@@ -320,13 +349,13 @@ public class AsyncInputStream implements ReadStream<Buffer> {
 
     /**
      * Reads a chunk.
-     * @return the read bytes, empty if we reached the end of the stream. The returned array has exactly the sisize
+     * @return the read bytes, empty if we reached the end of the stream. The returned buffer has exactly the size
      * of the chunk.
      * @throws Exception if the stream cannot be read.
      */
-    private byte[] readChunk() throws Exception {
+    private Buffer readChunk() throws Exception {
         if (isEndOfInput()) {
-            return EMPTY_BYTE_ARRAY;
+            return Buffer.buffer(EMPTY_BYTE_ARRAY);
         }
 
         try {
@@ -336,10 +365,12 @@ public class AsyncInputStream implements ReadStream<Buffer> {
             if (readBytes <= 0) {
                 return null;
             }
-            byte[] buffer = new byte[readBytes];
-            System.arraycopy(tmp, 0, buffer, 0, readBytes);
             offset += readBytes;
-            return buffer;
+            if (readBytes == chunkSize) {
+                // Full chunk, no need to copy.
+                return Buffer.buffer(tmp);
+            }
+            return Buffer.buffer(readBytes).appendBytes(tmp, 0, readBytes);
         } catch (IOException e) {
             // Close the stream, and propagate the exception.
             IOUtils.closeQuietly(in);
@@ -0,0 +1,59 @@
+/*
+ * #%L
+ * Wisdom-Framework
+ * %%
+ * Copyright (C) 2013 - 2014 Wisdom Framework
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.wisdom.framework.vertx;
+
+import io.vertx.core.buffer.Buffer;
+
+import java.io.OutputStream;
+
+/**
+ * An output stream appending the written bytes to a Vert.x {@link Buffer}. It lets {@link
+ * org.wisdom.api.http.Renderable} objects write their content directly in the buffer sent to the client.
+ */
+public class BufferOutputStream extends OutputStream {
+
+    private final Buffer buffer;
+
+    /**
+     * Creates a stream writing into a new buffer.
+     *
+     * @param initialSize the initial size of the buffer
+     */
+    public BufferOutputStream(int initialSize) {
+        this.buffer = Buffer.buffer(initialSize);
+    }
+
+    /**
+     * @return the buffer containing the written bytes.
+     */
+    public Buffer buffer() {
+        return buffer;
+    }
+
+    @Override
+    public void write(int b) {
+        buffer.appendByte((byte) b);
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) {
+        buffer.appendBytes(b, off, len);
+    }
+}
@@ -0,0 +1,137 @@
+/*
+ * #%L
+ * Wisdom-Framework
+ * %%
+ * Copyright (C) 2013 - 2014 Wisdom Framework
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.wisdom.framework.vertx;
+
+import org.wisdom.api.http.HeaderNames;
+import org.wisdom.api.http.Result;
+
+/**
+ * A byte range requested using the {@literal Range} header (RFC 7233). Only single ranges are supported, requests
+ * asking for several ranges get the complete content, as allowed by the specification.
+ */
+public final class ByteRange {
+
+    /**
+     * The range returned when the requested range is not within the content.
+     */
+    public static final ByteRange UNSATISFIABLE = new ByteRange(-1, -1);
+
+    private static final String BYTES_UNIT = "bytes=";
+
+    private final long start;
+    private final long end;
+
+    private ByteRange(long start, long end) {
+        this.start = start;
+        this.end = end;
+    }
+
+    /**
+     * @return the position of the first byte of the range.
+     */
+    public long start() {
+        return start;
+    }
+
+    /**
+     * @return the position of the last byte of the range (inclusive).
+     */
+    public long end() {
+        return end;
+    }
+
+    /**
+     * @return the number of bytes of the range.
+     */
+    public long length() {
+        return end - start + 1;
+    }
+
+    /**
+     * Computes the value of the {@literal Content-Range} header.
+     *
+     * @param total the length of the complete content
+     * @return the header value
+     */
+    public String toContentRange(long total) {
+        if (this == UNSATISFIABLE) {
+            return "bytes */" + total;
+        }
+        return "bytes " + start + "-" + end + "/" + total;
+    }
+
+    /**
+     * Parses the value of the {@literal Range} header.
+     *
+     * @param header the header value, may be {@code null}
+     * @param length the length of the content
+     * @return the range, {@link #UNSATISFIABLE} if the range is not within the content, {@code null} if the complete
+     * content must be sent (no header, invalid header or several ranges).
+     */
+    public static ByteRange parse(String header, long length) {
+        if (header == null || !header.startsWith(BYTES_UNIT) || header.indexOf(',') != -1) {
+            return null;
+        }
+        String spec = header.substring(BYTES_UNIT.length()).trim();
+        int dash = spec.indexOf('-');
+        if (dash == -1) {
+            return null;
+        }
+        try {
+            if (dash == 0) {
+                // Suffix range: the last n bytes.
+                long suffix = Long.parseLong(spec.substring(1));
+                if (suffix <= 0 || length == 0) {
+                    return UNSATISFIABLE;
+                }
+                return new ByteRange(Math.max(0, length - suffix), length - 1);
+            }
+            long first = Long.parseLong(spec.substring(0, dash));
+            // The last position is optional, and may be greater than the length.
+            long last = dash == spec.length() - 1 ? Long.MAX_VALUE : Long.parseLong(spec.substring(dash + 1));
+            if (first < 0 || last < first) {
+                return null;
+            }
+            if (first >= length) {
+                return UNSATISFIABLE;
+            }
+            return new ByteRange(first, Math.min(last, length - 1));
+        } catch (NumberFormatException e) { //NOSONAR invalid header, ignore it.
+            return null;
+        }
+    }
+
+    /**
+     * Checks whether the range requested using the {@literal Range} header must be honoured, according to the
+     * {@literal If-Range} header. The range is applied if the header is not set or if it matches the {@literal
+     * ETag} or the {@literal Last-Modified} header of the result.
+     *
+     * @param ifRange the value of the {@literal If-Range} header, may be {@code null}
+     * @param result  the result
+     * @return {@code true} if the range must be applied, {@code false} if the complete content must be sent.
+     */
+    public static boolean isApplicable(String ifRange, Result result) {
+        if (ifRange == null) {
+            return true;
+        }
+        return ifRange.equals(result.getHeaders().get(HeaderNames.ETAG))
+                || ifRange.equals(result.getHeaders().get(HeaderNames.LAST_MODIFIED));
+    }
+}
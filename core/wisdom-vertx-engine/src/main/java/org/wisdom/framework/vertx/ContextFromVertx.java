@@ -24,6 +24,8 @@ import com.google.common.base.Strings;
 import io.vertx.core.*;
 import io.vertx.core.http.HttpServerRequest;
 import org.apache.commons.io.IOUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.wisdom.api.content.BodyParser;
 import org.wisdom.api.cookies.Cookie;
 import org.wisdom.api.cookies.Cookies;
@@ -38,8 +40,8 @@ import org.wisdom.framework.vertx.cookies.SessionCookieImpl;
 import org.wisdom.framework.vertx.file.VertxFileUpload;
 
 import java.io.BufferedReader;
-import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.lang.reflect.Type;
 import java.net.URI;
@@ -53,6 +55,8 @@ import java.util.concurrent.atomic.AtomicLong;
  */
 public class ContextFromVertx implements Context {
 
+    private static final Logger LOGGER = LoggerFactory.getLogger(ContextFromVertx.class);
+
     private static AtomicLong ids = new AtomicLong();
     private final long id;
     private final ServiceAccessor services;
@@ -81,7 +85,8 @@ public class ContextFromVertx implements Context {
         request = new RequestFromVertx(req);
         this.vertx = vertx;
         flash = new FlashCookieImpl(accessor.getConfiguration());
-        session = new SessionCookieImpl(accessor.getCrypto(), accessor.getConfiguration());
+        session = new SessionCookieImpl(accessor.getCrypto(), accessor.getConfiguration(),
+                accessor.getSessionStore());
         flash.init(this);
         session.init(this);
     }
@@ -484,6 +489,16 @@ public class ContextFromVertx implements Context {
             return null;
         }
 
+        if (request.getBodyStream() != null) {
+            // The body is parsed while being received.
+            try {
+                return parser.invoke(request.getBodyStream(), classOfT, genericType);
+            } catch (IOException e) {
+                LOGGER.error("Cannot parse the request body", e);
+                return null;
+            }
+        }
+
         return parser.invoke(this, classOfT, genericType);
     }
 
@@ -513,13 +528,27 @@ public class ContextFromVertx implements Context {
      */
     @Override
     public BufferedReader reader() throws IOException {
-        byte[] raw = request.getRawBody();
-        if (raw != null) {
-            return IOUtils.toBufferedReader(new InputStreamReader(new ByteArrayInputStream(raw)));
+        InputStream stream = stream();
+        if (stream != null) {
+            return IOUtils.toBufferedReader(new InputStreamReader(stream));
         }
         return null;
     }
 
+    /**
+     * Gets the stream to read the request body. When the body is streamed to the action method, the stream gives
+     * access to the bytes as they are received. Otherwise, the stream reads the received body without copying it.
+     *
+     * @return the stream, {@code null} if the request has no body.
+     */
+    @Override
+    public InputStream stream() throws IOException {
+        if (request.getBodyStream() != null) {
+            return request.getBodyStream();
+        }
+        return request.getRawBodyStream();
+    }
+
     /**
      * Get the route for this context.
      *
@@ -583,10 +612,14 @@ public class ContextFromVertx implements Context {
     }
 
     /**
-     * Releases uploaded files.
+     * Releases uploaded files and the request body stream.
      */
     public void cleanup() {
         request.getFiles().forEach(VertxFileUpload::cleanup);
+        if (request.getBodyStream() != null) {
+            // Discard the part of the body not read by the action method.
+            request.getBodyStream().close();
+        }
     }
 
     /**
@@ -27,12 +27,14 @@ import io.vertx.core.Vertx;
 import io.vertx.core.buffer.Buffer;
 import io.vertx.core.http.HttpServerRequest;
 import io.vertx.core.http.HttpServerResponse;
+import io.vertx.core.http.HttpVersion;
 import io.vertx.core.streams.Pump;
-import org.apache.commons.io.IOUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.wisdom.api.bodies.NoHttpBody;
+import org.wisdom.api.concurrent.ManagedExecutorService;
 import org.wisdom.api.concurrent.ManagedFutureTask;
+import org.wisdom.api.configuration.ApplicationConfiguration;
 import org.wisdom.api.exceptions.ExceptionMapper;
 import org.wisdom.api.exceptions.HttpException;
 import org.wisdom.api.http.*;
@@ -42,9 +44,12 @@ import org.wisdom.framework.vertx.file.DiskFileUpload;
 import org.wisdom.framework.vertx.file.MixedFileUpload;
 
 import java.io.ByteArrayInputStream;
-import java.io.IOException;
+import java.io.File;
 import java.io.InputStream;
 import java.util.Map;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
@@ -64,6 +69,21 @@ public class HttpHandler implements Handler<HttpServerRequest> {
     private final Vertx vertx;
     private final Server server;
 
+    /**
+     * Whether or not the action methods are invoked from a worker executor instead of the event loop.
+     */
+    private final boolean dispatchOnWorkers;
+
+    /**
+     * The name of the executor used to invoke the action methods when they are not invoked from the event loop.
+     */
+    private final String workerExecutor;
+
+    /**
+     * The value of the {@literal Retry-After} header sent when the worker executor rejects a request.
+     */
+    private final String retryAfter;
+
     /**
      * Creates the handler.
      *
@@ -76,6 +96,11 @@ public class HttpHandler implements Handler<HttpServerRequest> {
         this.accessor = accessor;
         this.vertx = vertx;
         this.server = server;
+        ApplicationConfiguration configuration = accessor.getConfiguration();
+        this.dispatchOnWorkers = "worker".equalsIgnoreCase(configuration.getWithDefault("vertx.dispatch.mode",
+                "event-loop"));
+        this.workerExecutor = configuration.getWithDefault("vertx.dispatch.executor", ManagedExecutorService.WORKER);
+        this.retryAfter = Integer.toString(configuration.getIntegerWithDefault("vertx.dispatch.retry-after", 1));
     }
 
     /**
@@ -98,9 +123,20 @@ public class HttpHandler implements Handler<HttpServerRequest> {
                     false,
                     true);
         } else {
-            Buffer raw = Buffer.buffer(0);
             RequestFromVertx req = (RequestFromVertx) context.request();
+            Route route = null;
+            if (HttpUtils.isPostOrPut(request)) {
+                // The route is needed to know whether the body must be streamed to the action method.
+                route = accessor.getRouter().getRouteFor(context.request().method(), context.path(), req);
+                if (route != null && route.isStreamingBody()) {
+                    stream(context, req, route);
+                    return;
+                }
+            }
+
+            Buffer raw = Buffer.buffer(0);
             AtomicBoolean error = new AtomicBoolean();
+            final Route resolved = route;
             if (HttpUtils.isPostOrPut(request)) {
                 request.setExpectMultipart(true);
                 request.uploadHandler(upload -> req.getFiles().add(new MixedFileUpload(context.vertx(), upload,
@@ -150,7 +186,7 @@ public class HttpHandler implements Handler<HttpServerRequest> {
                 // Notifies the context that the request has been read, we start the dispatching.
                 if (context.ready()) {
                     // Dispatch.
-                    dispatch(context, (RequestFromVertx) context.request());
+                    schedule(context, (RequestFromVertx) context.request(), resolved);
                 } else {
                     writeResponse(context, req,
                             Results.badRequest("Request processing failed"), false, true);
@@ -159,6 +195,90 @@ public class HttpHandler implements Handler<HttpServerRequest> {
         }
     }
 
+    /**
+     * Streams the request body to the action method. The body is not buffered, the action method is invoked on a
+     * thread of the executor as soon as the request headers have been received, and reads the body while it is
+     * received. The request is paused when the action method does not read the body fast enough.
+     *
+     * @param context the context
+     * @param req     the request
+     * @param route   the route, must have a streamed body
+     */
+    private void stream(ContextFromVertx context, RequestFromVertx req, Route route) {
+        HttpServerRequest request = req.getVertxRequest();
+        int bufferSize = accessor.getConfiguration().getIntegerWithDefault("request.body.stream.buffer.size",
+                64 * 1024);
+        RequestBodyStream body = new RequestBodyStream(request, vertx.getOrCreateContext(), bufferSize);
+        req.setBodyStream(body);
+        request.handler(body::write);
+        request.endHandler(event -> body.end());
+        request.exceptionHandler(body::fail);
+
+        if (context.ready()) {
+            // The action method may block while reading the body, so it cannot be called from the event loop.
+            dispatchOnWorker(context, req, route);
+        } else {
+            writeResponse(context, req, Results.badRequest("Request processing failed"), false, true);
+        }
+    }
+
+    /**
+     * Dispatches a request that has been read completely. Unless the dispatch mode is {@literal worker}, the action
+     * method is invoked from the event loop. Otherwise, it is invoked from the worker executor, except for unbound
+     * routes and {@link org.wisdom.api.annotations.scheduler.NonBlocking} action methods.
+     *
+     * @param context  the context
+     * @param request  the request
+     * @param resolved the route if already resolved, {@code null} otherwise
+     */
+    private void schedule(ContextFromVertx context, RequestFromVertx request, Route resolved) {
+        if (!dispatchOnWorkers) {
+            dispatch(context, request, resolved);
+            return;
+        }
+        Route route = resolved;
+        if (route == null) {
+            route = accessor.getRouter().getRouteFor(context.request().method(), context.path(), request);
+        }
+        if (route == null || route.isUnbound() || route.isNonBlocking()) {
+            dispatch(context, request, route);
+        } else {
+            dispatchOnWorker(context, request, route);
+        }
+    }
+
+    /**
+     * Dispatches the request from the executor selected by the route (see
+     * {@link org.wisdom.api.annotations.scheduler.ExecutedBy}), or from the worker executor. When the executor
+     * cannot accept the request, a {@literal 503 - SERVICE UNAVAILABLE} response is sent immediately, with a
+     * {@literal Retry-After} header.
+     *
+     * @param context the context
+     * @param request the request
+     * @param route   the route
+     */
+    private void dispatchOnWorker(ContextFromVertx context, RequestFromVertx request, Route route) {
+        String name = route.getExecutorName();
+        ManagedExecutorService executor = accessor.getExecutor(name != null ? name : workerExecutor);
+        try {
+            executor.execute(() -> {
+                try {
+                    dispatch(context, request, route);
+                } finally {
+                    Context.CONTEXT.remove();
+                }
+            });
+        } catch (RejectedExecutionException e) { //NOSONAR the request is shed, no need to keep the trace
+            LOGGER.warn("The executor {} cannot accept {} {} - request rejected", executor.name(),
+                    request.method(), request.path());
+            writeResponse(context, request, new Result(Status.SERVICE_UNAVAILABLE)
+                            .with(HeaderNames.RETRY_AFTER, retryAfter)
+                            .render("Server overloaded - retry later")
+                            .as(MimeTypes.TEXT),
+                    false, false);
+        }
+    }
+
     /**
      * The request is now completed, clean everything.
      *
@@ -173,12 +293,15 @@ public class HttpHandler implements Handler<HttpServerRequest> {
     }
 
 
-    private void dispatch(ContextFromVertx context, RequestFromVertx request) {
+    private void dispatch(ContextFromVertx context, RequestFromVertx request, Route resolved) {
         LOGGER.debug("Dispatching {} {}", context.request().method(), context.path());
         // 2 Register context
         Context.CONTEXT.set(context);
-        // 3 Get route for context
-        Route route = accessor.getRouter().getRouteFor(context.request().method(), context.path(), request);
+        // 3 Get route for context, unless already resolved when the request has arrived
+        Route route = resolved;
+        if (route == null) {
+            route = accessor.getRouter().getRouteFor(context.request().method(), context.path(), request);
+        }
         Result result;
 
         if (route == null) {
@@ -193,7 +316,7 @@ public class HttpHandler implements Handler<HttpServerRequest> {
 
             if (result instanceof AsyncResult) {
                 // Asynchronous operation in progress.
-                handleAsyncResult(context, request, (AsyncResult) result);
+                handleAsyncResult(context, request, route, (AsyncResult) result);
                 return;
             }
         }
@@ -229,49 +352,107 @@ public class HttpHandler implements Handler<HttpServerRequest> {
         }
     }
 
+    /**
+     * Handles an asynchronous result. Results computed by a {@link java.util.concurrent.CompletionStage} are
+     * written when the stage completes, without using another thread. Other results are computed by the executor
+     * selected by the route (see {@link Route#getExecutorName()}). In both cases, the response is written from the
+     * Vert.x context of the request.
+     *
+     * @param context     the context
+     * @param request     the request
+     * @param route       the route
+     * @param asyncResult the result
+     */
     private void handleAsyncResult(
             final ContextFromVertx context,
             final RequestFromVertx request,
+            final Route route,
             final AsyncResult asyncResult) {
+        if (asyncResult instanceof DeferredResult) {
+            ((DeferredResult) asyncResult).stage().whenComplete((result, error) ->
+                    runOnContext(context, () -> writeAsyncResponse(context, request, asyncResult, result, error)));
+            return;
+        }
 
-        ManagedFutureTask<Result> future = accessor.getExecutor().submit(asyncResult.callable());
+        ManagedFutureTask<Result> future = accessor.getExecutor(route.getExecutorName())
+                .submit(asyncResult.callable());
         Futures.addCallback(future, new FutureCallback<Result>() {
             @Override
             public void onSuccess(Result result) {
-                // We got a result, write it here.
-                // Merge the headers of the initial result and the async results.
-                final Map<String, String> headers = result.getHeaders();
-                for (Map.Entry<String, String> header : asyncResult.getHeaders().entrySet()) {
-                    if (!headers.containsKey(header.getKey())) {
-                        headers.put(header.getKey(), header.getValue());
-                    }
-                }
-                writeResponse(context, request, result, true, false);
+                writeAsyncResponse(context, request, asyncResult, result, null);
             }
 
             @Override
             public void onFailure(Throwable t) {
-                //We got a failure, handle it here
+                writeAsyncResponse(context, request, asyncResult, null, t);
+            }
+        }, command -> runOnContext(context, command));
+    }
 
-                // Check whether it's a HTTPException
-                if (t instanceof HttpException) {
-                    writeResponse(context, request, ((HttpException) t).toResult(), false, false);
-                    return;
-                }
+    /**
+     * Runs the given action on the Vert.x context of the request. If the current thread is already running this
+     * context, the action is run immediately.
+     *
+     * @param context the context
+     * @param action  the action
+     */
+    private static void runOnContext(ContextFromVertx context, Runnable action) {
+        io.vertx.core.Context vertxContext = context.vertxContext();
+        if (vertxContext == null || Vertx.currentContext() == vertxContext) {
+            action.run();
+        } else {
+            vertxContext.runOnContext(v -> action.run());
+        }
+    }
 
-                // Check if we have a mapper
-                if (t instanceof Exception) {
-                    ExceptionMapper mapper = accessor.getExceptionMapper((Exception) t);
-                    if (mapper != null) {
-                        writeResponse(context, request, mapper.toResult((Exception) t), false, false);
-                        return;
-                    }
+    /**
+     * Writes the response once an asynchronous result has been computed.
+     *
+     * @param context     the context
+     * @param request     the request
+     * @param asyncResult the asynchronous result returned by the action method
+     * @param result      the computed result, {@code null} if the computation has failed
+     * @param failure     the failure, {@code null} if the result has been computed successfully
+     */
+    private void writeAsyncResponse(ContextFromVertx context, RequestFromVertx request, AsyncResult asyncResult,
+                                    Result result, Throwable failure) {
+        if (failure == null && result != null) {
+            // We got a result, write it here.
+            // Merge the headers of the initial result and the async results.
+            final Map<String, String> headers = result.getHeaders();
+            for (Map.Entry<String, String> header : asyncResult.getHeaders().entrySet()) {
+                if (!headers.containsKey(header.getKey())) {
+                    headers.put(header.getKey(), header.getValue());
                 }
+            }
+            writeResponse(context, request, result, true, false);
+            return;
+        }
+
+        //We got a failure, handle it here
+        Throwable t = failure;
+        if (t == null) {
+            t = new IllegalStateException("The asynchronous computation has not produced a result");
+        } else if ((t instanceof CompletionException || t instanceof ExecutionException) && t.getCause() != null) {
+            t = t.getCause();
+        }
+
+        // Check whether it's a HTTPException
+        if (t instanceof HttpException) {
+            writeResponse(context, request, ((HttpException) t).toResult(), false, false);
+            return;
+        }
 
-                writeResponse(context, request, Results.internalServerError(t), false, false);
+        // Check if we have a mapper
+        if (t instanceof Exception) {
+            ExceptionMapper mapper = accessor.getExceptionMapper((Exception) t);
+            if (mapper != null) {
+                writeResponse(context, request, mapper.toResult((Exception) t), false, false);
+                return;
             }
-        }/*, MoreExecutors.directExecutor()*/);
-        //TODO Which executor should we use here ?
+        }
+
+        writeResponse(context, request, Results.internalServerError(t), false, false);
     }
 
     private void writeResponse(
@@ -286,21 +467,40 @@ public class HttpHandler implements Handler<HttpServerRequest> {
             renderable = NoHttpBody.INSTANCE;
         }
 
-        InputStream stream;
+        // Files from the local file system are sent by the server without being read (unless the connection is
+        // encrypted). Chunked content is read from a stream, other content is written directly into the buffer
+        // sent to the client.
+        File file = server.ssl() ? null : HttpUtils.getLocalFile(renderable);
+        InputStream stream = null;
+        Buffer content = null;
         boolean success = true;
-        try {
-            // Process the result, and apply serialization if required.
-            stream = HttpUtils.processResult(accessor, context, renderable, result);
-        } catch (Exception e) {
-            LOGGER.error("Cannot render the response to " + request.uri(), e);
-            stream = new ByteArrayInputStream(NoHttpBody.empty());
-            success = false;
+        if (file == null) {
+            try {
+                // Process the result, and apply serialization if required.
+                if (renderable.mustBeChunked()) {
+                    stream = HttpUtils.processResult(accessor, context, renderable, result);
+                } else {
+                    content = HttpUtils.processResultAsBuffer(accessor, context, renderable, result);
+                }
+            } catch (Exception e) {
+                LOGGER.error("Cannot render the response to " + request.uri(), e);
+                stream = new ByteArrayInputStream(NoHttpBody.empty());
+                content = Buffer.buffer(0);
+                success = false;
+            }
         }
 
         // If the content is too big or too small, disable encoding.
-        // First get the length of the content, it can be either the length of the renderable object. If not set, we
-        // have to check whether or not the length is given in the header.
-        long length = renderable.length();
+        // First get the length of the content, it can be either the length of the rendered content, of the file or
+        // of the renderable object. If not set, we have to check whether or not the length is given in the header.
+        long length;
+        if (content != null) {
+            length = content.length();
+        } else if (file != null) {
+            length = file.length();
+        } else {
+            length = renderable.length();
+        }
         if (length == 0 && result.getHeaders().get(HeaderNames.CONTENT_LENGTH) != null) {
             length = Long.valueOf(result.getHeaders().get(HeaderNames.CONTENT_LENGTH));
         }
@@ -313,7 +513,7 @@ public class HttpHandler implements Handler<HttpServerRequest> {
         }
 
         finalizeWriteReponse(context, request.getVertxRequest(),
-                result, stream, success, handleFlashAndSessionCookie, closeConnection);
+                result, file, stream, content, success, handleFlashAndSessionCookie, closeConnection);
     }
 
     /**
@@ -322,7 +522,10 @@ public class HttpHandler implements Handler<HttpServerRequest> {
      * @param context                     the HTTP context
      * @param request                     the Vert.x request
      * @param result                      the computed result
-     * @param stream                      the stream of the result
+     * @param file                        the file to send, {@code null} if the result is not a file from the
+     *                                    local file system
+     * @param stream                      the stream of the result, used for chunked responses
+     * @param content                     the rendered content, used for non-chunked responses
      * @param success                     a flag indicating whether or not the request was successfully handled
      * @param handleFlashAndSessionCookie if the flash and session cookie need to be send with the response
      * @param closeConnection             whehter or not the (underlying) TCP connection must be closed
@@ -331,7 +534,9 @@ public class HttpHandler implements Handler<HttpServerRequest> {
             final ContextFromVertx context,
             final HttpServerRequest request,
             Result result,
+            File file,
             InputStream stream,
+            Buffer content,
             boolean success,
             boolean handleFlashAndSessionCookie,
             boolean closeConnection) {
@@ -380,7 +585,9 @@ public class HttpHandler implements Handler<HttpServerRequest> {
             response.headers().add(HeaderNames.SET_COOKIE, encoded);
         }
         response.setStatusCode(HttpUtils.getStatusFromResult(result, success));
-        if (renderable.mustBeChunked()) {
+        if (file != null) {
+            sendFile(context, request, response, result, file, closeConnection || !keepAlive);
+        } else if (renderable.mustBeChunked()) {
             LOGGER.debug("Building the chunked response for {} {} ({})", request.method(), request.uri(), context);
             if (renderable.length() > 0 && !response.headers().contains(HeaderNames.CONTENT_LENGTH)) {
                 response.putHeader(HeaderNames.CONTENT_LENGTH, Long.toString(renderable.length()));
@@ -391,42 +598,57 @@ public class HttpHandler implements Handler<HttpServerRequest> {
                 response.putHeader(HeaderNames.CONTENT_TYPE, MimeTypes.BINARY);
             }
 
-            // Can't determine the size, so switch to chunked.
-            response.setChunked(true);
-            response.putHeader(HeaderNames.TRANSFER_ENCODING, "chunked");
-            // In addition, we can't keep the connection open.
-            response.putHeader(HeaderNames.CONNECTION, "close");
+            if (!response.headers().contains(HeaderNames.CONTENT_LENGTH)) {
+                if (request.version() == HttpVersion.HTTP_1_1) {
+                    // Can't determine the size, so switch to chunked.
+                    response.setChunked(true);
+                } else {
+                    // HTTP 1.0 clients do not support chunks, the end of the content is the end of the connection.
+                    keepAlive = false;
+                }
+            }
+
+            // The connection can be reused once the content is written, unless the client or the caller asked
+            // for closing it.
+            final boolean close = closeConnection || !keepAlive;
+            if (close) {
+                response.putHeader(HeaderNames.CONNECTION, "close");
+            } else {
+                response.putHeader(HeaderNames.CONNECTION, "keep-alive");
+            }
 
+            // The pump pauses the stream when the response write queue is full, and resumes it when drained.
             final AsyncInputStream s = new AsyncInputStream(vertx, accessor.getExecutor(), stream);
             s.setContext(context.vertxContext());
             final Pump pump = Pump.pump(s, response);
             s.endHandler(event -> context.vertxContext().runOnContext(event1 -> {
                         LOGGER.debug("Ending chunked response for {}", request.uri());
                         response.end();
-                        response.close();
+                        if (close) {
+                            response.close();
+                        }
                         cleanup(context);
                     })
             );
             s.exceptionHandler(event -> context.vertxContext().runOnContext(event1 -> {
                         LOGGER.error("Cannot read the result stream", event1);
+                        // The response is truncated, the client must not reuse the connection.
                         response.close();
                         cleanup(context);
                     })
             );
+            response.closeHandler(event -> {
+                // The client has gone away, stop reading the stream.
+                pump.stop();
+                s.close();
+            });
             context.vertxContext().runOnContext(event -> pump.start());
 
         } else {
-            byte[] cont = new byte[0];
-            try {
-                cont = IOUtils.toByteArray(stream);
-            } catch (IOException e) {
-                LOGGER.error("Cannot copy the response to {}", request.uri(), e);
-            }
-
             if (!response.headers().contains(HeaderNames.CONTENT_LENGTH)) {
                 // Because of the HEAD implementation, if the length is already set, do not update it.
                 // (HEAD would mean no content)
-                response.putHeader(HeaderNames.CONTENT_LENGTH, Long.toString(cont.length));
+                response.putHeader(HeaderNames.CONTENT_LENGTH, Long.toString(content.length()));
             }
 
             if (keepAlive) {
@@ -434,7 +656,7 @@ public class HttpHandler implements Handler<HttpServerRequest> {
                 // - http://www.w3.org/Protocols/HTTP/1.1/draft-ietf-http-v11-spec-01.html#Connection
                 response.putHeader(HeaderNames.CONNECTION, "keep-alive");
             }
-            response.write(Buffer.buffer(cont));
+            response.write(content);
             if (HttpUtils.isKeepAlive(request) && !closeConnection) {
                 response.end();
             } else {
@@ -445,6 +667,81 @@ public class HttpHandler implements Handler<HttpServerRequest> {
         }
     }
 
+    /**
+     * Sends a file from the local file system. The file is transferred by Vert.x and is never read from a worker
+     * thread. When compression is disabled on the server, Vert.x uses a {@link io.netty.channel.FileRegion}, so the
+     * content is copied by the kernel. Otherwise, the file is read chunk by chunk by the compression handler.
+     * Single byte ranges are supported for GET requests.
+     * This method must be called in a Vert.X context.
+     *
+     * @param context  the HTTP context
+     * @param request  the Vert.x request
+     * @param response the response, with the headers copied from the result
+     * @param result   the computed result
+     * @param file     the file
+     * @param close    whether or not the connection must be closed once the file is sent
+     */
+    private void sendFile(
+            final ContextFromVertx context,
+            final HttpServerRequest request,
+            final HttpServerResponse response,
+            Result result,
+            final File file,
+            final boolean close) {
+        LOGGER.debug("Sending file {} for {} {} ({})", file, request.method(), request.uri(), context);
+        long length = file.length();
+        long offset = 0;
+        long count = length;
+
+        response.putHeader(HeaderNames.ACCEPT_RANGES, "bytes");
+        if (request.method() == io.vertx.core.http.HttpMethod.GET
+                && response.getStatusCode() == Status.OK
+                && ByteRange.isApplicable(request.headers().get(HeaderNames.IF_RANGE), result)) {
+            ByteRange range = ByteRange.parse(request.headers().get(HeaderNames.RANGE), length);
+            if (range == ByteRange.UNSATISFIABLE) {
+                response.setStatusCode(Status.REQUESTED_RANGE_NOT_SATISFIABLE);
+                response.putHeader(HeaderNames.CONTENT_RANGE, range.toContentRange(length));
+                count = 0;
+            } else if (range != null) {
+                response.setStatusCode(Status.PARTIAL_CONTENT);
+                response.putHeader(HeaderNames.CONTENT_RANGE, range.toContentRange(length));
+                offset = range.start();
+                count = range.length();
+                if (server.hasCompressionEnabled()) {
+                    // The range applies to the file, not to its encoded form.
+                    response.putHeader(HeaderNames.X_WISDOM_DISABLED_ENCODING_HEADER, "true");
+                }
+            }
+        }
+
+        response.putHeader(HeaderNames.CONTENT_LENGTH, Long.toString(count));
+        if (close) {
+            response.putHeader(HeaderNames.CONNECTION, "close");
+        } else {
+            response.putHeader(HeaderNames.CONNECTION, "keep-alive");
+        }
+
+        if (count == 0) {
+            response.end();
+            if (close) {
+                response.close();
+            }
+            cleanup(context);
+            return;
+        }
+
+        response.sendFile(file.getAbsolutePath(), offset, count, ar -> {
+            if (ar.failed()) {
+                LOGGER.error("Cannot send file {}", file.getAbsolutePath(), ar.cause());
+                // The response may be truncated, the client must not reuse the connection.
+                response.close();
+            } else if (close) {
+                response.close();
+            }
+            cleanup(context);
+        });
+    }
+
     private boolean shouldEncodingBeDisabledForResponse(long length, Result result) {
         return server.hasCompressionEnabled()
                 && (
@@ -19,14 +19,22 @@
  */
 package org.wisdom.framework.vertx;
 
+import io.netty.buffer.Unpooled;
+import io.vertx.core.buffer.Buffer;
 import io.vertx.core.http.HttpServerRequest;
 import io.vertx.core.http.HttpVersion;
 import org.slf4j.LoggerFactory;
-import org.wisdom.api.bodies.NoHttpBody;
-import org.wisdom.api.content.ContentSerializer;
+import org.wisdom.api.bodies.RenderableByteArray;
+import org.wisdom.api.bodies.RenderableFile;
+import org.wisdom.api.bodies.RenderableString;
+import org.wisdom.api.bodies.RenderableURL;
+import org.wisdom.api.content.ContentNegotiation;
 import org.wisdom.api.http.*;
 
+import java.io.File;
 import java.io.InputStream;
+import java.net.URISyntaxException;
+import java.net.URL;
 
 /**
  * A set of utility methods used to handle HTTP requests.
@@ -43,6 +51,39 @@ public class HttpUtils {
      */
     public static final String KEEP_ALIVE = "keep-alive";
 
+    /**
+     * The initial size of the buffers receiving non-chunked content.
+     */
+    private static final int INITIAL_BUFFER_SIZE = 1024;
+
+    /**
+     * Gets the file on the local file system served by the given renderable object, if any. Such a file can be
+     * sent without being read by the application.
+     *
+     * @param renderable the renderable object
+     * @return the file, {@code null} if the renderable object does not serve a readable file from the local file
+     * system.
+     */
+    public static File getLocalFile(Renderable<?> renderable) {
+        File file = null;
+        if (renderable instanceof RenderableFile) {
+            file = ((RenderableFile) renderable).content();
+        } else if (renderable instanceof RenderableURL) {
+            URL url = ((RenderableURL) renderable).content();
+            if (url != null && "file".equals(url.getProtocol())) {
+                try {
+                    file = new File(url.toURI());
+                } catch (URISyntaxException | IllegalArgumentException e) { //NOSONAR
+                    LoggerFactory.getLogger(HttpUtils.class).debug("Cannot compute the file from {}", url, e);
+                }
+            }
+        }
+        if (file != null && file.isFile() && file.canRead()) {
+            return file;
+        }
+        return null;
+    }
+
     /**
      * Checks whether the given request should be closed or not once completed.
      *
@@ -90,39 +131,48 @@ public class HttpUtils {
      */
     public static InputStream processResult(ServiceAccessor accessor, Context context, Renderable renderable,
                                             Result result) throws Exception {
-        if (renderable.requireSerializer()) {
-            ContentSerializer serializer = null;
-            if (result.getContentType() != null) {
-                serializer = accessor.getContentEngines().getContentSerializerForContentType(result
-                        .getContentType());
-            }
-            if (serializer == null) {
-                // Try with the Accept type
-                serializer = accessor.getContentEngines().getBestSerializer(context.request().mediaTypes());
-                if (serializer != null) {
-                    // Set CONTENT_TYPE
-                    result.with(HeaderNames.CONTENT_TYPE, serializer.getContentType());
-                }
-            }
+        return serialize(accessor, context, renderable, result).render(context, result);
+    }
 
-            if (serializer != null) {
-                serializer.serialize(renderable);
-            } else {
-                LoggerFactory.getLogger(HttpHandler.class)
-                        .error("Cannot find a serializer to handle the request (explicit content type: {}, " +
-                                        "accept media types: {}), returning content as String",
-                                result.getContentType(),
-                                context.request().mediaTypes());
-                if (renderable.content() != null) {
-                    renderable.setSerializedForm(renderable.content().toString());
-                    result.with(HeaderNames.CONTENT_TYPE, "text/plain");
-                } else {
-                    renderable = NoHttpBody.INSTANCE;
-                    result.with(HeaderNames.CONTENT_TYPE, "text/plain");
-                }
-            }
+    /**
+     * Processes the given result, and writes the rendered content into a Vert.x buffer. Unlike {@link
+     * #processResult(ServiceAccessor, Context, Renderable, Result)}, the content is written directly into the buffer
+     * sent to the client, without intermediate streams and arrays. Byte arrays and encoded Strings are not copied,
+     * the buffer wraps them. It must only be used for non-chunked responses.
+     *
+     * @param accessor   the service accessor
+     * @param context    the current HTTP context
+     * @param renderable the renderable object
+     * @param result     the computed result
+     * @return the buffer containing the rendered content
+     * @throws Exception if the result cannot be rendered.
+     */
+    public static Buffer processResultAsBuffer(ServiceAccessor accessor, Context context, Renderable renderable,
+                                               Result result) throws Exception {
+        Renderable<?> rendered = serialize(accessor, context, renderable, result);
+        // Subclasses may override the rendering, so only the exact classes are wrapped.
+        if (rendered.getClass() == RenderableByteArray.class) {
+            return Buffer.buffer(Unpooled.wrappedBuffer(((RenderableByteArray) rendered).content()));
+        }
+        if (rendered.getClass() == RenderableString.class) {
+            return Buffer.buffer(Unpooled.wrappedBuffer(((RenderableString) rendered).encode(result)));
+        }
+        BufferOutputStream output = new BufferOutputStream(INITIAL_BUFFER_SIZE);
+        rendered.render(context, result, output);
+        return output.buffer();
+    }
+
+    /**
+     * Applies the serialization on the given renderable if required.
+     *
+     * @return the renderable to render
+     */
+    private static Renderable<?> serialize(ServiceAccessor accessor, Context context, Renderable<?> renderable,
+                                           Result result) {
+        if (!renderable.requireSerializer()) {
+            return renderable;
         }
-        return renderable.render(context, result);
+        return ContentNegotiation.serialize(accessor.getContentEngines(), context, renderable, result);
     }
 
     /**
@@ -0,0 +1,212 @@
+/*
+ * #%L
+ * Wisdom-Framework
+ * %%
+ * Copyright (C) 2013 - 2014 Wisdom Framework
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.wisdom.framework.vertx;
+
+import io.vertx.core.Context;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.streams.ReadStream;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+/**
+ * An input stream giving access to a request body while it is received. It is used when the action method reads
+ * the body as a stream (see {@link org.wisdom.api.router.Route#isStreamingBody()}).
+ * <p>
+ * The chunks received by Vert.x are queued by the event loop, and consumed by the thread executing the action
+ * method. To bound the memory used per request, the request is paused when the queued chunks exceed the buffer
+ * size, and resumed (from the Vert.x context) once the reader has consumed half of it.
+ * <p>
+ * Once closed, the stream discards the remaining chunks, so the request can be read completely and the connection
+ * reused.
+ */
+public class RequestBodyStream extends InputStream {
+
+    private final ReadStream<Buffer> request;
+
+    private final Context context;
+
+    private final int bufferSize;
+
+    private final Deque<Buffer> chunks = new ArrayDeque<>();
+
+    /**
+     * The chunk being read.
+     */
+    private Buffer current;
+
+    /**
+     * The position of the next byte to read in the current chunk.
+     */
+    private int position;
+
+    /**
+     * The number of queued bytes, not yet read.
+     */
+    private long pending;
+
+    private boolean paused;
+
+    private boolean ended;
+
+    private boolean closed;
+
+    private Throwable failure;
+
+    /**
+     * Creates the stream.
+     *
+     * @param request    the request (or any stream of buffers)
+     * @param context    the Vert.x context used to resume the request
+     * @param bufferSize the number of bytes that can be queued before pausing the request
+     */
+    public RequestBodyStream(ReadStream<Buffer> request, Context context, int bufferSize) {
+        this.request = request;
+        this.context = context;
+        this.bufferSize = bufferSize;
+    }
+
+    /**
+     * Queues a chunk of the body. This method is called by the event loop.
+     *
+     * @param chunk the chunk
+     */
+    public synchronized void write(Buffer chunk) {
+        if (closed || chunk == null || chunk.length() == 0) {
+            return;
+        }
+        chunks.add(chunk);
+        pending += chunk.length();
+        if (!paused && pending >= bufferSize) {
+            paused = true;
+            request.pause();
+        }
+        notifyAll();
+    }
+
+    /**
+     * Notifies the stream that the body has been received completely.
+     */
+    public synchronized void end() {
+        ended = true;
+        notifyAll();
+    }
+
+    /**
+     * Notifies the stream that the body cannot be received completely. The reader gets an {@link IOException}
+     * once the queued chunks have been read.
+     *
+     * @param cause the cause
+     */
+    public synchronized void fail(Throwable cause) {
+        failure = cause;
+        ended = true;
+        notifyAll();
+    }
+
+    @Override
+    public int read() throws IOException {
+        byte[] b = new byte[1];
+        int read = read(b, 0, 1);
+        if (read == -1) {
+            return -1;
+        }
+        return b[0] & 0xFF;
+    }
+
+    @Override
+    public synchronized int read(byte[] b, int off, int len) throws IOException {
+        if (off < 0 || len < 0 || len > b.length - off) {
+            throw new IndexOutOfBoundsException();
+        }
+        if (len == 0) {
+            return 0;
+        }
+        while (current == null || position == current.length()) {
+            if (closed) {
+                throw new IOException("Stream closed");
+            }
+            current = chunks.poll();
+            position = 0;
+            if (current == null) {
+                if (failure != null) {
+                    throw new IOException("Cannot read the request body", failure);
+                }
+                if (ended) {
+                    return -1;
+                }
+                waitForChunk();
+            }
+        }
+        int read = Math.min(len, current.length() - position);
+        current.getBytes(position, position + read, b, off);
+        position += read;
+        pending -= read;
+        resumeIfNeeded();
+        return read;
+    }
+
+    private void waitForChunk() throws InterruptedIOException {
+        try {
+            wait();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for the request body");
+        }
+    }
+
+    private void resumeIfNeeded() {
+        if (paused && pending <= bufferSize / 2) {
+            paused = false;
+            context.runOnContext(v -> {
+                synchronized (this) {
+                    // The request may have been paused again in the meantime.
+                    if (!paused) {
+                        request.resume();
+                    }
+                }
+            });
+        }
+    }
+
+    @Override
+    public synchronized int available() {
+        return (int) Math.min(pending, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Closes the stream. The chunks not read yet are discarded, and the request is resumed if paused.
+     */
+    @Override
+    public synchronized void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        chunks.clear();
+        current = null;
+        pending = 0;
+        resumeIfNeeded();
+        notifyAll();
+    }
+}
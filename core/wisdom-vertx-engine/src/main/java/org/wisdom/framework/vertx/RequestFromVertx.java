@@ -23,6 +23,7 @@ import com.google.common.base.Charsets;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.Lists;
 import com.google.common.net.MediaType;
+import io.netty.buffer.ByteBufInputStream;
 import io.vertx.core.MultiMap;
 import io.vertx.core.buffer.Buffer;
 import io.vertx.core.http.HttpServerRequest;
@@ -35,6 +36,7 @@ import org.wisdom.api.http.Request;
 import org.wisdom.framework.vertx.cookies.CookiesImpl;
 import org.wisdom.framework.vertx.file.VertxFileUpload;
 
+import java.io.InputStream;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.util.*;
@@ -58,6 +60,11 @@ public class RequestFromVertx extends Request {
      */
     private Buffer raw = Buffer.factory.buffer(0);
 
+    /**
+     * The stream giving access to the body, when the body is streamed to the action method.
+     */
+    private RequestBodyStream bodyStream;
+
     /**
      * The map used to store data shared in the request scope.
      */
@@ -553,6 +560,19 @@ public class RequestFromVertx extends Request {
         return raw.getBytes();
     }
 
+    /**
+     * Gets a stream reading the 'raw' body. Unlike {@link #getRawBody()}, the body is not copied, the stream reads
+     * the received buffer directly.
+     *
+     * @return the stream, {@code null} if there is no body.
+     */
+    public InputStream getRawBodyStream() {
+        if (raw == null) {
+            return null;
+        }
+        return new ByteBufInputStream(raw.getByteBuf());
+    }
+
     /**
      * Gets the uploaded files.
      *
@@ -594,4 +614,17 @@ public class RequestFromVertx extends Request {
     protected void setRawBody(Buffer raw) {
         this.raw = raw;
     }
+
+    /**
+     * Gets the stream giving access to the body.
+     *
+     * @return the stream, {@code null} if the body is not streamed but read completely before the dispatch.
+     */
+    public RequestBodyStream getBodyStream() {
+        return bodyStream;
+    }
+
+    protected void setBodyStream(RequestBodyStream stream) {
+        this.bodyStream = stream;
+    }
 }
@@ -35,7 +35,9 @@ import org.wisdom.framework.vertx.ssl.SSLServerContext;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.regex.Pattern;
 
 /**
@@ -84,7 +86,7 @@ public class Server {
     /**
      * The listened port, updated once the server is bound (that's why the field is not final).
      */
-    private int port;
+    private volatile int port;
 
     /**
      * whether or not SSL is enabled.
@@ -113,11 +115,10 @@ public class Server {
     private String onDenied;
 
     /**
-     * The HTTP server.
+     * The HTTP servers, one per verticle instance, associated to the context of the verticle instance having bound
+     * it. All these servers listen on the same host and port, Vert.x dispatches the accepted connections among them.
      */
-    private HttpServer http;
-
-    private Context context;
+    private final Map<Context, HttpServer> http = new ConcurrentHashMap<>();
 
     /**
      * Creates the default HTTP server (listening on port 9000 / `http.port`), no SSL, no mutual authentication,
@@ -243,10 +244,12 @@ public class Server {
     /**
      * Starts the server. The server is going to try to listen on the given host / port. Startup is asynchronous. You
      * can pull {@link #port()} to know when the server has successfully be bound (in case of a random port).
+     * <p>
+     * This method is called by each instance of the Wisdom verticle, from the verticle context. Once the port is
+     * known, the other instances listen on the same port, so the connections are distributed among the event loops.
      */
     public void bind(Handler<AsyncResult<Void>> completion) {
         logger.info("Starting server {}", name);
-        context = vertx.getOrCreateContext();
         bind(port, completion);
     }
 
@@ -286,13 +289,15 @@ public class Server {
             options.setSendBufferSize(configuration.getInteger("vertx.sendBufferSize"));
         }
 
-        http = vertx.createHttpServer(options)
+        final Context context = vertx.getOrCreateContext();
+        HttpServer server = vertx.createHttpServer(options)
                 .requestHandler(new HttpHandler(vertx, accessor, this))
                 .websocketHandler(new WebSocketHandler(accessor, this));
 
-        http.listen(thePort, host, event -> {
+        server.listen(thePort, host, event -> {
             if (event.succeeded()) {
                 logger.info("Wisdom is going to serve HTTP requests on port {}.", thePort);
+                http.put(context, server);
                 port = thePort;
                 completion.handle(Future.succeededFuture());
             } else if (port == 0) {
@@ -360,21 +365,21 @@ public class Server {
     }
 
     /**
-     * Stops / Closes the server.
+     * Stops / Closes the server bound by the verticle instance calling this method (so from the verticle context).
      */
     public void close(Handler<AsyncResult<Void>> completion) {
-        if (context == null) {
-            context = vertx.getOrCreateContext();
+        final Context context = vertx.getOrCreateContext();
+        final HttpServer server = http.remove(context);
+        if (server == null) {
+            // Not bound from this context.
+            completion.handle(Future.<Void>succeededFuture());
+            return;
         }
 
-        context.runOnContext(v -> {
-            if (http != null) {
-                http.close(event -> {
-                    logger.info("The server '{}' has been stopped (bound port: {})", name, port);
-                    completion.handle(Future.<Void>succeededFuture());
-                });
-            }
-        });
+        context.runOnContext(v -> server.close(event -> {
+            logger.info("The server '{}' has been stopped (bound port: {})", name, port);
+            completion.handle(Future.<Void>succeededFuture());
+        }));
     }
 
     /**
@@ -21,18 +21,28 @@ package org.wisdom.framework.vertx;
 
 import org.wisdom.api.concurrent.ManagedExecutorService;
 import org.wisdom.api.configuration.ApplicationConfiguration;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.wisdom.api.content.ContentEngine;
+import org.wisdom.api.cookies.SessionCookie;
+import org.wisdom.api.cookies.SessionStore;
 import org.wisdom.api.crypto.Crypto;
 import org.wisdom.api.exceptions.ExceptionMapper;
 import org.wisdom.api.router.Router;
 
 import java.util.Collection;
+import java.util.Collections;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * A structure to access services.
  */
 public class ServiceAccessor {
 
+    private static final Logger LOGGER = LoggerFactory.getLogger(ServiceAccessor.class);
+
     private final Crypto crypto;
     private final ApplicationConfiguration configuration;
     private final Router router;
@@ -40,10 +50,38 @@ public class ServiceAccessor {
     private final ManagedExecutorService executor;
     private final WisdomVertxServer dispatcher;
     private final Collection<ExceptionMapper> mappers;
+    private final Collection<ManagedExecutorService> executors;
+    private final Collection<SessionStore> stores;
+
+    /**
+     * The names of the missing executors that were reported, to avoid logging a warning on every request.
+     */
+    private final Set<String> reportedMissingExecutors = Collections.newSetFromMap(new ConcurrentHashMap<>());
+
+    /**
+     * The session store resolved from the configuration and the available stores, {@code null} when it needs to be
+     * resolved again (see {@link #invalidateSessionStore()}).
+     */
+    private volatile Optional<SessionStore> sessionStore; //NOSONAR
 
     public ServiceAccessor(Crypto crypto, ApplicationConfiguration configuration, Router router,
                            ContentEngine engine, ManagedExecutorService executor, WisdomVertxServer dispatcher,
                            Collection<ExceptionMapper> mappers) {
+        this(crypto, configuration, router, engine, executor, dispatcher, mappers,
+                Collections.<ManagedExecutorService>emptyList());
+    }
+
+    public ServiceAccessor(Crypto crypto, ApplicationConfiguration configuration, Router router,
+                           ContentEngine engine, ManagedExecutorService executor, WisdomVertxServer dispatcher,
+                           Collection<ExceptionMapper> mappers, Collection<ManagedExecutorService> executors) {
+        this(crypto, configuration, router, engine, executor, dispatcher, mappers, executors,
+                Collections.<SessionStore>emptyList());
+    }
+
+    public ServiceAccessor(Crypto crypto, ApplicationConfiguration configuration, Router router,
+                           ContentEngine engine, ManagedExecutorService executor, WisdomVertxServer dispatcher,
+                           Collection<ExceptionMapper> mappers, Collection<ManagedExecutorService> executors,
+                           Collection<SessionStore> stores) {
         this.crypto = crypto;
         this.configuration = configuration;
         this.router = router;
@@ -51,6 +89,8 @@ public class ServiceAccessor {
         this.executor = executor;
         this.dispatcher = dispatcher;
         this.mappers = mappers;
+        this.executors = executors;
+        this.stores = stores;
     }
 
     public Crypto getCrypto() {
@@ -73,6 +113,69 @@ public class ServiceAccessor {
         return executor;
     }
 
+    /**
+     * Gets the executor having the given name.
+     *
+     * @param name the name of the executor, may be {@code null}
+     * @return the executor having the given name, the system executor if the name is {@code null} or if there is no
+     * executor with this name. A warning is logged the first time a missing executor is requested.
+     */
+    public ManagedExecutorService getExecutor(String name) {
+        if (name != null) {
+            for (ManagedExecutorService service : executors) {
+                if (name.equals(service.name())) {
+                    return service;
+                }
+            }
+            if (reportedMissingExecutors.add(name)) {
+                LOGGER.warn("The executor '{}' is not available, the system executor is used instead", name);
+            }
+        }
+        return executor;
+    }
+
+    /**
+     * Gets the session store selected by the {@link SessionCookie#SESSION_STORE} configuration key. The store is
+     * resolved on the first call, and then kept until {@link #invalidateSessionStore()} is called.
+     *
+     * @return the session store, {@code null} if the session data is kept in the session cookie. It is also the case
+     * when the configured store is not available.
+     */
+    public SessionStore getSessionStore() {
+        Optional<SessionStore> store = sessionStore;
+        if (store == null) {
+            synchronized (this) {
+                if (sessionStore == null) {
+                    sessionStore = Optional.ofNullable(resolveSessionStore());
+                }
+                store = sessionStore;
+            }
+        }
+        return store.orElse(null);
+    }
+
+    /**
+     * Forgets the resolved session store, so it is resolved again on the next request. It must be called when a
+     * session store arrives or leaves, and when the {@link SessionCookie#SESSION_STORE} configuration key changes.
+     */
+    public synchronized void invalidateSessionStore() {
+        sessionStore = null;
+    }
+
+    private SessionStore resolveSessionStore() {
+        String name = configuration.get(SessionCookie.SESSION_STORE);
+        if (name == null || SessionStore.COOKIE.equals(name)) {
+            return null;
+        }
+        for (SessionStore store : stores) {
+            if (name.equals(store.name())) {
+                return store;
+            }
+        }
+        LOGGER.warn("The session store '{}' is not available, the session data is kept in the session cookie", name);
+        return null;
+    }
+
     public WisdomVertxServer getDispatcher() {
         return dispatcher;
     }
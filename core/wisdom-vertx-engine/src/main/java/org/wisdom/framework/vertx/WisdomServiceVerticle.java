@@ -23,9 +23,13 @@ import io.vertx.core.AbstractVerticle;
 import io.vertx.core.Future;
 
 import java.util.List;
-import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
+ * The verticle binding the servers. Several instances can be deployed, each of them binds all the servers on its own
+ * event loop.
+ *
  * @author <a href="http://escoffier.me">Clement Escoffier</a>
  */
 public class WisdomServiceVerticle extends AbstractVerticle {
@@ -46,30 +50,27 @@ public class WisdomServiceVerticle extends AbstractVerticle {
      */
     @Override
     public void start(Future<Void> startFuture) throws Exception {
-        CountDownLatch latch = new CountDownLatch(servers.size());
-        final boolean[] inError = {false};
+        if (servers.isEmpty()) {
+            startFuture.complete();
+            return;
+        }
+        // The completion handlers are called on the verticle context.
+        final AtomicInteger remaining = new AtomicInteger(servers.size());
+        final AtomicBoolean inError = new AtomicBoolean();
         for (Server server : servers) {
             server.bind(ar -> {
                 if (ar.failed()) {
-                    inError[0] = true;
+                    inError.set(true);
+                }
+                if (remaining.decrementAndGet() == 0) {
+                    if (inError.get()) {
+                        startFuture.fail("One of the server was not able to start correctly");
+                    } else {
+                        startFuture.complete();
+                    }
                 }
-                latch.countDown();
             });
         }
-        vertx.executeBlocking(f -> {
-            try {
-                latch.await();
-            } catch (InterruptedException e) {
-                // Ignore it.
-            }
-        }, ar -> {
-            if (inError[0]) {
-                startFuture.fail("One of the server was not able to start correctly");
-            } else {
-                startFuture.complete();
-            }
-        });
-
     }
 
     /**
@@ -83,29 +84,25 @@ public class WisdomServiceVerticle extends AbstractVerticle {
      */
     @Override
     public void stop(Future<Void> future) throws Exception {
-        CountDownLatch latch = new CountDownLatch(servers.size());
-        final boolean[] inError = {false};
+        if (servers.isEmpty()) {
+            future.complete();
+            return;
+        }
+        final AtomicInteger remaining = new AtomicInteger(servers.size());
+        final AtomicBoolean inError = new AtomicBoolean();
         for (Server server : servers) {
             server.close(ar -> {
                 if (ar.failed()) {
-                    inError[0] = true;
+                    inError.set(true);
+                }
+                if (remaining.decrementAndGet() == 0) {
+                    if (inError.get()) {
+                        future.fail("One of the server did not stopped correctly");
+                    } else {
+                        future.complete();
+                    }
                 }
-                latch.countDown();
             });
         }
-
-        vertx.executeBlocking(f -> {
-            try {
-                latch.await();
-            } catch (InterruptedException e) {
-                // ignore it.
-            }
-        }, ar -> {
-            if (inError[0]) {
-                future.fail("One of the server did not stopped correctly");
-            } else {
-                future.complete();
-            }
-        });
     }
 }
@@ -19,6 +19,8 @@
  */
 package org.wisdom.framework.vertx;
 
+import io.vertx.core.AsyncResult;
+import io.vertx.core.DeploymentOptions;
 import io.vertx.core.Vertx;
 import io.vertx.core.spi.VerticleFactory;
 import org.apache.felix.ipojo.annotations.*;
@@ -27,7 +29,10 @@ import org.slf4j.LoggerFactory;
 import org.wisdom.api.concurrent.ManagedExecutorService;
 import org.wisdom.api.configuration.ApplicationConfiguration;
 import org.wisdom.api.configuration.Configuration;
+import org.wisdom.api.configuration.ConfigurationListener;
 import org.wisdom.api.content.ContentEngine;
+import org.wisdom.api.cookies.SessionCookie;
+import org.wisdom.api.cookies.SessionStore;
 import org.wisdom.api.crypto.Crypto;
 import org.wisdom.api.engine.WisdomEngine;
 import org.wisdom.api.exceptions.ExceptionMapper;
@@ -37,6 +42,7 @@ import org.wisdom.api.router.Router;
 
 import java.net.InetAddress;
 import java.util.*;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 
 /**
@@ -53,9 +59,10 @@ public class WisdomVertxServer implements WebSocketDispatcher, WisdomEngine {
     private static final Logger LOGGER = LoggerFactory.getLogger(WisdomVertxServer.class);
 
     /**
-     * The set of Web Socket Listeners used to dispatch data received on web sockets.
+     * The set of Web Socket Listeners used to dispatch data received on web sockets. As data are received from
+     * the different event loops, iterations must not require a lock.
      */
-    private List<WebSocketListener> listeners = new ArrayList<>();
+    private List<WebSocketListener> listeners = new CopyOnWriteArrayList<>();
 
     /**
      * The map of uri / list of channel context keeping a reference on all opened web sockets.
@@ -98,22 +105,50 @@ public class WisdomVertxServer implements WebSocketDispatcher, WisdomEngine {
     @Requires(filter = "(name=" + ManagedExecutorService.SYSTEM + ")")
     private ManagedExecutorService executor;
 
+    /**
+     * The available thread pools, selected by the action methods using
+     * {@link org.wisdom.api.annotations.scheduler.ExecutedBy}.
+     */
+    @Requires(specification = ManagedExecutorService.class, optional = true)
+    private Collection<ManagedExecutorService> executors;
+
     /**
      * The exception mappers.
      */
     @Requires(specification = ExceptionMapper.class, optional = true)
     private Collection<ExceptionMapper> mappers;
 
+    /**
+     * The session stores, selected using the {@link org.wisdom.api.cookies.SessionCookie#SESSION_STORE}
+     * configuration key.
+     */
+    @Requires(id = "stores", specification = SessionStore.class, optional = true)
+    private Collection<SessionStore> stores;
+
     /**
      * The accessor to get all the services.
      */
     ServiceAccessor accessor = new ServiceAccessor(crypto, configuration, router,
-            engine, executor, this, mappers); //NOSONAR
+            engine, executor, this, mappers, executors, stores); //NOSONAR
+
+    /**
+     * Resolves the session store again when the {@link SessionCookie#SESSION_STORE} configuration key changes.
+     */
+    private final ConfigurationListener sessionStoreListener = change -> accessor.invalidateSessionStore();
 
     private InetAddress address;
 
     protected List<Server> servers = new ArrayList<>(2);
-    private String deploymentId;
+
+    /**
+     * The deployment ids of the Wisdom verticle.
+     */
+    private final List<String> deploymentIds = new CopyOnWriteArrayList<>();
+
+    /**
+     * Whether or not the server has been stopped, checked when a deployment completes after the invalidation.
+     */
+    private volatile boolean stopped;
 
     /**
      * Starts the servers (HTTP and HTTPS).
@@ -123,6 +158,8 @@ public class WisdomVertxServer implements WebSocketDispatcher, WisdomEngine {
     public synchronized void start() {
 
         LOGGER.info("Starting the vert.x server");
+        stopped = false;
+        accessor.getConfiguration().addListener(sessionStoreListener, SessionCookie.SESSION_STORE);
 
         // Check whether we have a specific vertx configuration, if not try the global one, and if not use default.
         int httpPort = accessor.getConfiguration().getIntegerWithDefault(
@@ -167,12 +204,44 @@ public class WisdomVertxServer implements WebSocketDispatcher, WisdomEngine {
             vertx.registerVerticleFactory(new WisdomInternalVerticleFactory(accessor, this.servers));
         }
 
+        // A first instance binds the servers, and so picks the random ports if any. Then, the other instances listen
+        // on the same ports, and Vert.x distributes the accepted connections among their event loops.
+        final int instances = getNumberOfInstances();
         vertx.runOnContext(v -> vertx.deployVerticle("wisdom-internal:wisdom", ar -> {
-            LOGGER.info("Wisdom verticle deployed : " + ar.result());
-            deploymentId = ar.result();
+            onDeployment(ar);
+            if (ar.succeeded() && instances > 1) {
+                vertx.deployVerticle("wisdom-internal:wisdom", new DeploymentOptions().setInstances(instances - 1),
+                        this::onDeployment);
+            }
         }));
     }
 
+    /**
+     * Gets the number of instances of the Wisdom verticle, configured using the {@literal vertx.instances} property.
+     * By default, one instance is deployed per core.
+     *
+     * @return the number of instances, at least 1.
+     */
+    private int getNumberOfInstances() {
+        int instances = configuration.getIntegerWithDefault("vertx.instances",
+                Runtime.getRuntime().availableProcessors());
+        return Math.max(1, instances);
+    }
+
+    private void onDeployment(AsyncResult<String> ar) {
+        if (ar.failed()) {
+            LOGGER.error("Cannot deploy the Wisdom verticle", ar.cause());
+            return;
+        }
+        LOGGER.info("Wisdom verticle deployed : " + ar.result());
+        if (stopped) {
+            // Stopped during the deployment.
+            vertx.undeploy(ar.result());
+        } else {
+            deploymentIds.add(ar.result());
+        }
+    }
+
     private void initializeInetAddress() {
         address = null;
         try {
@@ -194,17 +263,41 @@ public class WisdomVertxServer implements WebSocketDispatcher, WisdomEngine {
      */
     @Invalidate
     public void stop() {
+        accessor.getConfiguration().removeListener(sessionStoreListener);
         listeners.clear();
         LOGGER.info("Stopping the vert.x server");
+        stopped = true;
 
+        final List<String> ids = new ArrayList<>(deploymentIds);
+        deploymentIds.clear();
         vertx.runOnContext(v -> {
-            if (deploymentId != null) {
-                vertx.undeploy(deploymentId, ar -> LOGGER.info("Wisdom verticle un-deployed"));
+            for (String id : ids) {
+                vertx.undeploy(id, ar -> LOGGER.info("Wisdom verticle un-deployed"));
             }
         });
 
     }
 
+    /**
+     * A session store has arrived, the session store is resolved again on the next request.
+     *
+     * @param store the session store
+     */
+    @Bind(id = "stores", aggregate = true, optional = true)
+    public void bindSessionStore(SessionStore store) {
+        accessor.invalidateSessionStore();
+    }
+
+    /**
+     * A session store has left, the session store is resolved again on the next request.
+     *
+     * @param store the session store
+     */
+    @Unbind(id = "stores", aggregate = true)
+    public void unbindSessionStore(SessionStore store) {
+        accessor.invalidateSessionStore();
+    }
+
     /**
      * @return the hostname.
      */
@@ -273,7 +366,7 @@ public class WisdomVertxServer implements WebSocketDispatcher, WisdomEngine {
      * @param data the data, must not be {@literal null}
      */
     @Override
-    public synchronized void publish(String url, byte[] data) {
+    public void publish(String url, byte[] data) {
         List<Socket> sockets;
         synchronized (this) {
             List<Socket> ch = this.socketsByUri.get(url);
@@ -296,7 +389,6 @@ public class WisdomVertxServer implements WebSocketDispatcher, WisdomEngine {
      */
     public void addSocket(String url, Socket socket) {
         LOGGER.info("Adding web socket on {} bound to {}", url, socket);
-        List<WebSocketListener> webSocketListeners;
         synchronized (this) {
             List<Socket> channels = socketsByUri.get(url);
             if (channels == null) {
@@ -304,10 +396,9 @@ public class WisdomVertxServer implements WebSocketDispatcher, WisdomEngine {
             }
             channels.add(socket);
             socketsByUri.put(url, channels);
-            webSocketListeners = new ArrayList<>(this.listeners);
         }
 
-        for (WebSocketListener listener : webSocketListeners) {
+        for (WebSocketListener listener : listeners) {
             listener.opened(url, id(socket));
         }
     }
@@ -320,7 +411,6 @@ public class WisdomVertxServer implements WebSocketDispatcher, WisdomEngine {
      */
     public void removeSocket(String url, Socket socket) {
         LOGGER.info("Removing web socket on {} bound to {}", url, socket.path());
-        List<WebSocketListener> webSocketListeners;
         synchronized (this) {
             List<Socket> channels = socketsByUri.get(url);
             if (channels != null) {
@@ -329,10 +419,9 @@ public class WisdomVertxServer implements WebSocketDispatcher, WisdomEngine {
                     socketsByUri.remove(url);
                 }
             }
-            webSocketListeners = new ArrayList<>(this.listeners);
         }
 
-        for (WebSocketListener listener : webSocketListeners) {
+        for (WebSocketListener listener : listeners) {
             listener.closed(url, id(socket));
         }
     }
@@ -345,10 +434,13 @@ public class WisdomVertxServer implements WebSocketDispatcher, WisdomEngine {
      */
     @Override
     public void register(WebSocketListener listener) {
-        Map<String, List<Socket>> copy;
+        Map<String, List<Socket>> copy = new HashMap<>();
         synchronized (this) {
             listeners.add(listener);
-            copy = new HashMap<>(socketsByUri);
+            // Copy the lists too, they are modified when sockets are opened or closed on other event loops.
+            for (Map.Entry<String, List<Socket>> entry : socketsByUri.entrySet()) {
+                copy.put(entry.getKey(), new ArrayList<>(entry.getValue()));
+            }
         }
 
         // Call open on each opened web socket
@@ -441,12 +533,7 @@ public class WisdomVertxServer implements WebSocketDispatcher, WisdomEngine {
      * @param socket  the client channel
      */
     public void received(String uri, byte[] content, Socket socket) {
-        List<WebSocketListener> localListeners;
-        synchronized (this) {
-            localListeners = new ArrayList<>(this.listeners);
-        }
-
-        for (WebSocketListener listener : localListeners) {
+        for (WebSocketListener listener : listeners) {
             listener.received(uri, id(socket), content);
         }
     }
@@ -39,6 +39,8 @@ import java.util.Map;
  * Stuff in a flash cookie gets deleted after the next request.
  * <p/>
  * Please note also that flash cookies are not signed.
+ * <p/>
+ * The incoming flash cookie is decoded the first time the flash scope is read.
  */
 public class FlashCookieImpl implements FlashCookie {
 
@@ -48,13 +50,40 @@ public class FlashCookieImpl implements FlashCookie {
     private Map<String, String> currentFlashCookieData = new HashMap<>();
     private Map<String, String> outgoingFlashCookieData = new HashMap<>();
     private final String applicationCookiePrefix;
+    /**
+     * The context of the request, set by {@link #init(Context)}.
+     */
+    private Context context;
+    /**
+     * Whether the incoming flash cookie has been decoded.
+     */
+    private boolean loaded;
 
     public FlashCookieImpl(ApplicationConfiguration configuration) {
         applicationCookiePrefix = configuration.getWithDefault(Cookie.APPLICATION_COOKIE_PREFIX, "wisdom");
     }
 
+    /**
+     * Has to be called initially. The flash cookie is only decoded when the flash scope is accessed.
+     *
+     * @param context the current http context.
+     */
     @Override
     public void init(Context context) {
+        this.context = context;
+    }
+
+    /**
+     * Decodes the incoming flash cookie, if not done already.
+     */
+    private void load() {
+        if (loaded) {
+            return;
+        }
+        loaded = true;
+        if (context == null) {
+            return;
+        }
         // get flash cookie:
         Cookie flashCookie = context.request().cookie(applicationCookiePrefix
                 + FLASH_SUFFIX);
@@ -107,6 +136,7 @@ public class FlashCookieImpl implements FlashCookie {
             throw new IllegalArgumentException(
                     "Character ':' is invalid in a flash key.");
         }
+        load();
         currentFlashCookieData.put(key, value);
         outgoingFlashCookieData.put(key, value);
     }
@@ -142,6 +172,7 @@ public class FlashCookieImpl implements FlashCookie {
 
     @Override
     public void keep(String key) {
+        load();
         if (currentFlashCookieData.containsKey(key)) {
             outgoingFlashCookieData.put(key, currentFlashCookieData.get(key));
         }
@@ -149,11 +180,13 @@ public class FlashCookieImpl implements FlashCookie {
 
     @Override
     public void keep() {
+        load();
         outgoingFlashCookieData.putAll(currentFlashCookieData);
     }
 
     @Override
     public String get(String key) {
+        load();
         String value = currentFlashCookieData.get(key);
         if (value == null) {
             value = outgoingFlashCookieData.get(key);
@@ -163,21 +196,25 @@ public class FlashCookieImpl implements FlashCookie {
 
     @Override
     public boolean remove(String key) {
+        load();
         return currentFlashCookieData.remove(key) != null;
     }
 
     @Override
     public void clearCurrentFlashCookieData() {
+        load();
         currentFlashCookieData.clear();
     }
 
     @Override
     public boolean contains(String key) {
+        load();
         return currentFlashCookieData.containsKey(key);
     }
 
     @Override
     public Map<String, String> getCurrentFlashCookieData() {
+        load();
         return currentFlashCookieData;
     }
 
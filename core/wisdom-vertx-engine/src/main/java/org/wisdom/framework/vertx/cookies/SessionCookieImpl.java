@@ -26,6 +26,7 @@ import org.slf4j.LoggerFactory;
 import org.wisdom.api.configuration.ApplicationConfiguration;
 import org.wisdom.api.cookies.Cookie;
 import org.wisdom.api.cookies.SessionCookie;
+import org.wisdom.api.cookies.SessionStore;
 import org.wisdom.api.crypto.Crypto;
 import org.wisdom.api.http.Context;
 import org.wisdom.api.http.Result;
@@ -39,6 +40,13 @@ import java.util.UUID;
 /**
  * Session Cookie... Mostly an adaption of Play1's excellent cookie system that
  * in turn is based on the new client side rails cookies.
+ * <p>
+ * The session cookie is read lazily: its signature is verified and its content decoded the first time the session
+ * is accessed. When the session is not accessed during the request, nothing is sent back (unless the session cookie
+ * must be sent on every response).
+ * <p>
+ * When a {@link SessionStore} is given, the session data is kept in the store, and the session cookie only contains
+ * the signed id under which the data is stored.
  */
 public class SessionCookieImpl implements SessionCookie {
 
@@ -47,45 +55,94 @@ public class SessionCookieImpl implements SessionCookie {
     private static final String TIMESTAMP_KEY = "___TS";
 
     private static final Logger LOGGER = LoggerFactory.getLogger(SessionCookieImpl.class);
-    private final Integer sessionExpireTimeInMs;
     private final Boolean sessionSendOnlyIfChanged;
-    private final Boolean sessionTransferredOverHttpsOnly;
-    private final Boolean sessionHttpOnly;
-    private final String applicationCookiePrefix;
+    private Integer sessionExpireTimeInMs;
+    private Boolean sessionTransferredOverHttpsOnly;
+    private Boolean sessionHttpOnly;
+    private String applicationCookiePrefix;
     private final Map<String, String> data = new HashMap<>();
     /**
      * The crypto service.
      */
     private final Crypto crypto;
+    /**
+     * The application configuration, read when the session is loaded.
+     */
+    private final ApplicationConfiguration configuration;
+    /**
+     * The session store, {@code null} if the session data is kept in the cookie.
+     */
+    private final SessionStore store;
+    /**
+     * The id under which the session data is kept in the store, {@code null} if the session is not stored yet.
+     */
+    private String storeId;
+    /**
+     * The context of the request, set by {@link #init(Context)}.
+     */
+    private Context context;
+    /**
+     * Whether the session cookie has been read.
+     */
+    private boolean loaded;
     /**
      * Has cookie been changed => only send new cookie stuff has been changed.
      */
     private boolean sessionDataHasBeenChanged = false;
 
     public SessionCookieImpl(Crypto crypto, ApplicationConfiguration configuration) {
-        applicationCookiePrefix = configuration.getWithDefault(Cookie.APPLICATION_COOKIE_PREFIX, "wisdom");
-        this.crypto = crypto;
-
-        // read configuration stuff:
-        sessionExpireTimeInMs =
-                configuration.getIntegerWithDefault(SessionCookie.SESSION_EXPIRE_TIME_SECOND, 3600) * 1000;
+        this(crypto, configuration, null);
+    }
 
+    /**
+     * Creates a session cookie keeping its data in the given store.
+     *
+     * @param crypto        the crypto service
+     * @param configuration the application configuration
+     * @param store         the session store, {@code null} to keep the session data in the cookie
+     */
+    public SessionCookieImpl(Crypto crypto, ApplicationConfiguration configuration, SessionStore store) {
+        this.crypto = crypto;
+        this.configuration = configuration;
+        this.store = store;
         this.sessionSendOnlyIfChanged = configuration.getBooleanWithDefault(
                 SessionCookie.SESSION_SEND_ONLY_IF_CHANGED, true);
-        this.sessionTransferredOverHttpsOnly = configuration
-                .getBooleanWithDefault(
-                        SessionCookie.SESSION_OVER_HTTPS_ONLY, false);
-        this.sessionHttpOnly = configuration.getBooleanWithDefault(
-                SessionCookie.SESSION_HTTP_ONLY, true);
     }
 
     /**
-     * Has to be called initially.
+     * Has to be called initially. The session cookie is only read when the session is accessed.
      *
      * @param context the current http context.
      */
     @Override
     public void init(Context context) {
+        this.context = context;
+    }
+
+    /**
+     * Reads the configuration and the session cookie, if not done already.
+     */
+    private void load() {
+        if (loaded) {
+            return;
+        }
+        loaded = true;
+
+        // read configuration stuff:
+        applicationCookiePrefix = configuration.getWithDefault(Cookie.APPLICATION_COOKIE_PREFIX, "wisdom");
+        sessionExpireTimeInMs =
+                configuration.getIntegerWithDefault(SessionCookie.SESSION_EXPIRE_TIME_SECOND, 3600) * 1000;
+        this.sessionTransferredOverHttpsOnly = configuration
+                .getBooleanWithDefault(
+                        SessionCookie.SESSION_OVER_HTTPS_ONLY, false);
+        this.sessionHttpOnly = configuration.getBooleanWithDefault(
+                SessionCookie.SESSION_HTTP_ONLY, true);
+
+        if (context == null) {
+            // Not initialized, empty session.
+            return;
+        }
+
         try {
             // get the cookie that contains session information:
             Cookie cookie = context.request().cookie(applicationCookiePrefix
@@ -104,21 +161,30 @@ public class SessionCookieImpl implements SessionCookie {
 
                 if (CookieDataCodec.safeEquals(sign,
                         crypto.sign(payload))) {
-                    CookieDataCodec.decode(data, payload);
+                    if (store == null) {
+                        CookieDataCodec.decode(data, payload);
+                    } else {
+                        // the payload is the id of the session in the store
+                        Map<String, String> stored = store.load(payload);
+                        if (stored != null) {
+                            storeId = payload;
+                            data.putAll(stored);
+                        }
+                    }
                 } else {
                     LOGGER.warn("Invalid session cookie - signature check failed");
                 }
 
                 // Make sure session contains valid timestamp
                 if (!data.containsKey(TIMESTAMP_KEY)) {
-                    data.clear();
+                    discard();
                 } else {
                     if (Long.parseLong(data.get(TIMESTAMP_KEY))
                             + sessionExpireTimeInMs < System
                             .currentTimeMillis()) {
                         // Session expired
                         sessionDataHasBeenChanged = true;
-                        data.clear();
+                        discard();
                     }
                 }
 
@@ -131,11 +197,24 @@ public class SessionCookieImpl implements SessionCookie {
         }
     }
 
+    /**
+     * Clears the session data. The data kept in the store is removed, and a new id is used when the session is saved
+     * again.
+     */
+    private void discard() {
+        data.clear();
+        if (storeId != null) {
+            store.remove(storeId);
+            storeId = null;
+        }
+    }
+
     /**
      * @return id of a session.
      */
     @Override
     public String getId() {
+        load();
         if (!data.containsKey(ID_KEY)) {
             data.put(ID_KEY, UUID.randomUUID().toString());
         }
@@ -148,11 +227,21 @@ public class SessionCookieImpl implements SessionCookie {
      */
     @Override
     public Map<String, String> getData() {
+        load();
         return data;
     }
 
     @Override
     public void save(Context context, Result result) {
+        if (!loaded) {
+            if (sessionSendOnlyIfChanged) {
+                // The session has not been accessed, so has not been changed.
+                return;
+            }
+            // The session cookie is sent on every response, to extend its lifetime.
+            load();
+        }
+
         // Don't save the cookie nothing has changed, and if we're not expiring
         // or we are expiring but we're only updating if the session changes
         if (!sessionDataHasBeenChanged && sessionSendOnlyIfChanged) {
@@ -162,6 +251,7 @@ public class SessionCookieImpl implements SessionCookie {
         }
 
         if (isEmpty()) {
+            discard();
             // It is empty, but there was a session coming in, therefore clear
             // it
             if (context.hasCookie(applicationCookiePrefix
@@ -185,7 +275,17 @@ public class SessionCookieImpl implements SessionCookie {
         }
 
         try {
-            String sessionData = CookieDataCodec.encode(data);
+            String sessionData;
+            if (store == null) {
+                sessionData = CookieDataCodec.encode(data);
+            } else {
+                // Only the id is sent to the client
+                if (storeId == null) {
+                    storeId = UUID.randomUUID().toString();
+                }
+                store.save(storeId, data, sessionExpireTimeInMs / 1000);
+                sessionData = storeId;
+            }
 
             String sign = crypto.sign(sessionData);
 
@@ -225,6 +325,7 @@ public class SessionCookieImpl implements SessionCookie {
                     "Character ':' is invalid in a session key.");
         }
 
+        load();
         sessionDataHasBeenChanged = true;
 
         if (value == null) {
@@ -243,12 +344,13 @@ public class SessionCookieImpl implements SessionCookie {
      */
     @Override
     public String get(String key) {
+        load();
         return data.get(key);
     }
 
     @Override
     public String remove(String key) {
-
+        load();
         sessionDataHasBeenChanged = true;
         String result = get(key);
         data.remove(key);
@@ -257,8 +359,9 @@ public class SessionCookieImpl implements SessionCookie {
 
     @Override
     public void clear() {
+        load();
         sessionDataHasBeenChanged = true;
-        data.clear();
+        discard();
     }
 
     /**
@@ -267,6 +370,7 @@ public class SessionCookieImpl implements SessionCookie {
      */
     @Override
     public boolean isEmpty() {
+        load();
         return data.isEmpty() || data.size() == 1 && data.containsKey(TIMESTAMP_KEY);
     }
 
@@ -0,0 +1,198 @@
+/*
+ * #%L
+ * Wisdom-Framework
+ * %%
+ * Copyright (C) 2013 - 2014 Wisdom Framework
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.wisdom.framework.vertx;
+
+import com.google.common.collect.ImmutableList;
+import org.apache.http.client.methods.CloseableHttpResponse;
+import org.apache.http.client.methods.HttpGet;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.HttpClients;
+import org.apache.http.util.EntityUtils;
+import org.junit.After;
+import org.junit.Test;
+import org.wisdom.api.Controller;
+import org.wisdom.api.DefaultController;
+import org.wisdom.api.annotations.scheduler.ExecutedBy;
+import org.wisdom.api.bodies.RenderableString;
+import org.wisdom.api.concurrent.ExecutionContextService;
+import org.wisdom.api.concurrent.ManagedExecutorService;
+import org.wisdom.api.configuration.ApplicationConfiguration;
+import org.wisdom.api.exceptions.ExceptionMapper;
+import org.wisdom.api.exceptions.HttpException;
+import org.wisdom.api.http.*;
+import org.wisdom.api.router.Route;
+import org.wisdom.api.router.RouteBuilder;
+import org.wisdom.api.router.Router;
+import org.wisdom.executors.ManagedExecutorServiceImpl;
+import org.wisdom.test.parents.FakeConfiguration;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Collections;
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Matchers.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Checks the execution of the asynchronous results.
+ */
+public class AsyncResultTest extends VertxBaseTest {
+
+    private WisdomVertxServer server;
+
+    private ManagedExecutorService custom = new ManagedExecutorServiceImpl("custom",
+            new FakeConfiguration(Collections.<String, Object>emptyMap()),
+            ImmutableList.<ExecutionContextService>of());
+
+    @After
+    public void tearDown() {
+        if (server != null) {
+            server.stop();
+            server = null;
+        }
+        custom.shutdownNow();
+    }
+
+    private void startServer(Controller controller, String method) throws Exception {
+        ApplicationConfiguration configuration = mock(ApplicationConfiguration.class);
+        when(configuration.getIntegerWithDefault(eq("vertx.http.port"), anyInt())).thenReturn(0);
+        when(configuration.getIntegerWithDefault(eq("vertx.https.port"), anyInt())).thenReturn(-1);
+        when(configuration.getIntegerWithDefault("vertx.acceptBacklog", -1)).thenReturn(-1);
+        when(configuration.getIntegerWithDefault("vertx.receiveBufferSize", -1)).thenReturn(-1);
+        when(configuration.getIntegerWithDefault("vertx.sendBufferSize", -1)).thenReturn(-1);
+        when(configuration.getStringArray("wisdom.websocket.subprotocols")).thenReturn(new String[0]);
+        when(configuration.getStringArray("vertx.websocket-subprotocols")).thenReturn(new String[0]);
+
+        Router router = mock(Router.class);
+        Route route = new RouteBuilder().route(HttpMethod.GET).on("/").to(controller, method);
+        when(router.getRouteFor(anyString(), anyString(), any(Request.class))).thenReturn(route);
+
+        server = new WisdomVertxServer();
+        server.configuration = configuration;
+        server.accessor = new ServiceAccessor(
+                null,
+                configuration,
+                router,
+                getMockContentEngine(),
+                executor,
+                null,
+                Collections.<ExceptionMapper>emptyList(),
+                ImmutableList.of(custom)
+        );
+        server.vertx = vertx;
+        server.start();
+
+        VertxHttpServerTest.waitForStart(server);
+    }
+
+    private CloseableHttpResponse get(CloseableHttpClient client) throws IOException {
+        return client.execute(new HttpGet("http://localhost:" + server.httpPort() + "/"));
+    }
+
+    @Test
+    public void testCompletionStageIsWrittenFromTheVertxContext() throws Exception {
+        AsyncController controller = new AsyncController();
+        startServer(controller, "stage");
+
+        try (CloseableHttpClient client = HttpClients.createDefault();
+             CloseableHttpResponse response = get(client)) {
+            assertThat(response.getStatusLine().getStatusCode()).isEqualTo(Status.OK);
+            assertThat(EntityUtils.toString(response.getEntity())).isEqualTo("completed by completer");
+        }
+        // The stage is completed by another thread, but the response is rendered by the event loop.
+        assertThat(controller.renderingThread).startsWith("vert.x-eventloop");
+    }
+
+    @Test
+    public void testFailedCompletionStage() throws Exception {
+        startServer(new AsyncController(), "failure");
+
+        try (CloseableHttpClient client = HttpClients.createDefault();
+             CloseableHttpResponse response = get(client)) {
+            assertThat(response.getStatusLine().getStatusCode()).isEqualTo(Status.SERVICE_UNAVAILABLE);
+            assertThat(EntityUtils.toString(response.getEntity())).contains("not now");
+        }
+    }
+
+    @Test
+    public void testAsyncResultsUseTheSelectedExecutor() throws Exception {
+        AsyncController controller = new AsyncController();
+        startServer(controller, "callable");
+
+        try (CloseableHttpClient client = HttpClients.createDefault();
+             CloseableHttpResponse response = get(client)) {
+            assertThat(response.getStatusLine().getStatusCode()).isEqualTo(Status.OK);
+            assertThat(EntityUtils.toString(response.getEntity())).startsWith("computed by custom-");
+        }
+        assertThat(controller.renderingThread).startsWith("vert.x-eventloop");
+    }
+
+    /**
+     * A controller returning asynchronous results.
+     */
+    @ExecutedBy("custom")
+    public static class AsyncController extends DefaultController {
+
+        volatile String renderingThread;
+
+        public CompletableFuture<Result> stage() {
+            CompletableFuture<Result> future = new CompletableFuture<>();
+            Thread thread = new Thread(() -> {
+                try {
+                    Thread.sleep(50);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                future.complete(ok(new RecordingRenderable("completed by " + Thread.currentThread().getName())));
+            }, "completer");
+            thread.start();
+            return future;
+        }
+
+        public CompletableFuture<Result> failure() {
+            return CompletableFuture.supplyAsync(() -> {
+                throw new HttpException(Status.SERVICE_UNAVAILABLE, "not now");
+            });
+        }
+
+        public Result callable() {
+            return async(() -> ok(new RecordingRenderable("computed by " + Thread.currentThread().getName())));
+        }
+
+        /**
+         * A renderable object recording the thread rendering the response.
+         */
+        private class RecordingRenderable extends RenderableString {
+
+            RecordingRenderable(String content) {
+                super(content);
+            }
+
+            @Override
+            public void render(Context context, Result result, OutputStream output) throws IOException {
+                renderingThread = Thread.currentThread().getName();
+                super.render(context, result, output);
+            }
+        }
+    }
+}
@@ -0,0 +1,96 @@
+/*
+ * #%L
+ * Wisdom-Framework
+ * %%
+ * Copyright (C) 2013 - 2014 Wisdom Framework
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.wisdom.framework.vertx;
+
+import org.junit.Test;
+import org.wisdom.api.http.HeaderNames;
+import org.wisdom.api.http.Result;
+import org.wisdom.api.http.Results;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Checks the parsing of the {@literal Range} header.
+ */
+public class ByteRangeTest {
+
+    @Test
+    public void testMissingOrInvalidHeaders() {
+        assertThat(ByteRange.parse(null, 100)).isNull();
+        assertThat(ByteRange.parse("", 100)).isNull();
+        assertThat(ByteRange.parse("items=0-10", 100)).isNull();
+        assertThat(ByteRange.parse("bytes=abc", 100)).isNull();
+        assertThat(ByteRange.parse("bytes=a-b", 100)).isNull();
+        assertThat(ByteRange.parse("bytes=10-5", 100)).isNull();
+        // Multiple ranges are not supported, the complete content is sent.
+        assertThat(ByteRange.parse("bytes=0-10,20-30", 100)).isNull();
+    }
+
+    @Test
+    public void testRanges() {
+        ByteRange range = ByteRange.parse("bytes=0-9", 100);
+        assertThat(range.start()).isEqualTo(0);
+        assertThat(range.end()).isEqualTo(9);
+        assertThat(range.length()).isEqualTo(10);
+        assertThat(range.toContentRange(100)).isEqualTo("bytes 0-9/100");
+
+        range = ByteRange.parse("bytes=90-", 100);
+        assertThat(range.start()).isEqualTo(90);
+        assertThat(range.end()).isEqualTo(99);
+
+        // The last position is truncated to the length.
+        range = ByteRange.parse("bytes=50-1000", 100);
+        assertThat(range.start()).isEqualTo(50);
+        assertThat(range.end()).isEqualTo(99);
+        assertThat(range.length()).isEqualTo(50);
+    }
+
+    @Test
+    public void testSuffixRanges() {
+        ByteRange range = ByteRange.parse("bytes=-10", 100);
+        assertThat(range.start()).isEqualTo(90);
+        assertThat(range.end()).isEqualTo(99);
+
+        range = ByteRange.parse("bytes=-1000", 100);
+        assertThat(range.start()).isEqualTo(0);
+        assertThat(range.end()).isEqualTo(99);
+
+        assertThat(ByteRange.parse("bytes=-0", 100)).isSameAs(ByteRange.UNSATISFIABLE);
+    }
+
+    @Test
+    public void testUnsatisfiableRanges() {
+        assertThat(ByteRange.parse("bytes=100-", 100)).isSameAs(ByteRange.UNSATISFIABLE);
+        assertThat(ByteRange.parse("bytes=200-300", 100)).isSameAs(ByteRange.UNSATISFIABLE);
+        assertThat(ByteRange.parse("bytes=-10", 0)).isSameAs(ByteRange.UNSATISFIABLE);
+        assertThat(ByteRange.UNSATISFIABLE.toContentRange(100)).isEqualTo("bytes */100");
+    }
+
+    @Test
+    public void testIfRange() {
+        Result result = Results.ok().with(HeaderNames.ETAG, "\"abc\"")
+                .with(HeaderNames.LAST_MODIFIED, "Wed, 21 Oct 2015 07:28:00 GMT");
+        assertThat(ByteRange.isApplicable(null, result)).isTrue();
+        assertThat(ByteRange.isApplicable("\"abc\"", result)).isTrue();
+        assertThat(ByteRange.isApplicable("Wed, 21 Oct 2015 07:28:00 GMT", result)).isTrue();
+        assertThat(ByteRange.isApplicable("\"def\"", result)).isFalse();
+        assertThat(ByteRange.isApplicable("\"abc\"", Results.ok())).isFalse();
+    }
+}
@@ -24,6 +24,17 @@ import io.vertx.core.buffer.Buffer;
 import io.vertx.core.http.HttpClientOptions;
 import org.apache.commons.io.FileUtils;
 import org.apache.commons.io.IOUtils;
+import org.apache.http.Header;
+import org.apache.http.client.methods.CloseableHttpResponse;
+import org.apache.http.client.methods.HttpGet;
+import org.apache.http.conn.HttpConnectionFactory;
+import org.apache.http.conn.ManagedHttpClientConnection;
+import org.apache.http.conn.routing.HttpRoute;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.HttpClients;
+import org.apache.http.impl.conn.ManagedHttpClientConnectionFactory;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.apache.http.util.EntityUtils;
 import org.junit.After;
 import org.junit.Test;
 import org.wisdom.api.Controller;
@@ -31,6 +42,7 @@ import org.wisdom.api.DefaultController;
 import org.wisdom.api.configuration.ApplicationConfiguration;
 import org.wisdom.api.content.ContentEngine;
 import org.wisdom.api.exceptions.ExceptionMapper;
+import org.wisdom.api.http.HeaderNames;
 import org.wisdom.api.http.HttpMethod;
 import org.wisdom.api.http.Request;
 import org.wisdom.api.http.Result;
@@ -47,6 +59,7 @@ import java.net.URL;
 import java.util.Collections;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.zip.ZipEntry;
 import java.util.zip.ZipFile;
 
@@ -62,6 +75,10 @@ import static org.mockito.Mockito.*;
  */
 public class ChunkedResponseTest extends VertxBaseTest {
 
+    private static final int LARGE_CONTENT_SIZE = 4 * 1024 * 1024;
+
+    private static final int DOWNLOADS_PER_CLIENT = 6;
+
     private WisdomVertxServer server;
 
     @After
@@ -393,6 +410,116 @@ public class ChunkedResponseTest extends VertxBaseTest {
         assertThat(success).hasSize(NUMBER_OF_CLIENTS);
     }
 
+    @Test
+    public void testConnectionsAreReusedForLargeDownloads() throws InterruptedException, IOException {
+        // Prepare the configuration
+        ApplicationConfiguration configuration = mock(ApplicationConfiguration.class);
+        when(configuration.getIntegerWithDefault(eq("vertx.http.port"), anyInt())).thenReturn(0);
+        when(configuration.getIntegerWithDefault(eq("vertx.https.port"), anyInt())).thenReturn(-1);
+        when(configuration.getIntegerWithDefault("vertx.acceptBacklog", -1)).thenReturn(-1);
+        when(configuration.getIntegerWithDefault("vertx.receiveBufferSize", -1)).thenReturn(-1);
+        when(configuration.getIntegerWithDefault("vertx.sendBufferSize", -1)).thenReturn(-1);
+        when(configuration.getStringArray("wisdom.websocket.subprotocols")).thenReturn(new String[0]);
+        when(configuration.getStringArray("vertx.websocket-subprotocols")).thenReturn(new String[0]);
+
+        // Large content, bigger than the socket buffers, so the pump has to pause and resume the stream.
+        final byte[] content = new byte[LARGE_CONTENT_SIZE];
+        RANDOM.nextBytes(content);
+        final File img = new File("src/test/resources/owl.png");
+
+        // Prepare the router with a controller
+        Controller controller = new DefaultController() {
+            @SuppressWarnings("unused")
+            public Result index() {
+                if ("file".equals(context().parameter("kind"))) {
+                    // Known length
+                    return ok(img);
+                }
+                // Unknown length
+                return ok(new ByteArrayInputStream(content));
+            }
+        };
+        Router router = mock(Router.class);
+        final Route route = new RouteBuilder().route(HttpMethod.GET)
+                .on("/")
+                .to(controller, "index");
+        doAnswer(invocationOnMock -> route).when(router).getRouteFor(anyString(), anyString(), any(Request.class));
+
+        // Configure the server.
+        server = new WisdomVertxServer();
+        server.configuration = configuration;
+        server.accessor = new ServiceAccessor(
+                null,
+                configuration,
+                router,
+                getMockContentEngine(),
+                executor,
+                null,
+                Collections.<ExceptionMapper>emptyList()
+        );
+        server.vertx = vertx;
+        server.start();
+
+        VertxHttpServerTest.waitForStart(server);
+
+        // Count the connections opened by the clients.
+        final AtomicInteger connections = new AtomicInteger();
+        HttpConnectionFactory<HttpRoute, ManagedHttpClientConnection> factory = (r, config) -> {
+            connections.incrementAndGet();
+            return ManagedHttpClientConnectionFactory.INSTANCE.create(r, config);
+        };
+        PoolingHttpClientConnectionManager manager = new PoolingHttpClientConnectionManager(factory);
+        manager.setMaxTotal(NUMBER_OF_CLIENTS);
+        manager.setDefaultMaxPerRoute(NUMBER_OF_CLIENTS);
+        final byte[] expectedImage = FileUtils.readFileToByteArray(img);
+
+        try (CloseableHttpClient client = HttpClients.custom().setConnectionManager(manager).build()) {
+            CountDownLatch startSignal = new CountDownLatch(1);
+            CountDownLatch doneSignal = new CountDownLatch(NUMBER_OF_CLIENTS);
+            int port = server.httpPort();
+
+            for (int i = 0; i < NUMBER_OF_CLIENTS; ++i) {
+                final int id = i;
+                clients.submit(() -> {
+                    try {
+                        startSignal.await();
+                        for (int j = 0; j < DOWNLOADS_PER_CLIENT; j++) {
+                            boolean file = j % 2 == 0;
+                            HttpGet get = new HttpGet("http://localhost:" + port + "/?kind=" + (file ? "file" :
+                                    "stream"));
+                            try (CloseableHttpResponse response = client.execute(get)) {
+                                byte[] body = EntityUtils.toByteArray(response.getEntity());
+                                Header connection = response.getFirstHeader(HeaderNames.CONNECTION);
+                                if (!isOk(response)
+                                        || connection == null || "close".equalsIgnoreCase(connection.getValue())
+                                        || !containsExactly(body, file ? expectedImage : content)) {
+                                    System.err.println("Bad response for " + id + " got : " + response
+                                            .getStatusLine() + " / " + connection + " / " + body.length);
+                                    fail(id);
+                                    return;
+                                }
+                            }
+                        }
+                        success(id);
+                    } catch (Throwable ex) {
+                        ex.printStackTrace();
+                        fail(id);
+                    } finally {
+                        doneSignal.countDown();
+                    }
+                });
+            }
+
+            startSignal.countDown();      // let all threads proceed
+            assertThat(doneSignal.await(60, TimeUnit.SECONDS)).isTrue();
+        }
+
+        assertThat(failure).isEmpty();
+        assertThat(success).hasSize(NUMBER_OF_CLIENTS);
+        // Each client has downloaded several large contents, but connections were reused.
+        assertThat(connections.get()).isLessThanOrEqualTo(NUMBER_OF_CLIENTS);
+    }
+
     private class DownloadClient implements Runnable {
         private final CountDownLatch startSignal;
         private final CountDownLatch doneSignal;
@@ -24,20 +24,30 @@ import io.netty.handler.codec.http.HttpMethod;
 import io.netty.handler.codec.http.HttpRequest;
 import io.netty.handler.codec.http.HttpVersion;
 import io.vertx.core.Vertx;
+import io.vertx.core.buffer.Buffer;
+import org.apache.commons.io.IOUtils;
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
+import org.mockito.ArgumentCaptor;
 import org.wisdom.api.Controller;
 import org.wisdom.api.DefaultController;
 import org.wisdom.api.configuration.ApplicationConfiguration;
 import org.wisdom.api.cookies.Cookie;
+import org.wisdom.api.cookies.SessionCookie;
+import org.wisdom.api.cookies.SessionStore;
+import org.wisdom.api.crypto.Crypto;
 import org.wisdom.api.http.HeaderNames;
 import org.wisdom.api.http.Result;
 import org.wisdom.api.router.Route;
 
+import java.util.HashMap;
+import java.util.Map;
+
 import static org.assertj.core.api.Assertions.assertThat;
-import static org.mockito.Mockito.mock;
-import static org.mockito.Mockito.when;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Mockito.*;
 
 public class ContextFromVertxTest {
 
@@ -74,6 +84,18 @@ public class ContextFromVertxTest {
         assertThat(id1).isLessThan(context.id());
     }
 
+    @Test
+    public void testBodyStreams() throws Exception {
+        HttpRequest req = new DefaultFullHttpRequest(HttpVersion.HTTP_1_1, HttpMethod.POST, "/");
+        ContextFromVertx context = new ContextFromVertx(vertx, accessor, RequestFromVertXTest.create(req));
+        ((RequestFromVertx) context.request()).setRawBody(Buffer.buffer("hello"));
+        // Each stream reads the received buffer from the beginning.
+        assertThat(IOUtils.toString(context.stream())).isEqualTo("hello");
+        assertThat(IOUtils.toString(context.stream())).isEqualTo("hello");
+        assertThat(IOUtils.toString(context.reader())).isEqualTo("hello");
+        assertThat(context.body()).isEqualTo("hello");
+    }
+
     @Test
     public void testRequest() throws Exception {
         HttpRequest req = new DefaultFullHttpRequest(HttpVersion.HTTP_1_1, HttpMethod.GET, "/");
@@ -124,6 +146,107 @@ public class ContextFromVertxTest {
         assertThat(context.hasCookie("GeoIP")).isFalse();
     }
 
+    @Test
+    public void testSessionAndFlashAreReadLazily() throws Exception {
+        Crypto crypto = mock(Crypto.class);
+        when(crypto.sign(anyString())).thenReturn("signature");
+        when(accessor.getCrypto()).thenReturn(crypto);
+        when(configuration.getBooleanWithDefault(SessionCookie.SESSION_SEND_ONLY_IF_CHANGED, true)).thenReturn(true);
+        when(configuration.getIntegerWithDefault(SessionCookie.SESSION_EXPIRE_TIME_SECOND, 3600)).thenReturn(3600);
+
+        HttpRequest req = new DefaultFullHttpRequest(HttpVersion.HTTP_1_1, HttpMethod.GET, "/");
+        req.headers().set(HeaderNames.COOKIE, "wisdom_SESSION=signature-___TS=" + System.currentTimeMillis()
+                + "&user=wisdom; wisdom_FLASH=success=done");
+
+        // Neither read nor modified, nothing is verified nor sent back.
+        ContextFromVertx context = new ContextFromVertx(vertx, accessor, RequestFromVertXTest.create(req));
+        Result result = mock(Result.class);
+        context.session().save(context, result);
+        verify(crypto, never()).sign(anyString());
+        verify(result, never()).with(any(Cookie.class));
+
+        // Read, the cookie is verified once, and not sent back.
+        context = new ContextFromVertx(vertx, accessor, RequestFromVertXTest.create(req));
+        assertThat(context.session().get("user")).isEqualTo("wisdom");
+        assertThat(context.session().getId()).isNotNull();
+        assertThat(context.flash().get("success")).isEqualTo("done");
+        result = mock(Result.class);
+        context.session().save(context, result);
+        verify(crypto, times(1)).sign(anyString());
+        verify(result, never()).with(any(Cookie.class));
+
+        // Modified, the cookie is signed and sent back.
+        context = new ContextFromVertx(vertx, accessor, RequestFromVertXTest.create(req));
+        context.session().put("user", "another");
+        result = mock(Result.class);
+        context.session().save(context, result);
+        verify(crypto, times(3)).sign(anyString());
+        verify(result, times(1)).with(any(Cookie.class));
+    }
+
+    @Test
+    public void testSessionKeptInStore() throws Exception {
+        final Map<String, Map<String, String>> sessions = new HashMap<>();
+        SessionStore store = new SessionStore() {
+            @Override
+            public String name() {
+                return "memory";
+            }
+
+            @Override
+            public Map<String, String> load(String id) {
+                Map<String, String> data = sessions.get(id);
+                return data == null ? null : new HashMap<>(data);
+            }
+
+            @Override
+            public void save(String id, Map<String, String> data, int ttl) {
+                sessions.put(id, new HashMap<>(data));
+            }
+
+            @Override
+            public void remove(String id) {
+                sessions.remove(id);
+            }
+        };
+        Crypto crypto = mock(Crypto.class);
+        when(crypto.sign(anyString())).thenReturn("signature");
+        when(accessor.getCrypto()).thenReturn(crypto);
+        when(accessor.getSessionStore()).thenReturn(store);
+        when(configuration.getBooleanWithDefault(SessionCookie.SESSION_SEND_ONLY_IF_CHANGED, true)).thenReturn(true);
+        when(configuration.getIntegerWithDefault(SessionCookie.SESSION_EXPIRE_TIME_SECOND, 3600)).thenReturn(3600);
+
+        // The data is stored, the cookie only contains the signed id.
+        HttpRequest req = new DefaultFullHttpRequest(HttpVersion.HTTP_1_1, HttpMethod.GET, "/");
+        ContextFromVertx context = new ContextFromVertx(vertx, accessor, RequestFromVertXTest.create(req));
+        context.session().put("user", "wisdom");
+        Result result = mock(Result.class);
+        context.session().save(context, result);
+        ArgumentCaptor<Cookie> captor = ArgumentCaptor.forClass(Cookie.class);
+        verify(result).with(captor.capture());
+        assertThat(sessions).hasSize(1);
+        String id = sessions.keySet().iterator().next();
+        assertThat(captor.getValue().value()).isEqualTo("signature-" + id);
+        assertThat(sessions.get(id)).containsEntry("user", "wisdom");
+
+        // The data is read from the store.
+        req = new DefaultFullHttpRequest(HttpVersion.HTTP_1_1, HttpMethod.GET, "/");
+        req.headers().set(HeaderNames.COOKIE, "wisdom_SESSION=signature-" + id);
+        context = new ContextFromVertx(vertx, accessor, RequestFromVertXTest.create(req));
+        assertThat(context.session().get("user")).isEqualTo("wisdom");
+
+        // Clearing the session removes it from the store.
+        context.session().clear();
+        result = mock(Result.class);
+        context.session().save(context, result);
+        assertThat(sessions).isEmpty();
+
+        // Unknown sessions are empty.
+        context = new ContextFromVertx(vertx, accessor, RequestFromVertXTest.create(req));
+        assertThat(context.session().get("user")).isNull();
+        assertThat(context.session().isEmpty()).isTrue();
+    }
+
     @Test
     public void testParameterFromQuery() throws Exception {
         HttpRequest req = new DefaultFullHttpRequest(HttpVersion.HTTP_1_1, HttpMethod.GET, "/foo?k=v&i=5&b=true");
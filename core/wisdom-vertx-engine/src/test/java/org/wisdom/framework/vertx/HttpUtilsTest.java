@@ -19,11 +19,15 @@
  */
 package org.wisdom.framework.vertx;
 
+import com.google.common.base.Charsets;
 import io.vertx.core.MultiMap;
+import io.vertx.core.buffer.Buffer;
 import io.vertx.core.http.HttpMethod;
 import io.vertx.core.http.HttpServerRequest;
 import io.vertx.core.http.HttpVersion;
 import org.junit.Test;
+import org.wisdom.api.bodies.RenderableByteArray;
+import org.wisdom.api.bodies.RenderableString;
 import org.wisdom.api.http.HeaderNames;
 import org.wisdom.api.http.Result;
 import org.wisdom.api.http.Status;
@@ -70,6 +74,21 @@ public class HttpUtilsTest {
                 .isEqualTo("application/json");
     }
 
+    @Test
+    public void testProcessResultAsBufferWrapsBytesAndStrings() throws Exception {
+        byte[] bytes = "hello".getBytes(Charsets.UTF_8);
+        Result result = new Result(Status.OK).render(new RenderableByteArray(bytes));
+        Buffer buffer = HttpUtils.processResultAsBuffer(null, null, result.getRenderable(), result);
+        // The array is not copied.
+        bytes[0] = 'j';
+        assertThat(buffer.toString("UTF-8")).isEqualTo("jello");
+
+        result = new Result(Status.OK).render(new RenderableString("h\u00e9llo"));
+        buffer = HttpUtils.processResultAsBuffer(null, null, result.getRenderable(), result);
+        assertThat(buffer.toString("UTF-8")).isEqualTo("h\u00e9llo");
+        assertThat(result.getCharset()).isEqualTo(Charsets.UTF_8);
+    }
+
     @Test
     public void testIsPostOrPut() throws Exception {
         HttpServerRequest req = mock(HttpServerRequest.class);
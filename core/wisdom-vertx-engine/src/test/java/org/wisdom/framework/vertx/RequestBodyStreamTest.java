@@ -0,0 +1,127 @@
+/*
+ * #%L
+ * Wisdom-Framework
+ * %%
+ * Copyright (C) 2013 - 2014 Wisdom Framework
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.wisdom.framework.vertx;
+
+import io.vertx.core.Context;
+import io.vertx.core.Handler;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.streams.ReadStream;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Checks the stream giving access to the request body while it is received.
+ */
+public class RequestBodyStreamTest {
+
+    private ReadStream<Buffer> request;
+    private Context context;
+
+    @Before
+    @SuppressWarnings("unchecked")
+    public void setUp() {
+        request = mock(ReadStream.class);
+        context = mock(Context.class);
+        // Execute the actions scheduled on the context immediately.
+        doAnswer(invocation -> {
+            ((Handler<Void>) invocation.getArguments()[0]).handle(null);
+            return null;
+        }).when(context).runOnContext(any(Handler.class));
+    }
+
+    @Test
+    public void testReadingChunks() throws IOException {
+        RequestBodyStream stream = new RequestBodyStream(request, context, 1024);
+        stream.write(Buffer.buffer("hello "));
+        stream.write(Buffer.buffer("world"));
+        stream.end();
+
+        byte[] bytes = new byte[64];
+        int read = stream.read(bytes, 0, 3);
+        assertThat(new String(bytes, 0, read)).isEqualTo("hel");
+        read = stream.read(bytes, 0, 64);
+        assertThat(new String(bytes, 0, read)).isEqualTo("lo ");
+        assertThat(stream.available()).isEqualTo(5);
+        read = stream.read(bytes, 0, 64);
+        assertThat(new String(bytes, 0, read)).isEqualTo("world");
+        assertThat(stream.read()).isEqualTo(-1);
+        verify(request, never()).pause();
+    }
+
+    @Test
+    public void testRequestPausedWhenBufferIsFull() throws IOException {
+        RequestBodyStream stream = new RequestBodyStream(request, context, 10);
+        stream.write(Buffer.buffer("0123456789"));
+        verify(request, times(1)).pause();
+        stream.write(Buffer.buffer("abc"));
+        verify(request, times(1)).pause();
+
+        byte[] bytes = new byte[4];
+        assertThat(stream.read(bytes)).isEqualTo(4);
+        // 9 bytes are still pending
+        verify(request, never()).resume();
+        assertThat(stream.read(bytes)).isEqualTo(4);
+        verify(request, times(1)).resume();
+    }
+
+    @Test
+    public void testReaderWaitsForChunks() throws Exception {
+        RequestBodyStream stream = new RequestBodyStream(request, context, 1024);
+        Thread writer = new Thread(() -> {
+            try {
+                Thread.sleep(100);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            stream.write(Buffer.buffer("data"));
+            stream.end();
+        });
+        writer.start();
+        assertThat(stream.read()).isEqualTo('d');
+        writer.join();
+    }
+
+    @Test(expected = IOException.class)
+    public void testFailure() throws IOException {
+        RequestBodyStream stream = new RequestBodyStream(request, context, 1024);
+        stream.write(Buffer.buffer("a"));
+        stream.fail(new IOException("connection reset"));
+        assertThat(stream.read()).isEqualTo('a');
+        stream.read();
+    }
+
+    @Test
+    public void testCloseDiscardsPendingChunks() throws IOException {
+        RequestBodyStream stream = new RequestBodyStream(request, context, 4);
+        stream.write(Buffer.buffer("0123456789"));
+        verify(request).pause();
+        stream.close();
+        // The request is resumed to read (and ignore) the rest of the body.
+        verify(request).resume();
+        stream.write(Buffer.buffer("ignored"));
+        assertThat(stream.available()).isEqualTo(0);
+    }
+}
@@ -0,0 +1,219 @@
+/*
+ * #%L
+ * Wisdom-Framework
+ * %%
+ * Copyright (C) 2013 - 2014 Wisdom Framework
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.wisdom.framework.vertx;
+
+import org.apache.commons.io.FileUtils;
+import org.apache.http.client.methods.CloseableHttpResponse;
+import org.apache.http.client.methods.HttpGet;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.HttpClients;
+import org.apache.http.util.EntityUtils;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.wisdom.api.Controller;
+import org.wisdom.api.DefaultController;
+import org.wisdom.api.configuration.ApplicationConfiguration;
+import org.wisdom.api.exceptions.ExceptionMapper;
+import org.wisdom.api.http.HeaderNames;
+import org.wisdom.api.http.HttpMethod;
+import org.wisdom.api.http.Request;
+import org.wisdom.api.http.Result;
+import org.wisdom.api.http.Status;
+import org.wisdom.api.router.Route;
+import org.wisdom.api.router.RouteBuilder;
+import org.wisdom.api.router.Router;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyInt;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Checks that files from the local file system are sent by the server, with support for byte ranges.
+ */
+public class SendFileTest extends VertxBaseTest {
+
+    private static final File FILE = new File("src/test/resources/owl.png");
+
+    private WisdomVertxServer server;
+
+    private byte[] expected;
+
+    @Before
+    public void setUp() throws InterruptedException, IOException {
+        expected = FileUtils.readFileToByteArray(FILE);
+
+        // Prepare the configuration
+        ApplicationConfiguration configuration = mock(ApplicationConfiguration.class);
+        when(configuration.getIntegerWithDefault(eq("vertx.http.port"), anyInt())).thenReturn(0);
+        when(configuration.getIntegerWithDefault(eq("vertx.https.port"), anyInt())).thenReturn(-1);
+        when(configuration.getIntegerWithDefault("vertx.acceptBacklog", -1)).thenReturn(-1);
+        when(configuration.getIntegerWithDefault("vertx.receiveBufferSize", -1)).thenReturn(-1);
+        when(configuration.getIntegerWithDefault("vertx.sendBufferSize", -1)).thenReturn(-1);
+        when(configuration.getStringArray("wisdom.websocket.subprotocols")).thenReturn(new String[0]);
+        when(configuration.getStringArray("vertx.websocket-subprotocols")).thenReturn(new String[0]);
+
+        // Prepare the router with a controller
+        Controller controller = new DefaultController() {
+            @SuppressWarnings("unused")
+            public Result index() throws IOException {
+                if ("url".equals(context().parameter("kind"))) {
+                    return ok(FILE.toURI().toURL());
+                }
+                return ok(FILE).with(HeaderNames.ETAG, "\"owl\"");
+            }
+        };
+        Router router = mock(Router.class);
+        final Route route = new RouteBuilder().route(HttpMethod.GET)
+                .on("/")
+                .to(controller, "index");
+        doAnswer(invocationOnMock -> route).when(router).getRouteFor(anyString(), anyString(), any(Request.class));
+
+        // Configure the server.
+        server = new WisdomVertxServer();
+        server.configuration = configuration;
+        server.accessor = new ServiceAccessor(
+                null,
+                configuration,
+                router,
+                getMockContentEngine(),
+                executor,
+                null,
+                Collections.<ExceptionMapper>emptyList()
+        );
+        server.vertx = vertx;
+        server.start();
+
+        VertxHttpServerTest.waitForStart(server);
+    }
+
+    @After
+    public void tearDown() {
+        if (server != null) {
+            server.stop();
+            server = null;
+        }
+    }
+
+    private String url(String kind) {
+        return "http://localhost:" + server.httpPort() + "/?kind=" + kind;
+    }
+
+    @Test
+    public void testCompleteFile() throws IOException {
+        try (CloseableHttpClient client = HttpClients.createDefault()) {
+            // Download the file several times on the same connection.
+            for (int i = 0; i < 3; i++) {
+                for (String kind : new String[]{"file", "url"}) {
+                    try (CloseableHttpResponse response = client.execute(new HttpGet(url(kind)))) {
+                        assertThat(response.getStatusLine().getStatusCode()).isEqualTo(Status.OK);
+                        assertThat(response.getFirstHeader(HeaderNames.ACCEPT_RANGES).getValue()).isEqualTo("bytes");
+                        assertThat(response.getFirstHeader(HeaderNames.CONNECTION).getValue())
+                                .isEqualTo("keep-alive");
+                        assertThat(response.getFirstHeader(HeaderNames.CONTENT_LENGTH).getValue())
+                                .isEqualTo(Long.toString(FILE.length()));
+                        assertThat(response.getFirstHeader(HeaderNames.CONTENT_TYPE).getValue())
+                                .isEqualTo("image/png");
+                        assertThat(containsExactly(EntityUtils.toByteArray(response.getEntity()), expected))
+                                .isTrue();
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testRange() throws IOException {
+        try (CloseableHttpClient client = HttpClients.createDefault()) {
+            for (String kind : new String[]{"file", "url"}) {
+                HttpGet get = new HttpGet(url(kind));
+                get.setHeader(HeaderNames.RANGE, "bytes=10-99");
+                try (CloseableHttpResponse response = client.execute(get)) {
+                    assertThat(response.getStatusLine().getStatusCode()).isEqualTo(Status.PARTIAL_CONTENT);
+                    assertThat(response.getFirstHeader(HeaderNames.CONTENT_RANGE).getValue())
+                            .isEqualTo("bytes 10-99/" + FILE.length());
+                    assertThat(response.getFirstHeader(HeaderNames.CONTENT_LENGTH).getValue()).isEqualTo("90");
+                    assertThat(EntityUtils.toByteArray(response.getEntity()))
+                            .isEqualTo(Arrays.copyOfRange(expected, 10, 100));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testSuffixRange() throws IOException {
+        try (CloseableHttpClient client = HttpClients.createDefault()) {
+            HttpGet get = new HttpGet(url("file"));
+            get.setHeader(HeaderNames.RANGE, "bytes=-100");
+            try (CloseableHttpResponse response = client.execute(get)) {
+                assertThat(response.getStatusLine().getStatusCode()).isEqualTo(Status.PARTIAL_CONTENT);
+                assertThat(response.getFirstHeader(HeaderNames.CONTENT_RANGE).getValue())
+                        .isEqualTo("bytes " + (FILE.length() - 100) + "-" + (FILE.length() - 1) + "/" + FILE.length());
+                assertThat(EntityUtils.toByteArray(response.getEntity()))
+                        .isEqualTo(Arrays.copyOfRange(expected, expected.length - 100, expected.length));
+            }
+        }
+    }
+
+    @Test
+    public void testUnsatisfiableRange() throws IOException {
+        try (CloseableHttpClient client = HttpClients.createDefault()) {
+            HttpGet get = new HttpGet(url("file"));
+            get.setHeader(HeaderNames.RANGE, "bytes=" + FILE.length() + "-");
+            try (CloseableHttpResponse response = client.execute(get)) {
+                assertThat(response.getStatusLine().getStatusCode())
+                        .isEqualTo(Status.REQUESTED_RANGE_NOT_SATISFIABLE);
+                assertThat(response.getFirstHeader(HeaderNames.CONTENT_RANGE).getValue())
+                        .isEqualTo("bytes */" + FILE.length());
+                EntityUtils.consume(response.getEntity());
+            }
+        }
+    }
+
+    @Test
+    public void testIfRange() throws IOException {
+        try (CloseableHttpClient client = HttpClients.createDefault()) {
+            // Matching ETag, the range is applied
+            HttpGet get = new HttpGet(url("file"));
+            get.setHeader(HeaderNames.RANGE, "bytes=0-9");
+            get.setHeader(HeaderNames.IF_RANGE, "\"owl\"");
+            try (CloseableHttpResponse response = client.execute(get)) {
+                assertThat(response.getStatusLine().getStatusCode()).isEqualTo(Status.PARTIAL_CONTENT);
+                assertThat(EntityUtils.toByteArray(response.getEntity()))
+                        .isEqualTo(Arrays.copyOfRange(expected, 0, 10));
+            }
+
+            // The file has changed, the complete file is sent.
+            get.setHeader(HeaderNames.IF_RANGE, "\"another-owl\"");
+            try (CloseableHttpResponse response = client.execute(get)) {
+                assertThat(response.getStatusLine().getStatusCode()).isEqualTo(Status.OK);
+                assertThat(containsExactly(EntityUtils.toByteArray(response.getEntity()), expected)).isTrue();
+            }
+        }
+    }
+}
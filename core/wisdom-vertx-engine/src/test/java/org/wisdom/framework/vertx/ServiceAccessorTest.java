@@ -0,0 +1,129 @@
+/*
+ * #%L
+ * Wisdom-Framework
+ * %%
+ * Copyright (C) 2013 - 2014 Wisdom Framework
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.wisdom.framework.vertx;
+
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.read.ListAppender;
+import org.junit.Test;
+import org.slf4j.LoggerFactory;
+import org.wisdom.api.concurrent.ManagedExecutorService;
+import org.wisdom.api.configuration.ApplicationConfiguration;
+import org.wisdom.api.cookies.SessionCookie;
+import org.wisdom.api.cookies.SessionStore;
+import org.wisdom.api.exceptions.ExceptionMapper;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+public class ServiceAccessorTest {
+
+    @Test
+    public void testSessionStoreIsResolvedOnce() {
+        ApplicationConfiguration configuration = mock(ApplicationConfiguration.class);
+        when(configuration.get(SessionCookie.SESSION_STORE)).thenReturn("memory");
+        SessionStore store = store("memory");
+        ServiceAccessor accessor = accessor(configuration, Collections.singletonList(store));
+
+        assertThat(accessor.getSessionStore()).isSameAs(store);
+        assertThat(accessor.getSessionStore()).isSameAs(store);
+        verify(configuration, times(1)).get(SessionCookie.SESSION_STORE);
+        verify(store, times(1)).name();
+    }
+
+    @Test
+    public void testSessionStoreIsResolvedAgainWhenInvalidated() {
+        ApplicationConfiguration configuration = mock(ApplicationConfiguration.class);
+        when(configuration.get(SessionCookie.SESSION_STORE)).thenReturn("memory");
+        List<SessionStore> stores = new CopyOnWriteArrayList<>();
+        ServiceAccessor accessor = accessor(configuration, stores);
+
+        // Missing store, the data is kept in the cookie.
+        assertThat(accessor.getSessionStore()).isNull();
+
+        // The store arrives.
+        SessionStore memory = store("memory");
+        stores.add(memory);
+        assertThat(accessor.getSessionStore()).isNull();
+        accessor.invalidateSessionStore();
+        assertThat(accessor.getSessionStore()).isSameAs(memory);
+
+        // The configuration changes.
+        SessionStore other = store("other");
+        stores.add(other);
+        when(configuration.get(SessionCookie.SESSION_STORE)).thenReturn("other");
+        accessor.invalidateSessionStore();
+        assertThat(accessor.getSessionStore()).isSameAs(other);
+
+        when(configuration.get(SessionCookie.SESSION_STORE)).thenReturn(SessionStore.COOKIE);
+        accessor.invalidateSessionStore();
+        assertThat(accessor.getSessionStore()).isNull();
+    }
+
+    @Test
+    public void testMissingExecutorsFallBackToTheSystemExecutorWithAWarning() {
+        ManagedExecutorService system = executor(ManagedExecutorService.SYSTEM);
+        ManagedExecutorService io = executor("io");
+        ServiceAccessor accessor = new ServiceAccessor(null, mock(ApplicationConfiguration.class), null, null,
+                system, null, Collections.<ExceptionMapper>emptyList(), Arrays.asList(system, io));
+
+        Logger logger = (Logger) LoggerFactory.getLogger(ServiceAccessor.class);
+        ListAppender<ILoggingEvent> appender = new ListAppender<>();
+        appender.start();
+        logger.addAppender(appender);
+        try {
+            assertThat(accessor.getExecutor(null)).isSameAs(system);
+            assertThat(accessor.getExecutor("io")).isSameAs(io);
+            assertThat(appender.list).isEmpty();
+
+            // The warning is logged once per missing executor.
+            assertThat(accessor.getExecutor("missing")).isSameAs(system);
+            assertThat(accessor.getExecutor("missing")).isSameAs(system);
+            assertThat(accessor.getExecutor("other")).isSameAs(system);
+            assertThat(appender.list).hasSize(2);
+            assertThat(appender.list.get(0).getFormattedMessage()).contains("'missing'");
+            assertThat(appender.list.get(1).getFormattedMessage()).contains("'other'");
+        } finally {
+            logger.detachAppender(appender);
+        }
+    }
+
+    private static ManagedExecutorService executor(String name) {
+        ManagedExecutorService executor = mock(ManagedExecutorService.class);
+        when(executor.name()).thenReturn(name);
+        return executor;
+    }
+
+    private static SessionStore store(String name) {
+        SessionStore store = mock(SessionStore.class);
+        when(store.name()).thenReturn(name);
+        return store;
+    }
+
+    private static ServiceAccessor accessor(ApplicationConfiguration configuration, List<SessionStore> stores) {
+        return new ServiceAccessor(null, configuration, null, null, null, null,
+                Collections.<ExceptionMapper>emptyList(), Collections.<ManagedExecutorService>emptyList(), stores);
+    }
+}
@@ -0,0 +1,166 @@
+/*
+ * #%L
+ * Wisdom-Framework
+ * %%
+ * Copyright (C) 2013 - 2014 Wisdom Framework
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.wisdom.framework.vertx;
+
+import org.apache.http.client.methods.CloseableHttpResponse;
+import org.apache.http.client.methods.HttpPost;
+import org.apache.http.entity.ByteArrayEntity;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.HttpClients;
+import org.apache.http.util.EntityUtils;
+import org.junit.After;
+import org.junit.Test;
+import org.wisdom.api.DefaultController;
+import org.wisdom.api.annotations.Body;
+import org.wisdom.api.configuration.ApplicationConfiguration;
+import org.wisdom.api.exceptions.ExceptionMapper;
+import org.wisdom.api.http.*;
+import org.wisdom.api.router.Route;
+import org.wisdom.api.router.Router;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Collections;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Matchers.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Checks that request bodies can be streamed to the action methods.
+ */
+public class StreamedBodyTest extends VertxBaseTest {
+
+    private WisdomVertxServer server;
+
+    @After
+    public void tearDown() {
+        if (server != null) {
+            server.stop();
+            server = null;
+        }
+    }
+
+    private void startServer(StreamingController controller, String method) throws Exception {
+        ApplicationConfiguration configuration = mock(ApplicationConfiguration.class);
+        when(configuration.getIntegerWithDefault(eq("vertx.http.port"), anyInt())).thenReturn(0);
+        when(configuration.getIntegerWithDefault(eq("vertx.https.port"), anyInt())).thenReturn(-1);
+        when(configuration.getIntegerWithDefault("vertx.acceptBacklog", -1)).thenReturn(-1);
+        when(configuration.getIntegerWithDefault("vertx.receiveBufferSize", -1)).thenReturn(-1);
+        when(configuration.getIntegerWithDefault("vertx.sendBufferSize", -1)).thenReturn(-1);
+        when(configuration.getIntegerWithDefault("request.body.max.size", 100 * 1024)).thenReturn(100 * 1024);
+        when(configuration.getIntegerWithDefault("request.body.stream.buffer.size", 64 * 1024))
+                .thenReturn(16 * 1024);
+        when(configuration.getStringArray("wisdom.websocket.subprotocols")).thenReturn(new String[0]);
+        when(configuration.getStringArray("vertx.websocket-subprotocols")).thenReturn(new String[0]);
+
+        // The router is mocked, so the route injects the parameter itself.
+        Route route = new Route(HttpMethod.POST, "/", controller,
+                StreamingController.class.getMethod(method, InputStream.class)) {
+            @Override
+            public Result invoke() throws Exception {
+                InputStream body = Context.CONTEXT.get().stream();
+                return (Result) getControllerMethod().invoke(controller, body);
+            }
+        };
+        assertThat(route.isStreamingBody()).isTrue();
+        Router router = mock(Router.class);
+        when(router.getRouteFor(anyString(), anyString(), any(Request.class))).thenReturn(route);
+
+        server = new WisdomVertxServer();
+        server.accessor = new ServiceAccessor(
+                null,
+                configuration,
+                router,
+                getMockContentEngine(),
+                executor,
+                null,
+                Collections.<ExceptionMapper>emptyList()
+        );
+        server.configuration = configuration;
+        server.vertx = vertx;
+        server.start();
+
+        VertxHttpServerTest.waitForStart(server);
+    }
+
+    @Test
+    public void testBodyLargerThanTheMaximumSizeIsStreamed() throws Exception {
+        startServer(new StreamingController(), "count");
+        // 2 Mb, far beyond the maximum size of buffered bodies.
+        byte[] content = new byte[2 * 1024 * 1024];
+        for (int i = 0; i < content.length; i++) {
+            content[i] = (byte) i;
+        }
+
+        try (CloseableHttpClient client = HttpClients.createDefault()) {
+            HttpPost post = new HttpPost("http://localhost:" + server.httpPort() + "/");
+            post.setEntity(new ByteArrayEntity(content));
+            try (CloseableHttpResponse response = client.execute(post)) {
+                assertThat(response.getStatusLine().getStatusCode()).isEqualTo(Status.OK);
+                assertThat(EntityUtils.toString(response.getEntity())).isEqualTo(Integer.toString(content.length));
+            }
+        }
+    }
+
+    @Test
+    public void testUnreadBodyIsDiscarded() throws Exception {
+        startServer(new StreamingController(), "ignore");
+        byte[] content = new byte[512 * 1024];
+
+        try (CloseableHttpClient client = HttpClients.createDefault()) {
+            // The connection is reused by the second request, so the rest of the first body must have been read.
+            for (int i = 0; i < 2; i++) {
+                HttpPost post = new HttpPost("http://localhost:" + server.httpPort() + "/");
+                post.setEntity(new ByteArrayEntity(content));
+                try (CloseableHttpResponse response = client.execute(post)) {
+                    assertThat(response.getStatusLine().getStatusCode()).isEqualTo(Status.OK);
+                    assertThat(EntityUtils.toString(response.getEntity())).isEqualTo("ignored");
+                }
+            }
+        }
+    }
+
+    /**
+     * A controller reading the request body as a stream.
+     */
+    public static class StreamingController extends DefaultController {
+
+        public Result count(@Body InputStream body) throws IOException {
+            byte[] buffer = new byte[4096];
+            long count = 0;
+            int read;
+            while ((read = body.read(buffer)) != -1) {
+                for (int i = 0; i < read; i++) {
+                    if (buffer[i] != (byte) (count + i)) {
+                        return badRequest("Invalid content at " + (count + i));
+                    }
+                }
+                count += read;
+            }
+            return ok(Long.toString(count));
+        }
+
+        public Result ignore(@Body InputStream body) {
+            return ok("ignored");
+        }
+    }
+}
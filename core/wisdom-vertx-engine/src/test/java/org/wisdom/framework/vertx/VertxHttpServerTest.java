@@ -37,6 +37,8 @@ import java.io.IOException;
 import java.net.HttpURLConnection;
 import java.net.URL;
 import java.util.Collections;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.TimeUnit;
 
@@ -204,6 +206,43 @@ public class VertxHttpServerTest extends VertxBaseTest {
     }
 
 
+    @Test
+    public void testConnectionsAreDispatchedAmongVerticleInstances() throws InterruptedException, IOException {
+        Router router = prepareServer();
+        when(server.configuration.getIntegerWithDefault(eq("vertx.instances"), anyInt())).thenReturn(4);
+
+        // Prepare the router with a controller recording the event loop threads handling the requests
+        final Set<String> threads = Collections.newSetFromMap(new ConcurrentHashMap<>());
+        Controller controller = new DefaultController() {
+            @SuppressWarnings("unused")
+            public Result index() {
+                threads.add(Thread.currentThread().getName());
+                return ok(context().parameter("id"));
+            }
+        };
+        Route route = new RouteBuilder().route(HttpMethod.GET)
+                .on("/")
+                .to(controller, "index");
+        when(router.getRouteFor(anyString(), anyString(), any(Request.class))).thenReturn(route);
+
+        server.start();
+
+        waitForStart(server);
+
+        int port = server.httpPort();
+        for (int i = 0; i < 20; ++i) {
+            // Use a new connection for each request.
+            URL url = new URL("http://localhost:" + port + "/?id=" + i);
+            HttpURLConnection connection = (HttpURLConnection) url.openConnection();
+            connection.setRequestProperty(HeaderNames.CONNECTION, "close");
+            assertThat(connection.getResponseCode()).isEqualTo(200);
+            assertThat(IOUtils.toString(connection.getInputStream())).isEqualTo(String.valueOf(i));
+        }
+
+        // All instances listen on the same port, and the connections are handled by different event loops.
+        assertThat(threads.size()).isGreaterThan(1);
+    }
+
     @Test
     public void testOkWithPlentyOfClientsReadingJsonContent() throws InterruptedException, IOException {
         Router router = prepareServer();
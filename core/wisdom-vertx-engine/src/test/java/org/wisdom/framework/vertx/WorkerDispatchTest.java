@@ -0,0 +1,203 @@
+/*
+ * #%L
+ * Wisdom-Framework
+ * %%
+ * Copyright (C) 2013 - 2014 Wisdom Framework
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.wisdom.framework.vertx;
+
+import com.google.common.collect.ImmutableList;
+import org.apache.http.client.methods.CloseableHttpResponse;
+import org.apache.http.client.methods.HttpGet;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.HttpClients;
+import org.apache.http.util.EntityUtils;
+import org.junit.After;
+import org.junit.Test;
+import org.wisdom.api.DefaultController;
+import org.wisdom.api.annotations.scheduler.NonBlocking;
+import org.wisdom.api.concurrent.ManagedExecutorService;
+import org.wisdom.api.configuration.ApplicationConfiguration;
+import org.wisdom.api.exceptions.ExceptionMapper;
+import org.wisdom.api.http.*;
+import org.wisdom.api.router.Route;
+import org.wisdom.api.router.RouteBuilder;
+import org.wisdom.api.router.Router;
+import org.wisdom.executors.ManagedExecutorServiceImpl;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Matchers.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Checks the dispatch of the requests to the worker executor.
+ */
+public class WorkerDispatchTest extends VertxBaseTest {
+
+    private WisdomVertxServer server;
+
+    /**
+     * A worker executor with a single thread and a queue of one task.
+     */
+    private ManagedExecutorService workers = new ManagedExecutorServiceImpl("test-workers",
+            ManagedExecutorService.ThreadType.POOLED, 60000, 1, 1, 1000, 1, Thread.NORM_PRIORITY,
+            new ArrayList<>());
+
+    @After
+    public void tearDown() {
+        if (server != null) {
+            server.stop();
+            server = null;
+        }
+        workers.shutdownNow();
+    }
+
+    private void startServer(WorkerController controller) throws Exception {
+        ApplicationConfiguration configuration = mock(ApplicationConfiguration.class);
+        when(configuration.getIntegerWithDefault(eq("vertx.http.port"), anyInt())).thenReturn(0);
+        when(configuration.getIntegerWithDefault(eq("vertx.https.port"), anyInt())).thenReturn(-1);
+        when(configuration.getIntegerWithDefault("vertx.acceptBacklog", -1)).thenReturn(-1);
+        when(configuration.getIntegerWithDefault("vertx.receiveBufferSize", -1)).thenReturn(-1);
+        when(configuration.getIntegerWithDefault("vertx.sendBufferSize", -1)).thenReturn(-1);
+        when(configuration.getStringArray("wisdom.websocket.subprotocols")).thenReturn(new String[0]);
+        when(configuration.getStringArray("vertx.websocket-subprotocols")).thenReturn(new String[0]);
+        when(configuration.getWithDefault("vertx.dispatch.mode", "event-loop")).thenReturn("worker");
+        when(configuration.getWithDefault("vertx.dispatch.executor", ManagedExecutorService.WORKER))
+                .thenReturn("test-workers");
+        when(configuration.getIntegerWithDefault("vertx.dispatch.retry-after", 1)).thenReturn(3);
+
+        Router router = mock(Router.class);
+        Route blocking = new RouteBuilder().route(HttpMethod.GET).on("/blocking").to(controller, "blocking");
+        Route trivial = new RouteBuilder().route(HttpMethod.GET).on("/trivial").to(controller, "trivial");
+        when(router.getRouteFor(anyString(), eq("/blocking"), any(Request.class))).thenReturn(blocking);
+        when(router.getRouteFor(anyString(), eq("/trivial"), any(Request.class))).thenReturn(trivial);
+
+        server = new WisdomVertxServer();
+        server.configuration = configuration;
+        server.accessor = new ServiceAccessor(
+                null,
+                configuration,
+                router,
+                getMockContentEngine(),
+                executor,
+                null,
+                Collections.<ExceptionMapper>emptyList(),
+                ImmutableList.of(workers)
+        );
+        server.vertx = vertx;
+        server.start();
+
+        VertxHttpServerTest.waitForStart(server);
+    }
+
+    private Response get(String path) throws IOException {
+        try (CloseableHttpClient client = HttpClients.createDefault();
+             CloseableHttpResponse response = client.execute(
+                     new HttpGet("http://localhost:" + server.httpPort() + path))) {
+            return new Response(response.getStatusLine().getStatusCode(),
+                    EntityUtils.toString(response.getEntity()),
+                    response.getFirstHeader(HeaderNames.RETRY_AFTER) != null
+                            ? response.getFirstHeader(HeaderNames.RETRY_AFTER).getValue() : null);
+        }
+    }
+
+    @Test
+    public void testActionsAreInvokedFromTheWorkerExecutor() throws Exception {
+        WorkerController controller = new WorkerController();
+        controller.release.countDown();
+        startServer(controller);
+
+        Response response = get("/blocking");
+        assertThat(response.status).isEqualTo(Status.OK);
+        assertThat(response.content).startsWith("test-workers-");
+
+        // Non blocking actions stay on the event loop.
+        response = get("/trivial");
+        assertThat(response.status).isEqualTo(Status.OK);
+        assertThat(response.content).startsWith("vert.x-eventloop");
+    }
+
+    @Test
+    public void testRequestsAreRejectedWhenTheWorkerQueueIsFull() throws Exception {
+        WorkerController controller = new WorkerController();
+        startServer(controller);
+
+        // The first request occupies the single worker thread, the second one waits in the queue.
+        List<Future<Response>> pending = new ArrayList<>();
+        pending.add(clients.submit(() -> get("/blocking")));
+        assertThat(controller.started.await(10, TimeUnit.SECONDS)).isTrue();
+        pending.add(clients.submit(() -> get("/blocking")));
+        int attempts = 0;
+        while (workers.getQueue().isEmpty() && attempts++ < 100) {
+            Thread.sleep(50);
+        }
+        assertThat(workers.getQueue()).hasSize(1);
+
+        // The third one is shed.
+        Response rejected = get("/blocking");
+        assertThat(rejected.status).isEqualTo(Status.SERVICE_UNAVAILABLE);
+        assertThat(rejected.retryAfter).isEqualTo("3");
+
+        // Actions that do not block are still served.
+        assertThat(get("/trivial").status).isEqualTo(Status.OK);
+
+        controller.release.countDown();
+        for (Future<Response> future : pending) {
+            assertThat(future.get(10, TimeUnit.SECONDS).status).isEqualTo(Status.OK);
+        }
+    }
+
+    private static class Response {
+        private final int status;
+        private final String content;
+        private final String retryAfter;
+
+        private Response(int status, String content, String retryAfter) {
+            this.status = status;
+            this.content = content;
+            this.retryAfter = retryAfter;
+        }
+    }
+
+    /**
+     * A controller with a blocking action and a non-blocking one.
+     */
+    public static class WorkerController extends DefaultController {
+
+        final CountDownLatch started = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+
+        public Result blocking() throws InterruptedException {
+            started.countDown();
+            release.await(10, TimeUnit.SECONDS);
+            return ok(Thread.currentThread().getName());
+        }
+
+        @NonBlocking
+        public Result trivial() {
+            return ok(Thread.currentThread().getName());
+        }
+    }
+}
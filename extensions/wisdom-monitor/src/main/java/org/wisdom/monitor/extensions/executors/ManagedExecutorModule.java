@@ -54,6 +54,9 @@ public class ManagedExecutorModule extends SimpleModule {
                 jsonGenerator.writeNumberField("max_exec", statistics.getMaximumExecutionTime());
                 jsonGenerator.writeNumberField("min_exec", statistics.getMinimumExecutionTime());
                 jsonGenerator.writeNumberField("total", statistics.getTotalExecutionTime());
+                jsonGenerator.writeNumberField("avg_queue", statistics.getAverageQueueTime());
+                jsonGenerator.writeNumberField("max_queue", statistics.getMaximumQueueTime());
+                jsonGenerator.writeNumberField("rejected", statistics.getRejectedTaskCount());
                 jsonGenerator.writeEndObject();
             }
         });
@@ -0,0 +1,82 @@
+/*
+ * #%L
+ * Wisdom-Framework
+ * %%
+ * Copyright (C) 2013 - 2014 Wisdom Framework
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.wisdom.cache.ehcache;
+
+import org.apache.felix.ipojo.annotations.Component;
+import org.apache.felix.ipojo.annotations.Instantiate;
+import org.apache.felix.ipojo.annotations.Provides;
+import org.apache.felix.ipojo.annotations.Requires;
+import org.wisdom.api.cache.Cache;
+import org.wisdom.api.cookies.SessionStore;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * A session store keeping the session data in the {@link #CACHE} cache, selected with {@code
+ * application.session.store = cache}.
+ * <p>
+ * The sessions expire after their time to live, and can be evicted when the cache is full. The cache must be declared
+ * in the {@literal ehcache.caches} configuration, with an off-heap tier to keep the sessions out of the Java heap.
+ * The session data is stored as a {@link HashMap}, so it can be serialized to the off-heap and disk tiers.
+ */
+@Component
+@Provides(specifications = SessionStore.class)
+@Instantiate
+public class CacheSessionStore implements SessionStore {
+
+    /**
+     * The name of the store.
+     */
+    public static final String NAME = "cache";
+
+    /**
+     * The name of the cache keeping the sessions.
+     */
+    public static final String CACHE = "wisdom-sessions";
+
+    @Requires(filter = "(" + Cache.NAME_PROPERTY + "=" + CACHE + ")", proxy = false)
+    protected Cache cache;
+
+    @Override
+    public String name() {
+        return NAME;
+    }
+
+    @Override
+    public Map<String, String> load(String id) {
+        Map<String, String> data = cache.get(id);
+        if (data == null) {
+            return null;
+        }
+        // Entries stored on the heap are shared, the caller gets its own copy.
+        return new HashMap<>(data);
+    }
+
+    @Override
+    public void save(String id, Map<String, String> data, int ttl) {
+        cache.set(id, new HashMap<>(data), ttl);
+    }
+
+    @Override
+    public void remove(String id) {
+        cache.remove(id);
+    }
+}
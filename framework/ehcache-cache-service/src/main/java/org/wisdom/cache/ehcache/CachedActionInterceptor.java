@@ -29,32 +29,95 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.wisdom.api.cache.Cache;
 import org.wisdom.api.cache.Cached;
+import org.wisdom.api.content.ContentEngine;
+import org.wisdom.api.concurrent.ManagedExecutorService;
+import org.wisdom.api.content.ContentNegotiation;
+import org.wisdom.api.http.AsyncResult;
+import org.wisdom.api.http.Context;
+import org.wisdom.api.http.DeferredResult;
 import org.wisdom.api.http.HeaderNames;
+import org.wisdom.api.http.Renderable;
 import org.wisdom.api.http.Result;
+import org.wisdom.api.http.Status;
 import org.wisdom.api.interception.Interceptor;
 import org.wisdom.api.interception.RequestContext;
 
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.zip.GZIPOutputStream;
+
 /**
- * An action interceptor caching the result of an action and returning the cached result if it was cached already.
+ * An action interceptor caching the response of an action and returning the cached response if it was cached already.
+ * <p>
+ * The cached response is the encoded response: the status, the headers and the body (and optionally a
+ * gzip-compressed copy of the body). So, cached responses are not serialized again, and stream-based results can be
+ * replayed. Concurrent requests missing the same entry are coalesced: only one of them invokes the action, the others
+ * return a {@link DeferredResult} completed with its response. So, no thread is blocked waiting for the response, and
+ * {@link org.wisdom.api.annotations.scheduler.NonBlocking} actions can be cached too. When the shared response cannot
+ * be used by a waiting request (it cannot be cached, or it is another variant), the action is invoked for this request
+ * on the system executor.
  */
 @Component
 @Provides(specifications = Interceptor.class)
 @Instantiate
 public class CachedActionInterceptor extends Interceptor<Cached> {
 
+    /**
+     * The suffix of the key under which the headers listed in the {@literal Vary} header of the response are stored.
+     */
+    static final String VARY_SUFFIX = "#vary";
+
+    /**
+     * The value stored under a key when the response cannot be cached, so the next requests do not wait for each
+     * other.
+     */
+    static final String NOT_CACHEABLE = "#not-cacheable";
+
+    /**
+     * How long a key stays marked as not cacheable, at most. The marker is short-lived, as the action may return
+     * a cacheable response later.
+     */
+    static final Duration NOT_CACHEABLE_DURATION = Duration.standardSeconds(30);
+
+    private static final String[] NO_VARY = new String[0];
+
     @Requires
     protected Cache cache;
 
+    @Requires
+    protected ContentEngine engine;
+
+    /**
+     * The executor invoking the action for the waiting requests that cannot use the shared response.
+     */
+    @Requires(filter = "(name=" + ManagedExecutorService.SYSTEM + ")", proxy = false)
+    protected ManagedExecutorService executor;
+
+    /**
+     * The computations in progress, indexed by key. The future completes with {@code null} if the response cannot
+     * be cached.
+     */
+    private final ConcurrentMap<String, CompletableFuture<Computed>> inFlight = new ConcurrentHashMap<>();
 
     private static final Logger LOGGER = LoggerFactory.getLogger(CachedActionInterceptor.class);
 
     /**
      * Intercepts a @Cached action method.
-     * If the result of the action is cached, returned it immediately without having actually invoked the action method.
-     * In this case, the interception chain is cut.
+     * If the response of the action is cached, returned it immediately without having actually invoked the action
+     * method. In this case, the interception chain is cut.
      * <p>
-     * If the result is not yet cached, the interception chain continues, and the result is cached to be used during
-     * the next invocation.
+     * If the response is not yet cached, the interception chain continues, and the response is cached to be used
+     * during the next invocation. If another request is already computing the response, an asynchronous result
+     * completed with this response is returned. If the response is expired but still within the
+     * stale-while-revalidate window, the expired response is returned, unless no other request is recomputing it.
      *
      * @param configuration the interception configuration
      * @param context       the interception context
@@ -67,40 +130,298 @@ public class CachedActionInterceptor extends Interceptor<Cached> {
         boolean nocache =
                 HeaderNames.NOCACHE_VALUE.equalsIgnoreCase(context.context().header(HeaderNames.CACHE_CONTROL));
 
-        String key;
+        String base;
         if (Strings.isNullOrEmpty(configuration.key())) {
-            key = context.request().uri();
+            base = context.request().uri();
         } else {
-            key = configuration.key();
+            base = configuration.key();
         }
 
-        Result result = null;
-        if (!nocache) {
-            result = (Result) cache.get(key);
+        if (nocache) {
+            return compute(configuration, context, base, null, null);
         }
 
-        if (result == null) {
-            result = context.proceed();
-        } else {
-            LOGGER.info("Returning cached result for {} (key:{})",
-                    context.request().uri(), key);
-            return result;
+        String key = key(base, vary(base), context.context());
+        Object cached = cache.get(key);
+        if (NOT_CACHEABLE.equals(cached)) {
+            return compute(configuration, context, base, null, null);
+        }
+        if (cached instanceof CachedResponse) {
+            CachedResponse response = (CachedResponse) cached;
+            if (response.isFresh(System.currentTimeMillis())) {
+                LOGGER.debug("Returning cached result for {} (key:{})", context.request().uri(), key);
+                return serve(response, context.context());
+            }
+            if (configuration.staleWhileRevalidate() > 0) {
+                // Expired, but within the stale-while-revalidate window.
+                CompletableFuture<Computed> future = new CompletableFuture<>();
+                if (inFlight.putIfAbsent(key, future) != null) {
+                    LOGGER.debug("Returning stale result for {} (key:{})", context.request().uri(), key);
+                    return serve(response, context.context());
+                }
+                return compute(configuration, context, base, key, future);
+            }
+        }
+
+        CompletableFuture<Computed> future = new CompletableFuture<>();
+        CompletableFuture<Computed> pending = inFlight.putIfAbsent(key, future);
+        if (pending == null) {
+            return compute(configuration, context, base, key, future);
+        }
+        if (pending.isDone()) {
+            CachedResponse response = usable(pending.getNow(null), base, context.context());
+            if (response != null) {
+                return serve(response, context.context());
+            }
+            // The response computed by the other request cannot be used, compute our own.
+            return compute(configuration, context, base, null, null);
+        }
+        LOGGER.debug("Waiting for the response of {} computed by another request (key:{})",
+                context.request().uri(), key);
+        return new DeferredResult(pending.thenCompose(computed -> {
+            CachedResponse response = usable(computed, base, context.context());
+            if (response != null) {
+                return CompletableFuture.completedFuture(serve(response, context.context()));
+            }
+            // The thread completing the computation belongs to the other request, invoke the action on the executor.
+            return CompletableFuture.supplyAsync(() -> computeFor(configuration, context, base), executor);
+        }));
+    }
+
+    /**
+     * Gets the shared response if the given request can use it: the response is cacheable, and the request asks
+     * for the same variant.
+     *
+     * @return the response, {@code null} if it cannot be used
+     */
+    private static CachedResponse usable(Computed computed, String base, Context context) {
+        if (computed == null || !computed.key.equals(key(base, computed.vary, context))) {
+            return null;
+        }
+        return computed.response;
+    }
+
+    /**
+     * Invokes the action for a request which could not use the response computed by another request. This method
+     * runs on the executor, so the HTTP context of the request is attached to the thread during the invocation.
+     */
+    private Result computeFor(Cached configuration, RequestContext context, String base) {
+        Context previous = Context.CONTEXT.get();
+        Context.CONTEXT.set(context.context());
+        try {
+            return compute(configuration, context, base, null, null);
+        } catch (Exception e) { //NOSONAR the action can throw anything, the engine unwraps it.
+            throw new CompletionException(e);
+        } finally {
+            if (previous == null) {
+                Context.CONTEXT.remove();
+            } else {
+                Context.CONTEXT.set(previous);
+            }
+        }
+    }
+
+    /**
+     * Invokes the action, and stores its response.
+     *
+     * @param configuration the interception configuration
+     * @param context       the interception context
+     * @param base          the key of the action, without the negotiated headers
+     * @param key           the key of the in-flight computation, {@code null} if not coalesced
+     * @param future        the future completed once the response is computed, {@code null} if not coalesced
+     * @return the result
+     * @throws Exception something bad happened
+     */
+    private Result compute(Cached configuration, RequestContext context, String base, String key,
+                           CompletableFuture<Computed> future) throws Exception {
+        Computed computed = null;
+        try {
+            Result result = context.proceed();
+            String[] vary = varyHeaders(result);
+            CachedResponse response = null;
+            if (vary != null) {
+                response = encode(configuration, context.context(), result);
+            }
+            if (response == null) {
+                LOGGER.debug("The result of {} cannot be cached", context.request().uri());
+                // Errors may be transient, only the responses that are never cacheable mark the key.
+                if (key != null && result.getStatusCode() < Status.INTERNAL_SERVER_ERROR) {
+                    Duration duration = duration(configuration);
+                    cache.set(key, NOT_CACHEABLE,
+                            duration.isLongerThan(NOT_CACHEABLE_DURATION) ? NOT_CACHEABLE_DURATION : duration);
+                }
+                return result;
+            }
+
+            // Expired responses are kept during the stale-while-revalidate window.
+            Duration duration = duration(configuration)
+                    .plus(Duration.standardSeconds(configuration.staleWhileRevalidate()));
+            if (vary.length != 0) {
+                cache.set(base + VARY_SUFFIX, vary, duration);
+            }
+            String storeKey = key(base, vary, context.context());
+            cache.set(storeKey, response, duration);
+            LOGGER.debug("Caching result of {} for {} seconds (key:{})",
+                    context.request().uri(), configuration.duration(), storeKey);
+            computed = new Computed(response, vary, storeKey);
+            return serve(response, context.context());
+        } finally {
+            if (future != null) {
+                future.complete(computed);
+                inFlight.remove(key, future);
+            }
+        }
+    }
+
+    /**
+     * Encodes the result: applies the serialization if required and renders the content.
+     *
+     * @return the encoded response, {@code null} if the result cannot be cached
+     */
+    private CachedResponse encode(Cached configuration, Context context, Result result) throws Exception {
+        // Asynchronous results are not computed yet, and responses with cookies are specific to the client.
+        if (result instanceof AsyncResult || !result.getCookies().isEmpty()
+                || result.getStatusCode() >= Status.INTERNAL_SERVER_ERROR) {
+            return null;
+        }
+
+        byte[] body = new byte[0];
+        Renderable<?> renderable = result.getRenderable();
+        if (renderable != null) {
+            renderable = ContentNegotiation.serialize(engine, context, renderable, result);
+            ByteArrayOutputStream output = new ByteArrayOutputStream();
+            renderable.render(context, result, output);
+            body = output.toByteArray();
+        }
+
+        Map<String, String> headers = new LinkedHashMap<>(result.getHeaders());
+        String contentType = result.getFullContentType();
+        if (contentType == null && renderable != null) {
+            contentType = renderable.mimetype();
+        }
+        if (contentType != null) {
+            headers.put(HeaderNames.CONTENT_TYPE, contentType);
+        }
+
+        byte[] gzipped = null;
+        if (configuration.compress() && body.length > 0
+                && !headers.containsKey(HeaderNames.CONTENT_ENCODING)) {
+            gzipped = gzip(body);
+            String vary = headers.get(HeaderNames.VARY);
+            headers.put(HeaderNames.VARY,
+                    vary == null ? HeaderNames.ACCEPT_ENCODING : vary + ", " + HeaderNames.ACCEPT_ENCODING);
+        }
+
+        long expiration = System.currentTimeMillis() + duration(configuration).getMillis();
+        return new CachedResponse(result.getStatusCode(), headers, body, gzipped, expiration);
+    }
+
+    /**
+     * Creates the result returned to the client, using the gzip-compressed body if the client accepts it.
+     */
+    private static Result serve(CachedResponse response, Context context) {
+        return response.toResult(response.isCompressed()
+                && acceptsGzip(context.header(HeaderNames.ACCEPT_ENCODING)));
+    }
+
+    /**
+     * Gets the headers on which the response stored under the given key varies.
+     */
+    private String[] vary(String base) {
+        Object vary = cache.get(base + VARY_SUFFIX);
+        if (vary instanceof String[]) {
+            return (String[]) vary;
         }
+        return NO_VARY;
+    }
 
-        Duration duration;
+    /**
+     * Computes the cache key of the request. The response is negotiated using the {@literal Accept} header, so the
+     * key contains its value, as well as the value of the headers on which the response varies.
+     */
+    static String key(String base, String[] vary, Context context) {
+        StringBuilder key = new StringBuilder(base)
+                .append('|').append(Strings.nullToEmpty(context.header(HeaderNames.ACCEPT)));
+        for (String header : vary) {
+            key.append('|').append(header).append('=').append(Strings.nullToEmpty(context.header(header)));
+        }
+        return key.toString();
+    }
+
+    /**
+     * Parses the {@literal Vary} header of the result. The {@literal Accept} header is always part of the key, and
+     * the {@literal Accept-Encoding} header is handled by the interceptor, so they are not returned.
+     *
+     * @return the headers, {@code null} if the response varies on everything and so cannot be cached
+     */
+    static String[] varyHeaders(Result result) {
+        String value = result.getHeaders().get(HeaderNames.VARY);
+        if (value == null) {
+            return NO_VARY;
+        }
+        List<String> headers = new ArrayList<>();
+        for (String header : value.split(",")) {
+            header = header.trim();
+            if ("*".equals(header)) {
+                return null;
+            }
+            if (!header.isEmpty() && !HeaderNames.ACCEPT.equalsIgnoreCase(header)
+                    && !HeaderNames.ACCEPT_ENCODING.equalsIgnoreCase(header)) {
+                headers.add(header);
+            }
+        }
+        return headers.toArray(new String[headers.size()]);
+    }
+
+    /**
+     * Checks whether the {@literal Accept-Encoding} header accepts the gzip encoding.
+     */
+    static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String encoding : acceptEncoding.split(",")) {
+            String[] parts = encoding.trim().split(";");
+            if ("gzip".equalsIgnoreCase(parts[0].trim()) || "*".equals(parts[0].trim())) {
+                return parts.length == 1 || !parts[1].trim().matches("q=0(\\.0*)?");
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Computes how long the response is fresh.
+     */
+    private static Duration duration(Cached configuration) {
         if (configuration.duration() == 0) {
             // Eternity == 1 year.
-            duration = Duration.standardDays(365);
+            return Duration.standardDays(365);
         } else {
-            duration = Duration.standardSeconds(configuration.duration());
+            return Duration.standardSeconds(configuration.duration());
         }
+    }
 
+    private static byte[] gzip(byte[] body) throws IOException {
+        ByteArrayOutputStream output = new ByteArrayOutputStream(body.length / 2 + 32);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(output)) {
+            gzip.write(body);
+        }
+        return output.toByteArray();
+    }
 
-        cache.set(key, result, duration);
-        LoggerFactory.getLogger(this.getClass()).info("Caching result of {} for {} seconds (key:{})",
-                context.request().uri(), configuration.duration(), key);
+    /**
+     * A response computed for the requests waiting for it, with the key under which it is stored.
+     */
+    private static final class Computed {
+        private final CachedResponse response;
+        private final String[] vary;
+        private final String key;
 
-        return result;
+        private Computed(CachedResponse response, String[] vary, String key) {
+            this.response = response;
+            this.vary = vary;
+            this.key = key;
+        }
     }
 
     /**
@@ -0,0 +1,110 @@
+/*
+ * #%L
+ * Wisdom-Framework
+ * %%
+ * Copyright (C) 2013 - 2014 Wisdom Framework
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.wisdom.cache.ehcache;
+
+import org.wisdom.api.bodies.RenderableByteArray;
+import org.wisdom.api.http.HeaderNames;
+import org.wisdom.api.http.Result;
+
+import java.io.Serializable;
+import java.nio.charset.Charset;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * A response stored in the cache by the {@link CachedActionInterceptor}. It contains the encoded response, i.e. the
+ * status, the headers and the body, and optionally a gzip-compressed copy of the body.
+ */
+final class CachedResponse implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private final int status;
+    private final LinkedHashMap<String, String> headers;
+    private final byte[] body;
+    private final byte[] gzipped;
+    private final long expiration;
+
+    /**
+     * Creates a new cached response.
+     *
+     * @param status     the status code
+     * @param headers    the headers, including the {@literal Content-Type}
+     * @param body       the body
+     * @param gzipped    the gzip-compressed body, {@code null} if not compressed
+     * @param expiration the time (in milliseconds) from which the response is expired
+     */
+    CachedResponse(int status, Map<String, String> headers, byte[] body, byte[] gzipped, long expiration) {
+        this.status = status;
+        this.headers = new LinkedHashMap<>(headers);
+        this.body = body;
+        this.gzipped = gzipped;
+        this.expiration = expiration;
+    }
+
+    /**
+     * @param now the current time in milliseconds
+     * @return whether or not the response is still fresh.
+     */
+    boolean isFresh(long now) {
+        return now < expiration;
+    }
+
+    /**
+     * @return whether or not the response has a gzip-compressed copy of the body.
+     */
+    boolean isCompressed() {
+        return gzipped != null;
+    }
+
+    int status() {
+        return status;
+    }
+
+    Map<String, String> headers() {
+        return headers;
+    }
+
+    byte[] body() {
+        return body;
+    }
+
+    /**
+     * Creates the result sending the stored response. Each call creates a new result, as results are mutable.
+     *
+     * @param gzip whether or not the client receives the gzip-compressed body. It must be {@code false} if the
+     *             response is not compressed.
+     * @return the result
+     */
+    Result toResult(boolean gzip) {
+        Result result = new Result(status);
+        for (Map.Entry<String, String> header : headers.entrySet()) {
+            result.with(header.getKey(), header.getValue());
+        }
+        // The stored Content-Type already contains the charset, if any.
+        result.with((Charset) null);
+        if (gzip) {
+            // The body is already compressed, the server must not compress it again.
+            result.with(HeaderNames.CONTENT_ENCODING, "gzip").withoutCompression();
+            return result.render(new RenderableByteArray(gzipped, false));
+        }
+        return result.render(new RenderableByteArray(body, false));
+    }
+}
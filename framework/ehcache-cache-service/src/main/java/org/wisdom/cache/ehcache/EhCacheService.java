@@ -20,26 +20,52 @@
 package org.wisdom.cache.ehcache;
 
 import net.sf.ehcache.CacheManager;
-import net.sf.ehcache.Element;
+import net.sf.ehcache.Ehcache;
+import net.sf.ehcache.config.CacheConfiguration;
+import net.sf.ehcache.config.MemoryUnit;
+import net.sf.ehcache.config.PersistenceConfiguration;
 import org.apache.felix.ipojo.annotations.*;
 import org.joda.time.Duration;
 import org.osgi.framework.BundleContext;
+import org.osgi.framework.Constants;
 import org.osgi.framework.ServiceRegistration;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.wisdom.api.cache.Cache;
+import org.wisdom.api.cache.CacheStatistics;
+import org.wisdom.api.concurrent.ManagedExecutorService;
 import org.wisdom.api.configuration.ApplicationConfiguration;
+import org.wisdom.api.configuration.Configuration;
 
 import java.io.File;
 import java.net.URL;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Hashtable;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ExecutionException;
 
 /**
  * An implementation of the cache service based on EhCache.
+ * <p>
+ * This component is the default cache ({@link Cache#DEFAULT}). Other caches are configured in the {@literal
+ * ehcache.caches} section of the application configuration, and exposed as {@link Cache} services with their name
+ * as {@literal name} property. Each cache stores its entries on the heap, and optionally in an off-heap tier and a
+ * disk tier (see {@link TieredCache}).
  */
 @Component(immediate = true)
 @Instantiate
 public class EhCacheService implements Cache {
 
-    private static final String WISDOM_KEY = "wisdom";
+    private static final Logger LOGGER = LoggerFactory.getLogger(EhCacheService.class);
+
+    /**
+     * The suffix of the EhCache caches used as disk tier.
+     */
+    static final String DISK_SUFFIX = "-disk";
 
     /**
      * The custom configuration path.
@@ -53,15 +79,23 @@ public class EhCacheService implements Cache {
      */
     public static final String INTERNAL_CONFIGURATION = "org/wisdom/cache/ehcache/ehcache-default.xml";
 
-    private net.sf.ehcache.Cache cache;
+    private TieredCache cache;
+    final List<TieredCache> caches = new ArrayList<>();
     private CacheManager manager;
 
     @Requires
     ApplicationConfiguration configuration;
 
+    /**
+     * The executor running the asynchronous operations.
+     */
+    @Requires(filter = "(name=" + ManagedExecutorService.SYSTEM + ")", proxy = false)
+    ManagedExecutorService executor;
+
     @Context
     BundleContext context;
     ServiceRegistration<Cache> registration;
+    private final List<ServiceRegistration<Cache>> registrations = new ArrayList<>();
 
 
     /**
@@ -89,10 +123,24 @@ public class EhCacheService implements Cache {
                             "cannot load " + INTERNAL_CONFIGURATION + " file");
                 }
             }
-            manager.addCache(WISDOM_KEY);
-            cache = manager.getCache(WISDOM_KEY);
+            Configuration conf = configuration.getConfiguration("ehcache.caches");
+            cache = createCache(DEFAULT, conf != null ? conf.getConfiguration(DEFAULT) : null);
+            Hashtable<String, Object> properties = new Hashtable<>(); //NOSONAR no choice here, OSGi API
+            properties.put(NAME_PROPERTY, DEFAULT);
+            // Dependencies without filter get the default cache.
+            properties.put(Constants.SERVICE_RANKING, 1);
+            registration = context.registerService(Cache.class, this, properties);
 
-            registration = context.registerService(Cache.class, this, new Hashtable<String, Object>());
+            if (conf != null) {
+                for (String name : conf.asMap().keySet()) {
+                    if (!DEFAULT.equals(name)) {
+                        TieredCache named = createCache(name, conf.getConfiguration(name));
+                        Hashtable<String, Object> props = new Hashtable<>(); //NOSONAR no choice here, OSGi API
+                        props.put(NAME_PROPERTY, name);
+                        registrations.add(context.registerService(Cache.class, named, props));
+                    }
+                }
+            }
         } finally {
             Thread.currentThread().setContextClassLoader(original);
         }
@@ -101,6 +149,50 @@ public class EhCacheService implements Cache {
     }
 
 
+    /**
+     * Creates a cache. The configuration supports the following keys:
+     * <ul>
+     * <li>{@literal heap}: the maximum number of entries stored on the heap, the EhCache configuration is used if
+     * not set</li>
+     * <li>{@literal off-heap}: the size of the off-heap tier (such as {@literal 512m}), disabled if not set</li>
+     * <li>{@literal disk}: the size of the disk tier (such as {@literal 2g}), disabled if not set</li>
+     * </ul>
+     *
+     * @param name the name of the cache
+     * @param conf the configuration of the cache, {@code null} to use the EhCache configuration
+     * @return the cache
+     */
+    private TieredCache createCache(String name, Configuration conf) {
+        Ehcache heap = manager.addCacheIfAbsent(name);
+        OffHeapStore offHeap = null;
+        Ehcache disk = null;
+        if (conf != null) {
+            Integer entries = conf.getInteger("heap");
+            if (entries != null) {
+                heap.getCacheConfiguration().setMaxEntriesLocalHeap(entries);
+            }
+            long offHeapSize = conf.getBytes("off-heap", 0);
+            if (offHeapSize > 0) {
+                offHeap = new OffHeapStore(offHeapSize);
+            }
+            long diskSize = conf.getBytes("disk", 0);
+            if (diskSize > 0) {
+                // The disk tier only keeps one entry on the heap.
+                net.sf.ehcache.Cache swap = new net.sf.ehcache.Cache(new CacheConfiguration(name + DISK_SUFFIX, 1)
+                        .persistence(new PersistenceConfiguration()
+                                .strategy(PersistenceConfiguration.Strategy.LOCALTEMPSWAP))
+                        .maxBytesLocalDisk(diskSize, MemoryUnit.BYTES));
+                manager.addCache(swap);
+                disk = swap;
+            }
+            LOGGER.info("Creating cache {} (heap: {} entries, off-heap: {} bytes, disk: {} bytes)", name,
+                    heap.getCacheConfiguration().getMaxEntriesLocalHeap(), offHeapSize, diskSize);
+        }
+        TieredCache tiered = new TieredCache(name, heap, offHeap, disk, executor);
+        caches.add(tiered);
+        return tiered;
+    }
+
     /**
      * Cleans up everything.
      */
@@ -110,13 +202,25 @@ public class EhCacheService implements Cache {
             registration.unregister();
             registration = null;
         }
+        for (ServiceRegistration<Cache> reg : registrations) {
+            if (reg != null) {
+                reg.unregister();
+            }
+        }
+        registrations.clear();
         if (manager != null) {
-            manager.removeCache(WISDOM_KEY);
+            for (TieredCache tiered : caches) {
+                tiered.dispose();
+                manager.removeCache(tiered.name());
+                manager.removeCache(tiered.name() + DISK_SUFFIX);
+            }
         }
+        caches.clear();
+        cache = null;
     }
 
     /**
-     * Adds an entry in the cache.
+     * Adds an entry in the default cache.
      *
      * @param key        Item key.
      * @param value      Item value.
@@ -124,16 +228,11 @@ public class EhCacheService implements Cache {
      */
     @Override
     public void set(String key, Object value, int expiration) {
-        Element element = new Element(key, value);
-        if (expiration == 0) {
-            element.setEternal(true);
-        }
-        element.setTimeToLive(expiration);
-        cache.put(element);
+        cache.set(key, value, expiration);
     }
 
     /**
-     * Adds an entry in the cache.
+     * Adds an entry in the default cache.
      *
      * @param key        Item key.
      * @param value      Item value.
@@ -141,32 +240,22 @@ public class EhCacheService implements Cache {
      */
     @Override
     public void set(String key, Object value, Duration expiration) {
-        Element element = new Element(key, value);
-        if (expiration == null) {
-            element.setEternal(true);
-        } else {
-            element.setTimeToLive((int) expiration.getStandardSeconds());
-        }
-        cache.put(element);
+        cache.set(key, value, expiration);
     }
 
     /**
-     * Gets an entry from the cache.
+     * Gets an entry from the default cache.
      *
      * @param key Item key.
      * @return the stored object, {@literal null} if none of expired.
      */
     @Override
     public Object get(String key) {
-        Element element = cache.get(key);
-        if (element != null) {
-            return element.getObjectValue();
-        }
-        return null;
+        return cache.get(key);
     }
 
     /**
-     * Removes an object from the cache.
+     * Removes an object from the default cache.
      *
      * @param key Item key
      * @return {@literal true} if the object was removed, {@literal false} otherwise.
@@ -175,4 +264,117 @@ public class EhCacheService implements Cache {
     public boolean remove(String key) {
         return cache.remove(key);
     }
+
+    /**
+     * Gets a set of entries from the default cache.
+     *
+     * @param keys the keys
+     * @return the found entries
+     */
+    @Override
+    public <T> Map<String, T> getAll(Collection<String> keys) {
+        return cache.getAll(keys);
+    }
+
+    /**
+     * Adds a set of entries in the default cache.
+     *
+     * @param entries    the entries
+     * @param expiration Expiration time.
+     */
+    @Override
+    public void setAll(Map<String, ?> entries, Duration expiration) {
+        cache.setAll(entries, expiration);
+    }
+
+    /**
+     * Removes a set of entries from the default cache.
+     *
+     * @param keys the keys
+     */
+    @Override
+    public void removeAll(Collection<String> keys) {
+        cache.removeAll(keys);
+    }
+
+    /**
+     * Gets an entry from the default cache, computing it if missing.
+     *
+     * @param key        Item key.
+     * @param expiration Expiration time.
+     * @param loader     the function computing the value
+     * @return the value
+     * @throws ExecutionException if the loader has thrown an exception
+     */
+    @Override
+    public <T> T get(String key, Duration expiration, Callable<? extends T> loader) throws ExecutionException {
+        return cache.get(key, expiration, loader);
+    }
+
+    /**
+     * Gets an entry from the default cache asynchronously.
+     *
+     * @param key Item key.
+     * @return a stage completed with the stored object, {@literal null} if none
+     */
+    @Override
+    public <T> CompletionStage<T> getAsync(String key) {
+        return cache.getAsync(key);
+    }
+
+    /**
+     * Gets a set of entries from the default cache asynchronously.
+     *
+     * @param keys the keys
+     * @return a stage completed with the found entries
+     */
+    @Override
+    public <T> CompletionStage<Map<String, T>> getAllAsync(Collection<String> keys) {
+        return cache.getAllAsync(keys);
+    }
+
+    /**
+     * Gets an entry from the default cache asynchronously, computing it if missing.
+     *
+     * @param key        Item key.
+     * @param expiration Expiration time.
+     * @param loader     the function computing the value
+     * @return a stage completed with the value
+     */
+    @Override
+    public <T> CompletionStage<T> getAsync(String key, Duration expiration, Callable<? extends T> loader) {
+        return cache.getAsync(key, expiration, loader);
+    }
+
+    /**
+     * Adds an entry in the default cache asynchronously.
+     *
+     * @param key        Item key.
+     * @param value      Item value.
+     * @param expiration Expiration time.
+     * @return a stage completed once the entry is added
+     */
+    @Override
+    public CompletionStage<Void> setAsync(String key, Object value, Duration expiration) {
+        return cache.setAsync(key, value, expiration);
+    }
+
+    /**
+     * Removes an object from the default cache asynchronously.
+     *
+     * @param key Item key
+     * @return a stage completed with {@literal true} if the object was removed
+     */
+    @Override
+    public CompletionStage<Boolean> removeAsync(String key) {
+        return cache.removeAsync(key);
+    }
+
+    /**
+     * @return the statistics of the default cache.
+     */
+    @Override
+    public CacheStatistics statistics() {
+        return cache.statistics();
+    }
 }
@@ -0,0 +1,318 @@
+/*
+ * #%L
+ * Wisdom-Framework
+ * %%
+ * Copyright (C) 2013 - 2014 Wisdom Framework
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.wisdom.cache.ehcache;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A store keeping serialized values in direct byte buffers, outside of the Java heap. The values are not scanned by
+ * the garbage collector, and the memory used by the store is bounded by its capacity (in bytes).
+ * <p>
+ * The memory is split into segments, each having its own lock, its own buffer and its own index. Each buffer is
+ * divided into fixed-size blocks, and each value is stored in as many blocks as required. When a segment is full, the
+ * least recently used values are evicted and returned to the caller, so they can be moved to another tier.
+ * <p>
+ * Only the index (keys and block numbers) lives on the heap.
+ */
+final class OffHeapStore {
+
+    /**
+     * The size of the blocks (in bytes).
+     */
+    static final int BLOCK_SIZE = 512;
+
+    /**
+     * The maximum size of a segment, a direct buffer cannot exceed 2Gb.
+     */
+    private static final long MAX_SEGMENT_SIZE = 1L << 30;
+
+    /**
+     * The minimal size of a segment, to avoid creating lots of small buffers for small stores.
+     */
+    private static final long MIN_SEGMENT_SIZE = 1L << 20;
+
+    private final Segment[] segments;
+
+    /**
+     * Creates a new store.
+     *
+     * @param capacity the capacity in bytes
+     */
+    OffHeapStore(long capacity) {
+        if (capacity < BLOCK_SIZE) {
+            throw new IllegalArgumentException("The capacity of the off-heap store must be at least " + BLOCK_SIZE
+                    + " bytes");
+        }
+        int count = 16;
+        while (capacity / count > MAX_SEGMENT_SIZE) {
+            count *= 2;
+        }
+        while (count > 1 && capacity / count < MIN_SEGMENT_SIZE) {
+            count /= 2;
+        }
+        segments = new Segment[count];
+        int blocks = (int) (capacity / count / BLOCK_SIZE);
+        for (int i = 0; i < count; i++) {
+            segments[i] = new Segment(blocks);
+        }
+    }
+
+    /**
+     * Stores a value. If the segment is full, the least recently used values are evicted.
+     *
+     * @param key        the key
+     * @param value      the serialized value
+     * @param expiration the time (in milliseconds) from which the value is expired
+     * @return the evicted entries, including the given value if it does not fit in the store
+     */
+    List<Entry> put(String key, byte[] value, long expiration) {
+        return segment(key).put(key, value, expiration);
+    }
+
+    /**
+     * Gets and removes a value.
+     *
+     * @param key the key
+     * @param now the current time in milliseconds
+     * @return the entry, {@code null} if the store does not contain the key, or if the value is expired
+     */
+    Entry take(String key, long now) {
+        return segment(key).take(key, now);
+    }
+
+    /**
+     * Removes a value.
+     *
+     * @param key the key
+     * @return {@code true} if the store contained the key
+     */
+    boolean remove(String key) {
+        return segment(key).remove(key);
+    }
+
+    /**
+     * Removes all the values.
+     */
+    void clear() {
+        for (Segment segment : segments) {
+            segment.clear();
+        }
+    }
+
+    /**
+     * Removes all the values and drops the references to the direct buffers, so their memory is released once they
+     * are garbage-collected. The store refuses the values put after this call.
+     */
+    void close() {
+        for (Segment segment : segments) {
+            segment.close();
+        }
+    }
+
+    /**
+     * @return the number of stored values.
+     */
+    long size() {
+        long size = 0;
+        for (Segment segment : segments) {
+            size += segment.size();
+        }
+        return size;
+    }
+
+    /**
+     * @return the number of bytes used by the stored values, including the unused part of their last block.
+     */
+    long usedBytes() {
+        long used = 0;
+        for (Segment segment : segments) {
+            used += segment.usedBlocks();
+        }
+        return used * BLOCK_SIZE;
+    }
+
+    private Segment segment(String key) {
+        int hash = key.hashCode();
+        // Spread the high bits, as String hash codes are poorly distributed on the low bits.
+        hash ^= hash >>> 16;
+        return segments[(hash & Integer.MAX_VALUE) % segments.length];
+    }
+
+    /**
+     * An entry read from the store.
+     */
+    static final class Entry {
+        final String key;
+        final byte[] value;
+        final long expiration;
+
+        Entry(String key, byte[] value, long expiration) {
+            this.key = key;
+            this.value = value;
+            this.expiration = expiration;
+        }
+    }
+
+    /**
+     * The location of a value in a segment.
+     */
+    private static final class Slot {
+        final int[] blocks;
+        final int length;
+        final long expiration;
+
+        Slot(int[] blocks, int length, long expiration) {
+            this.blocks = blocks;
+            this.length = length;
+            this.expiration = expiration;
+        }
+    }
+
+    private static final class Segment {
+        /**
+         * The direct buffer. As reads and writes move its position, it is only used while holding the lock of the
+         * segment. It is {@code null} once the segment is closed.
+         */
+        private ByteBuffer buffer;
+        private final int blocks;
+        private final BitSet used;
+        private int free;
+        private int cursor;
+        /**
+         * The index, in access order, so the eldest entry is the least recently used.
+         */
+        private final LinkedHashMap<String, Slot> index = new LinkedHashMap<>(16, 0.75f, true);
+
+        Segment(int blocks) {
+            this.blocks = blocks;
+            this.free = blocks;
+            this.used = new BitSet(blocks);
+            this.buffer = ByteBuffer.allocateDirect(blocks * BLOCK_SIZE);
+        }
+
+        synchronized List<Entry> put(String key, byte[] value, long expiration) {
+            release(index.remove(key));
+            int required = Math.max(1, (value.length + BLOCK_SIZE - 1) / BLOCK_SIZE);
+            if (buffer == null || required > blocks) {
+                return Collections.singletonList(new Entry(key, value, expiration));
+            }
+            List<Entry> evicted = Collections.emptyList();
+            long now = System.currentTimeMillis();
+            Iterator<Map.Entry<String, Slot>> iterator = index.entrySet().iterator();
+            while (free < required) {
+                Map.Entry<String, Slot> eldest = iterator.next();
+                Slot slot = eldest.getValue();
+                iterator.remove();
+                if (slot.expiration > now) {
+                    if (evicted.isEmpty()) {
+                        evicted = new ArrayList<>();
+                    }
+                    evicted.add(new Entry(eldest.getKey(), read(slot), slot.expiration));
+                }
+                release(slot);
+            }
+
+            int[] allocated = new int[required];
+            for (int i = 0; i < required; i++) {
+                int block = used.nextClearBit(cursor);
+                if (block >= blocks) {
+                    block = used.nextClearBit(0);
+                }
+                used.set(block);
+                allocated[i] = block;
+                cursor = block + 1;
+                int offset = i * BLOCK_SIZE;
+                buffer.position(block * BLOCK_SIZE);
+                buffer.put(value, offset, Math.min(BLOCK_SIZE, value.length - offset));
+            }
+            free -= required;
+            index.put(key, new Slot(allocated, value.length, expiration));
+            return evicted;
+        }
+
+        synchronized Entry take(String key, long now) {
+            Slot slot = index.remove(key);
+            if (slot == null) {
+                return null;
+            }
+            try {
+                if (slot.expiration <= now) {
+                    return null;
+                }
+                return new Entry(key, read(slot), slot.expiration);
+            } finally {
+                release(slot);
+            }
+        }
+
+        synchronized boolean remove(String key) {
+            Slot slot = index.remove(key);
+            release(slot);
+            return slot != null;
+        }
+
+        synchronized void clear() {
+            index.clear();
+            used.clear();
+            free = blocks;
+            cursor = 0;
+        }
+
+        synchronized void close() {
+            clear();
+            buffer = null;
+        }
+
+        synchronized int size() {
+            return index.size();
+        }
+
+        synchronized int usedBlocks() {
+            return blocks - free;
+        }
+
+        private byte[] read(Slot slot) {
+            byte[] value = new byte[slot.length];
+            for (int i = 0; i < slot.blocks.length; i++) {
+                int offset = i * BLOCK_SIZE;
+                buffer.position(slot.blocks[i] * BLOCK_SIZE);
+                buffer.get(value, offset, Math.min(BLOCK_SIZE, slot.length - offset));
+            }
+            return value;
+        }
+
+        private void release(Slot slot) {
+            if (slot == null) {
+                return;
+            }
+            for (int block : slot.blocks) {
+                used.clear(block);
+            }
+            free += slot.blocks.length;
+        }
+    }
+}
@@ -0,0 +1,566 @@
+/*
+ * #%L
+ * Wisdom-Framework
+ * %%
+ * Copyright (C) 2013 - 2014 Wisdom Framework
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.wisdom.cache.ehcache;
+
+import net.sf.ehcache.Ehcache;
+import net.sf.ehcache.Element;
+import net.sf.ehcache.event.CacheEventListenerAdapter;
+import org.joda.time.Duration;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.wisdom.api.cache.Cache;
+import org.wisdom.api.cache.CacheStatistics;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A cache storing its entries in up to three tiers:
+ * <ol>
+ * <li>the heap, managed by EhCache, bounded by a number of entries,</li>
+ * <li>an optional off-heap tier, bounded by a number of bytes (see {@link OffHeapStore}),</li>
+ * <li>an optional disk tier, managed by EhCache, bounded by a number of bytes.</li>
+ * </ol>
+ * When a tier is full, the evicted entries are serialized (see {@link ValueSerializer}) and moved to the next tier.
+ * Entries found in the off-heap or disk tiers are moved back to the heap. Entries evicted from the last tier, and
+ * entries that cannot be serialized, are dropped.
+ * <p>
+ * Values computed by loaders are tracked per key, so concurrent calls for the same key invoke the loader only once.
+ * The asynchronous operations run on the given executor.
+ */
+final class TieredCache implements Cache {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(TieredCache.class);
+
+    private final String name;
+    private final Ehcache heap;
+    private final OffHeapStore offHeap;
+    private final Ehcache disk;
+    private final Executor executor;
+
+    /**
+     * The values being computed by a loader, indexed by key.
+     */
+    private final ConcurrentMap<String, Loading> loading = new ConcurrentHashMap<>();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    /**
+     * Creates a new cache.
+     *
+     * @param name     the name of the cache
+     * @param heap     the EhCache cache used as heap tier
+     * @param offHeap  the off-heap tier, {@code null} if disabled
+     * @param disk     the EhCache cache used as disk tier, {@code null} if disabled
+     * @param executor the executor running the asynchronous operations
+     */
+    TieredCache(String name, Ehcache heap, OffHeapStore offHeap, Ehcache disk, Executor executor) {
+        this.name = name;
+        this.heap = heap;
+        this.offHeap = offHeap;
+        this.disk = disk;
+        this.executor = executor;
+        heap.getCacheEventNotificationService().registerListener(new CacheEventListenerAdapter() {
+            @Override
+            public void notifyElementEvicted(Ehcache cache, Element element) {
+                demote(element);
+            }
+        });
+        if (disk != null) {
+            disk.getCacheEventNotificationService().registerListener(new CacheEventListenerAdapter() {
+                @Override
+                public void notifyElementEvicted(Ehcache cache, Element element) {
+                    evictions.increment();
+                }
+            });
+        }
+    }
+
+    /**
+     * Adds an entry in the cache.
+     *
+     * @param key        Item key.
+     * @param value      Item value.
+     * @param expiration Expiration time in seconds (0 second means eternity).
+     */
+    @Override
+    public void set(String key, Object value, int expiration) {
+        Element element = new Element(key, value);
+        if (expiration == 0) {
+            element.setEternal(true);
+        }
+        element.setTimeToLive(expiration);
+        put(element);
+    }
+
+    /**
+     * Adds an entry in the cache.
+     *
+     * @param key        Item key.
+     * @param value      Item value.
+     * @param expiration Expiration time.
+     */
+    @Override
+    public void set(String key, Object value, Duration expiration) {
+        Element element = new Element(key, value);
+        if (expiration == null) {
+            element.setEternal(true);
+        } else {
+            element.setTimeToLive((int) expiration.getStandardSeconds());
+        }
+        put(element);
+    }
+
+    /**
+     * Gets an entry from the cache. If the entry is not on the heap, the other tiers are checked.
+     *
+     * @param key Item key.
+     * @return the stored object, {@literal null} if none of expired.
+     */
+    @Override
+    public Object get(String key) {
+        Object value = lookup(key);
+        if (value != null) {
+            hits.increment();
+        } else {
+            misses.increment();
+        }
+        return value;
+    }
+
+    /**
+     * Removes an object from the cache.
+     *
+     * @param key Item key
+     * @return {@literal true} if the object was removed, {@literal false} otherwise.
+     */
+    @Override
+    public boolean remove(String key) {
+        boolean removed = heap.remove(key);
+        if (offHeap != null) {
+            removed = offHeap.remove(key) || removed;
+        }
+        if (disk != null) {
+            removed = disk.remove(key) || removed;
+        }
+        return removed;
+    }
+
+    /**
+     * Gets several entries from the cache. The heap tier is queried with a single call.
+     *
+     * @param keys the keys
+     * @return the stored objects, indexed by key
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> Map<String, T> getAll(Collection<String> keys) {
+        Map<Object, Element> elements = heap.getAll(keys);
+        Map<String, T> values = new LinkedHashMap<>();
+        for (String key : keys) {
+            Element element = elements.get(key);
+            Object value = element != null ? element.getObjectValue() : promote(key);
+            if (value != null) {
+                values.put(key, (T) value);
+            }
+        }
+        hits.add(values.size());
+        misses.add(keys.size() - values.size());
+        return values;
+    }
+
+    /**
+     * Adds several entries in the cache. The heap tier is updated with a single call.
+     *
+     * @param entries    the entries
+     * @param expiration Expiration time.
+     */
+    @Override
+    public void setAll(Map<String, ?> entries, Duration expiration) {
+        List<Element> elements = new ArrayList<>(entries.size());
+        for (Map.Entry<String, ?> entry : entries.entrySet()) {
+            Element element = new Element(entry.getKey(), entry.getValue());
+            if (expiration == null) {
+                element.setEternal(true);
+            } else {
+                element.setTimeToLive((int) expiration.getStandardSeconds());
+            }
+            elements.add(element);
+        }
+        removeFromLowerTiers(entries.keySet());
+        heap.putAll(elements);
+    }
+
+    /**
+     * Removes several entries from the cache.
+     *
+     * @param keys the keys
+     */
+    @Override
+    public void removeAll(Collection<String> keys) {
+        heap.removeAll(keys);
+        removeFromLowerTiers(keys);
+    }
+
+    /**
+     * Gets an entry from the cache, computing it if not cached. Concurrent calls for the same key wait for the
+     * value computed by the first call.
+     *
+     * @param key        Item key.
+     * @param expiration Expiration time of the computed value.
+     * @param loader     the loader
+     * @return the stored or computed object
+     * @throws ExecutionException    if the loader has thrown an exception
+     * @throws IllegalStateException if called by the loader computing the same key
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(String key, Duration expiration, Callable<? extends T> loader) throws ExecutionException {
+        Object value = get(key);
+        if (value != null) {
+            return (T) value;
+        }
+        Loading future = new Loading();
+        Loading pending = loading.putIfAbsent(key, future);
+        if (pending == null) {
+            load(key, expiration, loader, future, false);
+            pending = future;
+        } else {
+            pending.checkNotReentrant(key);
+        }
+        try {
+            return (T) pending.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ExecutionException(e);
+        }
+    }
+
+    /**
+     * Gets an entry from the cache asynchronously.
+     *
+     * @param key Item key.
+     * @return a stage completed with the stored object
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> CompletionStage<T> getAsync(String key) {
+        return CompletableFuture.supplyAsync(() -> (T) get(key), executor);
+    }
+
+    /**
+     * Gets several entries from the cache asynchronously.
+     *
+     * @param keys the keys
+     * @return a stage completed with the stored objects, indexed by key
+     */
+    @Override
+    public <T> CompletionStage<Map<String, T>> getAllAsync(Collection<String> keys) {
+        return CompletableFuture.supplyAsync(() -> getAll(keys), executor);
+    }
+
+    /**
+     * Gets an entry from the cache asynchronously, computing it if not cached. The loader is invoked on the
+     * executor, concurrent calls for the same key get the same value without blocking.
+     *
+     * @param key        Item key.
+     * @param expiration Expiration time of the computed value.
+     * @param loader     the loader
+     * @return a stage completed with the stored or computed object
+     * @throws IllegalStateException if called by the loader computing the same key
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> CompletionStage<T> getAsync(String key, Duration expiration, Callable<? extends T> loader) {
+        Element element = heap.get(key);
+        if (element != null) {
+            hits.increment();
+            return CompletableFuture.completedFuture((T) element.getObjectValue());
+        }
+        Loading future = new Loading();
+        Loading pending = loading.putIfAbsent(key, future);
+        if (pending == null) {
+            // The other tiers are checked on the executor, as they may require I/O.
+            try {
+                executor.execute(() -> load(key, expiration, loader, future, true));
+            } catch (RejectedExecutionException e) {
+                loading.remove(key, future);
+                future.completeExceptionally(e);
+            }
+            pending = future;
+        } else {
+            pending.checkNotReentrant(key);
+        }
+        return pending.thenApply(value -> (T) value);
+    }
+
+    /**
+     * Adds an entry in the cache asynchronously.
+     *
+     * @param key        Item key.
+     * @param value      Item value.
+     * @param expiration Expiration time.
+     * @return a stage completed once the entry is stored
+     */
+    @Override
+    public CompletionStage<Void> setAsync(String key, Object value, Duration expiration) {
+        return CompletableFuture.runAsync(() -> set(key, value, expiration), executor);
+    }
+
+    /**
+     * Removes an entry from the cache asynchronously.
+     *
+     * @param key Item key
+     * @return a stage completed with {@literal true} if the object was removed
+     */
+    @Override
+    public CompletionStage<Boolean> removeAsync(String key) {
+        return CompletableFuture.supplyAsync(() -> remove(key), executor);
+    }
+
+    /**
+     * @return the name of the cache.
+     */
+    @Override
+    public String name() {
+        return name;
+    }
+
+    /**
+     * @return the statistics of the cache.
+     */
+    @Override
+    public CacheStatistics statistics() {
+        return new CacheStatistics(hits.sum(), misses.sum(), evictions.sum(),
+                heap.getMemoryStoreSize(),
+                offHeap != null ? offHeap.size() : 0,
+                offHeap != null ? offHeap.usedBytes() : 0,
+                disk != null ? disk.getSize() : 0);
+    }
+
+    /**
+     * Releases the off-heap memory: the direct buffers are freed once garbage-collected. The EhCache caches are
+     * disposed by their cache manager.
+     */
+    void dispose() {
+        if (offHeap != null) {
+            offHeap.close();
+        }
+    }
+
+    private void put(Element element) {
+        // Tiers are exclusive, the previous value may have been moved to another tier.
+        String key = (String) element.getObjectKey();
+        if (offHeap != null) {
+            offHeap.remove(key);
+        }
+        if (disk != null) {
+            disk.remove(key);
+        }
+        heap.put(element);
+    }
+
+    private void removeFromLowerTiers(Collection<String> keys) {
+        if (offHeap != null) {
+            for (String key : keys) {
+                offHeap.remove(key);
+            }
+        }
+        if (disk != null) {
+            disk.removeAll(keys);
+        }
+    }
+
+    /**
+     * Computes a value using the loader, stores it, and completes the future. The future is completed
+     * exceptionally if the loader throws an exception.
+     *
+     * @param count whether or not the lookup done before invoking the loader is counted in the statistics
+     */
+    private void load(String key, Duration expiration, Callable<?> loader, Loading future, boolean count) {
+        future.owner = Thread.currentThread();
+        try {
+            // The value may have been computed since the first lookup.
+            Object value = lookup(key);
+            if (count) {
+                (value != null ? hits : misses).increment();
+            }
+            if (value == null) {
+                value = loader.call();
+                if (value != null) {
+                    set(key, value, expiration);
+                }
+            }
+            future.complete(value);
+        } catch (Exception e) { //NOSONAR the loader can throw anything.
+            future.completeExceptionally(e);
+        } finally {
+            future.owner = null;
+            loading.remove(key, future);
+        }
+    }
+
+    /**
+     * A value being computed by a loader. The thread running the loader is recorded, so a loader requesting the
+     * key it computes fails instead of waiting for itself.
+     */
+    private static final class Loading extends CompletableFuture<Object> {
+        private volatile Thread owner;
+
+        /**
+         * Checks that the current thread is not the one computing the value.
+         *
+         * @param key the key
+         * @throws IllegalStateException if the current thread is computing the value
+         */
+        void checkNotReentrant(String key) {
+            if (owner == Thread.currentThread()) {
+                throw new IllegalStateException("The loader of the entry " + key + " requests its own entry");
+            }
+        }
+    }
+
+    /**
+     * Moves an entry evicted from the heap to the next tier.
+     *
+     * @param element the evicted element
+     */
+    private void demote(Element element) {
+        if (element.isExpired()) {
+            return;
+        }
+        if (offHeap == null && disk == null) {
+            evictions.increment();
+            return;
+        }
+        String key = (String) element.getObjectKey();
+        byte[] serialized = ValueSerializer.serialize(element.getObjectValue());
+        if (serialized == null) {
+            LOGGER.debug("Cannot move the entry {} of the cache {} out of the heap, the value is not serializable",
+                    key, name);
+            evictions.increment();
+            return;
+        }
+        long expiration = element.isEternal() ? Long.MAX_VALUE : element.getExpirationTime();
+        if (offHeap == null) {
+            toDisk(key, serialized, expiration);
+            return;
+        }
+        for (OffHeapStore.Entry entry : offHeap.put(key, serialized, expiration)) {
+            toDisk(entry.key, entry.value, entry.expiration);
+        }
+        if (heap.isKeyInCache(key)) {
+            // The entry has been set again while being moved.
+            offHeap.remove(key);
+        }
+    }
+
+    private void toDisk(String key, byte[] serialized, long expiration) {
+        if (disk == null) {
+            evictions.increment();
+            return;
+        }
+        disk.put(element(key, serialized, expiration));
+    }
+
+    /**
+     * Looks for the entry in all the tiers, without updating the statistics.
+     *
+     * @param key the key
+     * @return the value, {@code null} if not found
+     */
+    private Object lookup(String key) {
+        Element element = heap.get(key);
+        return element != null ? element.getObjectValue() : promote(key);
+    }
+
+    /**
+     * Looks for the entry in the off-heap and disk tiers, and moves it back to the heap.
+     *
+     * @param key the key
+     * @return the value, {@code null} if not found
+     */
+    private Object promote(String key) {
+        if (offHeap == null && disk == null) {
+            return null;
+        }
+        byte[] serialized = null;
+        long expiration = 0;
+        if (offHeap != null) {
+            OffHeapStore.Entry entry = offHeap.take(key, System.currentTimeMillis());
+            if (entry != null) {
+                serialized = entry.value;
+                expiration = entry.expiration;
+            }
+        }
+        if (serialized == null && disk != null) {
+            Element element = disk.get(key);
+            if (element != null) {
+                disk.remove(key);
+                serialized = (byte[]) element.getObjectValue();
+                expiration = element.isEternal() ? Long.MAX_VALUE : element.getExpirationTime();
+            }
+        }
+        if (serialized == null) {
+            return null;
+        }
+
+        Object value;
+        try {
+            value = ValueSerializer.deserialize(serialized);
+        } catch (IOException | ClassNotFoundException e) {
+            LOGGER.warn("Cannot read the entry {} of the cache {}", key, name, e);
+            return null;
+        }
+        // A value set while the entry was promoted wins over the promoted one.
+        Element current = heap.putIfAbsent(element(key, value, expiration));
+        return current != null ? current.getObjectValue() : value;
+    }
+
+    /**
+     * Creates an element expiring at the given time.
+     */
+    private static Element element(String key, Object value, long expiration) {
+        Element element = new Element(key, value);
+        if (expiration == Long.MAX_VALUE) {
+            element.setEternal(true);
+        } else {
+            long remaining = expiration - System.currentTimeMillis();
+            // Round up, 0 would mean eternity.
+            element.setTimeToLive((int) Math.max(1, (remaining + 999) / 1000));
+        }
+        return element;
+    }
+}
@@ -0,0 +1,153 @@
+/*
+ * #%L
+ * Wisdom-Framework
+ * %%
+ * Copyright (C) 2013 - 2014 Wisdom Framework
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.wisdom.cache.ehcache;
+
+import java.io.*;
+import java.lang.ref.WeakReference;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Serializes the values stored outside the heap (off-heap and on disk).
+ * <p>
+ * Byte arrays and strings are stored as-is. Other values must be {@link Serializable}. As the value classes may come
+ * from other bundles, the class loader of each serialized class is remembered, and used to load the class when the
+ * value is read back.
+ */
+final class ValueSerializer {
+
+    private static final byte BYTES = 0;
+    private static final byte STRING = 1;
+    private static final byte OBJECT = 2;
+
+    /**
+     * The class loaders of the serialized classes, indexed by class name.
+     */
+    private static final ConcurrentMap<String, WeakReference<ClassLoader>> LOADERS = new ConcurrentHashMap<>();
+
+    private ValueSerializer() {
+        // Avoid direct instantiation.
+    }
+
+    /**
+     * Serializes the given value.
+     *
+     * @param value the value
+     * @return the serialized form, {@code null} if the value cannot be serialized
+     */
+    static byte[] serialize(Object value) {
+        if (value instanceof byte[]) {
+            byte[] bytes = (byte[]) value;
+            byte[] serialized = new byte[bytes.length + 1];
+            serialized[0] = BYTES;
+            System.arraycopy(bytes, 0, serialized, 1, bytes.length);
+            return serialized;
+        }
+        if (value instanceof String) {
+            byte[] bytes = ((String) value).getBytes(StandardCharsets.UTF_8);
+            byte[] serialized = new byte[bytes.length + 1];
+            serialized[0] = STRING;
+            System.arraycopy(bytes, 0, serialized, 1, bytes.length);
+            return serialized;
+        }
+        if (!(value instanceof Serializable)) {
+            return null;
+        }
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        output.write(OBJECT);
+        try (ObjectOutputStream stream = new LoaderTrackingOutputStream(output)) {
+            stream.writeObject(value);
+        } catch (IOException e) { //NOSONAR the value (or one of its fields) is not serializable.
+            return null;
+        }
+        return output.toByteArray();
+    }
+
+    /**
+     * Reads a value serialized by {@link #serialize(Object)}.
+     *
+     * @param serialized the serialized form
+     * @return the value
+     * @throws IOException            if the value cannot be read
+     * @throws ClassNotFoundException if the class of the value (or of one of its fields) cannot be loaded
+     */
+    static Object deserialize(byte[] serialized) throws IOException, ClassNotFoundException {
+        switch (serialized[0]) {
+            case BYTES:
+                return Arrays.copyOfRange(serialized, 1, serialized.length);
+            case STRING:
+                return new String(serialized, 1, serialized.length - 1, StandardCharsets.UTF_8);
+            case OBJECT:
+                try (ObjectInputStream stream = new LoaderAwareInputStream(
+                        new ByteArrayInputStream(serialized, 1, serialized.length - 1))) {
+                    return stream.readObject();
+                }
+            default:
+                throw new StreamCorruptedException("Unknown value type " + serialized[0]);
+        }
+    }
+
+    /**
+     * Records the class loader of each written class.
+     */
+    private static class LoaderTrackingOutputStream extends ObjectOutputStream {
+
+        LoaderTrackingOutputStream(OutputStream output) throws IOException {
+            super(output);
+        }
+
+        @Override
+        protected void annotateClass(Class<?> clazz) {
+            ClassLoader loader = clazz.getClassLoader();
+            if (loader != null) {
+                WeakReference<ClassLoader> reference = LOADERS.get(clazz.getName());
+                if (reference == null || reference.get() != loader) {
+                    LOADERS.put(clazz.getName(), new WeakReference<>(loader));
+                }
+            }
+        }
+    }
+
+    /**
+     * Loads the classes using the class loader recorded during the serialization.
+     */
+    private static class LoaderAwareInputStream extends ObjectInputStream {
+
+        LoaderAwareInputStream(InputStream input) throws IOException {
+            super(input);
+        }
+
+        @Override
+        protected Class<?> resolveClass(ObjectStreamClass desc) throws IOException, ClassNotFoundException {
+            WeakReference<ClassLoader> reference = LOADERS.get(desc.getName());
+            ClassLoader loader = reference == null ? null : reference.get();
+            if (loader != null) {
+                try {
+                    return Class.forName(desc.getName(), false, loader);
+                } catch (ClassNotFoundException e) { //NOSONAR try the default strategy.
+                    // The class may have been updated.
+                }
+            }
+            return super.resolveClass(desc);
+        }
+    }
+}
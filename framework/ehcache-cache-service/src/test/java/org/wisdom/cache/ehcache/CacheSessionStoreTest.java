@@ -0,0 +1,113 @@
+/*
+ * #%L
+ * Wisdom-Framework
+ * %%
+ * Copyright (C) 2013 - 2014 Wisdom Framework
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.wisdom.cache.ehcache;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.osgi.framework.BundleContext;
+import org.wisdom.api.concurrent.ManagedExecutorService;
+import org.wisdom.api.configuration.ApplicationConfiguration;
+import org.wisdom.api.configuration.Configuration;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Checks the session store backed by the sessions cache.
+ */
+public class CacheSessionStoreTest {
+
+    private EhCacheService svc;
+
+    private CacheSessionStore store;
+
+    @Before
+    public void setUp() {
+        // A single session on the heap, the others are moved to the off-heap tier.
+        Configuration conf = mock(Configuration.class);
+        when(conf.getInteger("heap")).thenReturn(1);
+        when(conf.getBytes("off-heap", 0)).thenReturn(1024L * 1024L);
+        Configuration caches = mock(Configuration.class);
+        when(caches.asMap()).thenReturn(Collections.<String, Object>singletonMap(CacheSessionStore.CACHE,
+                Collections.emptyMap()));
+        when(caches.getConfiguration(CacheSessionStore.CACHE)).thenReturn(conf);
+
+        ApplicationConfiguration configuration = mock(ApplicationConfiguration.class);
+        when(configuration.getBooleanWithDefault("ehcache.enabled", true)).thenReturn(true);
+        when(configuration.getConfiguration("ehcache.caches")).thenReturn(caches);
+        svc = new EhCacheService();
+        svc.configuration = configuration;
+        svc.context = mock(BundleContext.class);
+        svc.executor = mock(ManagedExecutorService.class);
+        svc.start();
+
+        store = new CacheSessionStore();
+        store.cache = svc.caches.get(1);
+    }
+
+    @After
+    public void tearDown() {
+        svc.stop();
+    }
+
+    @Test
+    public void testSaveLoadAndRemove() {
+        assertThat(store.name()).isEqualTo("cache");
+        assertThat(store.load("unknown")).isNull();
+
+        Map<String, String> data = new HashMap<>();
+        data.put("user", "wisdom");
+        store.save("id", data, 60);
+
+        // The store keeps a copy, and returns copies.
+        data.put("user", "changed");
+        Map<String, String> loaded = store.load("id");
+        assertThat(loaded).containsEntry("user", "wisdom");
+        loaded.put("user", "changed");
+        assertThat(store.load("id")).containsEntry("user", "wisdom");
+
+        store.remove("id");
+        assertThat(store.load("id")).isNull();
+    }
+
+    @Test
+    public void testSessionsMovedOffHeap() {
+        for (int i = 0; i < 10; i++) {
+            store.save("session-" + i, Collections.singletonMap("user", "user-" + i), 60);
+        }
+        for (int i = 0; i < 10; i++) {
+            assertThat(store.load("session-" + i)).containsEntry("user", "user-" + i);
+        }
+    }
+
+    @Test
+    public void testSessionsExpire() throws InterruptedException {
+        store.save("id", Collections.singletonMap("user", "wisdom"), 1);
+        assertThat(store.load("id")).isNotNull();
+        Thread.sleep(2100);
+        assertThat(store.load("id")).isNull();
+    }
+}
@@ -19,23 +19,44 @@
  */
 package org.wisdom.cache.ehcache;
 
+import com.google.common.collect.ImmutableMap;
+import org.apache.commons.io.IOUtils;
 import org.joda.time.Duration;
 import org.junit.Ignore;
 import org.junit.Test;
 import org.wisdom.api.cache.Cache;
 import org.wisdom.api.cache.Cached;
+import org.wisdom.api.concurrent.ManagedExecutorService;
 import org.wisdom.api.configuration.ApplicationConfiguration;
+import org.wisdom.api.content.ContentEngine;
+import org.wisdom.api.cookies.Cookie;
 import org.wisdom.api.http.*;
+import org.wisdom.api.DefaultController;
+import org.wisdom.api.annotations.scheduler.NonBlocking;
 import org.wisdom.api.interception.RequestContext;
-
-import java.util.TreeMap;
+import org.wisdom.api.router.Route;
+import org.wisdom.api.router.RouteBuilder;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.zip.GZIPInputStream;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.entry;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.eq;
 import static org.mockito.Mockito.*;
 
 /**
@@ -45,107 +66,429 @@ public class CachedActionInterceptorTest {
 
     @Test
     public void testCaching() throws Exception {
-        CachedActionInterceptor interceptor = new CachedActionInterceptor();
-        interceptor.cache = mock(Cache.class);
-        Cached cached = mock(Cached.class);
-        when(cached.duration()).thenReturn(10);
-        when(cached.key()).thenReturn("key");
+        CachedActionInterceptor interceptor = interceptor(mock(Cache.class));
+        Cached cached = cached("key", 10);
 
-        RequestContext context = mock(RequestContext.class);
-        when(context.request()).thenReturn(mock(Request.class));
-        Context ctx = mock(Context.class);
-        when(context.context()).thenReturn(ctx);
-        when(context.context().header(anyString())).thenReturn(null);
-        final Result r = Results.ok("Result");
-        when(context.proceed()).thenReturn(r);
+        RequestContext context = context("/", new HashMap<String, String>());
+        when(context.proceed()).thenReturn(Results.ok("Result"));
 
         Result result = interceptor.call(cached, context);
-        assertThat(result.getRenderable().<String>content()).isEqualTo("Result");
-        assertThat(result).isEqualTo(r);
-        // Check that the result was put in cache.
-        verify(interceptor.cache, times(1)).get("key");
-        verify(interceptor.cache, times(1)).set("key", r, Duration.standardSeconds(10));
-
-        when(interceptor.cache.get("key")).thenReturn(r);
+        assertThat(content(result)).isEqualTo("Result");
+        assertThat(result.getStatusCode()).isEqualTo(Status.OK);
+        assertThat(result.getContentType()).startsWith(MimeTypes.TEXT);
+        // Check that the encoded response was put in cache.
+        verify(interceptor.cache, times(1)).get("key|");
+        verify(interceptor.cache, times(1)).set(eq("key|"), any(CachedResponse.class),
+                eq(Duration.standardSeconds(10)));
+
+        CachedResponse response = new CachedResponse(Status.OK, new HashMap<String, String>(),
+                "Cached".getBytes(StandardCharsets.UTF_8), null, Long.MAX_VALUE);
+        when(interceptor.cache.get("key|")).thenReturn(response);
         result = interceptor.call(cached, context);
-        assertThat(result).isEqualTo(r);
+        assertThat(content(result)).isEqualTo("Cached");
 
-        verify(interceptor.cache, times(2)).get("key");
+        verify(interceptor.cache, times(2)).get("key|");
+        verify(context, times(1)).proceed();
     }
 
     @Test
     public void testCachingWithoutKey() throws Exception {
-        CachedActionInterceptor interceptor = new CachedActionInterceptor();
-        interceptor.cache = mock(Cache.class);
-        Cached cached = mock(Cached.class);
-        when(cached.duration()).thenReturn(10);
-        when(cached.key()).thenReturn("");
+        CachedActionInterceptor interceptor = interceptor(new DummyCache());
+        Cached cached = cached("", 10);
 
-        RequestContext context = mock(RequestContext.class);
-        final Request request = mock(Request.class);
-        when(request.uri()).thenReturn("/my/url?withquery");
-        when(context.request()).thenReturn(request);
-        Context ctx = mock(Context.class);
-        when(context.context()).thenReturn(ctx);
-        when(context.context().header(anyString())).thenReturn(null);
-        final Result r = Results.ok("Result");
-        when(context.proceed()).thenReturn(r);
+        RequestContext context = context("/my/url?withquery", new HashMap<String, String>());
+        when(context.proceed()).thenReturn(Results.ok("Result"), Results.ok("Result2"));
 
         Result result = interceptor.call(cached, context);
-        assertThat(result.getRenderable().<String>content()).isEqualTo("Result");
-        assertThat(result).isEqualTo(r);
-        // Check that the result was put in cache.
-        verify(interceptor.cache, times(1)).get("/my/url?withquery");
-        verify(interceptor.cache, times(1)).set("/my/url?withquery", r, Duration.standardSeconds(10));
+        assertThat(content(result)).isEqualTo("Result");
+        assertThat((Object) interceptor.cache.get("/my/url?withquery|")).isInstanceOf(CachedResponse.class);
 
-        when(interceptor.cache.get("key")).thenReturn(r);
         result = interceptor.call(cached, context);
-        assertThat(result).isEqualTo(r);
-
-        verify(interceptor.cache, times(2)).get("/my/url?withquery");
+        assertThat(content(result)).isEqualTo("Result");
+        verify(context, times(1)).proceed();
     }
 
     @Test
     public void testCachingNoCache() throws Exception {
-        CachedActionInterceptor interceptor = new CachedActionInterceptor();
-        interceptor.cache = new DummyCache();
-        Cached cached = mock(Cached.class);
-        when(cached.duration()).thenReturn(10);
-        when(cached.key()).thenReturn("key");
+        CachedActionInterceptor interceptor = interceptor(new DummyCache());
+        Cached cached = cached("key", 10);
 
-        RequestContext context = mock(RequestContext.class);
-        when(context.request()).thenReturn(mock(Request.class));
-        Context ctx = mock(Context.class);
-        when(context.context()).thenReturn(ctx);
-        when(context.context().header(anyString())).thenReturn(null);
-        final Result r = Results.ok("Result");
-        when(context.proceed()).thenReturn(r);
+        Map<String, String> headers = new HashMap<>();
+        RequestContext context = context("/", headers);
+        when(context.proceed()).thenReturn(Results.ok("Result"));
 
         Result result = interceptor.call(cached, context);
+        assertThat(content(result)).isEqualTo("Result");
 
-        assertThat(result.getRenderable().<String>content()).isEqualTo("Result");
-        assertThat(result).isEqualTo(r);
-
-        final Result r2 = Results.ok("Result2");
-        when(context.proceed()).thenReturn(r2);
-
+        when(context.proceed()).thenReturn(Results.ok("Result2"));
         result = interceptor.call(cached, context);
-        // r is cached return r even is r2 is the new result.
-        assertThat(result).isEqualTo(r);
+        // The first response is cached, return it even if the action now returns Result2.
+        assertThat(content(result)).isEqualTo("Result");
 
         // The object is cached, let's use NO CACHE
-        when(context.context().header(HeaderNames.CACHE_CONTROL)).thenReturn(HeaderNames.NOCACHE_VALUE);
-
+        headers.put(HeaderNames.CACHE_CONTROL, HeaderNames.NOCACHE_VALUE);
         result = interceptor.call(cached, context);
-        assertThat(result).isNotEqualTo(r).isEqualTo(r2);
+        assertThat(content(result)).isEqualTo("Result2");
 
-        final Result r3 = Results.ok("Result3");
-        when(context.proceed()).thenReturn(r3);
+        when(context.proceed()).thenReturn(Results.ok("Result3"));
 
         // Remove the cache-control
-        when(context.context().header(HeaderNames.CACHE_CONTROL)).thenReturn(null);
+        headers.remove(HeaderNames.CACHE_CONTROL);
         result = interceptor.call(cached, context);
-        assertThat(result).isEqualTo(r2).isNotEqualTo(r3);
+        assertThat(content(result)).isEqualTo("Result2");
+    }
+
+    @Test
+    public void testStreamsAreReplayed() throws Exception {
+        CachedActionInterceptor interceptor = interceptor(new DummyCache());
+        Cached cached = cached("key", 10);
+
+        RequestContext context = context("/", new HashMap<String, String>());
+        when(context.proceed()).thenReturn(
+                Results.ok(new ByteArrayInputStream("Stream".getBytes(StandardCharsets.UTF_8))));
+
+        assertThat(content(interceptor.call(cached, context))).isEqualTo("Stream");
+        assertThat(content(interceptor.call(cached, context))).isEqualTo("Stream");
+        assertThat(content(interceptor.call(cached, context))).isEqualTo("Stream");
+        verify(context, times(1)).proceed();
+    }
+
+    @Test
+    public void testStatusAndHeadersAreCached() throws Exception {
+        CachedActionInterceptor interceptor = interceptor(new DummyCache());
+        Cached cached = cached("key", 10);
+
+        RequestContext context = context("/", new HashMap<String, String>());
+        when(context.proceed()).thenReturn(
+                Results.notFound("Missing").with(HeaderNames.ETAG, "1234").as(MimeTypes.HTML));
+
+        interceptor.call(cached, context);
+        Result result = interceptor.call(cached, context);
+        assertThat(result.getStatusCode()).isEqualTo(Status.NOT_FOUND);
+        assertThat(result.getHeaders().get(HeaderNames.ETAG)).isEqualTo("1234");
+        assertThat(result.getFullContentType()).startsWith(MimeTypes.HTML).contains("charset");
+        assertThat(content(result)).isEqualTo("Missing");
+        verify(context, times(1)).proceed();
+    }
+
+    @Test
+    public void testAcceptAndVaryHeadersArePartOfTheKey() throws Exception {
+        CachedActionInterceptor interceptor = interceptor(new DummyCache());
+        Cached cached = cached("key", 10);
+
+        Map<String, String> headers = new HashMap<>();
+        RequestContext context = context("/", headers);
+        final AtomicInteger counter = new AtomicInteger();
+        when(context.proceed()).then(invocation ->
+                Results.ok("Result-" + counter.incrementAndGet()).with(HeaderNames.VARY, "X-Lang"));
+
+        headers.put(HeaderNames.ACCEPT, MimeTypes.JSON);
+        headers.put("X-Lang", "fr");
+        assertThat(content(interceptor.call(cached, context))).isEqualTo("Result-1");
+        assertThat(content(interceptor.call(cached, context))).isEqualTo("Result-1");
+
+        headers.put("X-Lang", "en");
+        assertThat(content(interceptor.call(cached, context))).isEqualTo("Result-2");
+        assertThat(content(interceptor.call(cached, context))).isEqualTo("Result-2");
+
+        headers.put(HeaderNames.ACCEPT, MimeTypes.XML);
+        assertThat(content(interceptor.call(cached, context))).isEqualTo("Result-3");
+
+        headers.put(HeaderNames.ACCEPT, MimeTypes.JSON);
+        headers.put("X-Lang", "fr");
+        assertThat(content(interceptor.call(cached, context))).isEqualTo("Result-1");
+        assertThat(counter.get()).isEqualTo(3);
+    }
+
+    @Test
+    public void testVaryStarIsNotCached() throws Exception {
+        CachedActionInterceptor interceptor = interceptor(new DummyCache());
+        Cached cached = cached("key", 10);
+
+        RequestContext context = context("/", new HashMap<String, String>());
+        when(context.proceed()).thenReturn(Results.ok("Result").with(HeaderNames.VARY, "*"));
+
+        interceptor.call(cached, context);
+        interceptor.call(cached, context);
+        verify(context, times(2)).proceed();
+        // The key is marked, so the next requests do not wait for each other.
+        assertThat((DummyCache) interceptor.cache).containsOnly(entry("key|", CachedActionInterceptor.NOT_CACHEABLE));
+    }
+
+    @Test
+    public void testResultsWithCookiesOrAsyncAreNotCached() throws Exception {
+        CachedActionInterceptor interceptor = interceptor(new DummyCache());
+        Cached cached = cached("key", 10);
+
+        RequestContext context = context("/", new HashMap<String, String>());
+        final Result withCookie = Results.ok("Result").with(Cookie.cookie("user", "me").build());
+        when(context.proceed()).thenReturn(withCookie);
+        assertThat(interceptor.call(cached, context)).isSameAs(withCookie);
+
+        final Result async = Results.async(() -> Results.ok("Result"));
+        when(context.proceed()).thenReturn(async);
+        assertThat(interceptor.call(cached, context)).isSameAs(async);
+
+        final Result error = Results.internalServerError("Boom");
+        when(context.proceed()).thenReturn(error);
+        assertThat(interceptor.call(cached, context)).isSameAs(error);
+
+        // The key is marked, so the next requests do not wait for each other.
+        assertThat((DummyCache) interceptor.cache).containsOnly(entry("key|", CachedActionInterceptor.NOT_CACHEABLE));
+    }
+
+    @Test
+    public void testCompressedCopy() throws Exception {
+        CachedActionInterceptor interceptor = interceptor(new DummyCache());
+        Cached cached = cached("key", 10);
+        when(cached.compress()).thenReturn(true);
+
+        Map<String, String> headers = new HashMap<>();
+        RequestContext context = context("/", headers);
+        when(context.proceed()).thenReturn(Results.ok("Result"));
+
+        Result result = interceptor.call(cached, context);
+        assertThat(content(result)).isEqualTo("Result");
+        assertThat(result.getHeaders()).doesNotContainKey(HeaderNames.CONTENT_ENCODING);
+        assertThat(result.getHeaders().get(HeaderNames.VARY)).isEqualTo(HeaderNames.ACCEPT_ENCODING);
+
+        headers.put(HeaderNames.ACCEPT_ENCODING, "deflate, gzip");
+        result = interceptor.call(cached, context);
+        assertThat(result.getHeaders().get(HeaderNames.CONTENT_ENCODING)).isEqualTo("gzip");
+        assertThat(result.getHeaders().get(HeaderNames.X_WISDOM_DISABLED_ENCODING_HEADER)).isEqualTo("true");
+        assertThat(gunzip((byte[]) result.getRenderable().content())).isEqualTo("Result");
+
+        headers.put(HeaderNames.ACCEPT_ENCODING, "gzip;q=0");
+        result = interceptor.call(cached, context);
+        assertThat(content(result)).isEqualTo("Result");
+        verify(context, times(1)).proceed();
+    }
+
+    @Test
+    public void testAcceptsGzip() {
+        assertThat(CachedActionInterceptor.acceptsGzip(null)).isFalse();
+        assertThat(CachedActionInterceptor.acceptsGzip("deflate")).isFalse();
+        assertThat(CachedActionInterceptor.acceptsGzip("gzip")).isTrue();
+        assertThat(CachedActionInterceptor.acceptsGzip("deflate, GZIP;q=0.5")).isTrue();
+        assertThat(CachedActionInterceptor.acceptsGzip("gzip;q=0.0")).isFalse();
+        assertThat(CachedActionInterceptor.acceptsGzip("*")).isTrue();
+    }
+
+    @Test
+    public void testConcurrentMissesAreCoalesced() throws Exception {
+        final CachedActionInterceptor interceptor = interceptor(new DummyCache());
+        final Cached cached = cached("key", 10);
+
+        final AtomicInteger invocations = new AtomicInteger();
+        final CountDownLatch release = new CountDownLatch(1);
+        final int clients = 20;
+        ExecutorService executor = Executors.newFixedThreadPool(clients);
+        try {
+            Future<?>[] futures = new Future[clients];
+            for (int i = 0; i < clients; i++) {
+                final RequestContext context = context("/", new HashMap<String, String>());
+                when(context.proceed()).then(invocation -> {
+                    invocations.incrementAndGet();
+                    release.await(10, TimeUnit.SECONDS);
+                    return Results.ok("Result");
+                });
+                futures[i] = executor.submit(() -> content(interceptor.call(cached, context)));
+            }
+            // Let the requests reach the interceptor before releasing the computation.
+            Thread.sleep(200);
+            release.countDown();
+            for (Future<?> future : futures) {
+                assertThat(future.get(10, TimeUnit.SECONDS)).isEqualTo("Result");
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        assertThat(invocations.get()).isEqualTo(1);
+    }
+
+    @Test
+    public void testWaitersOfNonBlockingRoutesAreNotBlocked() throws Exception {
+        final CachedActionInterceptor interceptor = interceptor(new DummyCache());
+        final Cached cached = cached("key", 10);
+        Route route = new RouteBuilder().route(HttpMethod.GET).on("/").to(new NonBlockingController(), "slow");
+        assertThat(route.isNonBlocking()).isTrue();
+
+        final CountDownLatch computing = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        final RequestContext loading = context("/", new HashMap<String, String>());
+        when(loading.route()).thenReturn(route);
+        when(loading.proceed()).then(invocation -> {
+            computing.countDown();
+            release.await(10, TimeUnit.SECONDS);
+            return Results.ok("Result");
+        });
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<String> first = executor.submit(() -> content(interceptor.call(cached, loading)));
+            assertThat(computing.await(10, TimeUnit.SECONDS)).isTrue();
+
+            // The request arrives while the response is computed, it must not wait for it.
+            RequestContext context = context("/", new HashMap<String, String>());
+            when(context.route()).thenReturn(route);
+            Result result = interceptor.call(cached, context);
+            assertThat(result).isInstanceOf(DeferredResult.class);
+            CompletableFuture<Result> stage = ((DeferredResult) result).stage().toCompletableFuture();
+            assertThat(stage.isDone()).isFalse();
+
+            release.countDown();
+            assertThat(first.get(10, TimeUnit.SECONDS)).isEqualTo("Result");
+            assertThat(content(stage.get(10, TimeUnit.SECONDS))).isEqualTo("Result");
+            verify(context, never()).proceed();
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testWaitersOfNotCacheableResponsesInvokeTheAction() throws Exception {
+        final CachedActionInterceptor interceptor = interceptor(new DummyCache());
+        final Cached cached = cached("key", 10);
+
+        final CountDownLatch computing = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        final RequestContext loading = context("/", new HashMap<String, String>());
+        when(loading.proceed()).then(invocation -> {
+            computing.countDown();
+            release.await(10, TimeUnit.SECONDS);
+            return Results.internalServerError("Boom");
+        });
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<Result> first = executor.submit(() -> interceptor.call(cached, loading));
+            assertThat(computing.await(10, TimeUnit.SECONDS)).isTrue();
+
+            final RequestContext context = context("/", new HashMap<String, String>());
+            final AtomicReference<Context> current = new AtomicReference<>();
+            when(context.proceed()).then(invocation -> {
+                current.set(Context.CONTEXT.get());
+                return Results.ok("Result");
+            });
+            Result result = interceptor.call(cached, context);
+            assertThat(result).isInstanceOf(DeferredResult.class);
+            release.countDown();
+            assertThat(first.get(10, TimeUnit.SECONDS).getStatusCode()).isEqualTo(Status.INTERNAL_SERVER_ERROR);
+
+            // The waiter gets the response of the action, invoked with its own HTTP context.
+            assertThat(content(result)).isEqualTo("Result");
+            assertThat(current.get()).isSameAs(context.context());
+            verify(context, times(1)).proceed();
+
+            // Errors do not mark the key, the response of the waiter is cached.
+            assertThat((Object) interceptor.cache.get("key|")).isInstanceOf(CachedResponse.class);
+            assertThat(content(interceptor.call(cached, context))).isEqualTo("Result");
+            verify(context, times(1)).proceed();
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testWaitersAskingAnotherVariantInvokeTheAction() throws Exception {
+        final CachedActionInterceptor interceptor = interceptor(new DummyCache());
+        final Cached cached = cached("key", 10);
+
+        final CountDownLatch computing = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        final RequestContext french = context("/", ImmutableMap.of("X-Lang", "fr"));
+        when(french.proceed()).then(invocation -> {
+            computing.countDown();
+            release.await(10, TimeUnit.SECONDS);
+            return Results.ok("Bonjour").with(HeaderNames.VARY, "X-Lang");
+        });
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<String> first = executor.submit(() -> content(interceptor.call(cached, french)));
+            assertThat(computing.await(10, TimeUnit.SECONDS)).isTrue();
+
+            // Both requests use the same key, as the response does not vary on X-Lang yet.
+            RequestContext english = context("/", ImmutableMap.of("X-Lang", "en"));
+            when(english.proceed()).thenReturn(Results.ok("Hello").with(HeaderNames.VARY, "X-Lang"));
+            RequestContext otherFrench = context("/", ImmutableMap.of("X-Lang", "fr"));
+            Result hello = interceptor.call(cached, english);
+            Result bonjour = interceptor.call(cached, otherFrench);
+            release.countDown();
+
+            assertThat(first.get(10, TimeUnit.SECONDS)).isEqualTo("Bonjour");
+            assertThat(content(bonjour)).isEqualTo("Bonjour");
+            assertThat(content(hello)).isEqualTo("Hello");
+            verify(english, times(1)).proceed();
+            verify(otherFrench, never()).proceed();
+            assertThat(content(interceptor.call(cached, english))).isEqualTo("Hello");
+            verify(english, times(1)).proceed();
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testNotCacheableMarkerIsShortLived() throws Exception {
+        CachedActionInterceptor interceptor = interceptor(mock(Cache.class));
+        // Cached forever.
+        Cached cached = cached("key", 0);
+
+        RequestContext context = context("/", new HashMap<String, String>());
+        when(context.proceed()).thenReturn(Results.internalServerError("Boom"));
+        interceptor.call(cached, context);
+        verify(interceptor.cache, never()).set(anyString(), any(), any(Duration.class));
+
+        when(context.proceed()).thenReturn(Results.ok("Result").with(HeaderNames.VARY, "*"));
+        interceptor.call(cached, context);
+        verify(interceptor.cache).set("key|", CachedActionInterceptor.NOT_CACHEABLE,
+                CachedActionInterceptor.NOT_CACHEABLE_DURATION);
+    }
+
+    @Test
+    public void testStaleWhileRevalidate() throws Exception {
+        final CachedActionInterceptor interceptor = interceptor(new DummyCache());
+        final Cached cached = cached("key", 10);
+        when(cached.staleWhileRevalidate()).thenReturn(30);
+
+        // An expired response.
+        interceptor.cache.set("key|", new CachedResponse(Status.OK, new HashMap<String, String>(),
+                "Stale".getBytes(StandardCharsets.UTF_8), null, 0L), 40);
+
+        final CountDownLatch computing = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        final RequestContext revalidating = context("/", new HashMap<String, String>());
+        when(revalidating.proceed()).then(invocation -> {
+            computing.countDown();
+            release.await(10, TimeUnit.SECONDS);
+            return Results.ok("Fresh");
+        });
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<String> first = executor.submit(() -> content(interceptor.call(cached, revalidating)));
+            assertThat(computing.await(10, TimeUnit.SECONDS)).isTrue();
+
+            // While the response is recomputed, the stale response is returned.
+            RequestContext context = context("/", new HashMap<String, String>());
+            assertThat(content(interceptor.call(cached, context))).isEqualTo("Stale");
+            verify(context, never()).proceed();
+
+            release.countDown();
+            assertThat(first.get(10, TimeUnit.SECONDS)).isEqualTo("Fresh");
+            assertThat(content(interceptor.call(cached, context))).isEqualTo("Fresh");
+            verify(context, never()).proceed();
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testExpiredResponsesAreRecomputedWithoutStaleWindow() throws Exception {
+        CachedActionInterceptor interceptor = interceptor(new DummyCache());
+        Cached cached = cached("key", 10);
+
+        interceptor.cache.set("key|", new CachedResponse(Status.OK, new HashMap<String, String>(),
+                "Stale".getBytes(StandardCharsets.UTF_8), null, 0L), 10);
+        RequestContext context = context("/", new HashMap<String, String>());
+        when(context.proceed()).thenReturn(Results.ok("Fresh"));
+        assertThat(content(interceptor.call(cached, context))).isEqualTo("Fresh");
     }
 
     @Test
@@ -156,11 +499,8 @@ public class CachedActionInterceptorTest {
         svc.configuration = configuration;
         svc.start();
 
-        final CachedActionInterceptor interceptor = new CachedActionInterceptor();
-        interceptor.cache = svc;
-        final Cached cached = mock(Cached.class);
-        when(cached.duration()).thenReturn(10);
-        when(cached.key()).thenReturn("key");
+        final CachedActionInterceptor interceptor = interceptor(svc);
+        final Cached cached = cached("key", 10);
 
         CountDownLatch startSignal = new CountDownLatch(1);
         final int client = 100;
@@ -173,16 +513,11 @@ public class CachedActionInterceptorTest {
                 @Override
                 public void run() {
                     try {
-                        RequestContext context = mock(RequestContext.class);
-                        when(context.request()).thenReturn(mock(Request.class));
-                        Context ctx = mock(Context.class);
-                        when(context.context()).thenReturn(ctx);
-                        when(context.context().header(anyString())).thenReturn(null);
-                        final Result r = Results.ok("Result");
-                        when(context.proceed()).thenReturn(r);
+                        RequestContext context = context("/", new HashMap<String, String>());
+                        when(context.proceed()).thenReturn(Results.ok("Result"));
                         Result result = interceptor.call(cached, context);
 
-                        if (! result.getRenderable().content().equals("Result")) {
+                        if (! content(result).equals("Result")) {
                             counter.getAndIncrement();
                         }
                     } catch (Exception e) {
@@ -198,12 +533,63 @@ public class CachedActionInterceptorTest {
 
         assertThat(counter.get()).isEqualTo(0);
 
-        svc.remove("key");
+        svc.remove("key|");
 
         svc.stop();
     }
 
-    private class DummyCache extends TreeMap<String, Object> implements Cache {
+    private CachedActionInterceptor interceptor(Cache cache) {
+        CachedActionInterceptor interceptor = new CachedActionInterceptor();
+        interceptor.cache = cache;
+        interceptor.engine = mock(ContentEngine.class);
+        interceptor.executor = mock(ManagedExecutorService.class);
+        doAnswer(invocation -> {
+            new Thread((Runnable) invocation.getArguments()[0]).start();
+            return null;
+        }).when(interceptor.executor).execute(any(Runnable.class));
+        return interceptor;
+    }
+
+    private Cached cached(String key, int duration) {
+        Cached cached = mock(Cached.class);
+        when(cached.duration()).thenReturn(duration);
+        when(cached.key()).thenReturn(key);
+        return cached;
+    }
+
+    private RequestContext context(String uri, final Map<String, String> headers) {
+        RequestContext context = mock(RequestContext.class);
+        Request request = mock(Request.class);
+        when(request.uri()).thenReturn(uri);
+        when(context.request()).thenReturn(request);
+        Context ctx = mock(Context.class);
+        when(ctx.request()).thenReturn(request);
+        when(context.context()).thenReturn(ctx);
+        when(ctx.header(anyString())).then(invocation -> headers.get((String) invocation.getArguments()[0]));
+        return context;
+    }
+
+    private static String content(Result result) throws Exception {
+        if (result instanceof DeferredResult) {
+            return content(((DeferredResult) result).stage().toCompletableFuture().get(10, TimeUnit.SECONDS));
+        }
+        return new String((byte[]) result.getRenderable().content(), StandardCharsets.UTF_8);
+    }
+
+    private static String gunzip(byte[] bytes) throws IOException {
+        try (GZIPInputStream stream = new GZIPInputStream(new ByteArrayInputStream(bytes))) {
+            return new String(IOUtils.toByteArray(stream), StandardCharsets.UTF_8);
+        }
+    }
+
+    private static class NonBlockingController extends DefaultController {
+        @NonBlocking
+        public Result slow() {
+            return ok();
+        }
+    }
+
+    private class DummyCache extends ConcurrentHashMap<String, Object> implements Cache {
         @Override
         public void set(String key, Object value, int expiration) {
             put(key, value);
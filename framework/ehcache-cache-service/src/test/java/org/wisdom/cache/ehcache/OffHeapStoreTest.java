@@ -0,0 +1,142 @@
+/*
+ * #%L
+ * Wisdom-Framework
+ * %%
+ * Copyright (C) 2013 - 2014 Wisdom Framework
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.wisdom.cache.ehcache;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Checks the off-heap store.
+ */
+public class OffHeapStoreTest {
+
+    private static final long ETERNAL = Long.MAX_VALUE;
+
+    @Test
+    public void testPutAndTake() {
+        OffHeapStore store = new OffHeapStore(1024 * 1024);
+        byte[] value = bytes(3 * OffHeapStore.BLOCK_SIZE + 17, (byte) 7);
+        assertThat(store.put("key", value, ETERNAL)).isEmpty();
+        assertThat(store.put("empty", new byte[0], ETERNAL)).isEmpty();
+        assertThat(store.size()).isEqualTo(2);
+        assertThat(store.usedBytes()).isEqualTo(5 * OffHeapStore.BLOCK_SIZE);
+
+        OffHeapStore.Entry entry = store.take("key", System.currentTimeMillis());
+        assertThat(entry.key).isEqualTo("key");
+        assertThat(entry.value).isEqualTo(value);
+        assertThat(entry.expiration).isEqualTo(ETERNAL);
+        assertThat(store.take("empty", System.currentTimeMillis()).value).isEmpty();
+
+        // Taken entries are removed.
+        assertThat(store.take("key", System.currentTimeMillis())).isNull();
+        assertThat(store.size()).isEqualTo(0);
+        assertThat(store.usedBytes()).isEqualTo(0);
+    }
+
+    @Test
+    public void testReplaceAndRemove() {
+        OffHeapStore store = new OffHeapStore(1024 * 1024);
+        store.put("key", bytes(2000, (byte) 1), ETERNAL);
+        store.put("key", bytes(10, (byte) 2), ETERNAL);
+        assertThat(store.size()).isEqualTo(1);
+        assertThat(store.usedBytes()).isEqualTo(OffHeapStore.BLOCK_SIZE);
+
+        assertThat(store.remove("key")).isTrue();
+        assertThat(store.remove("key")).isFalse();
+        assertThat(store.take("key", System.currentTimeMillis())).isNull();
+    }
+
+    @Test
+    public void testExpiredEntriesAreNotReturned() {
+        OffHeapStore store = new OffHeapStore(1024 * 1024);
+        long now = System.currentTimeMillis();
+        store.put("key", bytes(10, (byte) 1), now + 1000);
+        assertThat(store.take("key", now + 1000)).isNull();
+        assertThat(store.size()).isEqualTo(0);
+    }
+
+    @Test
+    public void testLeastRecentlyUsedEntriesAreEvicted() {
+        // A single segment of 8 blocks.
+        OffHeapStore store = new OffHeapStore(8 * OffHeapStore.BLOCK_SIZE);
+        int size = 2 * OffHeapStore.BLOCK_SIZE;
+        for (int i = 0; i < 4; i++) {
+            assertThat(store.put("key-" + i, bytes(size, (byte) i), ETERNAL)).isEmpty();
+        }
+        // Use key-0, so key-1 becomes the least recently used.
+        store.put("key-0", store.take("key-0", System.currentTimeMillis()).value, ETERNAL);
+
+        List<OffHeapStore.Entry> evicted = store.put("key-4", bytes(size, (byte) 4), ETERNAL);
+        assertThat(evicted).hasSize(1);
+        assertThat(evicted.get(0).key).isEqualTo("key-1");
+        assertThat(evicted.get(0).value).isEqualTo(bytes(size, (byte) 1));
+
+        for (int i : new int[]{0, 2, 3, 4}) {
+            assertThat(store.take("key-" + i, System.currentTimeMillis()).value).isEqualTo(bytes(size, (byte) i));
+        }
+    }
+
+    @Test
+    public void testValuesLargerThanASegmentAreRejected() {
+        OffHeapStore store = new OffHeapStore(4 * OffHeapStore.BLOCK_SIZE);
+        byte[] value = bytes(5 * OffHeapStore.BLOCK_SIZE, (byte) 1);
+        List<OffHeapStore.Entry> rejected = store.put("key", value, ETERNAL);
+        assertThat(rejected).hasSize(1);
+        assertThat(rejected.get(0).value).isSameAs(value);
+        assertThat(store.size()).isEqualTo(0);
+    }
+
+    @Test
+    public void testClear() {
+        OffHeapStore store = new OffHeapStore(1024 * 1024);
+        for (int i = 0; i < 100; i++) {
+            store.put("key-" + i, bytes(i * 10, (byte) i), ETERNAL);
+        }
+        assertThat(store.size()).isEqualTo(100);
+        store.clear();
+        assertThat(store.size()).isEqualTo(0);
+        assertThat(store.usedBytes()).isEqualTo(0);
+    }
+
+    @Test
+    public void testClosedStoresRejectValues() {
+        OffHeapStore store = new OffHeapStore(1024 * 1024);
+        store.put("key", bytes(10, (byte) 1), ETERNAL);
+        store.close();
+        assertThat(store.size()).isEqualTo(0);
+        assertThat(store.take("key", System.currentTimeMillis())).isNull();
+
+        byte[] value = bytes(10, (byte) 2);
+        List<OffHeapStore.Entry> rejected = store.put("other", value, ETERNAL);
+        assertThat(rejected).hasSize(1);
+        assertThat(rejected.get(0).value).isSameAs(value);
+        assertThat(store.size()).isEqualTo(0);
+    }
+
+    private static byte[] bytes(int size, byte value) {
+        byte[] bytes = new byte[size];
+        Arrays.fill(bytes, value);
+        return bytes;
+    }
+}
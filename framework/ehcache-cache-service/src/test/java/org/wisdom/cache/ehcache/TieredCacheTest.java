@@ -0,0 +1,329 @@
+/*
+ * #%L
+ * Wisdom-Framework
+ * %%
+ * Copyright (C) 2013 - 2014 Wisdom Framework
+ * %%
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * #L%
+ */
+package org.wisdom.cache.ehcache;
+
+import org.joda.time.Duration;
+import org.junit.After;
+import org.junit.Test;
+import org.osgi.framework.BundleContext;
+import org.wisdom.api.cache.Cache;
+import org.wisdom.api.cache.CacheStatistics;
+import org.wisdom.api.concurrent.ManagedExecutorService;
+import org.wisdom.api.configuration.ApplicationConfiguration;
+import org.wisdom.api.configuration.Configuration;
+
+import java.io.IOException;
+import java.io.Serializable;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.entry;
+import static org.junit.Assert.fail;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.argThat;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Checks the named caches and their off-heap and disk tiers.
+ */
+public class TieredCacheTest {
+
+    private EhCacheService svc;
+
+    private final ExecutorService pool = Executors.newFixedThreadPool(4);
+
+    @After
+    public void tearDown() {
+        if (svc != null) {
+            svc.stop();
+        }
+        pool.shutdownNow();
+    }
+
+    @Test
+    public void testNamedCachesAreRegistered() {
+        Cache cache = start("fragments", 10, 0, 0);
+
+        assertThat(cache.name()).isEqualTo("fragments");
+        assertThat(svc.name()).isEqualTo(Cache.DEFAULT);
+        verify(svc.context).registerService(eq(Cache.class), eq((Cache) svc),
+                argThat(new NameMatcher(Cache.DEFAULT)));
+        verify(svc.context).registerService(eq(Cache.class), eq(cache), argThat(new NameMatcher("fragments")));
+
+        // The caches are independent.
+        cache.set("key", "fragment", 0);
+        svc.set("key", "default", 0);
+        assertThat(cache.<String>get("key")).isEqualTo("fragment");
+        assertThat(svc.<String>get("key")).isEqualTo("default");
+    }
+
+    @Test
+    public void testEntriesMoveToTheOffHeapTier() {
+        Cache cache = start("fragments", 2, 1024 * 1024, 0);
+        for (int i = 0; i < 20; i++) {
+            cache.set("key-" + i, "value-" + i, 0);
+        }
+        CacheStatistics statistics = cache.statistics();
+        assertThat(statistics.getOffHeapEntries()).isGreaterThan(0);
+        assertThat(statistics.getOffHeapBytes()).isGreaterThan(0);
+        assertThat(statistics.getHeapEntries() + statistics.getOffHeapEntries()).isEqualTo(20);
+        assertThat(statistics.getEvictionCount()).isEqualTo(0);
+
+        for (int i = 0; i < 20; i++) {
+            assertThat(cache.<String>get("key-" + i)).isEqualTo("value-" + i);
+        }
+        assertThat(cache.statistics().getHitCount()).isEqualTo(20);
+
+        cache.set("object", new Fragment("content"), 0);
+        cache.set("bytes", new byte[]{1, 2, 3}, 0);
+        for (int i = 0; i < 20; i++) {
+            cache.get("key-" + i);
+        }
+        assertThat(cache.<Fragment>get("object").content).isEqualTo("content");
+        assertThat(cache.<byte[]>get("bytes")).containsExactly(new byte[]{1, 2, 3});
+    }
+
+    @Test
+    public void testEntriesOverflowToDisk() {
+        // The off-heap tier holds 2 entries, the others go to disk.
+        Cache cache = start("fragments", 1, 2 * OffHeapStore.BLOCK_SIZE, 10 * 1024 * 1024);
+        for (int i = 0; i < 10; i++) {
+            cache.set("key-" + i, "value-" + i, 0);
+        }
+        assertThat(cache.statistics().getDiskEntries()).isGreaterThan(0);
+        for (int i = 0; i < 10; i++) {
+            assertThat(cache.<String>get("key-" + i)).isEqualTo("value-" + i);
+        }
+        assertThat(cache.statistics().getEvictionCount()).isEqualTo(0);
+
+        assertThat(cache.remove("key-0")).isTrue();
+        assertThat(cache.<String>get("key-0")).isNull();
+    }
+
+    @Test
+    public void testUnserializableValuesAreEvicted() {
+        Cache cache = start("fragments", 1, 1024 * 1024, 0);
+        cache.set("key-1", new Object(), 0);
+        cache.set("key-2", new Object(), 0);
+        cache.set("key-3", new Object(), 0);
+        CacheStatistics statistics = cache.statistics();
+        assertThat(statistics.getEvictionCount()).isGreaterThan(0);
+        assertThat(statistics.getOffHeapEntries()).isEqualTo(0);
+    }
+
+    @Test
+    public void testStatistics() {
+        Cache cache = start("fragments", 10, 0, 0);
+        cache.set("key", "value", 0);
+        cache.get("key");
+        cache.get("key");
+        cache.get("missing");
+        CacheStatistics statistics = cache.statistics();
+        assertThat(statistics.getHitCount()).isEqualTo(2);
+        assertThat(statistics.getMissCount()).isEqualTo(1);
+        assertThat(statistics.getHitRatio()).isEqualTo(2.0 / 3.0);
+        assertThat(statistics.getHeapEntries()).isEqualTo(1);
+    }
+
+    @Test
+    public void testExpirationIsKeptOutOfTheHeap() throws InterruptedException {
+        Cache cache = start("fragments", 1, 1024 * 1024, 0);
+        cache.set("key-1", "value", 1);
+        cache.set("key-2", "value", 0);
+        cache.set("key-3", "value", 0);
+        Thread.sleep(1500);
+        assertThat(cache.<String>get("key-1")).isNull();
+    }
+
+    @Test
+    public void testBulkOperations() {
+        Cache cache = start("fragments", 2, 1024 * 1024, 0);
+        Map<String, String> entries = new LinkedHashMap<>();
+        for (int i = 0; i < 5; i++) {
+            entries.put("key-" + i, "value-" + i);
+        }
+        cache.setAll(entries, null);
+
+        // Some entries are off-heap, they are promoted.
+        Map<String, String> values = cache.getAll(Arrays.asList("key-0", "key-2", "key-4", "missing"));
+        assertThat(values).containsExactly(entry("key-0", "value-0"), entry("key-2", "value-2"),
+                entry("key-4", "value-4"));
+        assertThat(cache.statistics().getHitCount()).isEqualTo(3);
+        assertThat(cache.statistics().getMissCount()).isEqualTo(1);
+
+        cache.removeAll(Arrays.asList("key-0", "key-1", "key-2", "key-3"));
+        assertThat(cache.getAll(entries.keySet())).containsOnlyKeys("key-4");
+        assertThat(cache.statistics().getOffHeapEntries()).isEqualTo(0);
+    }
+
+    @Test
+    public void testLoaderIsInvokedOnceForConcurrentCalls() throws Exception {
+        Cache cache = start("fragments", 10, 0, 0);
+        AtomicInteger invocations = new AtomicInteger();
+        CountDownLatch latch = new CountDownLatch(1);
+        Callable<String> loader = () -> {
+            invocations.incrementAndGet();
+            latch.await();
+            return "computed";
+        };
+        List<Future<String>> results = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            results.add(pool.submit(() -> cache.get("key", loader)));
+        }
+        // Let the callers reach the loader or wait for it.
+        Thread.sleep(200);
+        latch.countDown();
+        for (Future<String> result : results) {
+            assertThat(result.get(5, TimeUnit.SECONDS)).isEqualTo("computed");
+        }
+        assertThat(invocations.get()).isEqualTo(1);
+        assertThat(cache.<String>get("key")).isEqualTo("computed");
+        assertThat(cache.get("key", () -> "other")).isEqualTo("computed");
+    }
+
+    @Test
+    public void testLoaderFailure() throws Exception {
+        Cache cache = start("fragments", 10, 0, 0);
+        try {
+            cache.get("key", () -> {
+                throw new IOException("boom");
+            });
+            fail("ExecutionException expected");
+        } catch (ExecutionException e) {
+            assertThat(e.getCause()).isInstanceOf(IOException.class).hasMessage("boom");
+        }
+        // Nothing is cached, and the next call invokes the loader again.
+        assertThat(cache.<String>get("key")).isNull();
+        assertThat(cache.get("key", () -> "value")).isEqualTo("value");
+        // Null values are not cached.
+        assertThat(cache.<String>get("null", () -> null)).isNull();
+        assertThat(cache.<String>get("null")).isNull();
+    }
+
+    @Test
+    public void testReentrantLoaderFails() throws Exception {
+        Cache cache = start("fragments", 10, 0, 0);
+        try {
+            cache.get("key", () -> cache.get("key", () -> "inner"));
+            fail("ExecutionException expected");
+        } catch (ExecutionException e) {
+            assertThat(e.getCause()).isInstanceOf(IllegalStateException.class);
+        }
+        assertThat(cache.<String>get("key")).isNull();
+
+        CompletableFuture<String> async = cache.<String>getAsync("async", null,
+                () -> cache.<String>getAsync("async", null, () -> "inner").toCompletableFuture().get())
+                .toCompletableFuture();
+        try {
+            async.get(5, TimeUnit.SECONDS);
+            fail("ExecutionException expected");
+        } catch (ExecutionException e) {
+            assertThat(e.getCause()).isInstanceOf(IllegalStateException.class);
+        }
+
+        // Other keys can be loaded from a loader.
+        assertThat(cache.get("outer", () -> cache.get("inner", () -> "inner") + "-outer")).isEqualTo("inner-outer");
+    }
+
+    @Test
+    public void testAsynchronousOperations() throws Exception {
+        Cache cache = start("fragments", 10, 0, 0);
+        cache.setAsync("key", "value", Duration.standardMinutes(1)).toCompletableFuture().get(5, TimeUnit.SECONDS);
+        assertThat(cache.<String>getAsync("key").toCompletableFuture().get(5, TimeUnit.SECONDS)).isEqualTo("value");
+        assertThat(cache.<String>getAllAsync(Arrays.asList("key", "missing")).toCompletableFuture()
+                .get(5, TimeUnit.SECONDS)).containsOnlyKeys("key");
+
+        AtomicInteger invocations = new AtomicInteger();
+        CompletableFuture<String> first = cache.<String>getAsync("loaded", null, () -> {
+            invocations.incrementAndGet();
+            Thread.sleep(100);
+            return "computed";
+        }).toCompletableFuture();
+        CompletableFuture<String> second = cache.<String>getAsync("loaded", null, () -> {
+            invocations.incrementAndGet();
+            return "other";
+        }).toCompletableFuture();
+        assertThat(first.get(5, TimeUnit.SECONDS)).isEqualTo("computed");
+        assertThat(second.get(5, TimeUnit.SECONDS)).isEqualTo("computed");
+        assertThat(invocations.get()).isEqualTo(1);
+
+        CompletableFuture<String> failed = cache.<String>getAsync("failed", null, () -> {
+            throw new IOException("boom");
+        }).toCompletableFuture();
+        try {
+            failed.get(5, TimeUnit.SECONDS);
+            fail("ExecutionException expected");
+        } catch (ExecutionException e) {
+            assertThat(e.getCause()).isInstanceOf(IOException.class);
+        }
+
+        assertThat(cache.removeAsync("key").toCompletableFuture().get(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(cache.<String>get("key")).isNull();
+    }
+
+    private Cache start(String name, int heap, long offHeap, long disk) {
+        Configuration conf = mock(Configuration.class);
+        when(conf.getInteger("heap")).thenReturn(heap);
+        when(conf.getBytes("off-heap", 0)).thenReturn(offHeap);
+        when(conf.getBytes("disk", 0)).thenReturn(disk);
+        Configuration caches = mock(Configuration.class);
+        when(caches.asMap()).thenReturn(Collections.<String, Object>singletonMap(name, Collections.emptyMap()));
+        when(caches.getConfiguration(name)).thenReturn(conf);
+
+        ApplicationConfiguration configuration = mock(ApplicationConfiguration.class);
+        when(configuration.getBooleanWithDefault("ehcache.enabled", true)).thenReturn(true);
+        when(configuration.getConfiguration("ehcache.caches")).thenReturn(caches);
+        svc = new EhCacheService();
+        svc.configuration = configuration;
+        svc.context = mock(BundleContext.class);
+        svc.executor = mock(ManagedExecutorService.class);
+        doAnswer(invocation -> {
+            pool.execute((Runnable) invocation.getArguments()[0]);
+            return null;
+        }).when(svc.executor).execute(any(Runnable.class));
+        svc.start();
+
+        return svc.caches.get(1);
+    }
+
+    private static class Fragment implements Serializable {
+        final String content;
+
+        Fragment(String content) {
+            this.content = content;
+        }
+    }
+
+    private static class NameMatcher extends org.mockito.ArgumentMatcher<Dictionary<String, ?>> {
+        private final String name;
+
+        NameMatcher(String name) {
+            this.name = name;
+        }
+
+        @Override
+        public boolean matches(Object argument) {
+            return argument instanceof Dictionary && name.equals(((Dictionary) argument).get(Cache.NAME_PROPERTY));
+        }
+    }
+}